@@ -28,6 +28,7 @@ import static org.corehunter.tests.TestData.NAME;
 import static org.corehunter.tests.TestData.PHENOTYPIC_TRAIT_FEATURES;
 import static org.corehunter.tests.TestData.PHENOTYPIC_TRAIT_VALUES_WITH_HEADERS;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -40,9 +41,12 @@ import java.util.Collections;
 import org.corehunter.CoreHunter;
 import org.corehunter.CoreHunterArguments;
 import org.corehunter.CoreHunterExecutionMode;
+import org.corehunter.CoreHunterListener;
 import org.corehunter.CoreHunterMeasure;
 import org.corehunter.CoreHunterObjective;
 import org.corehunter.CoreHunterObjectiveType;
+import org.corehunter.Range;
+import org.corehunter.SimpleNormalizationRangeCache;
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.data.DistanceMatrixData;
 import org.corehunter.data.PhenotypeData;
@@ -55,6 +59,7 @@ import org.corehunter.objectives.AverageEntryToNearestEntry;
 import org.corehunter.objectives.HeterozygousLoci;
 import org.corehunter.objectives.distance.measures.GowerDistance;
 import org.corehunter.objectives.distance.measures.PrecomputedDistance;
+import org.corehunter.search.ParetoArchive;
 import org.jamesframework.core.problems.objectives.Objective;
 import org.jamesframework.core.search.Search;
 import org.jamesframework.core.search.algo.exh.ExhaustiveSearch;
@@ -126,6 +131,129 @@ public class ITCorehunter {
 
     }
     
+    /*
+     * Test execution with automatic parallel tempering settings.
+     */
+    @Test
+    public void testAutomaticParallelTempering() {
+        
+        System.out.println(" - sample from distance matrix with automatic replicas (2 sec time limit)");
+
+        CoreHunterData data = DISTANCES_DATA;
+        
+        int size = 2;
+        int time = 2 * SECOND;
+
+        // run Core Hunter
+        CoreHunterArguments arguments = 
+                new CoreHunterArguments(data, size, 
+                        CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, 
+                        CoreHunterMeasure.PRECOMPUTED_DISTANCE);
+        CoreHunter corehunter = new CoreHunter();
+        corehunter.setTimeLimit(time);
+        corehunter.setNumReplicas(CoreHunter.AUTO_NUM_REPLICAS);
+        corehunter.setReplicaSteps(100);
+        corehunter.setTemperatureRange(1e-9, 1e-3);
+        Assert.assertTrue(corehunter.isAutomaticNumReplicas());
+        Assert.assertTrue(corehunter.getNumReplicas() >= Runtime.getRuntime().availableProcessors());
+        SubsetSolution result = corehunter.execute(arguments);
+
+        // compare with optimal solution
+        Objective<SubsetSolution, CoreHunterData> obj = new AverageEntryToNearestEntry(new PrecomputedDistance());
+        Assert.assertEquals(getOptimalSolution(data, obj, size), result);
+
+    }
+    
+    /*
+     * Test execution with parallel random descents in fast mode.
+     */
+    @Test
+    public void testParallelRandomDescent() {
+        
+        System.out.println(" - sample from distance matrix with parallel random descents (fast mode)");
+
+        CoreHunterData data = DISTANCES_DATA;
+        
+        int size = 2;
+
+        // run Core Hunter
+        CoreHunterArguments arguments = 
+                new CoreHunterArguments(data, size, 
+                        CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, 
+                        CoreHunterMeasure.PRECOMPUTED_DISTANCE);
+        CoreHunter corehunter = new CoreHunter(CoreHunterExecutionMode.FAST);
+        corehunter.setNumRandomDescents(CoreHunter.AUTO_NUM_RANDOM_DESCENTS);
+        Assert.assertEquals(Runtime.getRuntime().availableProcessors(), corehunter.getNumRandomDescents());
+        SubsetSolution result = corehunter.execute(arguments);
+
+        // compare with optimal solution
+        Objective<SubsetSolution, CoreHunterData> obj = new AverageEntryToNearestEntry(new PrecomputedDistance());
+        Assert.assertEquals(getOptimalSolution(data, obj, size), result);
+
+    }
+    
+    /*
+     * Test execution in island mode.
+     */
+    @Test
+    public void testIslands() {
+        
+        System.out.println(" - sample from distance matrix in island mode (2 sec time limit)");
+
+        CoreHunterData data = DISTANCES_DATA;
+        
+        int size = 2;
+        int time = 2 * SECOND;
+
+        // run Core Hunter
+        CoreHunterArguments arguments = 
+                new CoreHunterArguments(data, size, 
+                        CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, 
+                        CoreHunterMeasure.PRECOMPUTED_DISTANCE);
+        CoreHunter corehunter = new CoreHunter(CoreHunterExecutionMode.ISLANDS);
+        corehunter.setTimeLimit(time);
+        corehunter.setNumIslands(3);
+        corehunter.setNumReplicas(4);
+        corehunter.setMigrationInterval(2);
+        SubsetSolution result = corehunter.execute(arguments);
+
+        // compare with optimal solution
+        Objective<SubsetSolution, CoreHunterData> obj = new AverageEntryToNearestEntry(new PrecomputedDistance());
+        Assert.assertEquals(getOptimalSolution(data, obj, size), result);
+
+        // automatic settings divide the processors among islands
+        CoreHunter auto = new CoreHunter(CoreHunterExecutionMode.ISLANDS);
+        auto.setNumReplicas(CoreHunter.AUTO_NUM_REPLICAS);
+        int processors = Runtime.getRuntime().availableProcessors();
+        Assert.assertTrue(auto.getNumIslands() * auto.getNumReplicas() <= Math.max(processors, 4));
+
+    }
+    
+    /*
+     * Test reproducibility of parallel random descents with step-based stop conditions.
+     */
+    @Test
+    public void testParallelRandomDescentReproducible() {
+        
+        System.out.println(" - reproducible parallel random descents (fast mode)");
+
+        CoreHunterArguments arguments = 
+                new CoreHunterArguments(GENOTYPES_DATA, 3, 
+                        CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, 
+                        CoreHunterMeasure.MODIFIED_ROGERS);
+        List<SubsetSolution> results = new ArrayList<>();
+        for(int i = 0; i < 2; i++){
+            CoreHunter corehunter = new CoreHunter(CoreHunterExecutionMode.FAST);
+            corehunter.setNumRandomDescents(4);
+            corehunter.setMaxSteps(5);
+            corehunter.setSeed(42);
+            results.add(corehunter.execute(arguments));
+        }
+        
+        Assert.assertEquals(results.get(0), results.get(1));
+
+    }
+    
     @Test
     public void testMultiObjectiveConfiguration(){
         
@@ -290,6 +418,98 @@ public class ITCorehunter {
         
     }
     
+    /*
+     * Test that parallel precomputation of distances does not affect the result with fixed seed.
+     */
+    @Test
+    public void testLargeGenoPrecomputeDistances() throws IOException{
+        
+        int size = 2;
+        int steps = 5000;
+        
+        System.out.format(
+                " - sample n=%d from large genotype data with precomputed distances (fast, %d steps)%n",
+                size, steps
+        );
+                
+        FrequencyGenotypeData geno = SimpleBiAllelicGenotypeData.readData(
+            Paths.get(ITCorehunter.class.getResource("/biallelic_genotypes/biallelic_genotypes_data.csv").getPath()),
+            FileType.CSV
+        );
+        
+        long seed = 42;
+        
+        List<String> messages = new ArrayList<>();
+        SubsetSolution[] results = new SubsetSolution[2];
+        for(int i = 0; i < 2; i++){
+            // run Core Hunter (fresh data to avoid sharing distance caches)
+            CoreHunterArguments arguments = 
+                    new CoreHunterArguments(new CoreHunterData(geno), size, 
+                            CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, 
+                            CoreHunterMeasure.MODIFIED_ROGERS);
+            CoreHunter corehunter = new CoreHunter(CoreHunterExecutionMode.FAST);
+            corehunter.setMaxSteps(steps);
+            corehunter.setSeed(seed);
+            corehunter.setPrecomputeDistances(i == 1);
+            corehunter.setListener(new CoreHunterListener() {
+                @Override
+                public void preprocessingStarted(String message) {
+                    messages.add(message);
+                }
+            });
+            results[i] = corehunter.execute(arguments);
+        }
+        
+        Assert.assertEquals(results[0], results[1]);
+        Assert.assertEquals(Collections.singletonList("Precomputing distances."), messages);
+        
+    }
+    
+    /*
+     * Test sampling nested cores of several sizes in a single session.
+     */
+    @Test
+    public void testLargeGenoCoreSizeSweep() throws IOException{
+        
+        List<Integer> sizes = Arrays.asList(20, 5, 10);
+        int steps = 500;
+        
+        System.out.format(
+                " - sample nested cores n=%s from large genotype data (fast, %d steps per size)%n",
+                sizes, steps
+        );
+                
+        FrequencyGenotypeData geno = SimpleBiAllelicGenotypeData.readData(
+            Paths.get(ITCorehunter.class.getResource("/biallelic_genotypes/biallelic_genotypes_data.csv").getPath()),
+            FileType.CSV
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        
+        // distance based objective (greedy warm starts) and genotype based objective (objective based warm starts)
+        List<CoreHunterArguments> argumentList = Arrays.asList(
+                new CoreHunterArguments(data, 2, CoreHunterObjectiveType.AV_ACCESSION_TO_NEAREST_ENTRY,
+                                        CoreHunterMeasure.MODIFIED_ROGERS),
+                new CoreHunterArguments(data, 2, Collections.singletonList(
+                        new CoreHunterObjective(CoreHunterObjectiveType.COVERAGE)
+                ))
+        );
+        for(CoreHunterArguments arguments : argumentList){
+            CoreHunter corehunter = new CoreHunter(CoreHunterExecutionMode.FAST);
+            corehunter.setMaxSteps(steps);
+            corehunter.setSeed(42);
+            List<SubsetSolution> cores = corehunter.execute(arguments, sizes, true);
+            
+            // check sizes and nesting
+            Assert.assertEquals(sizes.size(), cores.size());
+            for(int i = 0; i < sizes.size(); i++){
+                Assert.assertEquals(sizes.get(i).intValue(), cores.get(i).getNumSelectedIDs());
+            }
+            Assert.assertTrue(cores.get(2).getSelectedIDs().containsAll(cores.get(1).getSelectedIDs()));
+            Assert.assertTrue(cores.get(0).getSelectedIDs().containsAll(cores.get(2).getSelectedIDs()));
+        }
+        
+    }
+    
     /*
      * Test execution with large genotype data, multiple objectives (not normalized), and fixed seed.
      */
@@ -338,6 +558,62 @@ public class ITCorehunter {
         
     }
     
+    /*
+     * Test approximating the Pareto front with large genotype data and fixed seed.
+     */
+    @Test
+    public void testLargeGenoParetoFront() throws IOException{
+        
+        int size = 5;
+        int steps = 200;
+        int directions = 4;
+        
+        System.out.format(
+            " - approximate Pareto front n=%d from large genotype data with fixed seed (%d directions, %d steps)%n",
+            size, directions, steps
+        );
+        
+        FrequencyGenotypeData geno = SimpleBiAllelicGenotypeData.readData(
+            Paths.get(ITCorehunter.class.getResource("/biallelic_genotypes/biallelic_genotypes_data.csv").getPath()),
+            FileType.CSV
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        
+        List<CoreHunterObjective> objectives = Arrays.asList(
+            new CoreHunterObjective(
+                CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, CoreHunterMeasure.MODIFIED_ROGERS
+            ),
+            new CoreHunterObjective(CoreHunterObjectiveType.COVERAGE)
+        );
+        CoreHunterArguments arguments = new CoreHunterArguments(data, size, objectives);
+        
+        List<List<SubsetSolution>> fronts = new ArrayList<>();
+        for(int i = 0; i < 2; i++){
+            CoreHunter corehunter = new CoreHunter(CoreHunterExecutionMode.FAST);
+            corehunter.setMaxSteps(steps);
+            corehunter.setSeed(42);
+            corehunter.setNumParetoDirections(directions);
+            fronts.add(corehunter.approximateParetoFront(arguments));
+        }
+        
+        // reproducible
+        List<SubsetSolution> front = fronts.get(0);
+        Assert.assertFalse(front.isEmpty());
+        Assert.assertEquals(front, fronts.get(1));
+        
+        // mutually non-dominated (both objectives are maximized)
+        CoreHunter corehunter = new CoreHunter();
+        for(SubsetSolution x : front){
+            Assert.assertEquals(size, x.getNumSelectedIDs());
+            for(SubsetSolution y : front){
+                double[] xValues = objectives.stream().mapToDouble(obj -> corehunter.evaluate(x, data, obj)).toArray();
+                double[] yValues = objectives.stream().mapToDouble(obj -> corehunter.evaluate(y, data, obj)).toArray();
+                Assert.assertFalse(ParetoArchive.dominates(xValues, yValues));
+            }
+        }
+        
+    }
+    
     /*
      * Test execution with large genotype data, multiple objectives (normalized), and fixed seed.
      */
@@ -386,6 +662,73 @@ public class ITCorehunter {
         
     }
     
+    /*
+     * Test stopping an execution from another thread.
+     */
+    @Test
+    public void testLargeGenoStop() throws IOException, InterruptedException{
+        
+        int size = 20;
+        int time = 60 * SECOND;
+        
+        System.out.format(" - stop execution n=%d from large genotype data after 1 second (%d sec time limit)%n",
+                          size, time / SECOND);
+        
+        FrequencyGenotypeData geno = SimpleBiAllelicGenotypeData.readData(
+            Paths.get(ITCorehunter.class.getResource("/biallelic_genotypes/biallelic_genotypes_data.csv").getPath()),
+            FileType.CSV
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        CoreHunterArguments arguments = new CoreHunterArguments(data, size, Arrays.asList(
+                new CoreHunterObjective(
+                        CoreHunterObjectiveType.AV_ENTRY_TO_NEAREST_ENTRY, CoreHunterMeasure.MODIFIED_ROGERS
+                ),
+                new CoreHunterObjective(CoreHunterObjectiveType.COVERAGE)
+        ));
+        
+        // record cached normalization ranges
+        List<String> cachedKeys = Collections.synchronizedList(new ArrayList<>());
+        data.setNormalizationRangeCache(new SimpleNormalizationRangeCache(){
+            @Override
+            public void put(String key, List<Range<Double>> ranges) {
+                cachedKeys.add(key);
+                super.put(key, ranges);
+            }
+        });
+        
+        CoreHunter corehunter = new CoreHunter();
+        corehunter.setTimeLimit(time);
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(SECOND);
+                corehunter.stop();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        
+        // stop while running: returns best solution found so far
+        long start = System.currentTimeMillis();
+        stopper.start();
+        SubsetSolution result = corehunter.execute(arguments);
+        stopper.join();
+        Assert.assertTrue(System.currentTimeMillis() - start < time / 2);
+        Assert.assertNotNull(result);
+        Assert.assertEquals(size, result.getNumSelectedIDs());
+        Assert.assertFalse(corehunter.isStopRequested());
+        // stopped during normalization: ranges not cached
+        Assert.assertTrue(cachedKeys.isEmpty());
+        
+        // stop before execution: terminates right after initialization
+        corehunter.stop();
+        start = System.currentTimeMillis();
+        result = corehunter.execute(arguments);
+        Assert.assertTrue(System.currentTimeMillis() - start < time / 2);
+        Assert.assertEquals(size, result.getNumSelectedIDs());
+        Assert.assertFalse(corehunter.isStopRequested());
+        
+    }
+    
     /*
      * Test execution with phenotype data and always selected IDs.
      */
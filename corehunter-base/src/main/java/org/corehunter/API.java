@@ -409,7 +409,7 @@ public class API {
      * of upper and lower bound are interchanged, and the Pareto maximum is used instead.
      * 
      * @param args Core Hunter arguments including data, objectives and subset size.
-     * @param mode Execution mode, one of "default" or "fast". Only affects the default
+     * @param mode Execution mode, one of "default", "fast" or "islands". Only affects the default
      *             stop conditions, not the used algorithm (always random descent).
      * @param timeLimit Absolute runtime limit in seconds.
      *                  Not used if set to a negative value.
@@ -451,7 +451,7 @@ public class API {
      * Sample a core collection.
      * 
      * @param args Core Hunter arguments including data, objective and subset size.
-     * @param mode Execution mode, one of "default" or "fast".
+     * @param mode Execution mode, one of "default", "fast" or "islands".
      * @param timeLimit Absolute runtime limit in seconds.
      *                  Not used if set to a negative value.
      * @param maxTimeWithoutImprovement Maximum time without finding an improvement, in seconds.
@@ -476,6 +476,106 @@ public class API {
                                        timeLimit, maxTimeWithoutImprovement,
                                        maxSteps, maxStepsWithoutImprovement,
                                        seed);
+        // sample core
+        return sampleCore(args, ch, silent);
+    }
+    
+    /**
+     * Sample a core collection, optionally starting from greedily constructed solutions.
+     * 
+     * @param args Core Hunter arguments including data, objective and subset size.
+     * @param mode Execution mode, one of "default", "fast" or "islands".
+     * @param timeLimit Absolute runtime limit in seconds.
+     *                  Not used if set to a negative value.
+     * @param maxTimeWithoutImprovement Maximum time without finding an improvement, in seconds.
+     *                                  Not used if set to a negative value. In case no explicit
+     *                                  stop conditions have been specified, the maximum time without
+     *                                  improvement defaults to 10 seconds in default mode, or 2 seconds
+     *                                  in fast mode.
+     * @param maxSteps Maximum number of search steps. Not used if set to a negative value.
+     * @param maxStepsWithoutImprovement Maximum number of search steps without finding an improvement.
+     *                                   Not used if set to a negative value.
+     * @param seed Positive seed used for random generation to allow reproducible results.
+     *             If zero or negative, no seed is applied.
+     * @param silent If <code>true</code> no output is written to the console.
+     * @param greedyInitialization If <code>true</code>, searches optimizing a single average entry-to-nearest-entry
+     *                             or accession-to-nearest-entry objective start from a greedily constructed
+     *                             solution (see {@link CoreHunter#setGreedyInitialization(boolean)}).
+     * @return Indices of selected items (zero-based).
+     */
+    public static int[] sampleCore(CoreHunterArguments args, String mode,
+                                   int timeLimit, int maxTimeWithoutImprovement,
+                                   long maxSteps, long maxStepsWithoutImprovement,
+                                   long seed, boolean silent, boolean greedyInitialization) {
+        // init Core Hunter
+        CoreHunter ch = initCoreHunter(args, mode,
+                                       timeLimit, maxTimeWithoutImprovement,
+                                       maxSteps, maxStepsWithoutImprovement,
+                                       seed);
+        ch.setGreedyInitialization(greedyInitialization);
+        // sample core
+        return sampleCore(args, ch, silent);
+    }
+    
+    /**
+     * Sample a core collection with custom parallel tempering settings (only used in default mode).
+     * 
+     * @param args Core Hunter arguments including data, objective and subset size.
+     * @param mode Execution mode, one of "default", "fast" or "islands".
+     * @param timeLimit Absolute runtime limit in seconds.
+     *                  Not used if set to a negative value.
+     * @param maxTimeWithoutImprovement Maximum time without finding an improvement, in seconds.
+     *                                  Not used if set to a negative value. In case no explicit
+     *                                  stop conditions have been specified, the maximum time without
+     *                                  improvement defaults to 10 seconds in default mode, or 2 seconds
+     *                                  in fast mode.
+     * @param maxSteps Maximum number of search steps. Not used if set to a negative value.
+     * @param maxStepsWithoutImprovement Maximum number of search steps without finding an improvement.
+     *                                   Not used if set to a negative value.
+     * @param seed Positive seed used for random generation to allow reproducible results.
+     *             If zero or negative, no seed is applied.
+     * @param silent If <code>true</code> no output is written to the console.
+     * @param numReplicas Number of parallel tempering replicas. If zero, the number of replicas is
+     *                    determined automatically, based on the number of available processors,
+     *                    with geometrically spaced temperatures. Not used if set to a negative value
+     *                    (defaults to 10 replicas).
+     * @param replicaSteps Number of Metropolis steps executed by each replica in a single search step.
+     *                     Not used if set to a negative value (defaults to 500).
+     * @param minTemperature Minimum replica temperature. Not used if set to a negative value
+     *                       (defaults to 1e-8).
+     * @param maxTemperature Maximum replica temperature. Not used if set to a negative value
+     *                       (defaults to 1e-4).
+     * @return Indices of selected items (zero-based).
+     */
+    public static int[] sampleCore(CoreHunterArguments args, String mode,
+                                   int timeLimit, int maxTimeWithoutImprovement,
+                                   long maxSteps, long maxStepsWithoutImprovement,
+                                   long seed, boolean silent,
+                                   int numReplicas, long replicaSteps,
+                                   double minTemperature, double maxTemperature) {
+        // init Core Hunter
+        CoreHunter ch = initCoreHunter(args, mode,
+                                       timeLimit, maxTimeWithoutImprovement,
+                                       maxSteps, maxStepsWithoutImprovement,
+                                       seed);
+        // set parallel tempering settings
+        if(numReplicas >= 0){
+            ch.setNumReplicas(numReplicas);
+        }
+        if(replicaSteps >= 0){
+            ch.setReplicaSteps(replicaSteps);
+        }
+        if(minTemperature >= 0 || maxTemperature >= 0){
+            ch.setTemperatureRange(
+                    minTemperature >= 0 ? minTemperature : ch.getMinTemperature(),
+                    maxTemperature >= 0 ? maxTemperature : ch.getMaxTemperature()
+            );
+        }
+        // sample core
+        return sampleCore(args, ch, silent);
+    }
+    
+    private static int[] sampleCore(CoreHunterArguments args, CoreHunter ch, boolean silent){
         // attach listener
         if (!silent) {
             ch.setListener(new SimpleCoreHunterListener());
@@ -483,6 +583,10 @@ public class API {
         // sample core
         SubsetSolution core = ch.execute(args);
         // convert result
+        return toIndices(core);
+    }
+    
+    private static int[] toIndices(SubsetSolution core){
         int[] ids = new int[core.getNumSelectedIDs()];
         int i = 0;
         for (int id : core.getSelectedIDs()) {
@@ -491,6 +595,97 @@ public class API {
         return ids;
     }
     
+    /**
+     * Sample core collections of several sizes in a single session, sharing distance caches
+     * and warm starting the search for each size from the core obtained for the next smaller size.
+     * 
+     * @param args Core Hunter arguments including data and objective. The subset size is ignored.
+     * @param sizes Requested core sizes.
+     * @param nested If <code>true</code>, each core contains all smaller cores.
+     * @param mode Execution mode, one of "default", "fast" or "islands".
+     * @param timeLimit Absolute runtime limit in seconds, applied to each core size separately.
+     *                  Not used if set to a negative value.
+     * @param maxTimeWithoutImprovement Maximum time without finding an improvement, in seconds.
+     *                                  Not used if set to a negative value.
+     * @param maxSteps Maximum number of search steps. Not used if set to a negative value.
+     * @param maxStepsWithoutImprovement Maximum number of search steps without finding an improvement.
+     *                                   Not used if set to a negative value.
+     * @param seed Positive seed used for random generation to allow reproducible results.
+     *             If zero or negative, no seed is applied.
+     * @param silent If <code>true</code> no output is written to the console.
+     * @return Indices of selected items (zero-based) for each requested size, in the same order as the sizes.
+     */
+    public static int[][] sampleCores(CoreHunterArguments args, int[] sizes, boolean nested, String mode,
+                                      int timeLimit, int maxTimeWithoutImprovement,
+                                      long maxSteps, long maxStepsWithoutImprovement,
+                                      long seed, boolean silent) {
+        // init Core Hunter
+        CoreHunter ch = initCoreHunter(args, mode,
+                                       timeLimit, maxTimeWithoutImprovement,
+                                       maxSteps, maxStepsWithoutImprovement,
+                                       seed);
+        // attach listener
+        if (!silent) {
+            ch.setListener(new SimpleCoreHunterListener());
+        }
+        // sample cores
+        List<Integer> sizeList = Arrays.stream(sizes).boxed().collect(Collectors.toList());
+        List<SubsetSolution> cores = ch.execute(args, sizeList, nested);
+        // convert results
+        int[][] ids = new int[cores.size()][];
+        for(int c = 0; c < cores.size(); c++){
+            ids[c] = toIndices(cores.get(c));
+        }
+        return ids;
+    }
+    
+    /**
+     * Approximate the Pareto front of a multi-objective configuration, by searching several weight
+     * directions in parallel while keeping an archive of non-dominated core collections.
+     * 
+     * @param args Core Hunter arguments including data, objectives (at least two) and subset size.
+     *             Objective weights are ignored.
+     * @param mode Execution mode, one of "default", "fast" or "islands". Determines the default
+     *             stop conditions and how step-based stop conditions are interpreted.
+     * @param timeLimit Absolute runtime limit in seconds.
+     *                  Not used if set to a negative value.
+     * @param maxTimeWithoutImprovement Maximum time without finding an improvement, in seconds.
+     *                                  Not used if set to a negative value.
+     * @param maxSteps Maximum number of search steps. Not used if set to a negative value.
+     * @param maxStepsWithoutImprovement Maximum number of search steps without finding an improvement.
+     *                                   Not used if set to a negative value.
+     * @param seed Positive seed used for random generation to allow reproducible results.
+     *             If zero or negative, no seed is applied.
+     * @param silent If <code>true</code> no output is written to the console.
+     * @param numDirections Number of weight directions searched in parallel. If zero,
+     *                      one direction is searched per available processor.
+     * @return Indices of selected items (zero-based) for each core collection in the approximate Pareto front,
+     *         sorted by decreasing quality according to the first objective.
+     */
+    public static int[][] sampleParetoFront(CoreHunterArguments args, String mode,
+                                            int timeLimit, int maxTimeWithoutImprovement,
+                                            long maxSteps, long maxStepsWithoutImprovement,
+                                            long seed, boolean silent, int numDirections) {
+        // init Core Hunter
+        CoreHunter ch = initCoreHunter(args, mode,
+                                       timeLimit, maxTimeWithoutImprovement,
+                                       maxSteps, maxStepsWithoutImprovement,
+                                       seed);
+        ch.setNumParetoDirections(numDirections);
+        // attach listener
+        if (!silent) {
+            ch.setListener(new SimpleCoreHunterListener());
+        }
+        // approximate Pareto front
+        List<SubsetSolution> front = ch.approximateParetoFront(args);
+        // convert results
+        int[][] ids = new int[front.size()][];
+        for(int c = 0; c < front.size(); c++){
+            ids[c] = toIndices(front.get(c));
+        }
+        return ids;
+    }
+    
     private static CoreHunter initCoreHunter(CoreHunterArguments args, String mode,
                                              int timeLimit, int maxTimeWithoutImprovement,
                                              long maxSteps, long maxStepsWithoutImprovement,
@@ -499,6 +694,8 @@ public class API {
         CoreHunterExecutionMode exMode = CoreHunterExecutionMode.DEFAULT;
         if (mode.equals("fast")) {
             exMode = CoreHunterExecutionMode.FAST;
+        } else if (mode.equals("islands")) {
+            exMode = CoreHunterExecutionMode.ISLANDS;
         }
         // create Core Hunter executor
         CoreHunter ch = new CoreHunter(exMode);
@@ -20,7 +20,9 @@
 package org.corehunter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,9 +31,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.corehunter.data.BiAllelicGenotypeData;
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.exceptions.CoreHunterException;
 import org.corehunter.objectives.AverageAccessionToNearestEntry;
@@ -41,16 +49,33 @@ import org.corehunter.objectives.Coverage;
 import org.corehunter.objectives.HeterozygousLoci;
 import org.corehunter.objectives.Shannon;
 import org.corehunter.objectives.distance.DistanceMeasure;
+import org.corehunter.objectives.distance.measures.AbstractDistanceMeasure;
 import org.corehunter.objectives.distance.measures.CavalliSforzaEdwardsDistance;
 import org.corehunter.objectives.distance.measures.GowerDistance;
 import org.corehunter.objectives.distance.measures.ModifiedRogersDistance;
 import org.corehunter.objectives.distance.measures.PrecomputedDistance;
+import org.corehunter.objectives.distance.measures.biallelic.CavalliSforzaEdwardsDistanceBiAllelic;
+import org.corehunter.objectives.distance.measures.biallelic.ModifiedRogersDistanceBiAllelic;
+import org.corehunter.search.CoreHunterSwapNeighbourhood;
+import org.corehunter.search.FarthestPointSubsetGenerator;
+import org.corehunter.search.GreedySubsetGenerator;
+import org.corehunter.search.IslandSearch;
+import org.corehunter.search.KCenterSubsetGenerator;
+import org.corehunter.search.ParetoArchive;
+import org.corehunter.search.ParetoArchiveListener;
+import org.corehunter.search.RandomSubsetGenerator;
+import org.corehunter.search.ReproducibleParallelTempering;
+import org.corehunter.search.SubsetGenerator;
+import org.jamesframework.core.factory.MetropolisSearchFactory;
 import org.jamesframework.core.problems.objectives.Objective;
+import org.jamesframework.core.problems.sol.Solution;
 import org.jamesframework.core.search.LocalSearch;
 import org.jamesframework.core.search.Search;
+import org.jamesframework.core.search.algo.BasicParallelSearch;
 import org.jamesframework.core.search.algo.MetropolisSearch;
 import org.jamesframework.core.search.algo.ParallelTempering;
 import org.jamesframework.core.search.algo.RandomDescent;
+import org.jamesframework.core.search.listeners.SearchListener;
 import org.jamesframework.core.search.neigh.Neighbourhood;
 import org.jamesframework.core.search.stopcriteria.MaxRuntime;
 import org.jamesframework.core.search.stopcriteria.MaxSteps;
@@ -58,8 +83,6 @@ import org.jamesframework.core.search.stopcriteria.MaxStepsWithoutImprovement;
 import org.jamesframework.core.search.stopcriteria.MaxTimeWithoutImprovement;
 import org.jamesframework.core.subset.SubsetProblem;
 import org.jamesframework.core.subset.SubsetSolution;
-import org.jamesframework.core.subset.neigh.SingleSwapNeighbourhood;
-import org.jamesframework.core.util.SetUtilities;
 import org.jamesframework.ext.problems.objectives.NormalizedObjective;
 import org.jamesframework.ext.problems.objectives.WeightedIndex;
 
@@ -74,12 +97,41 @@ public class CoreHunter {
     private static final int DEFAULT_MAX_TIME_WITHOUT_IMPROVEMENT = 10000;
     private static final int FAST_MAX_TIME_WITHOUT_IMPROVEMENT = 2000;
         
-    // parallel tempering settings
+    // default parallel tempering settings
     private static final int PT_NUM_REPLICAS = 10;
     private static final int PT_REPLICA_STEPS = 500;
     private static final double PT_MIN_TEMP = 1e-8;
     private static final double PT_MAX_TEMP = 1e-4;
     
+    // default island model settings
+    private static final int ISLANDS_MIN_NUM_ISLANDS = 2;
+    private static final int ISLANDS_MIN_NUM_REPLICAS = 2;
+    private static final long ISLANDS_MIGRATION_INTERVAL = 10;
+    
+    /**
+     * Number of replicas indicating that the number of parallel tempering replicas
+     * is determined automatically (see {@link #setNumReplicas(int)}).
+     */
+    public static final int AUTO_NUM_REPLICAS = 0;
+    
+    /**
+     * Number of random descents indicating that one random descent is executed
+     * per available processor in fast mode (see {@link #setNumRandomDescents(int)}).
+     */
+    public static final int AUTO_NUM_RANDOM_DESCENTS = 0;
+    
+    /**
+     * Number of islands indicating that the number of islands is determined
+     * automatically in island mode (see {@link #setNumIslands(int)}).
+     */
+    public static final int AUTO_NUM_ISLANDS = 0;
+    
+    /**
+     * Number of weight directions indicating that one direction is searched per available
+     * processor when approximating the Pareto front (see {@link #setNumParetoDirections(int)}).
+     */
+    public static final int AUTO_NUM_PARETO_DIRECTIONS = 0;
+    
     // execution mode
     private CoreHunterExecutionMode mode;
     
@@ -92,8 +144,43 @@ public class CoreHunter {
     private long maxSteps = -1;
     private long maxStepsWithoutImprovement = -1;
     
+    // precompute all distances (in parallel) before starting the search
+    private boolean precomputeDistances = false;
+    
+    // construct initial solutions greedily for supported objectives
+    private boolean greedyInitialization = false;
+    
+    // number of independent random descents executed in parallel (fast mode)
+    private int numRandomDescents = 1;
+    
+    // number of weight directions searched in parallel to approximate the Pareto front
+    private int numParetoDirections = AUTO_NUM_PARETO_DIRECTIONS;
+    
+    // island model settings
+    private int numIslands = AUTO_NUM_ISLANDS;
+    private long migrationInterval = ISLANDS_MIGRATION_INTERVAL;
+    
+    // parallel tempering settings
+    private int numReplicas = PT_NUM_REPLICAS;
+    private long replicaSteps = PT_REPLICA_STEPS;
+    private double minTemperature = PT_MIN_TEMP;
+    private double maxTemperature = PT_MAX_TEMP;
+    
     // random number generator used to seed other generators
     private final Random seedGenerator;
+    
+    // cooperative cancellation: searches of the current execution and pending stop request
+    private final Set<Search<?>> runningSearches = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final AtomicInteger numExecutions = new AtomicInteger();
+    private volatile boolean stopRequested;
+    private final SearchListener<Solution> stopListener = new SearchListener<Solution>() {
+        @Override
+        public void searchStarted(Search<? extends Solution> search) {
+            if(stopRequested){
+                search.stop();
+            }
+        }
+    };
 
     public CoreHunter() {
         this(CoreHunterExecutionMode.DEFAULT);
@@ -106,8 +193,11 @@ public class CoreHunter {
      * and terminated when no improvement has been made for ten seconds.
      * In {@link CoreHunterExecutionMode#FAST} mode, random descent is applied
      * and terminated when no improvement has been made for two seconds.
+     * In {@link CoreHunterExecutionMode#ISLANDS} mode, several parallel tempering searches
+     * (islands) are executed concurrently, periodically migrating their best solutions
+     * (see {@link #setNumIslands(int)}), with the same default stop condition as in default mode.
      * By default no absolute time limit, nor any step-based stop conditions,
-     * are set in any of the two modes.
+     * are set in any of the modes.
      * Stop conditions can be altered with {@link #setTimeLimit(long)},
      * {@link #setMaxTimeWithoutImprovement(long)}, {@link #setMaxSteps(long)}
      * and {@link #setMaxStepsWithoutImprovement(long)}. As soon as one or more
@@ -117,10 +207,20 @@ public class CoreHunter {
      * In case of a multi-objective configuration with normalization enabled, a preliminary
      * random descent search is executed per objective to determine suitable normalization ranges
      * based on the Pareto minima/maxima. These normalization searches are executed in parallel, with
-     * the same stop conditions as used for the main search. In default mode however, any step-based
+     * the same stop conditions as used for the main search. In default and island mode however, any step-based
      * stop conditions are rescaled for the random descent normalization searches, since then the main
-     * parallel tempering search executes 500 random descent steps within each replica, in a single step
-     * of the main search.
+     * parallel tempering search executes a number of Metropolis steps within each replica (500 by default,
+     * see {@link #setReplicaSteps(long)}), in a single step of the main search.
+     * Normalization ranges are cached on the data (see {@link CoreHunterData#getNormalizationRangeCache()}) and
+     * reused by subsequent executions with the same objectives (types and measures), core size and always/never
+     * selected items, execution mode, stop conditions and initialization settings, regardless of objective weights
+     * or seed. Ranges determined by normalization searches that were interrupted with {@link #stop()} are not
+     * cached.
+     * <p>
+     * By default, parallel tempering uses 10 replicas with temperatures evenly spread between 1e-8 and 1e-4.
+     * These settings can be modified with {@link #setNumReplicas(int)}, {@link #setReplicaSteps(long)}
+     * and {@link #setTemperatureRange(double, double)}. In fast mode, several independent random descents
+     * can be executed in parallel, see {@link #setNumRandomDescents(int)}.
      * 
      * @param mode execution mode
      */
@@ -143,86 +243,281 @@ public class CoreHunter {
      *                                  single-objective configuration.
      */
     public List<Range<Double>> normalize(CoreHunterArguments arguments){
-        
-        // check arguments
-        if(arguments == null){
-            throw new IllegalArgumentException("Arguments not defined!");
-        }
-        CoreHunterData data = arguments.getData();
-        if(data == null){
-            throw new IllegalArgumentException("Dataset not defined!");
-        }
-        if(!arguments.isNormalized()){
-            throw new IllegalArgumentException("Normalization supposed to be disabled.");
-        }
-        List<CoreHunterObjective> objectives = arguments.getObjectives();
-        if(objectives == null || objectives.isEmpty()){
-            throw new IllegalArgumentException("Objectives not defined!");
-        }
-        if(objectives.size() < 2){
-            throw new IllegalArgumentException("At least two objectives required for Pareto normalization.");
-        }
+        return stoppable(() -> {
+            // check arguments
+            if(arguments == null){
+                throw new IllegalArgumentException("Arguments not defined!");
+            }
+            CoreHunterData data = arguments.getData();
+            if(data == null){
+                throw new IllegalArgumentException("Dataset not defined!");
+            }
+            if(!arguments.isNormalized()){
+                throw new IllegalArgumentException("Normalization supposed to be disabled.");
+            }
+            List<CoreHunterObjective> objectives = arguments.getObjectives();
+            if(objectives == null || objectives.isEmpty()){
+                throw new IllegalArgumentException("Objectives not defined!");
+            }
+            if(objectives.size() < 2){
+                throw new IllegalArgumentException("At least two objectives required for Pareto normalization.");
+            }
 
-        // precompute seed for each normalization search to get a reproducible parallel execution
-        Map<CoreHunterObjective, Long> seeds = new HashMap<>();
-        objectives.stream().forEachOrdered(obj -> seeds.put(obj, seedGenerator.nextLong()));
+            // precompute seed for each normalization search to get a reproducible parallel execution
+            Map<CoreHunterObjective, Long> seeds = new HashMap<>();
+            objectives.stream().forEachOrdered(obj -> seeds.put(obj, seedGenerator.nextLong()));
         
-        // optimize each objective separately (in parallel)
-        List<SubsetSolution> bestSolutions = objectives.parallelStream().map(obj -> {
-                Objective<SubsetSolution, CoreHunterData> jamesObj = createObjective(data, obj);
-                // create normalization search
-                Search<SubsetSolution> normSearch = createRandomDescent(arguments, jamesObj);
-                // use random generator with pregenerated seed!
-                normSearch.setRandom(new Random(seeds.get(obj)));
-                // execute normalization search
-                normSearch.run();
-                // return best solution
-                return normSearch.getBestSolution();
-            }
-            ).collect(Collectors.toList());
+            // optimize each objective separately (in parallel)
+            List<SubsetSolution> bestSolutions = objectives.parallelStream().map(obj -> {
+                    Objective<SubsetSolution, CoreHunterData> jamesObj = createObjective(data, obj);
+                    // create normalization search
+                    Search<SubsetSolution> normSearch = createRandomDescent(
+                            arguments, jamesObj, Collections.emptySet()
+                    );
+                    // use random generator with pregenerated seed!
+                    normSearch.setRandom(new Random(seeds.get(obj)));
+                    // execute normalization search
+                    runSearch(normSearch);
+                    // return best solution
+                    return normSearch.getBestSolution();
+                }
+                ).collect(Collectors.toList());
         
-        // determine normalization ranges (based on Pareto maxima/minima)
-        List<Range<Double>> ranges = new ArrayList<>();
-        for(int o = 0; o < objectives.size(); o++){
-            Objective<SubsetSolution, CoreHunterData> obj = createObjective(data, objectives.get(o));
-            // evaluate all optimal solutions with this objective
-            List<Double> allValues = bestSolutions.stream().map(
-                sol -> obj.evaluate(sol, data).getValue()
-            ).collect(Collectors.toList());
-            // take best solution value for the considered objective
-            double bestValue = allValues.get(o);
-            // set bounds taking into account whether the objective is minimized or maximized
-            double min, max;
-            if(obj.isMinimizing()){
-                // best solution value = lower bound
-                min = bestValue;
-                // max of all values = upper bound
-                max = Collections.max(allValues);
-            } else {
-                // best solution value = upper bound
-                max = bestValue;
-                // min of all values = lower bound
-                min = Collections.min(allValues);
+            // determine normalization ranges (based on Pareto maxima/minima)
+            List<Range<Double>> ranges = new ArrayList<>();
+            for(int o = 0; o < objectives.size(); o++){
+                Objective<SubsetSolution, CoreHunterData> obj = createObjective(data, objectives.get(o));
+                // evaluate all optimal solutions with this objective
+                List<Double> allValues = bestSolutions.stream().map(
+                    sol -> obj.evaluate(sol, data).getValue()
+                ).collect(Collectors.toList());
+                // take best solution value for the considered objective
+                double bestValue = allValues.get(o);
+                // set bounds taking into account whether the objective is minimized or maximized
+                double min, max;
+                if(obj.isMinimizing()){
+                    // best solution value = lower bound
+                    min = bestValue;
+                    // max of all values = upper bound
+                    max = Collections.max(allValues);
+                } else {
+                    // best solution value = upper bound
+                    max = bestValue;
+                    // min of all values = lower bound
+                    min = Collections.min(allValues);
+                }
+                // set range
+                ranges.add(new Range<>(min, max));
             }
-            // set range
-            ranges.add(new Range<>(min, max));
-        }
-        return ranges;
-        
+            return ranges;
+        });
     }
     
     public SubsetSolution execute(CoreHunterArguments arguments) {
+        return stoppable(() -> {
+            if (arguments == null) {
+                throw new IllegalArgumentException("Arguments not defined!");
+            }
 
-        if (arguments == null) {
-            throw new IllegalArgumentException("Arguments not defined!");
-        }
+            if (arguments.getData() == null) {
+                throw new IllegalArgumentException("Dataset not defined!");
+            }
 
-        if (arguments.getData() == null) {
-            throw new IllegalArgumentException("Dataset not defined!");
-        }
+            // fill distance caches in parallel (if requested)
+            if (precomputeDistances) {
+                precomputeDistances(arguments);
+            }
 
+            // run search from scratch
+            return search(arguments, Collections.emptySet());
+        });
+    }
+    
+    /**
+     * Sample cores of several sizes in a single session. Sizes are processed in ascending order. The search for
+     * each size is warm started from the core obtained for the previous size, by greedily adding items until the
+     * requested size is reached, using the same construction as for initial solutions in case of a single distance
+     * based objective (see {@link #setGreedyInitialization(boolean)}) or else based on the objective. If
+     * <code>nested</code> is <code>true</code>, each core moreover contains all smaller cores. All searches share
+     * the distance caches attached to the data, so that no distance is computed more than once (distances are
+     * precomputed only once, if requested). Stop conditions apply to each search separately.
+     * <p>
+     * The given arguments specify the data, objectives, always and never selected items and normalization flag
+     * shared by all searches. The subset size of the given arguments is ignored. In case of a normalized
+     * multi-objective configuration, normalization ranges are determined for each size separately, unless
+     * they have been set explicitly.
+     * 
+     * @param arguments Core Hunter arguments specifying dataset, objectives and fixed selections
+     * @param sizes requested core sizes, in any order
+     * @param nested if <code>true</code>, each core contains all smaller cores
+     * @return sampled cores, in the same order as the requested sizes
+     * @throws IllegalArgumentException if no sizes are given, or if any of the sizes is not valid
+     *                                  according to the specified arguments
+     */
+    public List<SubsetSolution> execute(CoreHunterArguments arguments, List<Integer> sizes, boolean nested) {
+        return stoppable(() -> {
+            if (arguments == null) {
+                throw new IllegalArgumentException("Arguments not defined!");
+            }
+            if (sizes == null || sizes.isEmpty()) {
+                throw new IllegalArgumentException("Core sizes not defined!");
+            }
+        
+            // create arguments for each size (validates sizes)
+            List<CoreHunterArguments> argumentList = new ArrayList<>();
+            for(int size : sizes){
+                argumentList.add(new CoreHunterArguments(
+                        arguments.getData(), size, arguments.getObjectives(),
+                        arguments.getAlwaysSelected(), arguments.getNeverSelected(), arguments.isNormalized()
+                ));
+            }
+        
+            // fill distance caches in parallel (if requested)
+            if (precomputeDistances) {
+                precomputeDistances(arguments);
+            }
+        
+            // process sizes in ascending order
+            List<Integer> order = IntStream.range(0, sizes.size())
+                                           .boxed()
+                                           .sorted(Comparator.comparing(sizes::get))
+                                           .collect(Collectors.toList());
+            SubsetSolution[] cores = new SubsetSolution[sizes.size()];
+            Set<Integer> previous = Collections.emptySet();
+            for(int i : order){
+                CoreHunterArguments args = argumentList.get(i);
+                if(nested && !previous.isEmpty()){
+                    // fix all items of the previous core
+                    Set<Integer> always = new HashSet<>(args.getAlwaysSelected());
+                    always.addAll(previous);
+                    args = new CoreHunterArguments(
+                            args.getData(), args.getSubsetSize(), args.getObjectives(),
+                            always, args.getNeverSelected(), args.isNormalized()
+                    );
+                }
+                SubsetSolution core = search(args, previous);
+                cores[i] = core;
+                previous = core == null ? Collections.emptySet() : core.getSelectedIDs();
+            }
+            return Arrays.asList(cores);
+        });
+    }
+    
+    /**
+     * Approximate the Pareto front of a multi-objective configuration in a single execution. Several random
+     * descent searches are executed in parallel, each optimizing a weighted index of all objectives with a
+     * different weight vector (direction), see {@link #setNumParetoDirections(int)}. Every solution visited by
+     * any of these searches is offered to a shared archive of mutually non-dominated solutions, which is returned
+     * upon completion. Weights are spread evenly in case of two objectives and sampled uniformly at random from
+     * the unit simplex otherwise. The weights of the objectives specified in the arguments are ignored. Objectives
+     * are normalized first if requested in the arguments (which is strongly recommended). The same stop conditions
+     * apply to each random descent, with step-based conditions rescaled as for normalization searches.
+     * 
+     * @param arguments Core Hunter arguments specifying dataset, core size and at least two objectives
+     * @return approximate Pareto front, sorted by decreasing quality according to the first objective
+     * @throws IllegalArgumentException in case of a single-objective configuration
+     */
+    public List<SubsetSolution> approximateParetoFront(CoreHunterArguments arguments){
+        return stoppable(() -> {
+            if (arguments == null) {
+                throw new IllegalArgumentException("Arguments not defined!");
+            }
+            CoreHunterData data = arguments.getData();
+            if (data == null) {
+                throw new IllegalArgumentException("Dataset not defined!");
+            }
+            if (arguments.getObjectives().size() < 2) {
+                throw new IllegalArgumentException("At least two objectives required to approximate the Pareto front.");
+            }
+        
+            // fill distance caches in parallel (if requested)
+            if (precomputeDistances) {
+                precomputeDistances(arguments);
+            }
+        
+            // create (and normalize) objectives
+            List<Objective<SubsetSolution, CoreHunterData>> objectives = arguments.getObjectives().stream()
+                    .map(obj -> createObjective(data, obj))
+                    .collect(Collectors.toList());
+            if(arguments.isNormalized()){
+                objectives = normalizeObjectives(arguments, objectives);
+            }
+            List<Objective<SubsetSolution, CoreHunterData>> finalObjectives = objectives;
+        
+            // pregenerate weights and seeds for a reproducible parallel execution
+            int n = getNumParetoDirections();
+            double[][] weights = paretoDirections(n, objectives.size());
+            long[] seeds = new long[n];
+            for(int d = 0; d < n; d++){
+                seeds[d] = seedGenerator.nextLong();
+            }
+        
+            // search all directions (in parallel)
+            ParetoArchive archive = new ParetoArchive(objectives.size());
+            IntStream.range(0, n).parallel().forEach(d -> {
+                WeightedIndex<SubsetSolution, CoreHunterData> weightedIndex = new WeightedIndex<>();
+                for(int o = 0; o < finalObjectives.size(); o++){
+                    weightedIndex.addObjective(finalObjectives.get(o), weights[d][o]);
+                }
+                Search<SubsetSolution> search = createRandomDescent(arguments, weightedIndex, Collections.emptySet());
+                search.setRandom(new Random(seeds[d]));
+                search.addSearchListener(new ParetoArchiveListener(archive, finalObjectives));
+                runSearch(search);
+                search.dispose();
+            });
+        
+            return archive.getSolutions();
+        });
+    }
+    
+    /**
+     * Stop the current execution from another thread. All running searches are stopped as soon as they complete
+     * their current step, and the execution returns the best solution(s) found so far. Searches that are started
+     * later on in the same execution, such as the main search after normalization or the searches for larger sizes
+     * in a core size sweep, terminate right after initialization. If no execution is running, the next execution
+     * is stopped. The stop request is cleared when the execution completes, so that the facade can be re-used.
+     */
+    public void stop(){
+        stopRequested = true;
+        runningSearches.forEach(Search::stop);
+    }
+    
+    /**
+     * Check whether a stop has been requested for the current (or next) execution.
+     * 
+     * @return <code>true</code> if {@link #stop()} has been called and the execution has not yet completed
+     */
+    public boolean isStopRequested(){
+        return stopRequested;
+    }
+    
+    // run an execution that can be stopped, clearing the stop request when the outermost execution completes
+    private <T> T stoppable(Supplier<T> execution){
+        numExecutions.incrementAndGet();
+        try {
+            return execution.get();
+        } finally {
+            if(numExecutions.decrementAndGet() == 0){
+                stopRequested = false;
+            }
+        }
+    }
+    
+    // run the given search, stopping it as soon as it has been initialized if a stop was requested earlier
+    private void runSearch(Search<?> search){
+        search.addSearchListener(stopListener);
+        runningSearches.add(search);
+        try {
+            search.start();
+        } finally {
+            runningSearches.remove(search);
+        }
+    }
+    
+    private SubsetSolution search(CoreHunterArguments arguments, Set<Integer> start){
+        
         // create search from arguments
-        Search<SubsetSolution> search = createMainSearch(arguments);
+        Search<SubsetSolution> search = createMainSearch(arguments, start);
         
         // add search listener (if any)
         if (listener != null) {
@@ -230,12 +525,15 @@ public class CoreHunter {
         }
 
         // start search
-        search.start();
+        runSearch(search);
 
         // dispose search
         search.dispose();
 
-        return search.getBestSolution();
+        // convert to plain subset solution, independent of the representation used during search
+        SubsetSolution best = search.getBestSolution();
+        return best == null ? null : new SubsetSolution(best.getAllIDs(), best.getSelectedIDs());
+        
     }
     
     /**
@@ -278,9 +576,9 @@ public class CoreHunter {
     public long getMaxTimeWithoutImprovement(){
         if(timeLimit < 0 && maxTimeWithoutImprovement < 0 && maxSteps < 0 && maxStepsWithoutImprovement < 0){
             // no explicit stop conditions: use default
-            return mode == CoreHunterExecutionMode.DEFAULT
-                           ? DEFAULT_MAX_TIME_WITHOUT_IMPROVEMENT
-                           : FAST_MAX_TIME_WITHOUT_IMPROVEMENT;
+            return mode == CoreHunterExecutionMode.FAST
+                           ? FAST_MAX_TIME_WITHOUT_IMPROVEMENT
+                           : DEFAULT_MAX_TIME_WITHOUT_IMPROVEMENT;
         } else {
             // manually specified improvement time
             return maxTimeWithoutImprovement;
@@ -335,6 +633,268 @@ public class CoreHunter {
         this.maxStepsWithoutImprovement = steps;
     }
     
+    /**
+     * Check whether all distances are precomputed before the search is started.
+     * 
+     * @return <code>true</code> if distances are precomputed
+     */
+    public boolean isPrecomputeDistances(){
+        return precomputeDistances;
+    }
+    
+    /**
+     * Enable or disable parallel precomputation of distances. If enabled, all distances required by
+     * distance based objectives are computed in parallel, using all available processors, before the
+     * search is started (including any normalization searches). Else, distances are computed
+     * lazily when first needed during search. Disabled by default. Precomputation is particularly
+     * beneficial for large datasets in combination with expensive distance measures, where the
+     * search would otherwise spend a lot of time computing distances on a single thread.
+     * 
+     * @param precompute <code>true</code> if distances should be precomputed
+     */
+    public void setPrecomputeDistances(boolean precompute){
+        this.precomputeDistances = precompute;
+    }
+    
+    /**
+     * Check whether initial solutions are constructed greedily for supported objectives.
+     * 
+     * @return <code>true</code> if greedy initialization is enabled
+     */
+    public boolean isGreedyInitialization(){
+        return greedyInitialization;
+    }
+    
+    /**
+     * Enable or disable greedy construction of initial solutions. If enabled, searches optimizing a single
+     * distance based objective start from a greedily constructed solution: a farthest-point construction for
+     * {@link CoreHunterObjectiveType#AV_ENTRY_TO_NEAREST_ENTRY} and a k-center construction for
+     * {@link CoreHunterObjectiveType#AV_ACCESSION_TO_NEAREST_ENTRY}. In all other cases, and if disabled,
+     * searches start from a random solution. Disabled by default.
+     * 
+     * @param greedy <code>true</code> if initial solutions should be constructed greedily
+     */
+    public void setGreedyInitialization(boolean greedy){
+        this.greedyInitialization = greedy;
+    }
+    
+    /**
+     * Get the number of independent random descents executed in parallel in fast mode. If this number is
+     * determined automatically, the resolved number is returned (see {@link #setNumRandomDescents(int)}).
+     * 
+     * @return number of random descents
+     */
+    public int getNumRandomDescents(){
+        if(numRandomDescents == AUTO_NUM_RANDOM_DESCENTS){
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return numRandomDescents;
+    }
+    
+    /**
+     * Set the number of independent random descents executed in parallel in fast mode. Defaults to 1.
+     * If set to {@link #AUTO_NUM_RANDOM_DESCENTS}, one random descent is executed per available processor.
+     * Each random descent starts from a different random initial solution and the best solution found
+     * by any of them is returned. All random descents are stopped as soon as one of the time-based
+     * stop conditions is met, which are checked globally, i.e. the maximum time without improvement
+     * refers to the time since any of the random descents found a new best solution. Step-based stop
+     * conditions are applied to each random descent separately. The seeds of all random descents are
+     * generated upfront, so that results are reproducible when a seed has been set, and only step-based
+     * stop conditions are used.
+     * 
+     * @param numRandomDescents number of random descents, strictly positive
+     *                          or {@link #AUTO_NUM_RANDOM_DESCENTS}
+     * @throws IllegalArgumentException if <code>numRandomDescents</code> is negative
+     */
+    public void setNumRandomDescents(int numRandomDescents){
+        if(numRandomDescents < 0){
+            throw new IllegalArgumentException("Number of random descents should be positive.");
+        }
+        this.numRandomDescents = numRandomDescents;
+    }
+    
+    /**
+     * Get the number of weight directions searched in parallel to approximate the Pareto front. If this
+     * number is determined automatically, the resolved number is returned (see {@link #setNumParetoDirections(int)}).
+     * 
+     * @return number of weight directions
+     */
+    public int getNumParetoDirections(){
+        if(numParetoDirections == AUTO_NUM_PARETO_DIRECTIONS){
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return numParetoDirections;
+    }
+    
+    /**
+     * Set the number of weight directions searched in parallel to approximate the Pareto front (see
+     * {@link #approximateParetoFront(CoreHunterArguments)}). Defaults to {@link #AUTO_NUM_PARETO_DIRECTIONS},
+     * in which case one direction is searched per available processor.
+     * 
+     * @param numDirections number of weight directions, strictly positive or {@link #AUTO_NUM_PARETO_DIRECTIONS}
+     * @throws IllegalArgumentException if <code>numDirections</code> is negative
+     */
+    public void setNumParetoDirections(int numDirections){
+        if(numDirections < 0){
+            throw new IllegalArgumentException("Number of Pareto directions should be positive.");
+        }
+        this.numParetoDirections = numDirections;
+    }
+    
+    /**
+     * Get the number of parallel tempering islands executed in island mode. If this number is
+     * determined automatically, the resolved number is returned (see {@link #setNumIslands(int)}).
+     * 
+     * @return number of islands
+     */
+    public int getNumIslands(){
+        if(numIslands == AUTO_NUM_ISLANDS){
+            // automatic replicas are resolved from the number of islands: budget default number per island
+            int replicasPerIsland = isAutomaticNumReplicas() ? PT_NUM_REPLICAS : numReplicas;
+            int processors = Runtime.getRuntime().availableProcessors();
+            return Math.max(ISLANDS_MIN_NUM_ISLANDS, processors / replicasPerIsland);
+        }
+        return numIslands;
+    }
+    
+    /**
+     * Set the number of parallel tempering islands executed concurrently in island mode. Each island has
+     * its own replicas (see {@link #setNumReplicas(int)}) and thread pool. Defaults to
+     * {@link #AUTO_NUM_ISLANDS}, in which case the available processors are divided among
+     * islands based on the number of replicas per island (10 if the number of replicas is
+     * determined automatically), with a minimum of two islands.
+     * 
+     * @param numIslands number of islands, strictly positive or {@link #AUTO_NUM_ISLANDS}
+     * @throws IllegalArgumentException if <code>numIslands</code> is negative
+     */
+    public void setNumIslands(int numIslands){
+        if(numIslands < 0){
+            throw new IllegalArgumentException("Number of islands should be positive.");
+        }
+        this.numIslands = numIslands;
+    }
+    
+    /**
+     * Get the number of parallel tempering steps executed by each island in between migrations.
+     * 
+     * @return migration interval
+     */
+    public long getMigrationInterval(){
+        return migrationInterval;
+    }
+    
+    /**
+     * Set the number of parallel tempering steps executed by each island in between migrations
+     * of the best solutions, in island mode. Defaults to 10.
+     * 
+     * @param steps migration interval, strictly positive
+     * @throws IllegalArgumentException if <code>steps</code> is not strictly positive
+     */
+    public void setMigrationInterval(long steps){
+        if(steps <= 0){
+            throw new IllegalArgumentException("Migration interval should be strictly positive.");
+        }
+        this.migrationInterval = steps;
+    }
+    
+    /**
+     * Get the number of replicas used for parallel tempering (in default and island mode). If the number of replicas
+     * is determined automatically, the resolved number is returned (see {@link #setNumReplicas(int)}).
+     * 
+     * @return number of replicas
+     */
+    public int getNumReplicas(){
+        if(isAutomaticNumReplicas()){
+            int processors = Runtime.getRuntime().availableProcessors();
+            if(mode == CoreHunterExecutionMode.ISLANDS){
+                // divide processors among islands
+                return Math.max(ISLANDS_MIN_NUM_REPLICAS, processors / getNumIslands());
+            }
+            return Math.max(PT_NUM_REPLICAS, processors);
+        }
+        return numReplicas;
+    }
+    
+    /**
+     * Check whether the number of parallel tempering replicas is determined automatically.
+     * 
+     * @return <code>true</code> if the number of replicas is determined automatically
+     */
+    public boolean isAutomaticNumReplicas(){
+        return numReplicas == AUTO_NUM_REPLICAS;
+    }
+    
+    /**
+     * Set the number of replicas used for parallel tempering (in default and island mode). Defaults to 10. Replicas
+     * are executed concurrently, each in a separate thread. If set to {@link #AUTO_NUM_REPLICAS}, one replica
+     * is used per available processor, with a minimum of 10 replicas. In island mode, the available processors
+     * are divided among the islands instead (see {@link #setNumIslands(int)}), with a minimum of two replicas per
+     * island, so that the islands together do not use more threads than there are processors. In both cases,
+     * replica temperatures are spaced geometrically instead of linearly within the temperature range, so that the
+     * additional replicas are spread evenly over all orders of magnitude, and the swap rates between neighbouring
+     * replicas are more uniform.
+     * 
+     * @param numReplicas number of replicas, strictly positive or {@link #AUTO_NUM_REPLICAS}
+     * @throws IllegalArgumentException if <code>numReplicas</code> is negative
+     */
+    public void setNumReplicas(int numReplicas){
+        if(numReplicas < 0){
+            throw new IllegalArgumentException("Number of replicas should be positive.");
+        }
+        this.numReplicas = numReplicas;
+    }
+    
+    /**
+     * Get the number of Metropolis steps executed by each parallel tempering replica
+     * in a single step of the main search.
+     * 
+     * @return number of replica steps
+     */
+    public long getReplicaSteps(){
+        return replicaSteps;
+    }
+    
+    /**
+     * Set the number of Metropolis steps executed by each parallel tempering replica
+     * in a single step of the main search. Defaults to 500.
+     * 
+     * @param steps number of replica steps, strictly positive
+     * @throws IllegalArgumentException if <code>steps</code> is not strictly positive
+     */
+    public void setReplicaSteps(long steps){
+        if(steps <= 0){
+            throw new IllegalArgumentException("Number of replica steps should be strictly positive.");
+        }
+        this.replicaSteps = steps;
+    }
+    
+    public double getMinTemperature(){
+        return minTemperature;
+    }
+    
+    public double getMaxTemperature(){
+        return maxTemperature;
+    }
+    
+    /**
+     * Set the temperature range of the parallel tempering replicas. Defaults to [1e-8, 1e-4].
+     * 
+     * @param minTemperature minimum temperature, strictly positive
+     * @param maxTemperature maximum temperature, larger than the minimum temperature
+     * @throws IllegalArgumentException if <code>minTemperature</code> is not strictly positive
+     *                                  or not smaller than <code>maxTemperature</code>
+     */
+    public void setTemperatureRange(double minTemperature, double maxTemperature){
+        if(!(minTemperature > 0.0)){
+            throw new IllegalArgumentException("Minimum temperature should be strictly positive.");
+        }
+        if(!(minTemperature < maxTemperature)){
+            throw new IllegalArgumentException("Minimum temperature should be smaller than maximum temperature.");
+        }
+        this.minTemperature = minTemperature;
+        this.maxTemperature = maxTemperature;
+    }
+    
     public CoreHunterListener getListener(){
         return listener;
     }
@@ -347,15 +907,19 @@ public class CoreHunter {
         seedGenerator.setSeed(seed);
     }
 
-    private Search<SubsetSolution> createMainSearch(CoreHunterArguments arguments) {
+    private Search<SubsetSolution> createMainSearch(CoreHunterArguments arguments, Set<Integer> start) {
 
         Objective<SubsetSolution, CoreHunterData> obj = createObjective(arguments);
 
         switch(mode){
             case DEFAULT:
-                return createParallelTempering(arguments, obj);
+                return createParallelTempering(arguments, obj, start);
             case FAST:
-                return createRandomDescent(arguments, obj);
+                return getNumRandomDescents() > 1
+                        ? createParallelRandomDescent(arguments, obj, start)
+                        : createRandomDescent(arguments, obj, start);
+            case ISLANDS:
+                return createIslandSearch(arguments, obj, start);
             default:
                 throw new CoreHunterException("Unknown execution mode " + mode + ".");
         }
@@ -363,60 +927,193 @@ public class CoreHunter {
     }
 
     private Search<SubsetSolution> createRandomDescent(CoreHunterArguments args,
-                                                       Objective<SubsetSolution, CoreHunterData> obj){
-        LocalSearch<SubsetSolution> rd = new RandomDescent<>(createProblem(args, obj), createNeighbourhood(args));
+                                                       Objective<SubsetSolution, CoreHunterData> obj,
+                                                       Set<Integer> start){
+        LocalSearch<SubsetSolution> rd = new RandomDescent<>(
+            createProblem(args, obj, start), createNeighbourhood(args)
+        );
         rd.setRandom(new Random(seedGenerator.nextLong()));
-        return setStopCriteria(rd, mode == CoreHunterExecutionMode.DEFAULT);
+        return setStopCriteria(rd, mode != CoreHunterExecutionMode.FAST);
+    }
+
+    private Search<SubsetSolution> createParallelRandomDescent(CoreHunterArguments args,
+                                                               Objective<SubsetSolution, CoreHunterData> obj,
+                                                               Set<Integer> start){
+        // all random descents should solve the same problem
+        SubsetProblem<CoreHunterData> problem = createProblem(args, obj, start);
+        BasicParallelSearch<SubsetSolution> parallelSearch = new BasicParallelSearch<>(problem);
+        // pregenerate seeds for a reproducible parallel execution
+        int n = getNumRandomDescents();
+        long[] seeds = new long[n];
+        for(int i = 0; i < n; i++){
+            seeds[i] = seedGenerator.nextLong();
+        }
+        for(int i = 0; i < n; i++){
+            LocalSearch<SubsetSolution> rd = new RandomDescent<>(problem, createNeighbourhood(args));
+            rd.setRandom(new Random(seeds[i]));
+            // step-based stop conditions apply to each random descent
+            parallelSearch.addSearch(setStepStopCriteria(rd, false));
+        }
+        // time-based stop conditions are shared by all random descents
+        return setTimeStopCriteria(parallelSearch);
     }
 
     private Search<SubsetSolution> createParallelTempering(CoreHunterArguments args,
-                                                           Objective<SubsetSolution, CoreHunterData> obj){
+                                                           Objective<SubsetSolution, CoreHunterData> obj,
+                                                           Set<Integer> start){
         // check running default mode
         if(mode != CoreHunterExecutionMode.DEFAULT){
             throw new CoreHunterException("Parallel tempering search should only be used in default mode.");
         }
-        ParallelTempering<SubsetSolution> pt = new ParallelTempering<>(
-            createProblem(args, obj), createNeighbourhood(args),
-            PT_NUM_REPLICAS, PT_MIN_TEMP, PT_MAX_TEMP,
-            // custom Metropolis factory to set seeds
-            (p, n, t) ->  {
-                MetropolisSearch<SubsetSolution> rep = new MetropolisSearch<>(p, n, t);
-                rep.setRandom(new Random(seedGenerator.nextLong()));
-                return rep;
-            }
+        int replicas = getNumReplicas();
+        ParallelTempering<SubsetSolution> pt = new ReproducibleParallelTempering<>(
+            createProblem(args, obj, start), createNeighbourhood(args),
+            replicas, minTemperature, maxTemperature,
+            createReplicaFactory(replicas)
         );
-        pt.setReplicaSteps(PT_REPLICA_STEPS);
+        pt.setReplicaSteps(replicaSteps);
         pt.setRandom(new Random(seedGenerator.nextLong()));
         return setStopCriteria(pt, false);
     }
+    
+    private Search<SubsetSolution> createIslandSearch(CoreHunterArguments args,
+                                                      Objective<SubsetSolution, CoreHunterData> obj,
+                                                      Set<Integer> start){
+        int replicas = getNumReplicas();
+        IslandSearch<SubsetSolution> islandSearch = new IslandSearch<>(
+            createProblem(args, obj, start), createNeighbourhood(args),
+            getNumIslands(), replicas, minTemperature, maxTemperature,
+            createReplicaFactory(replicas)
+        );
+        islandSearch.setMigrationInterval(migrationInterval);
+        for(ParallelTempering<SubsetSolution> island : islandSearch.getIslands()){
+            island.setReplicaSteps(replicaSteps);
+            island.setRandom(new Random(seedGenerator.nextLong()));
+        }
+        // step-based stop conditions are expressed in parallel tempering steps:
+        // convert to number of migration rounds (i.e. steps of the island search)
+        setTimeStopCriteria(islandSearch);
+        if(getMaxSteps() > 0){
+            islandSearch.addStopCriterion(new MaxSteps(migrationRounds(getMaxSteps())));
+        }
+        if(getMaxStepsWithoutImprovement() > 0){
+            islandSearch.addStopCriterion(
+                new MaxStepsWithoutImprovement(migrationRounds(getMaxStepsWithoutImprovement()))
+            );
+        }
+        return islandSearch;
+    }
+    
+    private long migrationRounds(long steps){
+        return (steps + migrationInterval - 1) / migrationInterval;
+    }
+    
+    // strictly positive weight vectors: evenly spread for two objectives, else uniformly sampled from the simplex
+    private double[][] paretoDirections(int numDirections, int numObjectives){
+        double[][] weights = new double[numDirections][numObjectives];
+        for(int d = 0; d < numDirections; d++){
+            if(numObjectives == 2){
+                weights[d][0] = (d + 0.5) / numDirections;
+                weights[d][1] = 1.0 - weights[d][0];
+            } else {
+                double sum = 0.0;
+                for(int o = 0; o < numObjectives; o++){
+                    // sample from exponential distribution (avoiding zero weights)
+                    weights[d][o] = -Math.log(1.0 - seedGenerator.nextDouble()) + Double.MIN_NORMAL;
+                    sum += weights[d][o];
+                }
+                for(int o = 0; o < numObjectives; o++){
+                    weights[d][o] /= sum;
+                }
+            }
+        }
+        return weights;
+    }
+    
+    // replicas are created in index order, for each parallel tempering search (island) in turn,
+    // so that the index of a replica follows from the number of replicas created so far
+    private MetropolisSearchFactory<SubsetSolution> createReplicaFactory(int replicas){
+        boolean geometric = isAutomaticNumReplicas();
+        double minTemp = minTemperature;
+        double maxTemp = maxTemperature;
+        AtomicInteger created = new AtomicInteger();
+        // custom Metropolis factory to set seeds (and temperatures, if spaced geometrically)
+        return (p, n, t) ->  {
+            int index = created.getAndIncrement() % replicas;
+            double temp = geometric ? geometricTemperature(index, replicas, minTemp, maxTemp) : t;
+            MetropolisSearch<SubsetSolution> rep = new MetropolisSearch<>(p, n, temp);
+            rep.setRandom(new Random(seedGenerator.nextLong()));
+            return rep;
+        };
+    }
+
+    /**
+     * Compute the temperature of a replica when spacing temperatures geometrically
+     * between the minimum and maximum temperature.
+     * 
+     * @param index index of the replica, in [0, replicas - 1]
+     * @param replicas number of replicas
+     * @param minTemp minimum temperature
+     * @param maxTemp maximum temperature
+     * @return geometrically spaced temperature
+     */
+    private double geometricTemperature(int index, int replicas, double minTemp, double maxTemp){
+        if(replicas == 1){
+            return minTemp;
+        }
+        return minTemp * Math.pow(maxTemp / minTemp, (double) index / (replicas - 1));
+    }
 
     private SubsetProblem<CoreHunterData> createProblem(CoreHunterArguments args,
-                                                        Objective<SubsetSolution, CoreHunterData> obj){
+                                                        Objective<SubsetSolution, CoreHunterData> obj,
+                                                        Set<Integer> start){
         int size = args.getSubsetSize();
         SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(args.getData(), obj, size);
-        problem.setRandomSolutionGenerator((rnd, data) -> {
-            // create subset solution containing always selected ids
-            SubsetSolution sol = new SubsetSolution(data.getIDs(), args.getAlwaysSelected());
-            // find remaining candidates for selection
-            // (exclude both already selected and never selected ids)
-            Set<Integer> candidates = new HashSet<>(sol.getUnselectedIDs());
-            candidates.removeAll(args.getNeverSelected());
-            // randomly select more items to obtain requested size
-            sol.selectAll(SetUtilities.getRandomSubset(candidates, size - sol.getNumSelectedIDs(), rnd));
-            // return random initial solution
-            return sol;
-        });
+        problem.setRandomSolutionGenerator(createSubsetGenerator(args, obj, start));
         return problem;
     }
+    
+    // initial solutions contain all always selected items and all items from the start selection, completed
+    // greedily for distance based objectives (if enabled) and randomly otherwise; a nonempty start selection
+    // (warm start) is always completed greedily, based on the objective if no specific construction applies
+    private SubsetGenerator createSubsetGenerator(CoreHunterArguments args,
+                                                  Objective<SubsetSolution, CoreHunterData> obj,
+                                                  Set<Integer> start){
+        int size = args.getSubsetSize();
+        Set<Integer> always = args.getAlwaysSelected();
+        if(!start.isEmpty()){
+            always = new HashSet<>(always);
+            always.addAll(start);
+        }
+        Set<Integer> never = args.getNeverSelected();
+        if(greedyInitialization || !start.isEmpty()){
+            if(obj instanceof AverageEntryToNearestEntry){
+                DistanceMeasure measure = ((AverageEntryToNearestEntry) obj).getDistanceMeasure();
+                return new FarthestPointSubsetGenerator(size, always, never, measure);
+            }
+            if(obj instanceof AverageAccessionToNearestEntry){
+                DistanceMeasure measure = ((AverageAccessionToNearestEntry) obj).getDistanceMeasure();
+                return new KCenterSubsetGenerator(size, always, never, measure);
+            }
+        }
+        if(!start.isEmpty()){
+            return new GreedySubsetGenerator(size, always, never, obj);
+        }
+        return new RandomSubsetGenerator(size, always, never);
+    }
 
     private Neighbourhood<SubsetSolution> createNeighbourhood(CoreHunterArguments args){
         Set<Integer> fixed = new HashSet<>();
         fixed.addAll(args.getAlwaysSelected());
         fixed.addAll(args.getNeverSelected());
-        return new SingleSwapNeighbourhood(fixed);
+        return new CoreHunterSwapNeighbourhood(fixed);
     }
 
     private Search<SubsetSolution> setStopCriteria(Search<SubsetSolution> search, boolean rescaleSteps){
+        return setStepStopCriteria(setTimeStopCriteria(search), rescaleSteps);
+    }
+    
+    private Search<SubsetSolution> setTimeStopCriteria(Search<SubsetSolution> search){
         if (getTimeLimit() > 0) {
             search.addStopCriterion(new MaxRuntime(getTimeLimit(), TimeUnit.MILLISECONDS));
         }
@@ -425,13 +1122,17 @@ public class CoreHunter {
                 new MaxTimeWithoutImprovement(getMaxTimeWithoutImprovement(), TimeUnit.MILLISECONDS)
             );
         }
+        return search;
+    }
+    
+    private Search<SubsetSolution> setStepStopCriteria(Search<SubsetSolution> search, boolean rescaleSteps){
         if(getMaxSteps() > 0){
-            long steps = rescaleSteps ? getMaxSteps() * PT_REPLICA_STEPS : getMaxSteps();
+            long steps = rescaleSteps ? getMaxSteps() * replicaSteps : getMaxSteps();
             search.addStopCriterion(new MaxSteps(steps));
         }
         if(getMaxStepsWithoutImprovement() > 0){
             long steps = rescaleSteps
-                         ? getMaxStepsWithoutImprovement() * PT_REPLICA_STEPS
+                         ? getMaxStepsWithoutImprovement() * replicaSteps
                          : getMaxStepsWithoutImprovement();
             search.addStopCriterion(new MaxStepsWithoutImprovement(steps));
         }
@@ -471,42 +1172,16 @@ public class CoreHunter {
 
     private Objective<SubsetSolution, CoreHunterData> createObjective(CoreHunterData data,
                                                                       CoreHunterObjective coreHunterObjective) {
+        return createObjective(
+            data, coreHunterObjective, createDistanceMeasure(data, coreHunterObjective.getMeasure())
+        );
+    }
+    
+    private Objective<SubsetSolution, CoreHunterData> createObjective(CoreHunterData data,
+                                                                      CoreHunterObjective coreHunterObjective,
+                                                                      DistanceMeasure distanceMeasure) {
 
         Objective<SubsetSolution, CoreHunterData> objective = null;
-        DistanceMeasure distanceMeasure = null;
-
-        if (coreHunterObjective.getMeasure() != null) {
-            switch (coreHunterObjective.getMeasure()) {
-                case MODIFIED_ROGERS:
-                    if (!data.hasGenotypes()) {
-                        throw new CoreHunterException("Genotypes are required for Modified Rogers distance.");
-                    }
-                    distanceMeasure = new ModifiedRogersDistance();
-                    break;
-                case CAVALLI_SFORZA_EDWARDS:
-                    if (!data.hasGenotypes()) {
-                        throw new CoreHunterException(
-                                "Genotypes are required for Cavalli-Sforza and Edwards distance."
-                        );
-                    }
-                    distanceMeasure = new CavalliSforzaEdwardsDistance();
-                    break;
-                case GOWERS:
-                    if (!data.hasPhenotypes()) {
-                        throw new CoreHunterException("Phenotypes are required for Gower distance.");
-                    }
-                    distanceMeasure = new GowerDistance();
-                    break;
-                case PRECOMPUTED_DISTANCE:
-                    if (!data.hasDistances()) {
-                        throw new CoreHunterException("No precomputed distance matrix has been defined.");
-                    }
-                    distanceMeasure = new PrecomputedDistance();
-                    break;
-                default:
-                    // do nothing (not all objectives require a distance measure)
-            }
-        }
 
         switch (coreHunterObjective.getObjectiveType()) {
             case AV_ACCESSION_TO_NEAREST_ENTRY:
@@ -561,6 +1236,123 @@ public class CoreHunter {
         return objective;
     }
     
+    private DistanceMeasure createDistanceMeasure(CoreHunterData data, CoreHunterMeasure measure) {
+
+        DistanceMeasure distanceMeasure = null;
+
+        if (measure != null) {
+            switch (measure) {
+                case MODIFIED_ROGERS:
+                    if (!data.hasGenotypes()) {
+                        throw new CoreHunterException("Genotypes are required for Modified Rogers distance.");
+                    }
+                    // use bitwise kernel for biallelic data
+                    distanceMeasure = data.getGenotypicData() instanceof BiAllelicGenotypeData
+                                      ? new ModifiedRogersDistanceBiAllelic()
+                                      : new ModifiedRogersDistance();
+                    break;
+                case CAVALLI_SFORZA_EDWARDS:
+                    if (!data.hasGenotypes()) {
+                        throw new CoreHunterException(
+                                "Genotypes are required for Cavalli-Sforza and Edwards distance."
+                        );
+                    }
+                    // use bitwise kernel for biallelic data
+                    distanceMeasure = data.getGenotypicData() instanceof BiAllelicGenotypeData
+                                      ? new CavalliSforzaEdwardsDistanceBiAllelic()
+                                      : new CavalliSforzaEdwardsDistance();
+                    break;
+                case GOWERS:
+                    if (!data.hasPhenotypes()) {
+                        throw new CoreHunterException("Phenotypes are required for Gower distance.");
+                    }
+                    distanceMeasure = new GowerDistance();
+                    break;
+                case PRECOMPUTED_DISTANCE:
+                    if (!data.hasDistances()) {
+                        throw new CoreHunterException("No precomputed distance matrix has been defined.");
+                    }
+                    distanceMeasure = new PrecomputedDistance();
+                    break;
+                default:
+                    // do nothing (not all objectives require a distance measure)
+            }
+        }
+        
+        return distanceMeasure;
+        
+    }
+
+    private void precomputeDistances(CoreHunterArguments arguments){
+        
+        CoreHunterData data = arguments.getData();
+        List<CoreHunterObjective> objectives = arguments.getObjectives();
+        if(objectives == null){
+            return;
+        }
+        
+        // collect cached distance measures
+        List<AbstractDistanceMeasure> measures = new ArrayList<>();
+        for(CoreHunterObjective obj : objectives){
+            DistanceMeasure measure = createDistanceMeasure(data, obj.getMeasure());
+            if(measure instanceof AbstractDistanceMeasure){
+                // create objective to apply its missing values policy to the measure
+                createObjective(data, obj, measure);
+                measures.add((AbstractDistanceMeasure) measure);
+            }
+        }
+        if(measures.isEmpty()){
+            return;
+        }
+        
+        if(listener != null){
+            listener.preprocessingStarted("Precomputing distances.");
+        }
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            for(AbstractDistanceMeasure measure : measures){
+                measure.precomputeDistances(data, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        if(listener != null){
+            listener.preprocessingStopped(String.format(
+                    "Finished precomputing distances (%d threads).", pool.getParallelism()
+            ));
+        }
+        
+    }
+
+    // identifies the objectives (types and measures), core size and fixed selections, and the execution mode,
+    // stop conditions and settings of the random descent normalization searches, i.e. everything except the data
+    // and the seed that determines the normalization ranges; the number of replicas, temperatures and island
+    // settings only apply to the main search, while the number of replica steps rescales step-based stop
+    // conditions of the normalization searches in default and island mode
+    private String normalizationKey(CoreHunterArguments arguments){
+        StringBuilder key = new StringBuilder();
+        for(CoreHunterObjective obj : arguments.getObjectives()){
+            key.append(obj.getObjectiveType()).append('/').append(obj.getMeasure()).append(';');
+        }
+        key.append("size=").append(arguments.getSubsetSize());
+        key.append(";always=").append(sorted(arguments.getAlwaysSelected()));
+        key.append(";never=").append(sorted(arguments.getNeverSelected()));
+        key.append(";mode=").append(mode);
+        key.append(";time=").append(getTimeLimit()).append('/').append(getMaxTimeWithoutImprovement());
+        key.append(";steps=").append(getMaxSteps()).append('/').append(getMaxStepsWithoutImprovement());
+        if(mode != CoreHunterExecutionMode.FAST){
+            key.append(";replicaSteps=").append(replicaSteps);
+        }
+        key.append(";greedy=").append(greedyInitialization);
+        return key.toString();
+    }
+    
+    private List<Integer> sorted(Set<Integer> ids){
+        List<Integer> list = new ArrayList<>(ids);
+        Collections.sort(list);
+        return list;
+    }
+    
     private List<Objective<SubsetSolution, CoreHunterData>> normalizeObjectives(
             CoreHunterArguments arguments, List<Objective<SubsetSolution, CoreHunterData>> objectives
     ){
@@ -576,7 +1368,25 @@ public class CoreHunter {
                        .map(CoreHunterObjective::getNormalizationRange)
                        .anyMatch(Objects::isNull)){
             // one or more objective do not have an explicit normalization range set: determine ranges
-            ranges = normalize(arguments);
+            // (or reuse ranges determined before for the same data and configuration)
+            NormalizationRangeCache cache = arguments.getData().getNormalizationRangeCache();
+            String key = normalizationKey(arguments);
+            List<Range<Double>> cached = cache.get(key);
+            if(cached != null){
+                ranges = new ArrayList<>(cached);
+                // skip seeds drawn for the normalization searches (a precomputed seed per objective and one
+                // drawn when creating each search), so that the main search does not depend on whether the
+                // normalization ranges were cached
+                for(int o = 0; o < 2 * chObjectives.size(); o++){
+                    seedGenerator.nextLong();
+                }
+            } else {
+                ranges = normalize(arguments);
+                // ranges of interrupted normalization searches are not cached
+                if(!isStopRequested()){
+                    cache.put(key, ranges);
+                }
+            }
             // overwrite with explicit ranges where specified
             for(int o = 0; o < chObjectives.size(); o++){
                 Range<Double> range = chObjectives.get(o).getNormalizationRange();
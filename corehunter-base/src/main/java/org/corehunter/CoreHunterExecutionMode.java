@@ -26,5 +26,6 @@ package org.corehunter;
  */
 public enum CoreHunterExecutionMode {
     DEFAULT,
-    FAST;
+    FAST,
+    ISLANDS;
 }
@@ -30,14 +30,16 @@ import org.jamesframework.core.subset.SubsetSolution;
 public interface CoreHunterListener extends SearchListener<SubsetSolution> {
 
     /**
-     * Fired when the pre-processing has started. Called only once prior to the search run.
+     * Fired when a pre-processing stage has started (e.g. distance precomputation or normalization).
+     * Called once for each stage, prior to the search run.
      *
      * @param message the message to be sent to the listener
      */
     default public void preprocessingStarted(String message) {}
 
     /**
-     * Fired when the pre-processing has stopped. Called only once prior to the search run.
+     * Fired when a pre-processing stage has stopped (e.g. distance precomputation or normalization).
+     * Called once for each stage, prior to the search run.
      *
      * @param message the message to be sent to the listener
      */
@@ -0,0 +1,56 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter;
+
+import java.util.List;
+
+/**
+ * Stores normalization ranges of multi-objective configurations, so that these ranges do not have to be determined
+ * again for subsequent executions with the same data, objectives, core size and fixed selections. A cache is
+ * registered on Core Hunter data (see {@link org.corehunter.data.CoreHunterData#setNormalizationRangeCache(
+ * NormalizationRangeCache)}), so that keys only need to identify the configuration. Implementations
+ * should be thread-safe.
+ * 
+ * @author Herman De Beukelaer
+ */
+public interface NormalizationRangeCache {
+
+    /**
+     * Get the normalization ranges stored under the given key.
+     * 
+     * @param key identifies objectives, core size and fixed selections
+     * @return normalization ranges of all objectives, <code>null</code> if not cached
+     */
+    public List<Range<Double>> get(String key);
+    
+    /**
+     * Store normalization ranges under the given key.
+     * 
+     * @param key identifies objectives, core size and fixed selections
+     * @param ranges normalization ranges of all objectives
+     */
+    public void put(String key, List<Range<Double>> ranges);
+    
+    /**
+     * Discard all cached normalization ranges.
+     */
+    public void clear();
+    
+}
@@ -0,0 +1,52 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe in-memory normalization range cache.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class SimpleNormalizationRangeCache implements NormalizationRangeCache {
+
+    private final Map<String, List<Range<Double>>> ranges = new ConcurrentHashMap<>();
+    
+    @Override
+    public List<Range<Double>> get(String key) {
+        return ranges.get(key);
+    }
+
+    @Override
+    public void put(String key, List<Range<Double>> ranges) {
+        this.ranges.put(key, Collections.unmodifiableList(new ArrayList<>(ranges)));
+    }
+
+    @Override
+    public void clear() {
+        ranges.clear();
+    }
+    
+}
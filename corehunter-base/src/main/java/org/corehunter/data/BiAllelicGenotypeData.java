@@ -46,4 +46,15 @@ public interface BiAllelicGenotypeData extends FrequencyGenotypeData {
      */
     public byte getAlleleScore(int id, int markerIndex);
     
+    /**
+     * Get the bit-packed allele scores of all entries, which allow to compute distances with bitwise operations.
+     * The default implementation packs all scores upon each call. Implementations are expected to override this
+     * method and return a precomputed instance.
+     * 
+     * @return packed allele scores
+     */
+    default public PackedAlleleScores getPackedAlleleScores() {
+        return PackedAlleleScores.pack(this);
+    }
+    
 }
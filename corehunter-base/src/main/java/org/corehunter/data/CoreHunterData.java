@@ -20,12 +20,20 @@
 package org.corehunter.data;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.corehunter.CoreHunterMeasure;
 import org.corehunter.CoreHunterObjectiveType;
+import org.corehunter.NormalizationRangeCache;
+import org.corehunter.SimpleNormalizationRangeCache;
+import org.corehunter.objectives.distance.cache.DistanceCache;
+import org.corehunter.objectives.distance.cache.DistanceCacheFactory;
+import org.corehunter.objectives.eval.AverageGenotype;
 import org.jamesframework.core.problems.datatypes.IntegerIdentifiedData;
 
 import uno.informatics.data.Data;
@@ -46,11 +54,20 @@ public class CoreHunterData extends DataPojo implements IntegerIdentifiedData {
      */
     private static final long serialVersionUID = 1L;
     private static final List<CoreHunterMeasure> NO_MEASURES = new LinkedList<>() ;
+    // estimated bytes per item header and per phenotypic value
+    private static final long HEADER_BYTES = 64;
+    private static final long FEATURE_VALUE_BYTES = 16;
     private final FrequencyGenotypeData genotypicData; 
     private final FeatureData phenotypicData;
     private final DistanceMatrixData distancesData;
     private final List<CoreHunterObjectiveType> validObjectiveTypes;
     private final List<CoreHunterMeasure> validMeasures;
+    // distance caches shared by all measures that compute distances from these data (not serialized)
+    private transient ConcurrentMap<String, DistanceCache> distanceCaches;
+    private transient DistanceCacheFactory distanceCacheFactory;
+    private transient volatile AverageGenotype averageGenotype;
+    // normalization ranges of multi-objective configurations evaluated on these data (not serialized)
+    private transient NormalizationRangeCache normalizationRangeCache;
 
     /**
      * Initialize Core Hunter data consisting of genotypic data, phenotypic
@@ -159,6 +176,142 @@ public class CoreHunterData extends DataPojo implements IntegerIdentifiedData {
         return distancesData;
     }
     
+    /**
+     * Get the distance cache registered under the given key, which identifies the distance measure
+     * (including any parameters that affect the computed values). If no such cache exists yet, a new
+     * cache is created with the configured factory (see {@link #setDistanceCacheFactory(DistanceCacheFactory)}).
+     * All objectives and searches that use these data and an equivalent distance measure obtain the
+     * same cache, so that each distance is computed at most once (up to benign races).
+     * Caches are bound to this data object (not to equal data objects) and are not serialized.
+     * 
+     * @param key identifies the distance measure
+     * @return shared distance cache for the given measure
+     */
+    public DistanceCache getDistanceCache(String key) {
+        DistanceCacheFactory factory = getDistanceCacheFactory();
+        return getDistanceCaches().computeIfAbsent(key, k -> factory.createCache(k, getSize()));
+    }
+    
+    /**
+     * Set the factory used to create distance caches for these data. By default, distances are
+     * cached in memory ({@link DistanceCacheFactory#IN_MEMORY}). For large datasets a factory
+     * creating memory-mapped caches may be set (see
+     * {@link org.corehunter.objectives.distance.cache.MappedDistanceCache#factory(java.nio.file.Path, long)}).
+     * Only affects caches that are created afterwards.
+     * 
+     * @param factory distance cache factory; if <code>null</code> the default factory is restored
+     */
+    public synchronized void setDistanceCacheFactory(DistanceCacheFactory factory) {
+        distanceCacheFactory = factory;
+    }
+    
+    /**
+     * Get the factory used to create distance caches for these data.
+     * 
+     * @return distance cache factory
+     */
+    public synchronized DistanceCacheFactory getDistanceCacheFactory() {
+        return distanceCacheFactory != null ? distanceCacheFactory : DistanceCacheFactory.IN_MEMORY;
+    }
+    
+    /**
+     * Discard and close all distance caches linked to these data (see {@link DistanceCache#close()}).
+     * Should not be called while the data is used by an objective or search.
+     */
+    public void clearDistanceCaches() {
+        ConcurrentMap<String, DistanceCache> caches = getDistanceCaches();
+        for (String key : caches.keySet()) {
+            DistanceCache cache = caches.remove(key);
+            if (cache != null) {
+                cache.close();
+            }
+        }
+    }
+    
+    /**
+     * Get the number of bytes of heap memory occupied by the distance caches linked to these data.
+     * 
+     * @return heap memory footprint of all distance caches in bytes
+     * @see DistanceCache#getMemoryFootprint()
+     */
+    public long getDistanceCacheFootprint() {
+        return getDistanceCaches().values().stream().mapToLong(DistanceCache::getMemoryFootprint).sum();
+    }
+    
+    /**
+     * Get the (estimated) number of bytes of heap memory occupied by these data, including item headers,
+     * genotypes, phenotypes, distances and attached distance caches. Genotypes and distances report their own
+     * footprint (see {@link FrequencyGenotypeData#getMemoryFootprint()} and
+     * {@link DistanceMatrixData#getMemoryFootprint()}), so that compactly stored or memory-mapped data are
+     * accounted for correctly. The footprint of the phenotypes is estimated from their number of values.
+     * As distance caches are filled lazily, the footprint may grow while the data is used.
+     * 
+     * @return estimated heap memory footprint in bytes
+     */
+    public long getMemoryFootprint() {
+        long n = getSize();
+        long footprint = n * HEADER_BYTES;
+        if(genotypicData != null){
+            footprint += genotypicData.getMemoryFootprint();
+        }
+        if(phenotypicData != null){
+            footprint += n * phenotypicData.getFeatures().size() * FEATURE_VALUE_BYTES;
+        }
+        if(distancesData != null){
+            footprint += distancesData.getMemoryFootprint();
+        }
+        return footprint + getDistanceCacheFootprint();
+    }
+    
+    /**
+     * Get the cache in which normalization ranges of multi-objective configurations are stored, so that
+     * these ranges only have to be determined once for these data. By default, ranges are cached in memory
+     * as long as this data object exists. The cache is not serialized.
+     * 
+     * @return normalization range cache
+     */
+    public synchronized NormalizationRangeCache getNormalizationRangeCache() {
+        if (normalizationRangeCache == null) {
+            normalizationRangeCache = new SimpleNormalizationRangeCache();
+        }
+        return normalizationRangeCache;
+    }
+    
+    /**
+     * Set the cache in which normalization ranges are stored, e.g. to persist these ranges across
+     * sessions for a specific dataset.
+     * 
+     * @param cache normalization range cache; if <code>null</code> a new in-memory cache is used
+     */
+    public synchronized void setNormalizationRangeCache(NormalizationRangeCache cache) {
+        normalizationRangeCache = cache;
+    }
+    
+    /**
+     * Get the average genotype of the given selection, for the genotypes included in these data.
+     * The most recently computed average genotype is cached, so that it is shared between all allelic
+     * diversity objectives that evaluate the same selection (e.g. when combined in a weighted index).
+     * Subsequent delta evaluations then also share their updated average genotypes.
+     * 
+     * @param ids IDs of selected items
+     * @return average genotype of the selection
+     */
+    public AverageGenotype getAverageGenotype(Collection<Integer> ids) {
+        AverageGenotype avg = averageGenotype;
+        if (avg == null || !avg.isComputedFor(ids)) {
+            avg = new AverageGenotype(ids, genotypicData);
+            averageGenotype = avg;
+        }
+        return avg;
+    }
+    
+    private synchronized ConcurrentMap<String, DistanceCache> getDistanceCaches() {
+        if (distanceCaches == null) {
+            distanceCaches = new ConcurrentHashMap<>();
+        }
+        return distanceCaches;
+    }
+    
     public boolean hasGenotypes(){
         return genotypicData != null;
     }
@@ -39,4 +39,16 @@ public interface DistanceMatrixData extends Data {
      */
     public double getDistance(int idX, int idY);
     
+    /**
+     * Get the (estimated) number of bytes of heap memory occupied by the distances.
+     * The default implementation assumes that the full n x n matrix is stored.
+     * Implementations that store their data more compactly or outside the heap
+     * are expected to override this method.
+     * 
+     * @return heap memory footprint in bytes
+     */
+    default public long getMemoryFootprint() {
+        return (long) getSize() * getSize() * Double.BYTES;
+    }
+    
 }
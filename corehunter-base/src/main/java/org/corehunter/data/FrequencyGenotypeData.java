@@ -94,6 +94,49 @@ public interface FrequencyGenotypeData extends Data {
      */
     public double getAlleleFrequency(int id, int markerIndex, int alleleIndex);
     
+    /**
+     * Get the relative frequencies of all alleles of all markers for the given entry (sample/accession),
+     * concatenated in a single allele vector of length {@link #getTotalNumberOfAlleles()}. The frequencies
+     * of the alleles of marker <code>j</code> are found at the indices from <code>offsets[j]</code> (inclusive)
+     * to <code>offsets[j+1]</code> (exclusive), where <code>offsets</code> is the array returned by
+     * {@link #getAlleleOffsets()}. Missing frequencies are set to {@link Double#NaN}. The returned array
+     * should not be modified.
+     * <p>
+     * The default implementation creates the allele vector upon each call. Implementations are expected to
+     * override this method and return a precomputed vector, so that distance and diversity computations
+     * can stream through all frequencies of an entry without any copying.
+     * 
+     * @param id    the id of the entry, must be one of the IDs returned by {@link #getIDs()}
+     * @return allele vector of the given entry
+     */
+    default public double[] getAlleleFrequencies(int id) {
+        int[] offsets = getAlleleOffsets();
+        double[] freqs = new double[getTotalNumberOfAlleles()];
+        for (int j = 0; j < getNumberOfMarkers(); j++) {
+            for (int a = offsets[j]; a < offsets[j + 1]; a++) {
+                freqs[a] = getAlleleFrequency(id, j, a - offsets[j]);
+            }
+        }
+        return freqs;
+    }
+    
+    /**
+     * Get the index of the first allele of each marker in the allele vectors returned by
+     * {@link #getAlleleFrequencies(int)}. The returned array has length m + 1, where m is the
+     * number of markers, and its last element equals the total number of alleles.
+     * The returned array should not be modified.
+     * 
+     * @return allele offsets per marker
+     */
+    default public int[] getAlleleOffsets() {
+        int m = getNumberOfMarkers();
+        int[] offsets = new int[m + 1];
+        for (int j = 0; j < m; j++) {
+            offsets[j + 1] = offsets[j] + getNumberOfAlleles(j);
+        }
+        return offsets;
+    }
+    
     /**
      * Indicates whether there are missing values (frequencies)
      * for the given entry (sample/accession) at the given marker.
@@ -105,6 +148,29 @@ public interface FrequencyGenotypeData extends Data {
      */
     public boolean hasMissingValues(int id, int markerIndex);
     
+    /**
+     * Get the markers with missing values (frequencies) for the given entry (sample/accession), as a
+     * bitset packed in 64-bit words. Bit <code>j % 64</code> of word <code>j / 64</code> is set if and only if
+     * {@link #hasMissingValues(int, int)} returns <code>true</code> for marker <code>j</code>. Bits beyond the
+     * number of markers are cleared. The returned array should not be modified.
+     * <p>
+     * The default implementation creates the bitset upon each call. Implementations are expected to override
+     * this method and return a precomputed bitset, as it is used in the inner loops of distance computations.
+     * 
+     * @param id    the id of the entry, must be one of the IDs returned by {@link #getIDs()}
+     * @return bitset of markers with missing values in the given entry
+     */
+    default public long[] getMissingMarkers(int id) {
+        int m = getNumberOfMarkers();
+        long[] missing = new long[(m + Long.SIZE - 1) / Long.SIZE];
+        for (int j = 0; j < m; j++) {
+            if (hasMissingValues(id, j)) {
+                missing[j >>> 6] |= 1L << j;
+            }
+        }
+        return missing;
+    }
+    
     /**
      * Write data to file.
      * 
@@ -134,5 +200,16 @@ public interface FrequencyGenotypeData extends Data {
     public void writeData(Path filePath, FileType fileType, SubsetSolution solution,
                           boolean includeSelected, boolean includeUnselected, boolean includeIndex)
                           throws IOException;
+    
+    /**
+     * Get the (estimated) number of bytes of heap memory occupied by the allele frequencies.
+     * The default implementation assumes that one double is stored per allele of each entry.
+     * Implementations that store their data more compactly are expected to override this method.
+     * 
+     * @return heap memory footprint in bytes
+     */
+    default public long getMemoryFootprint() {
+        return (long) getSize() * getTotalNumberOfAlleles() * Double.BYTES;
+    }
 
 }
@@ -0,0 +1,267 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.data;
+
+import static org.corehunter.util.CoreHunterConstants.MISSING_ALLELE_SCORE;
+
+import java.io.Serializable;
+
+import org.corehunter.util.CoreHunterConstants;
+
+/**
+ * Bit-packed allele score (0/1/2) matrix of biallelic genotype data. For each item, scores are encoded in two
+ * bitplanes of w = ceil(m/64) 64-bit words each, where m is the number of markers. Bit j of the first plane is set
+ * if the score of marker j is at least 1 and bit j of the second plane is set if the score is 2. The score of a
+ * marker thus equals the sum of its bits in both planes. Both planes of all items are stored consecutively in a
+ * single array of longs, so that distances between items can be computed with a few bitwise operations and
+ * population counts per word. Missing values are marked in a separate bitplane per item, in which case both
+ * score bits are cleared. Compared to storing one byte per score, memory usage is reduced by more than half.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class PackedAlleleScores implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // number of score bitplanes per item
+    private static final int NUM_PLANES = 2;
+
+    private final int numItems;
+    private final int numMarkers;
+    private final int numWords;
+    private final long[] words;
+    private final long[][] missing;
+
+    /**
+     * Pack the given allele score matrix. All values should be 0, 1 or 2, or
+     * {@link CoreHunterConstants#MISSING_ALLELE_SCORE} for missing values.
+     * All rows should have the same length.
+     * 
+     * @param alleleScores allele score matrix with one row per item and one column per marker
+     * @throws IllegalArgumentException if the matrix contains invalid scores or rows of different length
+     */
+    public PackedAlleleScores(byte[][] alleleScores) {
+        numItems = alleleScores.length;
+        numMarkers = numItems > 0 ? alleleScores[0].length : 0;
+        numWords = (numMarkers + Long.SIZE - 1) / Long.SIZE;
+        words = new long[NUM_PLANES * numWords * numItems];
+        missing = new long[numItems][numWords];
+        for (int i = 0; i < numItems; i++) {
+            if (alleleScores[i].length != numMarkers) {
+                throw new IllegalArgumentException(String.format(
+                    "Incorrect number of markers for item %d. Expected: %d, actual: %d.",
+                    i, numMarkers, alleleScores[i].length
+                ));
+            }
+            for (int j = 0; j < numMarkers; j++) {
+                set(i, j, alleleScores[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Create allele scores from previously packed bitplanes, as returned by {@link #getWords()}
+     * and {@link #getMissingMarkers(int)}. The arrays are not copied.
+     * 
+     * @param numMarkers number of markers m
+     * @param words score bitplanes of all items, consisting of 2w words per item
+     * @param missing bitplane of markers with missing values per item, consisting of w words each
+     * @throws IllegalArgumentException if the dimensions of the bitplanes do not match the number of markers
+     *                                  or if the bitplanes do not encode valid scores
+     */
+    public PackedAlleleScores(int numMarkers, long[] words, long[][] missing) {
+        this.numItems = missing.length;
+        this.numMarkers = numMarkers;
+        numWords = (numMarkers + Long.SIZE - 1) / Long.SIZE;
+        if (words.length != NUM_PLANES * numWords * numItems) {
+            throw new IllegalArgumentException(String.format(
+                "Incorrect number of words. Expected: %d, actual: %d.", NUM_PLANES * numWords * numItems, words.length
+            ));
+        }
+        // mask of bits beyond the last marker in the last word of each plane
+        long unused = numMarkers % Long.SIZE == 0 ? 0L : -1L << numMarkers;
+        for (int i = 0; i < numItems; i++) {
+            if (missing[i].length != numWords) {
+                throw new IllegalArgumentException(String.format(
+                    "Incorrect number of missing value words for item %d. Expected: %d, actual: %d.",
+                    i, numWords, missing[i].length
+                ));
+            }
+            int offset = getOffset(i);
+            for (int k = 0; k < numWords; k++) {
+                long first = words[offset + k];
+                long second = words[offset + numWords + k];
+                long invalid = (second & ~first) | ((first | second) & missing[i][k]);
+                if (k == numWords - 1) {
+                    invalid |= (first | second | missing[i][k]) & unused;
+                }
+                if (invalid != 0) {
+                    throw new IllegalArgumentException(String.format("Invalid bitplanes for item %d.", i));
+                }
+            }
+        }
+        this.words = words;
+        this.missing = missing;
+    }
+
+    /**
+     * Pack the allele scores of the given biallelic genotype data.
+     * 
+     * @param data biallelic genotype data
+     * @return packed allele scores
+     */
+    public static PackedAlleleScores pack(BiAllelicGenotypeData data) {
+        int n = data.getSize();
+        int m = data.getNumberOfMarkers();
+        byte[][] scores = new byte[n][m];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                scores[i][j] = data.getAlleleScore(i, j);
+            }
+        }
+        return new PackedAlleleScores(scores);
+    }
+
+    private void set(int id, int markerIndex, byte score) {
+        int offset = getOffset(id) + (markerIndex >>> 6);
+        long bit = 1L << markerIndex;
+        switch (score) {
+            case 0:
+                break;
+            case 1:
+                words[offset] |= bit;
+                break;
+            case 2:
+                words[offset] |= bit;
+                words[offset + numWords] |= bit;
+                break;
+            case MISSING_ALLELE_SCORE:
+                missing[id][markerIndex >>> 6] |= bit;
+                break;
+            default:
+                throw new IllegalArgumentException(String.format(
+                    "Unexpected allele score for item %d at marker %d. Got: %d (allowed: 0, 1, 2).",
+                    id, markerIndex, score
+                ));
+        }
+    }
+
+    /**
+     * Get the number of items.
+     * 
+     * @return number of items
+     */
+    public int getNumberOfItems() {
+        return numItems;
+    }
+
+    /**
+     * Get the number of markers.
+     * 
+     * @return number of markers
+     */
+    public int getNumberOfMarkers() {
+        return numMarkers;
+    }
+
+    /**
+     * Get the number of words w in each bitplane.
+     * 
+     * @return number of words per bitplane
+     */
+    public int getNumberOfWords() {
+        return numWords;
+    }
+
+    /**
+     * Get the index of the first word of the given item in the array returned by {@link #getWords()}.
+     * The two score bitplanes of this item start at this offset and at offset + w, respectively,
+     * where w is the number of words per bitplane.
+     * 
+     * @param id item id
+     * @return offset of the bitplanes of the given item
+     */
+    public int getOffset(int id) {
+        return NUM_PLANES * numWords * id;
+    }
+
+    /**
+     * Get the underlying array with all score bitplanes of all items. The array is not copied
+     * and should not be modified.
+     * 
+     * @return packed bitplanes
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    /**
+     * Get an allele score.
+     * 
+     * @param id item id
+     * @param markerIndex marker index
+     * @return allele score (0, 1 or 2), or {@link CoreHunterConstants#MISSING_ALLELE_SCORE} if missing
+     */
+    public byte getAlleleScore(int id, int markerIndex) {
+        if (markerIndex < 0 || markerIndex >= numMarkers) {
+            throw new ArrayIndexOutOfBoundsException(markerIndex);
+        }
+        if (isMissing(id, markerIndex)) {
+            return MISSING_ALLELE_SCORE;
+        }
+        int offset = getOffset(id) + (markerIndex >>> 6);
+        return (byte) (((words[offset] >>> markerIndex) & 1L) + ((words[offset + numWords] >>> markerIndex) & 1L));
+    }
+
+    /**
+     * Check whether an allele score is missing.
+     * 
+     * @param id item id
+     * @param markerIndex marker index
+     * @return <code>true</code> if the score is missing
+     */
+    public boolean isMissing(int id, int markerIndex) {
+        if (markerIndex < 0 || markerIndex >= numMarkers) {
+            throw new ArrayIndexOutOfBoundsException(markerIndex);
+        }
+        return ((missing[id][markerIndex >>> 6] >>> markerIndex) & 1L) != 0;
+    }
+    
+    /**
+     * Get the bitplane of markers with missing values for the given item, consisting of w words.
+     * The array is not copied and should not be modified.
+     * 
+     * @param id item id
+     * @return bitset of markers with missing values
+     */
+    public long[] getMissingMarkers(int id) {
+        return missing[id];
+    }
+    
+    /**
+     * Get the number of bytes occupied by the score and missing value bitplanes of all items.
+     * 
+     * @return memory footprint of the bitplanes in bytes
+     */
+    public long getMemoryFootprint() {
+        return ((long) words.length + (long) numItems * numWords) * Long.BYTES;
+    }
+
+}
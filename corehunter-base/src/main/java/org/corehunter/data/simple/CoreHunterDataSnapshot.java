@@ -0,0 +1,763 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.data.simple;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.corehunter.data.BiAllelicGenotypeData;
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.DefaultGenotypeData;
+import org.corehunter.data.DistanceMatrixData;
+import org.corehunter.data.FrequencyGenotypeData;
+import org.corehunter.data.PackedAlleleScores;
+import org.corehunter.objectives.distance.cache.PackedDistanceCache;
+
+import uno.informatics.data.Data;
+import uno.informatics.data.DataType;
+import uno.informatics.data.Feature;
+import uno.informatics.data.Method;
+import uno.informatics.data.Scale;
+import uno.informatics.data.ScaleType;
+import uno.informatics.data.SimpleEntity;
+import uno.informatics.data.dataset.FeatureData;
+import uno.informatics.data.pojo.FeaturePojo;
+import uno.informatics.data.pojo.MethodPojo;
+import uno.informatics.data.pojo.ScalePojo;
+import uno.informatics.data.pojo.SimpleEntityPojo;
+
+/**
+ * Compact binary snapshot of Core Hunter data, that can be read back much faster than the original
+ * text files. The snapshot consists of a small header followed by a table of contents and up to three
+ * sections, for the genotypes, phenotypes and distances, respectively. The genotype and distance sections
+ * start with the dataset name, item headers and marker/allele names, followed by all values in a single
+ * contiguous block of fixed-width entries: packed allele scores (biallelic data), indices of observed alleles
+ * (default data) or concatenated allele frequencies (frequency data) per item, and the packed triangle of
+ * the distance matrix. Each row of such a block is read in bulk directly into the corresponding array; the
+ * distances are read into the packed upper triangle of a {@link SimpleDistanceMatrixData}. The phenotypic
+ * section stores the identifier, name, data type, scale type, bounds and allowed values of each feature,
+ * followed by the values of all items, each prefixed with a tag that indicates its type. No Java objects are
+ * deserialized when reading a snapshot. All values are stored in little endian byte order.
+ * <p>
+ * Sections are read through memory-mapped windows of at most 1 GB each, so that large genotype or distance
+ * blocks can be read in bulk without intermediate copies or parsing. The header records a format version;
+ * snapshots written with a different version are rejected so that they can be recreated from the original
+ * files.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class CoreHunterDataSnapshot {
+
+    /**
+     * Current version of the snapshot format.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x43485344;
+
+    private static final int GENOTYPES = 0;
+    private static final int PHENOTYPES = 1;
+    private static final int DISTANCES = 2;
+    private static final int NUM_SECTIONS = 3;
+
+    // magic, version and offset/length of each section
+    private static final int HEADER_BYTES = 8 + 16 * NUM_SECTIONS;
+
+    private static final byte FREQUENCY_GENOTYPES = 0;
+    private static final byte BIALLELIC_GENOTYPES = 1;
+    private static final byte DEFAULT_GENOTYPES = 2;
+
+    // type tags of phenotypic values
+    private static final byte NULL_VALUE = 0;
+    private static final byte BOOLEAN_VALUE = 1;
+    private static final byte SHORT_VALUE = 2;
+    private static final byte INTEGER_VALUE = 3;
+    private static final byte LONG_VALUE = 4;
+    private static final byte FLOAT_VALUE = 5;
+    private static final byte DOUBLE_VALUE = 6;
+    private static final byte BIG_INTEGER_VALUE = 7;
+    private static final byte BIG_DECIMAL_VALUE = 8;
+    private static final byte DATE_VALUE = 9;
+    private static final byte STRING_VALUE = 10;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private CoreHunterDataSnapshot() {
+        // static methods only
+    }
+
+    /**
+     * Write a snapshot of the given data. The snapshot is first written to a temporary file
+     * that then replaces any existing file at the given path, so that a partially written
+     * snapshot is never read.
+     * 
+     * @param filePath path to the snapshot file
+     * @param data Core Hunter data
+     * @throws IOException if the snapshot can not be written or the phenotypes contain values of an unsupported type
+     */
+    public static void writeData(Path filePath, CoreHunterData data) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path not defined.");
+        }
+        if (data == null) {
+            throw new IllegalArgumentException("Data not defined.");
+        }
+        Path parent = filePath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempPath = Files.createTempFile(parent, filePath.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                long[] offsets = new long[NUM_SECTIONS];
+                long[] lengths = new long[NUM_SECTIONS];
+                Writer writer = new Writer(channel, HEADER_BYTES);
+                if (data.getGenotypicData() != null) {
+                    offsets[GENOTYPES] = writer.position();
+                    writeGenotypes(writer, data.getGenotypicData());
+                    lengths[GENOTYPES] = writer.position() - offsets[GENOTYPES];
+                }
+                if (data.getPhenotypicData() != null) {
+                    offsets[PHENOTYPES] = writer.position();
+                    writePhenotypes(writer, data.getPhenotypicData());
+                    lengths[PHENOTYPES] = writer.position() - offsets[PHENOTYPES];
+                }
+                if (data.getDistancesData() != null) {
+                    offsets[DISTANCES] = writer.position();
+                    writeDistances(writer, data.getDistancesData());
+                    lengths[DISTANCES] = writer.position() - offsets[DISTANCES];
+                }
+                writer.flush();
+                // write header with table of contents
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION);
+                for (int s = 0; s < NUM_SECTIONS; s++) {
+                    header.putLong(offsets[s]).putLong(lengths[s]);
+                }
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(false);
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Read a snapshot that has previously been written with {@link #writeData(Path, CoreHunterData)}.
+     * 
+     * @param filePath path to the snapshot file
+     * @return Core Hunter data
+     * @throws IOException if the file does not exist, can not be read, is not a snapshot
+     *                     or has been written with a different version of the format
+     */
+    public static CoreHunterData readData(Path filePath) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path not defined.");
+        }
+        if (!Files.exists(filePath)) {
+            throw new IOException("File does not exist : " + filePath + ".");
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("File " + filePath + " is not a Core Hunter data snapshot.");
+            }
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("File " + filePath + " is not a Core Hunter data snapshot.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format(
+                        "Unsupported snapshot version %d in file %s. Expected: %d.", version, filePath, VERSION
+                ));
+            }
+            long[] offsets = new long[NUM_SECTIONS];
+            long[] lengths = new long[NUM_SECTIONS];
+            for (int s = 0; s < NUM_SECTIONS; s++) {
+                offsets[s] = header.getLong();
+                lengths[s] = header.getLong();
+                if (lengths[s] > 0 && (offsets[s] < HEADER_BYTES || offsets[s] + lengths[s] > channel.size())) {
+                    throw new IOException("Snapshot file " + filePath + " is truncated or corrupt.");
+                }
+            }
+            FrequencyGenotypeData genotypes = null;
+            FeatureData phenotypes = null;
+            DistanceMatrixData distances = null;
+            if (lengths[GENOTYPES] > 0) {
+                genotypes = readGenotypes(new Reader(channel, offsets[GENOTYPES], lengths[GENOTYPES]));
+            }
+            if (lengths[PHENOTYPES] > 0) {
+                phenotypes = readPhenotypes(new Reader(channel, offsets[PHENOTYPES], lengths[PHENOTYPES]));
+            }
+            if (lengths[DISTANCES] > 0) {
+                distances = readDistances(new Reader(channel, offsets[DISTANCES], lengths[DISTANCES]));
+            }
+            return new CoreHunterData(genotypes, phenotypes, distances);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Snapshot file " + filePath + " contains invalid data.", ex);
+        }
+    }
+
+    private static void writeGenotypes(Writer writer, FrequencyGenotypeData data) throws IOException {
+        int n = data.getSize();
+        int m = data.getNumberOfMarkers();
+        if (data instanceof BiAllelicGenotypeData) {
+            writer.putByte(BIALLELIC_GENOTYPES);
+        } else if (data instanceof DefaultGenotypeData) {
+            writer.putByte(DEFAULT_GENOTYPES);
+        } else {
+            writer.putByte(FREQUENCY_GENOTYPES);
+        }
+        writeHeaders(writer, data);
+        writer.putInt(m);
+        for (int j = 0; j < m; j++) {
+            writer.putString(data.getMarkerName(j));
+        }
+        if (data instanceof BiAllelicGenotypeData) {
+            // packed score bitplanes of all items, followed by missing value bitplanes per item
+            PackedAlleleScores scores = ((BiAllelicGenotypeData) data).getPackedAlleleScores();
+            for (long word : scores.getWords()) {
+                writer.putLong(word);
+            }
+            for (int i = 0; i < n; i++) {
+                for (long word : scores.getMissingMarkers(i)) {
+                    writer.putLong(word);
+                }
+            }
+        } else if (data instanceof DefaultGenotypeData) {
+            writeAlleleNames(writer, data);
+            DefaultGenotypeData observed = (DefaultGenotypeData) data;
+            for (int j = 0; j < m; j++) {
+                writer.putInt(observed.getNumberOfObservedAllelesPerIndividual(j));
+            }
+            // index of each observed allele within the allele names of the marker (-1 if missing), per item
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++) {
+                    for (int o = 0; o < observed.getNumberOfObservedAllelesPerIndividual(j); o++) {
+                        writer.putInt(alleleIndex(data, j, observed.getObservedAllele(i, j, o)));
+                    }
+                }
+            }
+        } else {
+            writeAlleleNames(writer, data);
+            // concatenated allele frequencies per item
+            for (int i = 0; i < n; i++) {
+                for (double frequency : data.getAlleleFrequencies(i)) {
+                    writer.putDouble(frequency);
+                }
+            }
+        }
+    }
+
+    private static FrequencyGenotypeData readGenotypes(Reader reader) throws IOException {
+        byte type = reader.getByte();
+        String name = reader.getString();
+        SimpleEntity[] headers = readHeaders(reader);
+        int n = headers.length;
+        int m = reader.getInt();
+        String[] markerNames = new String[m];
+        for (int j = 0; j < m; j++) {
+            markerNames[j] = reader.getString();
+        }
+        switch (type) {
+            case BIALLELIC_GENOTYPES: {
+                int w = (m + Long.SIZE - 1) / Long.SIZE;
+                long[] words = new long[2 * w * n];
+                for (int i = 0; i < n; i++) {
+                    reader.getLongs(words, 2 * w * i, 2 * w);
+                }
+                long[][] missing = new long[n][w];
+                for (int i = 0; i < n; i++) {
+                    reader.getLongs(missing[i], 0, w);
+                }
+                PackedAlleleScores scores = new PackedAlleleScores(m, words, missing);
+                return new SimpleBiAllelicGenotypeData(name, headers, markerNames, scores);
+            }
+            case DEFAULT_GENOTYPES: {
+                String[][] alleleNames = readAlleleNames(reader, m);
+                int[] observations = new int[m];
+                int total = 0;
+                for (int j = 0; j < m; j++) {
+                    observations[j] = reader.getInt();
+                    total += observations[j];
+                }
+                String[][][] observed = new String[n][m][];
+                int[] row = new int[total];
+                for (int i = 0; i < n; i++) {
+                    reader.getInts(row);
+                    int offset = 0;
+                    for (int j = 0; j < m; j++) {
+                        observed[i][j] = new String[observations[j]];
+                        for (int o = 0; o < observations[j]; o++) {
+                            int a = row[offset++];
+                            observed[i][j][o] = a < 0 ? null : alleleNames[j][a];
+                        }
+                    }
+                }
+                return new SimpleDefaultGenotypeData(name, headers, markerNames, observed);
+            }
+            case FREQUENCY_GENOTYPES: {
+                String[][] alleleNames = readAlleleNames(reader, m);
+                int total = 0;
+                for (int j = 0; j < m; j++) {
+                    total += alleleNames[j].length;
+                }
+                double[][] frequencies = new double[n][total];
+                for (int i = 0; i < n; i++) {
+                    reader.getDoubles(frequencies[i]);
+                }
+                return new SimpleFrequencyGenotypeData(name, headers, markerNames, alleleNames, frequencies);
+            }
+            default:
+                throw new IOException("Unknown genotype data type " + type + " in snapshot.");
+        }
+    }
+
+    private static void writeAlleleNames(Writer writer, FrequencyGenotypeData data) throws IOException {
+        for (int j = 0; j < data.getNumberOfMarkers(); j++) {
+            int k = data.getNumberOfAlleles(j);
+            writer.putInt(k);
+            for (int a = 0; a < k; a++) {
+                writer.putString(data.getAlleleName(j, a));
+            }
+        }
+    }
+
+    private static String[][] readAlleleNames(Reader reader, int m) throws IOException {
+        String[][] alleleNames = new String[m][];
+        for (int j = 0; j < m; j++) {
+            alleleNames[j] = new String[reader.getInt()];
+            for (int a = 0; a < alleleNames[j].length; a++) {
+                alleleNames[j][a] = reader.getString();
+            }
+        }
+        return alleleNames;
+    }
+
+    private static int alleleIndex(FrequencyGenotypeData data, int markerIndex, String allele) {
+        if (allele == null) {
+            return -1;
+        }
+        for (int a = 0; a < data.getNumberOfAlleles(markerIndex); a++) {
+            if (allele.equals(data.getAlleleName(markerIndex, a))) {
+                return a;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Observed allele %s is not a known allele of marker %d.", allele, markerIndex
+        ));
+    }
+
+    private static void writePhenotypes(Writer writer, FeatureData data) throws IOException {
+        writeHeaders(writer, data);
+        List<? extends Feature> features = data.getFeatures();
+        writer.putInt(features.size());
+        for (Feature feature : features) {
+            writeFeature(writer, feature);
+        }
+        // tagged values per item
+        int n = data.getSize();
+        for (int i = 0; i < n; i++) {
+            Object[] values = data.getRow(i).getValuesAsArray();
+            for (int f = 0; f < features.size(); f++) {
+                writeValue(writer, values[f]);
+            }
+        }
+    }
+
+    private static FeatureData readPhenotypes(Reader reader) throws IOException {
+        String name = reader.getString();
+        SimpleEntity[] headers = readHeaders(reader);
+        int numFeatures = reader.getInt();
+        List<Feature> features = new ArrayList<>(numFeatures);
+        for (int f = 0; f < numFeatures; f++) {
+            features.add(readFeature(reader));
+        }
+        List<List<Object>> rows = new ArrayList<>(headers.length);
+        for (int i = 0; i < headers.length; i++) {
+            Object[] values = new Object[numFeatures];
+            for (int f = 0; f < numFeatures; f++) {
+                values[f] = readValue(reader);
+            }
+            rows.add(Arrays.asList(values));
+        }
+        return new SimplePhenotypeData(name, features, Arrays.asList(headers), rows);
+    }
+
+    // writes feature with its method and scale
+    private static void writeFeature(Writer writer, Feature feature) throws IOException {
+        writer.putString(feature.getUniqueIdentifier());
+        writer.putString(feature.getName());
+        writer.putString(feature.getDescription());
+        Method method = feature.getMethod();
+        writer.putString(method.getUniqueIdentifier());
+        writer.putString(method.getName());
+        Scale scale = method.getScale();
+        writer.putString(scale.getUniqueIdentifier());
+        writer.putString(scale.getName());
+        writer.putString(scale.getDataType().name());
+        writer.putString(scale.getScaleType().name());
+        writeValue(writer, scale.getMinimumValue());
+        writeValue(writer, scale.getMaximumValue());
+        List<Object> values = scale.getValues();
+        if (values == null) {
+            writer.putInt(-1);
+        } else {
+            writer.putInt(values.size());
+            for (Object value : values) {
+                writeValue(writer, value);
+            }
+        }
+    }
+
+    private static Feature readFeature(Reader reader) throws IOException {
+        String id = reader.getString();
+        String name = reader.getString();
+        String description = reader.getString();
+        String methodId = reader.getString();
+        String methodName = reader.getString();
+        String scaleId = reader.getString();
+        String scaleName = reader.getString();
+        DataType dataType = DataType.valueOf(reader.getString());
+        ScaleType scaleType = ScaleType.valueOf(reader.getString());
+        Number min = readNumber(reader);
+        Number max = readNumber(reader);
+        ScalePojo scale = new ScalePojo(scaleId, scaleName, dataType, scaleType);
+        int numValues = reader.getInt();
+        if (numValues >= 0) {
+            List<Object> values = new ArrayList<>(numValues);
+            for (int v = 0; v < numValues; v++) {
+                values.add(readValue(reader));
+            }
+            scale.setValues(values);
+        }
+        scale.setMinimumValue(min);
+        scale.setMaximumValue(max);
+        return new FeaturePojo(id, name, description, new MethodPojo(methodId, methodName, scale));
+    }
+
+    // writes a phenotypic value preceded by its type tag
+    private static void writeValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            writer.putByte(NULL_VALUE);
+        } else if (value instanceof Boolean) {
+            writer.putByte(BOOLEAN_VALUE);
+            writer.putByte((byte) ((Boolean) value ? 1 : 0));
+        } else if (value instanceof Short) {
+            writer.putByte(SHORT_VALUE);
+            writer.putInt((Short) value);
+        } else if (value instanceof Integer) {
+            writer.putByte(INTEGER_VALUE);
+            writer.putInt((Integer) value);
+        } else if (value instanceof Long) {
+            writer.putByte(LONG_VALUE);
+            writer.putLong((Long) value);
+        } else if (value instanceof Float) {
+            writer.putByte(FLOAT_VALUE);
+            writer.putInt(Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Double) {
+            writer.putByte(DOUBLE_VALUE);
+            writer.putDouble((Double) value);
+        } else if (value instanceof BigInteger) {
+            writer.putByte(BIG_INTEGER_VALUE);
+            writer.putString(value.toString());
+        } else if (value instanceof BigDecimal) {
+            writer.putByte(BIG_DECIMAL_VALUE);
+            writer.putString(value.toString());
+        } else if (value instanceof Date) {
+            writer.putByte(DATE_VALUE);
+            writer.putLong(((Date) value).getTime());
+        } else if (value instanceof String) {
+            writer.putByte(STRING_VALUE);
+            writer.putString((String) value);
+        } else {
+            throw new IOException("Unsupported phenotypic value of type " + value.getClass().getName() + ".");
+        }
+    }
+
+    private static Object readValue(Reader reader) throws IOException {
+        byte type = reader.getByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case BOOLEAN_VALUE:
+                return reader.getByte() != 0;
+            case SHORT_VALUE:
+                return (short) reader.getInt();
+            case INTEGER_VALUE:
+                return reader.getInt();
+            case LONG_VALUE:
+                return reader.getLong();
+            case FLOAT_VALUE:
+                return Float.intBitsToFloat(reader.getInt());
+            case DOUBLE_VALUE:
+                return reader.getDouble();
+            case BIG_INTEGER_VALUE:
+                return new BigInteger(reader.getString());
+            case BIG_DECIMAL_VALUE:
+                return new BigDecimal(reader.getString());
+            case DATE_VALUE:
+                return new Date(reader.getLong());
+            case STRING_VALUE:
+                return reader.getString();
+            default:
+                throw new IOException("Unknown phenotypic value type " + type + " in snapshot.");
+        }
+    }
+
+    private static Number readNumber(Reader reader) throws IOException {
+        Object value = readValue(reader);
+        if (value != null && !(value instanceof Number)) {
+            throw new IOException("Expected numeric scale bound in snapshot.");
+        }
+        return (Number) value;
+    }
+
+    private static void writeDistances(Writer writer, DistanceMatrixData data) throws IOException {
+        writeHeaders(writer, data);
+        // packed upper triangle, row by row of the lower triangle
+        int n = data.getSize();
+        for (int y = 1; y < n; y++) {
+            for (int x = 0; x < y; x++) {
+                writer.putDouble(data.getDistance(x, y));
+            }
+        }
+    }
+
+    private static DistanceMatrixData readDistances(Reader reader) throws IOException {
+        String name = reader.getString();
+        SimpleEntity[] headers = readHeaders(reader);
+        int n = headers.length;
+        if (n > PackedDistanceCache.MAX_SIZE) {
+            throw new IOException(String.format(
+                    "Number of items %d exceeds maximum size %d of distance matrix.", n, PackedDistanceCache.MAX_SIZE
+            ));
+        }
+        // rows are stored in the order of the packed upper triangle
+        double[] distances = new double[(int) PackedDistanceCache.numberOfEntries(n)];
+        for (int y = 1; y < n; y++) {
+            reader.getDoubles(distances, (int) PackedDistanceCache.index(0, y), y);
+        }
+        return new SimpleDistanceMatrixData(name, headers, distances);
+    }
+
+    // writes dataset name and item headers
+    private static void writeHeaders(Writer writer, Data data) throws IOException {
+        writer.putString(data.getName());
+        int n = data.getSize();
+        writer.putInt(n);
+        for (int i = 0; i < n; i++) {
+            SimpleEntity header = data.getHeader(i);
+            writer.putString(header.getUniqueIdentifier());
+            writer.putString(header.getName());
+        }
+    }
+
+    // reads item headers (dataset name is read by caller)
+    private static SimpleEntity[] readHeaders(Reader reader) throws IOException {
+        SimpleEntity[] headers = new SimpleEntity[reader.getInt()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = new SimpleEntityPojo(reader.getString(), reader.getString());
+        }
+        return headers;
+    }
+
+    /**
+     * Writes values to a file channel through a buffer.
+     */
+    private static class Writer {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position;
+
+        Writer(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        // position at which the next value is written
+        long position() {
+            return position + buffer.position();
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putBytes(byte[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), values.length - offset);
+                buffer.put(values, offset, length);
+                offset += length;
+            }
+        }
+
+        // null strings are written with length -1
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                putInt(bytes.length);
+                putBytes(bytes);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+    }
+
+    /**
+     * Reads values from a section of a file channel through memory-mapped windows.
+     */
+    private static class Reader {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private MappedByteBuffer window;
+
+        Reader(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            position = offset;
+            end = offset + length;
+        }
+
+        byte getByte() throws IOException {
+            return ensure(1).get();
+        }
+
+        int getInt() throws IOException {
+            return ensure(4).getInt();
+        }
+
+        void getBytes(byte[] values) throws IOException {
+            ensure(values.length).get(values);
+        }
+
+        void getInts(int[] values) throws IOException {
+            ByteBuffer bytes = ensure(4 * values.length);
+            bytes.asIntBuffer().get(values);
+            bytes.position(bytes.position() + 4 * values.length);
+        }
+
+        void getLongs(long[] values, int offset, int length) throws IOException {
+            ByteBuffer bytes = ensure(8 * length);
+            bytes.asLongBuffer().get(values, offset, length);
+            bytes.position(bytes.position() + 8 * length);
+        }
+
+        long getLong() throws IOException {
+            return ensure(8).getLong();
+        }
+
+        double getDouble() throws IOException {
+            return ensure(8).getDouble();
+        }
+
+        void getDoubles(double[] values) throws IOException {
+            getDoubles(values, 0, values.length);
+        }
+
+        void getDoubles(double[] values, int offset, int length) throws IOException {
+            ByteBuffer bytes = ensure(8 * length);
+            bytes.asDoubleBuffer().get(values, offset, length);
+            bytes.position(bytes.position() + 8 * length);
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            getBytes(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // returns the current window after making sure that it holds the requested number of bytes
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (window == null || window.remaining() < bytes) {
+                if (window != null) {
+                    position += window.position();
+                }
+                long length = Math.min(Math.max(WINDOW_SIZE, bytes), end - position);
+                if (length < bytes) {
+                    throw new IOException("Unexpected end of snapshot section.");
+                }
+                window = channel.map(MapMode.READ_ONLY, position, length);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return window;
+        }
+
+    }
+
+}
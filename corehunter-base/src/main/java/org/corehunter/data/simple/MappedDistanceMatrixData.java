@@ -0,0 +1,174 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.data.simple;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.corehunter.data.DistanceMatrixData;
+import org.corehunter.exceptions.CoreHunterException;
+import org.corehunter.objectives.distance.cache.MappedDistanceCache;
+
+import uno.informatics.data.SimpleEntity;
+import uno.informatics.data.pojo.DataPojo;
+
+/**
+ * Distance matrix that is stored in a memory-mapped file, in the packed upper triangular
+ * format of a {@link MappedDistanceCache}. Intended for datasets that are too large to hold
+ * a (packed) distance matrix in the Java heap. Distances are read directly from the mapped
+ * file without any copying. Item headers are not stored in the file and should be provided
+ * when opening the matrix. The file records a fingerprint of the item identifiers (see
+ * {@link MappedDistanceCache#fingerprint(uno.informatics.data.Data, Path...)}), so that it
+ * can not be opened with the headers of another dataset.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class MappedDistanceMatrixData extends DataPojo implements DistanceMatrixData {
+
+    /**
+     * Key with which distance matrix files are created.
+     */
+    public static final String KEY = "Precomputed distance matrix";
+    
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 1L;
+
+    // distance matrix (not serializable)
+    private final transient MappedDistanceCache distances;
+
+    /**
+     * Create distance matrix data backed by the given complete mapped distance cache.
+     * The dataset name is set to "Precomputed distance matrix".
+     * 
+     * @param headers item headers; each item should at least have a unique identifier
+     *                (names are optional)
+     * @param distances mapped distance cache in which all distances are stored
+     * @throws IllegalArgumentException if the number of headers does not match the size of
+     *                                  the cache, if the cache is not marked complete or if
+     *                                  it was created for other items
+     */
+    public MappedDistanceMatrixData(SimpleEntity[] headers, MappedDistanceCache distances) {
+        this(KEY, headers, distances);
+    }
+
+    /**
+     * Create distance matrix data backed by the given complete mapped distance cache.
+     * 
+     * @param name dataset name
+     * @param headers item headers; each item should at least have a unique identifier
+     *                (names are optional)
+     * @param distances mapped distance cache in which all distances are stored
+     * @throws IllegalArgumentException if the number of headers does not match the size of
+     *                                  the cache, if the cache is not marked complete or if
+     *                                  it was created for other items
+     */
+    public MappedDistanceMatrixData(String name, SimpleEntity[] headers, MappedDistanceCache distances) {
+        super(name, headers);
+        if (distances.getSize() != getSize()) {
+            throw new IllegalArgumentException(String.format(
+                    "Number of headers %d does not match size %d of distance matrix.", getSize(), distances.getSize()
+            ));
+        }
+        if (!distances.isMarkedComplete()) {
+            throw new IllegalArgumentException("Distance matrix is not complete.");
+        }
+        if (distances.getFingerprint() != MappedDistanceCache.fingerprint(this)) {
+            throw new IllegalArgumentException("Distance matrix was created for other items.");
+        }
+        this.distances = distances;
+    }
+
+    @Override
+    public double getDistance(int idX, int idY) {
+        return distances.get(idX, idY);
+    }
+
+    /**
+     * Returns zero, as the distances are read from a memory-mapped file outside the Java heap.
+     * 
+     * @return zero
+     */
+    @Override
+    public long getMemoryFootprint() {
+        return 0;
+    }
+
+    /**
+     * Get the underlying mapped distance cache.
+     * 
+     * @return mapped distance cache
+     */
+    public MappedDistanceCache getDistances() {
+        return distances;
+    }
+
+    /**
+     * Open a distance matrix file that has previously been written with
+     * {@link #writeData(Path, DistanceMatrixData)}.
+     * 
+     * @param filePath path to the distance matrix file
+     * @param name dataset name
+     * @param headers item headers
+     * @return mapped distance matrix data
+     * @throws CoreHunterException if the file does not exist, can not be mapped or was written
+     *                             for other items
+     * @throws IllegalArgumentException if the number of headers does not match the size of the
+     *                                  distance matrix or if the matrix is not complete
+     */
+    public static MappedDistanceMatrixData readData(Path filePath, String name, SimpleEntity[] headers) {
+        long fingerprint = MappedDistanceCache.fingerprint(new DataPojo(name, headers));
+        return new MappedDistanceMatrixData(name, headers, MappedDistanceCache.open(filePath, KEY, fingerprint));
+    }
+
+    /**
+     * Write the given distance matrix to a file that can be memory-mapped and return the mapped data.
+     * An existing file at the given path is overwritten. Name and headers are copied from the given data.
+     * 
+     * @param filePath path to the distance matrix file
+     * @param data distance matrix data
+     * @return mapped distance matrix data
+     * @throws CoreHunterException if the file can not be created or mapped
+     */
+    public static MappedDistanceMatrixData writeData(Path filePath, DistanceMatrixData data) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException ex) {
+            throw new CoreHunterException("Can not overwrite file " + filePath + ".", ex);
+        }
+        int n = data.getSize();
+        long fingerprint = MappedDistanceCache.fingerprint(data);
+        MappedDistanceCache distances = new MappedDistanceCache(filePath, n, KEY, fingerprint);
+        for (int y = 1; y < n; y++) {
+            for (int x = 0; x < y; x++) {
+                distances.put(x, y, data.getDistance(x, y));
+            }
+        }
+        distances.markComplete();
+        SimpleEntity[] headers = new SimpleEntity[n];
+        for (int i = 0; i < n; i++) {
+            headers[i] = data.getHeader(i);
+        }
+        return new MappedDistanceMatrixData(data.getName(), headers, distances);
+    }
+
+}
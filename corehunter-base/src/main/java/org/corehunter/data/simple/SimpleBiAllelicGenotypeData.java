@@ -31,6 +31,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import org.corehunter.data.BiAllelicGenotypeData;
+import org.corehunter.data.PackedAlleleScores;
 import org.corehunter.util.CoreHunterConstants;
 import org.jamesframework.core.subset.SubsetSolution;
 
@@ -56,8 +57,9 @@ public class SimpleBiAllelicGenotypeData extends DataPojo implements BiAllelicGe
     private static final String IDENTIFIERS_HEADER = "ID";
     private static final String SELECTED_HEADER = "SELECTED";
     
-    private final byte[][] alleleScores;
+    private final PackedAlleleScores alleleScores; // bit-packed allele score matrix
     private final String[] markerNames; // null element means no marker name assigned
+    private final int[] alleleOffsets; // two alleles per marker
 
     /**
      * Create data with name "Biallelic marker data". For details of the arguments see
@@ -146,28 +148,77 @@ public class SimpleBiAllelicGenotypeData extends DataPojo implements BiAllelicGe
             }
         }
         
-        // copy allele scores
-        this.alleleScores = new byte[n][m];
-        for (int i = 0; i < n; i++) {
-            this.alleleScores[i] = Arrays.copyOf(alleleScores[i], m);
-        }
+        // pack allele scores
+        this.alleleScores = new PackedAlleleScores(alleleScores);
         
         // check and copy marker names
-        if (markerNames == null) {
-            this.markerNames = new String[m];
-        } else {
-            if (markerNames.length != m) {
-                throw new IllegalArgumentException(
-                    String.format(
-                        "Incorrect number of marker names provided. Expected: %d, actual: %d.",
-                        m, markerNames.length
-                    )
-                );
-            }
-            this.markerNames = Arrays.copyOf(markerNames, m);
+        this.markerNames = copyMarkerNames(markerNames, m);
+        
+        // compute allele offsets
+        this.alleleOffsets = computeAlleleOffsets(m);
+
+    }
+
+    /**
+     * Create data with given dataset name, item headers, marker names and previously packed allele scores.
+     * The number of items and markers are inferred from the packed allele scores, which are not copied.
+     * The requirements for item headers and marker names are the same as for
+     * {@link #SimpleBiAllelicGenotypeData(String, SimpleEntity[], String[], byte[][])}.
+     * 
+     * @param datasetName name of the dataset
+     * @param itemHeaders item headers; its length should equal the number of items
+     *                    and each item should at least have a unique identifier
+     * @param markerNames marker names, <code>null</code> if no marker names are assigned
+     * @param alleleScores packed allele scores, may not be <code>null</code>
+     */
+    public SimpleBiAllelicGenotypeData(String datasetName, SimpleEntity[] itemHeaders,
+                                       String[] markerNames, PackedAlleleScores alleleScores) {
+
+        // pass dataset name and item headers to parent
+        super(datasetName, itemHeaders);
+
+        if (alleleScores.getNumberOfItems() != getSize()) {
+            throw new IllegalArgumentException(String.format(
+                "Number of headers %d does not match number of items %d.", getSize(), alleleScores.getNumberOfItems()
+            ));
+        }
+        if (alleleScores.getNumberOfItems() == 0) {
+            throw new IllegalArgumentException("No data (zero rows).");
         }
+        if (alleleScores.getNumberOfMarkers() == 0) {
+            throw new IllegalArgumentException("No markers (zero columns).");
+        }
+
+        this.alleleScores = alleleScores;
+        this.markerNames = copyMarkerNames(markerNames, alleleScores.getNumberOfMarkers());
+        this.alleleOffsets = computeAlleleOffsets(alleleScores.getNumberOfMarkers());
 
     }
+    
+    // offsets of the two alleles of each marker in the allele vectors
+    private static int[] computeAlleleOffsets(int m) {
+        int[] offsets = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            offsets[j] = 2 * j;
+        }
+        return offsets;
+    }
+
+    // check and copy marker names
+    private static String[] copyMarkerNames(String[] markerNames, int m) {
+        if (markerNames == null) {
+            return new String[m];
+        }
+        if (markerNames.length != m) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Incorrect number of marker names provided. Expected: %d, actual: %d.",
+                    m, markerNames.length
+                )
+            );
+        }
+        return Arrays.copyOf(markerNames, m);
+    }
 
     /**
      * Read biallelic genotype data from file. Only file types
@@ -370,12 +421,22 @@ public class SimpleBiAllelicGenotypeData extends DataPojo implements BiAllelicGe
     
     @Override
     public byte getAlleleScore(int id, int markerIndex) {
-        return alleleScores[id][markerIndex];
+        return alleleScores.getAlleleScore(id, markerIndex);
+    }
+    
+    @Override
+    public PackedAlleleScores getPackedAlleleScores() {
+        return alleleScores;
+    }
+    
+    @Override
+    public long getMemoryFootprint() {
+        return alleleScores.getMemoryFootprint();
     }
 
     @Override
     public double getAlleleFrequency(int id, int markerIndex, int alleleIndex) {
-        byte score = alleleScores[id][markerIndex];
+        byte score = alleleScores.getAlleleScore(id, markerIndex);
         if(alleleIndex < 0 || alleleIndex > 1){
             throw new ArrayIndexOutOfBoundsException(alleleIndex);
         }
@@ -387,9 +448,54 @@ public class SimpleBiAllelicGenotypeData extends DataPojo implements BiAllelicGe
         }
     }
 
+    /**
+     * Decodes the allele vector of the given entry directly from the packed bitplanes. A new array
+     * is created upon each call, as storing all allele vectors would undo the memory savings of
+     * bit-packing.
+     * 
+     * @param id    the id of the entry, must be one of the IDs returned by {@link #getIDs()}
+     * @return allele vector of the given entry
+     */
+    @Override
+    public double[] getAlleleFrequencies(int id) {
+        int m = getNumberOfMarkers();
+        int w = alleleScores.getNumberOfWords();
+        long[] words = alleleScores.getWords();
+        long[] missing = alleleScores.getMissingMarkers(id);
+        int offset = alleleScores.getOffset(id);
+        double[] freqs = new double[2 * m];
+        for (int k = 0; k < w; k++) {
+            long first = words[offset + k];
+            long second = words[offset + w + k];
+            long miss = missing[k];
+            int end = Math.min(m, (k + 1) * Long.SIZE);
+            for (int j = k * Long.SIZE; j < end; j++) {
+                if (((miss >>> j) & 1L) != 0) {
+                    freqs[2 * j] = Double.NaN;
+                    freqs[2 * j + 1] = Double.NaN;
+                } else {
+                    double f = (((first >>> j) & 1L) + ((second >>> j) & 1L)) / 2.0;
+                    freqs[2 * j] = 1.0 - f;
+                    freqs[2 * j + 1] = f;
+                }
+            }
+        }
+        return freqs;
+    }
+    
+    @Override
+    public int[] getAlleleOffsets() {
+        return alleleOffsets;
+    }
+
     @Override
     public boolean hasMissingValues(int id, int markerIndex) {
-        return alleleScores[id][markerIndex] == MISSING_ALLELE_SCORE;
+        return alleleScores.isMissing(id, markerIndex);
+    }
+    
+    @Override
+    public long[] getMissingMarkers(int id) {
+        return alleleScores.getMissingMarkers(id);
     }
 
     @Override
@@ -506,9 +612,9 @@ public class SimpleBiAllelicGenotypeData extends DataPojo implements BiAllelicGe
                 }
                 
                 // write allele scores
-                for (int a = 0; a < alleleScores[id].length; a++) {
+                for (int a = 0; a < getNumberOfMarkers(); a++) {
                     writer.newColumn();
-                    byte score = alleleScores[id][a];
+                    byte score = alleleScores.getAlleleScore(id, a);
                     writer.writeCell(score == MISSING_ALLELE_SCORE ? null : score);
                 }
                 
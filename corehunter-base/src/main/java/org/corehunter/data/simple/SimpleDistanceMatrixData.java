@@ -29,6 +29,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import org.corehunter.data.DistanceMatrixData;
+import org.corehunter.objectives.distance.cache.PackedDistanceCache;
 import org.jamesframework.core.subset.SubsetSolution;
 
 import uno.informatics.common.io.IOUtilities;
@@ -43,7 +44,8 @@ import uno.informatics.data.pojo.SimpleEntityPojo;
 
 /**
  * Simple implementation of a distance matrix that stores all values in a
- * two-dimensional double array.
+ * single double array, holding the packed upper triangle of the symmetric
+ * matrix in the format of a {@link PackedDistanceCache}.
  * 
  * @author Guy Davenport, Herman De Beukelaer
  */
@@ -60,8 +62,8 @@ public class SimpleDistanceMatrixData extends DataPojo implements DistanceMatrix
     private static final String NAMES_HEADER = "NAME";
     private static final String SELECTED_HEADER = "SELECTED";
 
-    // distance matrix
-    private final double[][] distances;
+    // packed upper triangle of distance matrix
+    private final double[] distances;
 
     /**
      * Create distance matrix data given the item headers and distances. Item
@@ -119,9 +121,9 @@ public class SimpleDistanceMatrixData extends DataPojo implements DistanceMatrix
         // pass dataset name, size and item headers to parent
         super(name, headers);
 
-        // validate distances and copy to internal array
+        // validate distances and copy upper triangle to internal array
         int n = distances.length;
-        this.distances = new double[n][n];
+        this.distances = new double[numberOfEntries(n)];
 
         for (int r = 0; r < n; r++) {
             // check row length
@@ -144,15 +146,78 @@ public class SimpleDistanceMatrixData extends DataPojo implements DistanceMatrix
                     throw new IllegalArgumentException("Diagonal values should be zero.");
                 }
                 // copy
-                this.distances[r][c] = distances[r][c];
+                if (r < c) {
+                    this.distances[(int) PackedDistanceCache.index(r, c)] = distances[r][c];
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Create distance matrix data given the dataset name, item headers and
+     * the packed upper triangle of the distance matrix, in which the distance
+     * between items x &lt; y is found at index y(y-1)/2 + x (see
+     * {@link PackedDistanceCache#index(int, int)}). The given array is not
+     * copied and should not be modified afterwards.
+     * <p>
+     * All values should be positive. Item headers are required. Each item
+     * should at least have a unique identifier (names are optional).
+     * 
+     * @param name
+     *            dataset name
+     * @param headers
+     *            item headers, one for each item of the distance matrix
+     * @param distances
+     *            packed upper triangle of the distance matrix, of length
+     *            n(n-1)/2 where n is the number of headers
+     * @throws IllegalArgumentException
+     *             if the length of the packed distances does not match the
+     *             number of headers, if a distance is negative, or if unique
+     *             identifiers are missing in one or more headers
+     */
+    public SimpleDistanceMatrixData(String name, SimpleEntity[] headers, double[] distances) {
+
+        // pass dataset name, size and item headers to parent
+        super(name, headers);
+
+        // validate distances
+        if (distances.length != numberOfEntries(getSize())) {
+            throw new IllegalArgumentException(String.format(
+                "Number of packed distances %d does not match number of items %d.", distances.length, getSize()));
+        }
+        for (double distance : distances) {
+            if (distance < 0.0) {
+                throw new IllegalArgumentException("All distances should be positive.");
             }
         }
+        this.distances = distances;
 
     }
 
+    // number of entries in the packed upper triangle
+    private static int numberOfEntries(int n) {
+        if (n > PackedDistanceCache.MAX_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                "Number of items %d exceeds maximum size %d of distance matrix.", n, PackedDistanceCache.MAX_SIZE));
+        }
+        return (int) PackedDistanceCache.numberOfEntries(n);
+    }
+
     @Override
     public double getDistance(int idX, int idY) {
-        return distances[idX][idY];
+        if (idX < 0 || idX >= getSize()) {
+            throw new ArrayIndexOutOfBoundsException(idX);
+        }
+        if (idY < 0 || idY >= getSize()) {
+            throw new ArrayIndexOutOfBoundsException(idY);
+        }
+        return idX == idY ? 0.0 : distances[(int) PackedDistanceCache.index(idX, idY)];
+    }
+    
+    @Override
+    public long getMemoryFootprint() {
+        return (long) distances.length * Double.BYTES;
     }
 
     /**
@@ -491,7 +556,7 @@ public class SimpleDistanceMatrixData extends DataPojo implements DistanceMatrix
                 // write matrix entries
                 for (int j = 0; j < getSize(); j++) {
                     writer.newColumn();
-                    writer.writeCell(distances[id][j]);
+                    writer.writeCell(getDistance(id, j));
                 }
 
             }
@@ -59,7 +59,11 @@ public class SimpleFrequencyGenotypeData extends DataPojo implements FrequencyGe
     private static final String IDENTIFIERS_HEADER = "ID";
     private static final String SELECTED_HEADER = "SELECTED";
 
-    private final double[][][] alleleFrequencies;
+    // allele frequencies per individual, concatenated across markers in a single vector
+    private final double[][] alleleFrequencies;
+    // index of the first allele of each marker in the allele vectors (last element is total number of alleles)
+    private final int[] alleleOffsets;
+    private final long[][] missingMarkers; // bitset of markers with missing values, per individual
     private final String[] markerNames; // null element means no marker name assigned
     private final String[][] alleleNames; // null element means no allele name assigned
     private final int totalNumberAlleles;
@@ -205,28 +209,30 @@ public class SimpleFrequencyGenotypeData extends DataPojo implements FrequencyGe
         // set total number of alleles
         totalNumberAlleles = Arrays.stream(numberOfAllelesForMarker).sum();
 
-        // copy allele frequencies
-        this.alleleFrequencies = new double[n][m][];
+        // set allele offsets
+        alleleOffsets = new int[m + 1];
+        for (int j = 0; j < m; j++) {
+            alleleOffsets[j + 1] = alleleOffsets[j] + numberOfAllelesForMarker[j];
+        }
+        
+        // copy allele frequencies to contiguous allele vectors and mark missing values
+        this.alleleFrequencies = new double[n][totalNumberAlleles];
+        this.missingMarkers = new long[n][(m + Long.SIZE - 1) / Long.SIZE];
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < m; j++) {
-                this.alleleFrequencies[i][j] = Arrays.copyOf(alleleFrequencies[i][j], numberOfAllelesForMarker[j]);
+                System.arraycopy(
+                        alleleFrequencies[i][j], 0, this.alleleFrequencies[i], alleleOffsets[j],
+                        numberOfAllelesForMarker[j]
+                );
+                double[] freqs = this.alleleFrequencies[i];
+                if (Arrays.stream(freqs, alleleOffsets[j], alleleOffsets[j + 1]).anyMatch(Double::isNaN)) {
+                    missingMarkers[i][j >>> 6] |= 1L << j;
+                }
             }
         }
 
         // check and copy marker names
-        if (markerNames == null) {
-            this.markerNames = new String[m];
-        } else {
-            if (markerNames.length != m) {
-                throw new IllegalArgumentException(
-                    String.format(
-                        "Incorrect number of marker names provided. Expected: %d, actual: %d.",
-                        m, markerNames.length
-                    )
-                );
-            }
-            this.markerNames = Arrays.copyOf(markerNames, m);
-        }
+        this.markerNames = copyMarkerNames(markerNames, m);
 
         // check and copy allele names
         this.alleleNames = new String[m][];
@@ -257,6 +263,119 @@ public class SimpleFrequencyGenotypeData extends DataPojo implements FrequencyGe
 
     }
 
+    /**
+     * Create data with given dataset name, item headers, marker/allele names and allele frequencies
+     * that have already been concatenated across markers for each individual, in the same format as
+     * returned by {@link #getAlleleFrequencies(int)}. The length of <code>alleleFrequencies</code>
+     * denotes the number of items in the dataset. The number of markers and alleles per marker are
+     * inferred from the allele names, which are therefore required (names of specific alleles may
+     * still be <code>null</code>).
+     * <p>
+     * Frequencies are validated as for
+     * {@link #SimpleFrequencyGenotypeData(String, SimpleEntity[], String[], String[][], double[][][])}
+     * but they are not normalized. Item headers and names are copied but the allele vectors are
+     * stored without copying, so that previously stored data can be restored without any overhead.
+     * 
+     * @param datasetName
+     *            name of the dataset
+     * @param itemHeaders
+     *            item headers; its length should correspond to the number of
+     *            individuals and each item should at least have a unique
+     *            identifier (names are optional)
+     * @param markerNames
+     *            marker names, <code>null</code> if no marker names are
+     *            assigned; if not <code>null</code> its length should
+     *            correspond to the number of markers (can contain
+     *            <code>null</code> values)
+     * @param alleleNames
+     *            allele names per marker, may not be <code>null</code>; the length of
+     *            <code>alleleNames</code> denotes the number of markers and the length
+     *            of <code>alleleNames[m]</code> the number of alleles of the m-th marker
+     * @param alleleFrequencies
+     *            concatenated allele frequencies per individual, may not be <code>null</code>;
+     *            missing values are encoded with {@link Double#NaN}
+     */
+    public SimpleFrequencyGenotypeData(String datasetName, SimpleEntity[] itemHeaders,
+                                       String[] markerNames, String[][] alleleNames,
+                                       double[][] alleleFrequencies) {
+
+        // pass dataset name and item headers to parent
+        super(datasetName, itemHeaders);
+
+        // infer allele offsets from allele names
+        int n = alleleFrequencies.length;
+        int m = alleleNames.length;
+        alleleOffsets = new int[m + 1];
+        for (int j = 0; j < m; j++) {
+            if (alleleNames[j] == null) {
+                throw new IllegalArgumentException("Allele names not defined for marker " + j);
+            }
+            alleleOffsets[j + 1] = alleleOffsets[j] + alleleNames[j].length;
+        }
+        totalNumberAlleles = alleleOffsets[m];
+
+        // check allele frequencies and mark missing values
+        missingMarkers = new long[n][(m + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < n; i++) {
+            double[] freqs = alleleFrequencies[i];
+            if (freqs == null) {
+                throw new IllegalArgumentException("Allele frequencies not defined for individual " + i);
+            }
+            if (freqs.length != totalNumberAlleles) {
+                throw new IllegalArgumentException(String.format(
+                    "Incorrect number of allele frequencies for individual %d. Expected: %d, actual: %d.",
+                    i, totalNumberAlleles, freqs.length
+                ));
+            }
+            for (int j = 0; j < m; j++) {
+                double sum = 0.0;
+                boolean missing = false;
+                for (int a = alleleOffsets[j]; a < alleleOffsets[j + 1]; a++) {
+                    if (Double.isNaN(freqs[a])) {
+                        missing = true;
+                    } else if (freqs[a] < 0.0) {
+                        throw new IllegalArgumentException("All frequencies should be positive.");
+                    } else {
+                        sum += freqs[a];
+                    }
+                }
+                if (sum > 1.0 + SUM_TO_ONE_PRECISION) {
+                    throw new IllegalArgumentException("Allele frequency sum per marker should not exceed one.");
+                }
+                if (missing) {
+                    missingMarkers[i][j >>> 6] |= 1L << j;
+                } else if (1.0 - sum > SUM_TO_ONE_PRECISION) {
+                    throw new IllegalArgumentException("Allele frequencies for marker should sum to one.");
+                }
+            }
+        }
+        this.alleleFrequencies = alleleFrequencies;
+
+        // check and copy marker and allele names
+        this.markerNames = copyMarkerNames(markerNames, m);
+        this.alleleNames = new String[m][];
+        for (int j = 0; j < m; j++) {
+            this.alleleNames[j] = Arrays.copyOf(alleleNames[j], alleleNames[j].length);
+        }
+
+    }
+
+    // check and copy marker names
+    private static String[] copyMarkerNames(String[] markerNames, int m) {
+        if (markerNames == null) {
+            return new String[m];
+        }
+        if (markerNames.length != m) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Incorrect number of marker names provided. Expected: %d, actual: %d.",
+                    m, markerNames.length
+                )
+            );
+        }
+        return Arrays.copyOf(markerNames, m);
+    }
+
     @Override
     public int getNumberOfMarkers() {
         return markerNames.length;
@@ -284,12 +403,33 @@ public class SimpleFrequencyGenotypeData extends DataPojo implements FrequencyGe
 
     @Override
     public double getAlleleFrequency(int id, int markerIndex, int alleleIndex) {
-        return alleleFrequencies[id][markerIndex][alleleIndex];
+        if (alleleIndex < 0 || alleleIndex >= getNumberOfAlleles(markerIndex)) {
+            throw new ArrayIndexOutOfBoundsException(alleleIndex);
+        }
+        return alleleFrequencies[id][alleleOffsets[markerIndex] + alleleIndex];
+    }
+    
+    @Override
+    public double[] getAlleleFrequencies(int id) {
+        return alleleFrequencies[id];
+    }
+    
+    @Override
+    public int[] getAlleleOffsets() {
+        return alleleOffsets;
     }
 
     @Override
     public boolean hasMissingValues(int id, int markerIndex) {
-        return Arrays.stream(alleleFrequencies[id][markerIndex]).anyMatch(Double::isNaN);
+        if (markerIndex < 0 || markerIndex >= getNumberOfMarkers()) {
+            throw new ArrayIndexOutOfBoundsException(markerIndex);
+        }
+        return ((missingMarkers[id][markerIndex >>> 6] >>> markerIndex) & 1L) != 0;
+    }
+    
+    @Override
+    public long[] getMissingMarkers(int id) {
+        return missingMarkers[id];
     }
 
     /**
@@ -712,12 +852,9 @@ public class SimpleFrequencyGenotypeData extends DataPojo implements FrequencyGe
                 }
                 
                 // write allele frequencies
-                for (int m = 0; m < alleleFrequencies[id].length; m++) {
-                    for(int a = 0; a < alleleFrequencies[id][m].length; a++){
-                        writer.newColumn();
-                        double freq = alleleFrequencies[id][m][a];
-                        writer.writeCell(Double.isNaN(freq) ? null : freq);
-                    }
+                for (double freq : alleleFrequencies[id]) {
+                    writer.newColumn();
+                    writer.writeCell(Double.isNaN(freq) ? null : freq);
                 }
 
             }
@@ -20,14 +20,10 @@
 package org.corehunter.objectives;
 
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.objectives.distance.DistanceMeasure;
-import org.corehunter.objectives.distance.eval.NearestEntry;
 import org.corehunter.objectives.distance.eval.NearestEntryEvaluation;
 import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
 import org.jamesframework.core.exceptions.IncompatibleDeltaEvaluationException;
@@ -54,19 +50,20 @@ public class AverageAccessionToNearestEntry implements Objective<SubsetSolution,
         distanceMeasure.setMissingValuesPolicy(MissingValuesPolicy.CEIL);
     }
     
+    public DistanceMeasure getDistanceMeasure() {
+        return distanceMeasure;
+    }
+    
     @Override
     public NearestEntryEvaluation evaluate(SubsetSolution solution, CoreHunterData data) {
         // initialize evaluation object (evaluate to infinity if no items are selected)
-        NearestEntryEvaluation eval = new NearestEntryEvaluation(Double.POSITIVE_INFINITY);
-        // find closest selected item for each accession
-        Set<Integer> selected = solution.getSelectedIDs();
+        NearestEntryEvaluation eval = new NearestEntryEvaluation(Double.POSITIVE_INFINITY, data.getSize());
+        // find closest selected items for each accession
+        int[] selected = toArray(solution.getSelectedIDs());
         Set<Integer> all = solution.getAllIDs();
         for(int item : all){
-            // find and register closest selected item (if any)
-            NearestEntry closest = findClosest(item, selected, data);
-            if(closest != null){
-                eval.add(item, closest);
-            }
+            // find and register closest selected items (if any)
+            findClosest(item, selected, eval, data);
         }
         return eval;
     }
@@ -86,56 +83,35 @@ public class AverageAccessionToNearestEntry implements Objective<SubsetSolution,
 
         // cast evaluation (cannot fail as both evaluate methods return such evaluation object)
         NearestEntryEvaluation eval = (NearestEntryEvaluation) curEvaluation;
-        // copy to initialize new evaluation
+        if(!eval.isAvailable()){
+            // metadata of current evaluation has been discarded: reevaluate
+            eval = evaluate(curSolution, data);
+        }
+        // derive new evaluation (only records changes)
         NearestEntryEvaluation newEval = new NearestEntryEvaluation(eval);
 
         // get added and deleted IDs from move
         Set<Integer> added = subsetMove.getAddedIDs();
         Set<Integer> deleted = subsetMove.getDeletedIDs();
-        // get current selection from solution
-        Set<Integer> curSelection = curSolution.getSelectedIDs();
-        // infer new selection
-        List<Integer> newSelection = new ArrayList<>(curSelection);
-        newSelection.addAll(added);
-        newSelection.removeAll(deleted);
-
-        // set conbribution of added items to zero
-        for(int item : added){
-            newEval.update(item, new NearestEntry(item, 0.0));
-        }
+        int[] addedIds = toArray(added);
+        int[] deletedIds = toArray(deleted);
+        // infer new selection when needed
+        int[] newSelection = null;
 
         // update closest items for all accessions
         for(int item : curSolution.getAllIDs()){
-            NearestEntry curClosest = newEval.getClosest(item);
-            if(curClosest == null){
-                // case 1: no closest item set means that current solution is empty;
-                //         search for closest item in new selection
-                NearestEntry newClosest = findClosest(item, newSelection, data);
-                // register, if any
-                if(newClosest != null){
-                    newEval.add(item, newClosest);
+            // discard removed items from buffered closest items
+            if(newEval.removeNeighbours(item, deletedIds) == 0){
+                // case 1: no closest items left (all buffered items removed, or current solution is empty);
+                //         rescan entire new selection
+                if(newSelection == null){
+                    newSelection = newSelection(curSolution.getSelectedIDs(), added, deleted);
                 }
+                findClosest(item, newSelection, newEval, data);
             } else {
-                // case 2: current closest item needs to be updated
-                if(deleted.contains(curClosest.getId())){
-                    // case 2A: current closest item removed, rescan entire new selection
-                    NearestEntry newClosest = findClosest(item, newSelection, data);
-                    // update, if any
-                    if(newClosest != null){
-                        newEval.update(item, newClosest);
-                    } else {
-                        // no closest item left (new selection is empty);
-                        // discard contribution
-                        newEval.remove(item);
-                    }
-                } else {
-                    // case 2B: current closest item retained; only check if any newly
-                    //          added item is closer
-                    NearestEntry closestAddedItem = findClosest(item, added, data);
-                    if(closestAddedItem != null && closestAddedItem.getDistance() < curClosest.getDistance()){
-                        // update closest item
-                        newEval.update(item, closestAddedItem);
-                    }
+                // case 2: retained closest item; only check if any newly added item is closer
+                for(int add : addedIds){
+                    newEval.offerNeighbour(item, add, distanceMeasure.getDistance(item, add, data));
                 }
             }
         }
@@ -144,27 +120,54 @@ public class AverageAccessionToNearestEntry implements Objective<SubsetSolution,
     }
     
     /**
-     * Find the item in the given group that is closest to the given item.
-     * The closest item is allowed to be the same as the given item.
+     * Find the items in the given group that are closest to the given item, and register them in the
+     * given evaluation. At most {@link NearestEntryEvaluation#getBufferSize()} items are registered.
+     * The closest item is allowed to be the same as the given item. If the group is empty, the given
+     * item is no longer registered in the evaluation.
      * 
      * @param itemId ID of an item
      * @param group IDs of group of items
+     * @param eval evaluation in which the closest items are registered
      * @param data Core Hunter data
-     * @return id of and distance to the item from the group that is closest to the given item;
-     *         <code>null</code> if the group is empty
      */
-    private NearestEntry findClosest(int itemId, Collection<Integer> group, CoreHunterData data){
-        double dist;
-        Double minDist = Double.POSITIVE_INFINITY;
-        Integer closest = null;
+    private void findClosest(int itemId, int[] group, NearestEntryEvaluation eval, CoreHunterData data){
+        int bufferSize = eval.getBufferSize();
+        int[] closest = new int[bufferSize];
+        double[] minDist = new double[bufferSize];
+        int count = 0;
         for(int groupMember : group){
-            dist = distanceMeasure.getDistance(itemId, groupMember, data);
-            if(dist < minDist){
-                minDist = dist;
-                closest = groupMember;
+            double dist = distanceMeasure.getDistance(itemId, groupMember, data);
+            if(count < bufferSize || dist < minDist[count - 1]){
+                // insert in sorted buffer (drop farthest item if full)
+                int pos = count < bufferSize ? count++ : count - 1;
+                while(pos > 0 && minDist[pos - 1] > dist){
+                    closest[pos] = closest[pos - 1];
+                    minDist[pos] = minDist[pos - 1];
+                    pos--;
+                }
+                closest[pos] = groupMember;
+                minDist[pos] = dist;
             }
         }
-        return closest != null ? new NearestEntry(closest, minDist) : null;
+        eval.setNeighbours(itemId, closest, minDist, count);
+    }
+    
+    private int[] newSelection(Set<Integer> curSelection, Set<Integer> added, Set<Integer> deleted){
+        int[] newSelection = new int[curSelection.size() + added.size() - deleted.size()];
+        int i = 0;
+        for(int item : curSelection){
+            if(!deleted.contains(item)){
+                newSelection[i++] = item;
+            }
+        }
+        for(int item : added){
+            newSelection[i++] = item;
+        }
+        return newSelection;
+    }
+    
+    private int[] toArray(Set<Integer> ids){
+        return ids.stream().mapToInt(Integer::intValue).toArray();
     }
 
     @Override
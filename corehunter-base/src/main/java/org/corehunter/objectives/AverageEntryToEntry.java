@@ -19,17 +19,13 @@
 
 package org.corehunter.objectives;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
-
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.objectives.distance.DistanceMeasure;
+import org.corehunter.objectives.distance.eval.EntryToEntryEvaluation;
 import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
 import org.jamesframework.core.exceptions.IncompatibleDeltaEvaluationException;
 import org.jamesframework.core.problems.objectives.Objective;
 import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
-import org.jamesframework.core.problems.objectives.evaluations.SimpleEvaluation;
 import org.jamesframework.core.search.neigh.Move;
 import org.jamesframework.core.subset.SubsetSolution;
 import org.jamesframework.core.subset.neigh.moves.SubsetMove;
@@ -51,28 +47,25 @@ public class AverageEntryToEntry implements Objective<SubsetSolution, CoreHunter
     }
     
     @Override
-    public Evaluation evaluate(SubsetSolution solution, CoreHunterData data) {
-        double value = 0.0;
-                
-        if (solution.getNumSelectedIDs() >= 2) {
-            // at least two items selected: compute average pairwise distance
-            double sumDist = 0.0;
-            Integer[] selected = new Integer[solution.getNumSelectedIDs()];
+    public EntryToEntryEvaluation evaluate(SubsetSolution solution, CoreHunterData data) {
+        double sumDist = 0.0;
+        int n = solution.getNumSelectedIDs();
+        if (n >= 2) {
+            // at least two items selected: compute sum of pairwise distances
+            Integer[] selected = new Integer[n];
             solution.getSelectedIDs().toArray(selected);
-            int n = selected.length;
             for (int i = 0; i < n; i++) {
                 for (int j = i + 1; j < n; j++) {
                     sumDist += distanceMeasure.getDistance(selected[i], selected[j], data);
                 }
             }
-            int numDist = n*(n-1)/2;
-            value = sumDist/numDist;
         }
-        return SimpleEvaluation.WITH_VALUE(value);
+        return new EntryToEntryEvaluation(sumDist, n);
     }
 
     @Override
-    public Evaluation evaluate(Move move, SubsetSolution curSolution, Evaluation curEvaluation, CoreHunterData data) {
+    public EntryToEntryEvaluation evaluate(Move move, SubsetSolution curSolution,
+                                          Evaluation curEvaluation, CoreHunterData data) {
         // check move type
         if (!(move instanceof SubsetMove)) {
             throw new IncompatibleDeltaEvaluationException(
@@ -83,69 +76,49 @@ public class AverageEntryToEntry implements Objective<SubsetSolution, CoreHunter
         // cast move
         SubsetMove subsetMove = (SubsetMove) move;
 
-        // get current evaluation
-        double curEval = curEvaluation.getValue();
-        // undo average to get sum of distances
-        int n = curSolution.getNumSelectedIDs();
-        int numDistances = n*(n-1)/2;
-        double sumDist = curEval * numDistances;
-
-        // get set of added and removed IDs
-        Set<Integer> added = subsetMove.getAddedIDs();
-        Set<Integer> removed = subsetMove.getDeletedIDs();
-        // infer list of retained IDs
-        List<Integer> retained = new ArrayList<>(curSolution.getSelectedIDs());
-        retained.removeAll(removed);
-
-        // subtract distances from removed items to retained items
+        // cast evaluation (cannot fail as both evaluate methods return such evaluation object)
+        EntryToEntryEvaluation eval = (EntryToEntryEvaluation) curEvaluation;
+        // get current sum of distances
+        double sumDist = eval.getSumDistances();
+        // get summed distance from each item to current selection
+        double[] rowSums = eval.getRowSums(curSolution.getSelectedIDs(), distanceMeasure, data);
+
+        // get added and removed IDs
+        int[] added = subsetMove.getAddedIDs().stream().mapToInt(Integer::intValue).toArray();
+        int[] removed = subsetMove.getDeletedIDs().stream().mapToInt(Integer::intValue).toArray();
+
+        // subtract distances from removed items to all selected items
+        // (distances between removed items are subtracted twice)
         for (int rem : removed) {
-            for (int ret : retained) {
-                sumDist -= distanceMeasure.getDistance(rem, ret, data);
-                numDistances--;
-            }
+            sumDist -= rowSums[rem];
         }
 
-        // subtract distances from removed to other removed items
-        for (int rem1 : removed) {
-            for (int rem2 : removed) {
-                // account for each distinct pair only once
-                if (rem1 < rem2) {
-                    sumDist -= distanceMeasure.getDistance(rem1, rem2, data);
-                    numDistances--;
-                }
+        // add back distances between removed items (subtracted twice)
+        for (int i = 0; i < removed.length; i++) {
+            for (int j = i + 1; j < removed.length; j++) {
+                sumDist += distanceMeasure.getDistance(removed[i], removed[j], data);
             }
         }
 
-        // add distances from new items to retained items
+        // add distances from new items to all currently selected items
         for (int add : added) {
-            for (int ret : retained) {
-                sumDist += distanceMeasure.getDistance(add, ret, data);
-                numDistances++;
+            sumDist += rowSums[add];
+            // subtract distances to removed items
+            for (int rem : removed) {
+                sumDist -= distanceMeasure.getDistance(add, rem, data);
             }
         }
 
-        // add distances from new items to other new items
-        for (int add1 : added) {
-            for (int add2 : added) {
-                // account for each distinct pair only once
-                if (add1 < add2) {
-                    sumDist += distanceMeasure.getDistance(add1, add2, data);
-                    numDistances++;
-                }
+        // add distances between new items
+        for (int i = 0; i < added.length; i++) {
+            for (int j = i + 1; j < added.length; j++) {
+                sumDist += distanceMeasure.getDistance(added[i], added[j], data);
             }
         }
 
-        double newEval;
-        if (numDistances > 0) {
-            // take average based on updated number of distances
-            newEval = sumDist / numDistances;
-        } else {
-            // no distances (less than two items remain selected)
-            newEval = 0.0;
-        }
-
         // return new evaluation
-        return SimpleEvaluation.WITH_VALUE(newEval);
+        int n = curSolution.getNumSelectedIDs() + added.length - removed.length;
+        return new EntryToEntryEvaluation(sumDist, n, eval, added, removed);
 
     }
 
@@ -20,14 +20,10 @@
 package org.corehunter.objectives;
 
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.objectives.distance.DistanceMeasure;
-import org.corehunter.objectives.distance.eval.NearestEntry;
 import org.corehunter.objectives.distance.eval.NearestEntryEvaluation;
 import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
 import org.jamesframework.core.exceptions.IncompatibleDeltaEvaluationException;
@@ -53,18 +49,19 @@ public class AverageEntryToNearestEntry implements Objective<SubsetSolution, Cor
         distanceMeasure.setMissingValuesPolicy(MissingValuesPolicy.FLOOR);
     }
     
+    public DistanceMeasure getDistanceMeasure() {
+        return distanceMeasure;
+    }
+    
     @Override
     public NearestEntryEvaluation evaluate(SubsetSolution solution, CoreHunterData data) {
         // initialize evaluation object (evaluate to zero if less than two items are selected)
-        NearestEntryEvaluation eval = new NearestEntryEvaluation(0.0);
-        // find closest neighbour of each selected item
-        Set<Integer> selected = solution.getSelectedIDs();
+        NearestEntryEvaluation eval = new NearestEntryEvaluation(0.0, data.getSize());
+        // find closest neighbours of each selected item
+        int[] selected = toArray(solution.getSelectedIDs());
         for(int sel : selected){
-            // find and register closest other selected item (if any)
-            NearestEntry closest = findClosest(sel, selected, data);
-            if(closest != null){
-                eval.add(sel, closest);
-            }
+            // find and register closest other selected items (if any)
+            findClosest(sel, selected, eval, data);
         }
         return eval;
     }
@@ -84,18 +81,30 @@ public class AverageEntryToNearestEntry implements Objective<SubsetSolution, Cor
 
         // cast evaluation (cannot fail as both evaluate methods return such evaluation object)
         NearestEntryEvaluation eval = (NearestEntryEvaluation) curEvaluation;
-        // copy to initialize new evaluation
+        if(!eval.isAvailable()){
+            // metadata of current evaluation has been discarded: reevaluate
+            eval = evaluate(curSolution, data);
+        }
+        // derive new evaluation (only records changes)
         NearestEntryEvaluation newEval = new NearestEntryEvaluation(eval);
 
         // get added and deleted IDs from move
         Set<Integer> added = subsetMove.getAddedIDs();
         Set<Integer> deleted = subsetMove.getDeletedIDs();
-        // get current selection from solution
-        Set<Integer> curSelection = curSolution.getSelectedIDs();
+        int[] addedIds = toArray(added);
+        int[] deletedIds = toArray(deleted);
         // infer new selection
-        List<Integer> newSelection = new ArrayList<>(curSelection);
-        newSelection.addAll(added);
-        newSelection.removeAll(deleted);
+        Set<Integer> curSelection = curSolution.getSelectedIDs();
+        int[] newSelection = new int[curSelection.size() + added.size() - deleted.size()];
+        int i = 0;
+        for(int item : curSelection){
+            if(!deleted.contains(item)){
+                newSelection[i++] = item;
+            }
+        }
+        for(int item : added){
+            newSelection[i++] = item;
+        }
 
         // discard contribution of removed items
         for(int item : deleted){
@@ -104,36 +113,15 @@ public class AverageEntryToNearestEntry implements Objective<SubsetSolution, Cor
 
         // update closest items in new selection
         for(int item : newSelection){
-            NearestEntry curClosest = newEval.getClosest(item);
-            if(curClosest == null){
-                // case 1: previously unselected or no closest item set (less than two items were selected);
-                //         search for closest item in new selection
-                NearestEntry newClosest = findClosest(item, newSelection, data);
-                // register, if any
-                if(newClosest != null){
-                    newEval.add(item, newClosest);
-                }
+            // discard removed items from buffered closest items
+            if(newEval.removeNeighbours(item, deletedIds) == 0){
+                // case 1: previously unselected, or no closest items left (all buffered items removed,
+                //         or less than two items were selected); rescan entire new selection
+                findClosest(item, newSelection, newEval, data);
             } else {
-                // case 2: current closest item needs to be updated
-                if(deleted.contains(curClosest.getId())){
-                    // case 2A: current closest item removed, rescan entire new selection
-                    NearestEntry newClosest = findClosest(item, newSelection, data);
-                    // update, if any
-                    if(newClosest != null){
-                        newEval.update(item, newClosest);
-                    } else {
-                        // no closest item left (new selection consists of single item);
-                        // discard contribution
-                        newEval.remove(item);
-                    }
-                } else {
-                    // case 2B: current closest item retained; only check if any newly
-                    //          added item is closer
-                    NearestEntry closestAddedItem = findClosest(item, added, data);
-                    if(closestAddedItem != null && closestAddedItem.getDistance() < curClosest.getDistance()){
-                        // update closest item
-                        newEval.update(item, closestAddedItem);
-                    }
+                // case 2: retained closest item; only check if any newly added item is closer
+                for(int add : addedIds){
+                    newEval.offerNeighbour(item, add, distanceMeasure.getDistance(item, add, data));
                 }
             }
         }
@@ -142,28 +130,42 @@ public class AverageEntryToNearestEntry implements Objective<SubsetSolution, Cor
     }
     
     /**
-     * Find the item in the given group that is closest to and different from the given item.
+     * Find the items in the given group that are closest to and different from the given item, and register
+     * them in the given evaluation. At most {@link NearestEntryEvaluation#getBufferSize()} items are registered.
+     * If the group does not contain any items other than the given item, the given item is no longer
+     * registered in the evaluation.
      * 
      * @param itemId ID of the item
      * @param group IDs of other items
+     * @param eval evaluation in which the closest items are registered
      * @param data Core Hunter data
-     * @return id of and distance to the item from the group that is closest to the given item;
-     *         <code>null</code> if the group does not contain any items other than the given item
      */
-    private NearestEntry findClosest(int itemId, Collection<Integer> group, CoreHunterData data){
-        double dist;
-        Double minDist = Double.POSITIVE_INFINITY;
-        Integer closest = null;
+    private void findClosest(int itemId, int[] group, NearestEntryEvaluation eval, CoreHunterData data){
+        int bufferSize = eval.getBufferSize();
+        int[] closest = new int[bufferSize];
+        double[] minDist = new double[bufferSize];
+        int count = 0;
         for(int other : group){
             if(other != itemId){
-                dist = distanceMeasure.getDistance(itemId, other, data);
-                if(dist < minDist){
-                    minDist = dist;
-                    closest = other;
+                double dist = distanceMeasure.getDistance(itemId, other, data);
+                if(count < bufferSize || dist < minDist[count - 1]){
+                    // insert in sorted buffer (drop farthest item if full)
+                    int pos = count < bufferSize ? count++ : count - 1;
+                    while(pos > 0 && minDist[pos - 1] > dist){
+                        closest[pos] = closest[pos - 1];
+                        minDist[pos] = minDist[pos - 1];
+                        pos--;
+                    }
+                    closest[pos] = other;
+                    minDist[pos] = dist;
                 }
             }
         }
-        return closest != null ? new NearestEntry(closest, minDist) : null;
+        eval.setNeighbours(itemId, closest, minDist, count);
+    }
+    
+    private int[] toArray(Set<Integer> ids){
+        return ids.stream().mapToInt(Integer::intValue).toArray();
     }
 
     @Override
@@ -47,7 +47,7 @@ public class Coverage implements Objective<SubsetSolution, CoreHunterData> {
             throw new CoreHunterException("Genotypes are required for coverage objective.");
         }
         
-        return new CoverageEvaluation(solution.getSelectedIDs(), genotypes);
+        return new CoverageEvaluation(data.getAverageGenotype(solution.getSelectedIDs()));
         
     }
 
@@ -50,7 +50,7 @@ public class HeterozygousLoci implements Objective<SubsetSolution, CoreHunterDat
             );
         }
         
-        return new HeterozygousLociEvaluation(solution.getSelectedIDs(), geno);
+        return new HeterozygousLociEvaluation(data.getAverageGenotype(solution.getSelectedIDs()));
         
     }
     
@@ -46,7 +46,7 @@ public class Shannon implements Objective<SubsetSolution, CoreHunterData> {
             throw new CoreHunterException("Genotypes are required for Shannon's index.");
         }
         
-        return new ShannonEvaluation(solution.getSelectedIDs(), geno);
+        return new ShannonEvaluation(data.getAverageGenotype(solution.getSelectedIDs()));
         
     }
     
@@ -0,0 +1,77 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.distance.cache;
+
+import java.io.Closeable;
+
+/**
+ * Stores pairwise distances between items with IDs in [0, n-1]. Distances are assumed to be symmetric
+ * and the distance from an item to itself is always zero. Implementations are thread-safe in the sense
+ * required by Core Hunter: a cache may be read and filled concurrently by several objectives and searches,
+ * where concurrent writes of the same entry always store the same value. Caches that hold resources
+ * other than heap memory release them when closed.
+ * 
+ * @author Herman De Beukelaer
+ */
+public interface DistanceCache extends Closeable {
+
+    /**
+     * Get the number of items n covered by this cache.
+     * 
+     * @return number of items
+     */
+    public int getSize();
+
+    /**
+     * Retrieve a cached distance. Returns {@link Double#NaN} if the distance has not yet been stored.
+     * 
+     * @param idX id of the first item
+     * @param idY id of the second item
+     * @return cached distance, or <code>NaN</code> if not yet computed
+     */
+    public double get(int idX, int idY);
+
+    /**
+     * Store a distance. The order of both IDs is irrelevant. Storing a distance
+     * between an item and itself has no effect.
+     * 
+     * @param idX id of the first item
+     * @param idY id of the second item
+     * @param distance distance between both items
+     */
+    public void put(int idX, int idY, double distance);
+
+    /**
+     * Get the number of bytes of heap memory occupied by the cached distances.
+     * 
+     * @return heap memory footprint in bytes
+     */
+    public long getMemoryFootprint();
+
+    /**
+     * Release any resources held by this cache, after which it should no longer be used.
+     * The default implementation does nothing.
+     */
+    @Override
+    public default void close() {
+        // nothing to release
+    }
+
+}
@@ -0,0 +1,45 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.distance.cache;
+
+/**
+ * Creates the distance caches that are registered on Core Hunter data
+ * (see {@link org.corehunter.data.CoreHunterData#setDistanceCacheFactory(DistanceCacheFactory)}).
+ * 
+ * @author Herman De Beukelaer
+ */
+@FunctionalInterface
+public interface DistanceCacheFactory {
+
+    /**
+     * Factory that creates in-memory packed distance caches.
+     */
+    public static final DistanceCacheFactory IN_MEMORY = (key, size) -> new PackedDistanceCache(size);
+
+    /**
+     * Create an empty (or reuse an existing) distance cache.
+     * 
+     * @param key identifies the distance measure for which the cache is created
+     * @param size number of items
+     * @return distance cache for n items
+     */
+    public DistanceCache createCache(String key, int size);
+
+}
@@ -0,0 +1,445 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.distance.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.corehunter.exceptions.CoreHunterException;
+
+import uno.informatics.data.Data;
+
+/**
+ * Distance cache that stores the packed upper triangle of the distance matrix (see {@link PackedDistanceCache})
+ * in a memory-mapped file, so that the matrix does not have to fit in the Java heap. The file is mapped in
+ * segments of at most 1 GB each as a single mapping can not exceed 2 GB. Entries are read from and written
+ * to the mapped segments directly, without any copying.
+ * <p>
+ * Distances are stored in bit-inverted form so that the zeros of a newly allocated (sparse) file represent
+ * missing values (<code>NaN</code>) and no initialization pass is needed. A small header records the number
+ * of items, a hash of the cache key, a fingerprint of the dataset (see {@link #fingerprint(Data, Path...)})
+ * and whether the cache has been marked complete. When a cache is opened on an existing file with a matching
+ * header all previously stored distances are reused; otherwise the file is replaced by a new, empty cache file.
+ * The new file is written next to the old one and then renamed, so that the old file is never truncated while
+ * it may still be mapped by another cache (for example one that is still used by a running search).
+ * As for the in-memory packed cache, entries are filled lazily without locking, where races between threads
+ * storing the same entry are benign.
+ * <p>
+ * A cache should be closed when it is no longer used (see {@link #close()}). Closing writes all stored distances
+ * to the file and releases the references to the mapped segments, which are unmapped once garbage collected.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class MappedDistanceCache implements DistanceCache {
+
+    /**
+     * Default number of entries per mapped segment (2^27 entries of 8 bytes, i.e. 1 GB).
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 27;
+
+    private static final int MAGIC = 0x43484443;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAGS_OFFSET = 24;
+    private static final int COMPLETE = 1;
+
+    private final Path file;
+    private final int size;
+    private final long fingerprint;
+    private final int segmentShift;
+    private final int segmentMask;
+    // set to null when the cache is closed
+    private LongBuffer[] segments;
+    private MappedByteBuffer[] mappings;
+    private MappedByteBuffer header;
+
+    /**
+     * Open or create a cache file for n items with default segment size.
+     * 
+     * @param file path of the cache file
+     * @param size number of items n
+     * @param key identifies the distance measure for which distances are stored
+     * @param fingerprint identifies the dataset from which distances are computed
+     * @throws CoreHunterException if the file can not be created or mapped
+     */
+    public MappedDistanceCache(Path file, int size, String key, long fingerprint) {
+        this(file, size, key, fingerprint, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open or create a cache file for n items. If the file exists and was created for the same number of items,
+     * key and dataset fingerprint, previously stored distances are retained. Else, the file is replaced by a
+     * new, empty cache file (without modifying the existing file, which may still be mapped elsewhere).
+     * 
+     * @param file path of the cache file
+     * @param size number of items n
+     * @param key identifies the distance measure for which distances are stored
+     * @param fingerprint identifies the dataset from which distances are computed
+     *                    (see {@link #fingerprint(Data, Path...)})
+     * @param segmentSize number of entries per mapped segment; should be a power of two, at most
+     *                    {@link #DEFAULT_SEGMENT_SIZE}
+     * @throws IllegalArgumentException if the size is negative or the segment size is invalid
+     * @throws CoreHunterException if the file can not be created, replaced or mapped
+     */
+    public MappedDistanceCache(Path file, int size, String key, long fingerprint, int segmentSize) {
+        if (file == null) {
+            throw new IllegalArgumentException("File path not defined.");
+        }
+        if (size < 0) {
+            throw new IllegalArgumentException("Number of items should be positive.");
+        }
+        if (segmentSize <= 0 || segmentSize > DEFAULT_SEGMENT_SIZE || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Segment size should be a power of two and at most %d. Got: %d.", DEFAULT_SEGMENT_SIZE, segmentSize
+            ));
+        }
+        this.file = file;
+        this.size = size;
+        this.fingerprint = fingerprint;
+        segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        segmentMask = segmentSize - 1;
+
+        long entries = PackedDistanceCache.numberOfEntries(size);
+        int numSegments = (int) ((entries + segmentSize - 1) >>> segmentShift);
+        segments = new LongBuffer[numSegments];
+        mappings = new MappedByteBuffer[numSegments];
+
+        int keyHash = key == null ? 0 : key.hashCode();
+        try {
+            if (!isValid(file, size, keyHash, fingerprint)) {
+                create(file, size, keyHash, fingerprint);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // the file may have been replaced by another cache in the meantime
+                if (readSize(channel, keyHash, fingerprint) != size) {
+                    throw new CoreHunterException("Distance cache file " + file + " was modified concurrently.");
+                }
+                // map header and segments (mappings remain valid after closing the channel)
+                for (int s = 0; s < numSegments; s++) {
+                    long first = (long) s << segmentShift;
+                    long length = Math.min(segmentSize, entries - first);
+                    MappedByteBuffer mapping = channel.map(MapMode.READ_WRITE, HEADER_BYTES + 8 * first, 8 * length);
+                    mapping.order(ByteOrder.nativeOrder());
+                    mappings[s] = mapping;
+                    segments[s] = mapping.asLongBuffer();
+                }
+                header = channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.order(ByteOrder.nativeOrder());
+            }
+        } catch (IOException ex) {
+            throw new CoreHunterException("Can not map distance cache file " + file + ".", ex);
+        }
+    }
+
+    // checks whether the given file exists and is a valid cache file for the given number of items, key and dataset
+    private static boolean isValid(Path file, int size, int keyHash, long fingerprint) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readSize(channel, keyHash, fingerprint) == size;
+        }
+    }
+
+    // writes a new, empty cache file next to the given file and renames it, so that an existing file
+    // is replaced but never truncated (remaining bytes are zero, i.e. all entries missing and not complete)
+    private static void create(Path file, int size, int keyHash, long fingerprint) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer init = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+                init.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(keyHash).putLong(fingerprint).flip();
+                channel.write(init, 0);
+                long entries = PackedDistanceCache.numberOfEntries(size);
+                if (entries > 0) {
+                    channel.write(ByteBuffer.allocate(1), HEADER_BYTES + 8 * entries - 1);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Get the path of the underlying file.
+     * 
+     * @return path of the cache file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the fingerprint of the dataset from which the stored distances are computed.
+     * 
+     * @return dataset fingerprint
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public double get(int idX, int idY) {
+        if (idX == idY) {
+            return 0.0;
+        }
+        long i = PackedDistanceCache.index(idX, idY);
+        long bits = getSegments()[(int) (i >>> segmentShift)].get((int) (i & segmentMask));
+        return Double.longBitsToDouble(~bits);
+    }
+
+    @Override
+    public void put(int idX, int idY, double distance) {
+        if (idX != idY) {
+            long i = PackedDistanceCache.index(idX, idY);
+            getSegments()[(int) (i >>> segmentShift)].put(
+                    (int) (i & segmentMask), ~Double.doubleToRawLongBits(distance)
+            );
+        }
+    }
+
+    /**
+     * Distances are stored in the mapped file, outside of the heap.
+     * 
+     * @return zero
+     */
+    @Override
+    public long getMemoryFootprint() {
+        return 0;
+    }
+
+    /**
+     * Check whether all distances have been stored, i.e. whether the cache holds a complete distance matrix.
+     * Scans all entries; see {@link #isMarkedComplete()} for a constant time check.
+     * 
+     * @return <code>true</code> if no distances are missing
+     */
+    public boolean isComplete() {
+        for (LongBuffer segment : getSegments()) {
+            for (int i = 0; i < segment.capacity(); i++) {
+                if (Double.isNaN(Double.longBitsToDouble(~segment.get(i)))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the cache has been marked complete (see {@link #markComplete()}). Only reads the header.
+     * 
+     * @return <code>true</code> if the cache is marked complete
+     */
+    public boolean isMarkedComplete() {
+        return (getHeader().getInt(FLAGS_OFFSET) & COMPLETE) != 0;
+    }
+
+    /**
+     * Mark the cache as complete in the header of the underlying file, after writing all stored distances
+     * to the file. Should only be called once all distances have been stored.
+     */
+    public void markComplete() {
+        flush();
+        MappedByteBuffer h = getHeader();
+        h.putInt(FLAGS_OFFSET, h.getInt(FLAGS_OFFSET) | COMPLETE);
+        h.force();
+    }
+
+    /**
+     * Write all stored distances to the underlying file.
+     * 
+     * @throws IllegalStateException if the cache has been closed
+     */
+    public synchronized void flush() {
+        if (mappings == null) {
+            throw new IllegalStateException("Distance cache " + file + " has been closed.");
+        }
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+
+    /**
+     * Write all stored distances to the underlying file and release the mapped segments. Afterwards, the cache
+     * can no longer be used and all methods that access the stored distances throw an
+     * {@link IllegalStateException}. The mappings are released by the garbage collector once no longer
+     * referenced. Closing a cache that has already been closed has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (mappings != null) {
+            flush();
+            header.force();
+            segments = null;
+            mappings = null;
+            header = null;
+        }
+    }
+
+    /**
+     * Check whether the cache has been closed (see {@link #close()}).
+     * 
+     * @return <code>true</code> if the cache has been closed
+     */
+    public synchronized boolean isClosed() {
+        return mappings == null;
+    }
+
+    private LongBuffer[] getSegments() {
+        LongBuffer[] s = segments;
+        if (s == null) {
+            throw new IllegalStateException("Distance cache " + file + " has been closed.");
+        }
+        return s;
+    }
+
+    private synchronized MappedByteBuffer getHeader() {
+        if (header == null) {
+            throw new IllegalStateException("Distance cache " + file + " has been closed.");
+        }
+        return header;
+    }
+
+    /**
+     * Open an existing cache file. Contrary to the constructors, this method never clears the file.
+     * 
+     * @param file path of the cache file
+     * @param key key with which the cache was created
+     * @param fingerprint dataset fingerprint with which the cache was created
+     * @return cache backed by the given file, with all previously stored distances
+     * @throws CoreHunterException if the file does not exist, can not be mapped, or is not a valid
+     *                             cache file for the given key and dataset
+     */
+    public static MappedDistanceCache open(Path file, String key, long fingerprint) {
+        int size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = readSize(channel, key == null ? 0 : key.hashCode(), fingerprint);
+        } catch (IOException ex) {
+            throw new CoreHunterException("Can not read distance cache file " + file + ".", ex);
+        }
+        if (size < 0) {
+            throw new CoreHunterException("Invalid distance cache file " + file + ".");
+        }
+        return new MappedDistanceCache(file, size, key, fingerprint);
+    }
+    
+    // returns the number of items stored in the given cache file, or -1 if the header
+    // is invalid, does not match the key or dataset fingerprint, or the file is truncated
+    private static int readSize(FileChannel channel, int keyHash, long fingerprint) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+        if (channel.size() < HEADER_BYTES || channel.read(header, 0) != HEADER_BYTES
+                || header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(12) != keyHash
+                || header.getLong(16) != fingerprint) {
+            return -1;
+        }
+        int size = header.getInt(8);
+        if (size < 0 || channel.size() != HEADER_BYTES + 8 * PackedDistanceCache.numberOfEntries(size)) {
+            return -1;
+        }
+        return size;
+    }
+
+    /**
+     * Create a factory that stores caches in the given directory, one file per distance measure. Files
+     * are named after the cache key. The directory should be dedicated to a single dataset, so that repeated
+     * runs on the same dataset reuse previously computed distances. Files created for a dataset with a
+     * different fingerprint are cleared.
+     * 
+     * @param directory directory in which cache files are stored
+     * @param fingerprint identifies the dataset from which distances are computed
+     *                    (see {@link #fingerprint(Data, Path...)})
+     * @return distance cache factory
+     * @throws CoreHunterException if the directory can not be created
+     */
+    public static DistanceCacheFactory factory(Path directory, long fingerprint) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new CoreHunterException("Can not create distance cache directory " + directory + ".", ex);
+        }
+        return (key, n) -> new MappedDistanceCache(directory.resolve(fileName(key)), n, key, fingerprint);
+    }
+
+    /**
+     * Compute a fingerprint of a dataset from the unique identifiers of its items and the contents of the
+     * given files, typically the files from which the data has been read. Distances stored for one dataset
+     * are not reused for a dataset with a different fingerprint.
+     * 
+     * @param data dataset
+     * @param files files from which the data has been read (optional)
+     * @return dataset fingerprint
+     * @throws CoreHunterException if one of the files can not be read
+     */
+    public static long fingerprint(Data data, Path... files) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+        for (int i = 0; i < data.getSize(); i++) {
+            digest.update(data.getHeader(i).getUniqueIdentifier().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        for (Path file : files) {
+            try (InputStream in = Files.newInputStream(file)) {
+                byte[] buffer = new byte[1 << 16];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException ex) {
+                throw new CoreHunterException("Can not read file " + file + ".", ex);
+            }
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static String fileName(String key) {
+        return key.replaceAll("[^A-Za-z0-9._-]", "_") + ".dist";
+    }
+
+}
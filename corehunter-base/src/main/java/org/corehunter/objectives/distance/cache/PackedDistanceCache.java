@@ -0,0 +1,116 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.distance.cache;
+
+import java.util.Arrays;
+
+/**
+ * In-memory distance cache that stores the strict upper triangle of the symmetric distance matrix
+ * in a single flat primitive array of length n(n-1)/2. The entry for items x &lt; y is found at
+ * index y(y-1)/2 + x. Compared to a full n x n matrix of rows this halves the memory footprint
+ * and avoids one object header and pointer indirection per row.
+ * <p>
+ * Missing entries are marked with <code>NaN</code>. Entries are filled lazily without locking:
+ * as a distance between two given items always evaluates to the same value, a race between threads
+ * that compute and store the same entry is benign and at worst causes the distance to be computed
+ * more than once. Writes of doubles are not guaranteed to be atomic by the Java memory model, but
+ * are so on all 64-bit JVMs that Core Hunter supports.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class PackedDistanceCache implements DistanceCache {
+
+    /**
+     * Largest number of items for which the packed upper triangle fits in a single Java array.
+     */
+    public static final int MAX_SIZE = 65536;
+
+    private final int size;
+    private final double[] distances;
+
+    /**
+     * Create an empty cache for n items.
+     * 
+     * @param n number of items
+     * @throws IllegalArgumentException if n is negative or larger than {@link #MAX_SIZE}
+     */
+    public PackedDistanceCache(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of items should be positive.");
+        }
+        if (n > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                    "Number of items %d exceeds maximum size %d of in-memory distance cache.", n, MAX_SIZE
+            ));
+        }
+        size = n;
+        distances = new double[(int) numberOfEntries(n)];
+        Arrays.fill(distances, Double.NaN);
+    }
+
+    /**
+     * Get the number of entries n(n-1)/2 of the packed upper triangle of an n x n matrix.
+     * 
+     * @param n number of items
+     * @return number of stored entries
+     */
+    public static long numberOfEntries(int n) {
+        return (long) n * (n - 1) / 2;
+    }
+
+    /**
+     * Get the position of the entry for items x and y (x != y) in the packed upper triangle.
+     * 
+     * @param idX id of the first item
+     * @param idY id of the second item
+     * @return index of the entry in the packed upper triangle
+     */
+    public static long index(int idX, int idY) {
+        long lo = Math.min(idX, idY);
+        long hi = Math.max(idX, idY);
+        return hi * (hi - 1) / 2 + lo;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public double get(int idX, int idY) {
+        if (idX == idY) {
+            return 0.0;
+        }
+        return distances[(int) index(idX, idY)];
+    }
+
+    @Override
+    public void put(int idX, int idY, double distance) {
+        if (idX != idY) {
+            distances[(int) index(idX, idY)] = distance;
+        }
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return (long) distances.length * Double.BYTES;
+    }
+
+}
@@ -0,0 +1,184 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.distance.eval;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.objectives.AverageEntryToEntry;
+import org.corehunter.objectives.distance.DistanceMeasure;
+import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
+
+/**
+ * Stores metadata for efficient delta evaluation in {@link AverageEntryToEntry}. Besides the sum of all
+ * pairwise distances between selected items, the evaluation keeps track of the summed distance from every
+ * item to the selection (row sums). Given these row sums, the sum of pairwise distances after adding and
+ * removing items can be computed using only distances between the added and removed items (constant
+ * time for a swap).
+ * <p>
+ * The row sums of an evaluation are computed lazily, when another evaluation is derived from it (i.e.
+ * when the search continues from the corresponding solution). If the evaluation was itself derived
+ * from another evaluation, they are obtained by updating the row sums of that evaluation for the
+ * added and removed items, in linear time. Else, they are computed from scratch.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class EntryToEntryEvaluation implements Evaluation {
+    
+    // sum of pairwise distances between selected items
+    private final double sumDist;
+    // number of selected items
+    private final int numSelected;
+    
+    // summed distance from each item to the selection (computed lazily)
+    private double[] rowSums;
+    
+    // evaluation from which this evaluation was derived (cleared when row sums have been computed)
+    private EntryToEntryEvaluation parent;
+    // items added to and removed from the selection of the parent evaluation
+    private int[] added;
+    private int[] removed;
+
+    /**
+     * Create an evaluation for a selection with the given number of items and sum of pairwise distances.
+     * 
+     * @param sumDist sum of pairwise distances between selected items
+     * @param numSelected number of selected items
+     */
+    public EntryToEntryEvaluation(double sumDist, int numSelected) {
+        this(sumDist, numSelected, null, null, null);
+    }
+    
+    /**
+     * Create an evaluation derived from the given parent evaluation, for the selection obtained
+     * by adding and removing the given items.
+     * 
+     * @param sumDist sum of pairwise distances between selected items
+     * @param numSelected number of selected items
+     * @param parent evaluation from which this evaluation was derived
+     * @param added items added to the selection of the parent evaluation
+     * @param removed items removed from the selection of the parent evaluation
+     */
+    public EntryToEntryEvaluation(double sumDist, int numSelected,
+                                  EntryToEntryEvaluation parent, int[] added, int[] removed) {
+        this.sumDist = sumDist;
+        this.numSelected = numSelected;
+        this.parent = parent;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * Get the sum of pairwise distances between selected items.
+     * 
+     * @return sum of pairwise distances
+     */
+    public double getSumDistances() {
+        return sumDist;
+    }
+
+    /**
+     * Get the number of selected items.
+     * 
+     * @return number of selected items
+     */
+    public int getNumSelected() {
+        return numSelected;
+    }
+    
+    /**
+     * Get the summed distance from each item to the selection, indexed by item ID. The row sums are
+     * computed upon the first call of this method. The returned array should not be modified. If the row
+     * sums of the parent evaluation (if any) have not yet been computed, they are first computed from the
+     * selection of the parent, obtained by undoing the additions and removals of this evaluation.
+     * 
+     * @param selected IDs of the selected items corresponding to this evaluation, may not be <code>null</code>
+     * @param distanceMeasure distance measure
+     * @param data Core Hunter data
+     * @return summed distance from each item to the selection
+     */
+    public synchronized double[] getRowSums(Set<Integer> selected, DistanceMeasure distanceMeasure,
+                                            CoreHunterData data) {
+        if (rowSums == null) {
+            int n = data.getSize();
+            if (parent != null) {
+                // update row sums of parent for added and removed items
+                Set<Integer> parentSelected = parent.hasRowSums() ? null : getParentSelection(selected);
+                double[] parentRowSums = parent.getRowSums(parentSelected, distanceMeasure, data);
+                rowSums = new double[n];
+                for (int x = 0; x < n; x++) {
+                    double rowSum = parentRowSums[x];
+                    for (int rem : removed) {
+                        rowSum -= distanceMeasure.getDistance(x, rem, data);
+                    }
+                    for (int add : added) {
+                        rowSum += distanceMeasure.getDistance(x, add, data);
+                    }
+                    rowSums[x] = rowSum;
+                }
+                // discard parent and move
+                parent = null;
+                added = null;
+                removed = null;
+            } else {
+                // compute from scratch
+                int[] sel = selected.stream().mapToInt(Integer::intValue).toArray();
+                rowSums = new double[n];
+                for (int x = 0; x < n; x++) {
+                    double rowSum = 0.0;
+                    for (int s : sel) {
+                        rowSum += distanceMeasure.getDistance(x, s, data);
+                    }
+                    rowSums[x] = rowSum;
+                }
+            }
+        }
+        return rowSums;
+    }
+    
+    private synchronized boolean hasRowSums() {
+        return rowSums != null;
+    }
+    
+    // selection of the parent evaluation, given the selection of this evaluation
+    private Set<Integer> getParentSelection(Set<Integer> selected) {
+        Set<Integer> parentSelected = new HashSet<>(selected);
+        for (int add : added) {
+            parentSelected.remove(add);
+        }
+        for (int rem : removed) {
+            parentSelected.add(rem);
+        }
+        return parentSelected;
+    }
+
+    /**
+     * Compute average distance between all pairs of selected items.
+     * 
+     * @return average pairwise distance; 0.0 if less than two items are selected
+     */
+    @Override
+    public double getValue() {
+        long numDist = (long) numSelected * (numSelected - 1) / 2;
+        return numDist > 0 ? sumDist / numDist : 0.0;
+    }
+    
+}
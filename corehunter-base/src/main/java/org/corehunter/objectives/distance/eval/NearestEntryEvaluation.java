@@ -19,8 +19,9 @@
 
 package org.corehunter.objectives.distance.eval;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.corehunter.objectives.AverageAccessionToNearestEntry;
 import org.corehunter.objectives.AverageEntryToNearestEntry;
@@ -29,46 +30,165 @@ import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
 /**
  * Stores metadata for efficient delta evaluation in {@link AverageEntryToNearestEntry} and
  * {@link AverageAccessionToNearestEntry}.
+ * <p>
+ * For each registered item, a buffer holds the IDs of and distances to the closest selected items,
+ * sorted by increasing distance. The buffer of an item always contains the exact nearest entries up
+ * to its current length, which is at most the buffer size specified at construction. When the closest
+ * entry of an item is removed from the selection, the next buffered entry takes its place so that the
+ * entire selection only needs to be rescanned when all buffered entries have been removed.
+ * <p>
+ * The buffers are stored in primitive arrays indexed by item ID. These arrays are shared by all
+ * evaluations derived from the same full evaluation (see {@link #NearestEntryEvaluation(
+ * NearestEntryEvaluation)}). Only one of these evaluations owns the arrays at any time; every other
+ * evaluation stores a log of the changes that transform the state of a neighbouring evaluation into
+ * its own state. When accessing the metadata of an evaluation that does not currently own the arrays,
+ * these logs are replayed (and inverted) along the path to that evaluation. Deriving a new evaluation
+ * and modifying it therefore only costs time and memory proportional to the number of changed items,
+ * independent of the size of the data set, also when the corresponding move is eventually rejected.
+ * <p>
+ * To bound memory usage, the metadata of an evaluation is discarded as soon as an evaluation derived
+ * from one of its derived evaluations is created (typically, when a move has been accepted and the search
+ * continues from the new solution). The value of such evaluation can still be retrieved but its metadata
+ * is no longer available, which can be checked with {@link #isAvailable()}.
  * 
  * @author Herman De Beukelaer
  */
 public class NearestEntryEvaluation implements Evaluation {
     
-    // maps items to closest entries (IDs) and the corresponding distance
-    private final Map<Integer, NearestEntry> nearestEntryMap;
+    /**
+     * Default number of nearest entries buffered for each item.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 4;
+    
+    // value of entry ID for empty buffer slots
+    private static final int NONE = -1;
+    
+    // arrays and current owner shared by all evaluations derived from the same full evaluation
+    private final Storage storage;
+    // evaluation from which this evaluation was derived (null for a full evaluation or when no longer needed)
+    private NearestEntryEvaluation parent;
+    // evaluation relative to which the log of this evaluation is defined (null if it owns the arrays)
+    private NearestEntryEvaluation next;
+    // set when another evaluation has been derived from this evaluation, after which it can no longer be modified
+    private boolean frozen;
+    // set when the metadata of this evaluation has been discarded
+    private boolean detached;
+    
+    // changes of buffer slots that transform the state of the next evaluation into the state of this evaluation
+    // (to be applied in reverse order)
+    private int[] logSlots;
+    private int[] logEntries;
+    private double[] logDistances;
+    private int logSize;
+    
     // sum of distances from items to respective closest entries
     private double minDistSum;
+    // number of items for which a closest entry has been registered
+    private int numRegistered;
     // value when no distances have been registered
     private final double emptyValue;
 
+    /**
+     * Create an empty evaluation with the default buffer size. Storage is extended on demand
+     * to hold the largest registered item ID.
+     * 
+     * @param emptyValue value when no distances have been registered
+     */
     public NearestEntryEvaluation(double emptyValue) {
-        nearestEntryMap = new HashMap<>();
+        this(emptyValue, 0);
+    }
+    
+    /**
+     * Create an empty evaluation with the default buffer size and storage for items
+     * with IDs up to <code>size - 1</code>.
+     * 
+     * @param emptyValue value when no distances have been registered
+     * @param size initial storage size (number of items)
+     */
+    public NearestEntryEvaluation(double emptyValue, int size) {
+        this(emptyValue, size, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Create an empty evaluation with storage for items with IDs up to <code>size - 1</code>,
+     * buffering at most <code>bufferSize</code> nearest entries for each item.
+     * 
+     * @param emptyValue value when no distances have been registered
+     * @param size initial storage size (number of items)
+     * @param bufferSize maximum number of nearest entries buffered for each item
+     * @throws IllegalArgumentException if the buffer size is smaller than one
+     */
+    public NearestEntryEvaluation(double emptyValue, int size, int bufferSize) {
+        if(bufferSize < 1){
+            throw new IllegalArgumentException("Buffer size should be at least one.");
+        }
+        storage = new Storage(size, bufferSize, this);
+        parent = null;
         minDistSum = 0.0;
+        numRegistered = 0;
         this.emptyValue = emptyValue;
     }
 
     /**
-     * Deep copy constructor
+     * Create a new evaluation derived from the given evaluation. Initially, the new evaluation has
+     * the same state as the given evaluation. Its arrays are not copied: all subsequent modifications
+     * are recorded so that the state of the given evaluation can still be restored when needed. This
+     * takes constant time. The given evaluation can no longer be modified afterwards, and the metadata
+     * of the evaluation from which the given evaluation was itself derived is discarded.
      * 
-     * @param toCopy evaluation to copy
+     * @param toCopy evaluation from which the new evaluation is derived
+     * @throws IllegalStateException if the metadata of the given evaluation is no longer available
      */
     public NearestEntryEvaluation(NearestEntryEvaluation toCopy){
-        nearestEntryMap = new HashMap<>(toCopy.nearestEntryMap);
+        storage = toCopy.storage;
+        parent = toCopy;
         minDistSum = toCopy.minDistSum;
+        numRegistered = toCopy.numRegistered;
         emptyValue = toCopy.emptyValue;
+        synchronized(storage){
+            // take ownership of arrays (from now on, the log of the given evaluation undoes our changes)
+            toCopy.reroot();
+            if(!toCopy.frozen){
+                toCopy.frozen = true;
+                // discard metadata of previous evaluation
+                if(toCopy.parent != null){
+                    toCopy.parent.detach();
+                    toCopy.parent = null;
+                }
+            }
+            toCopy.next = this;
+            storage.owner = this;
+        }
+    }
+    
+    /**
+     * Get the maximum number of nearest entries buffered for each item.
+     * 
+     * @return buffer size
+     */
+    public int getBufferSize(){
+        return storage.bufferSize;
     }
 
     /**
-     * Register the closest entry of a given item.
+     * Register the closest entry of a given item. Any other buffered entries of this item are discarded.
      * 
      * @param itemId id of the item
      * @param nearestEntry id of and distance to the closest (other) selected item
      */
     public void add(int itemId, NearestEntry nearestEntry){
-        // update minimum distance sum
-        minDistSum += nearestEntry.getDistance();
-        // update metadata
-        nearestEntryMap.put(itemId, nearestEntry);
+        add(itemId, nearestEntry.getId(), nearestEntry.getDistance());
+    }
+    
+    /**
+     * Register the closest entry of a given item. Any other buffered entries of this item are discarded.
+     * 
+     * @param itemId id of the item
+     * @param closestId id of the closest (other) selected item
+     * @param distance distance to the closest (other) selected item
+     */
+    public void add(int itemId, int closestId, double distance){
+        setNeighbours(itemId, new int[]{closestId}, new double[]{distance}, 1);
     }
 
     /**
@@ -78,33 +198,169 @@ public class NearestEntryEvaluation implements Evaluation {
      * @return <code>true</code> if the item had been registered and is now removed
      */
     public boolean remove(int itemId){
-        if(nearestEntryMap.containsKey(itemId)){
-            // update minimum distance sum
-            minDistSum -= nearestEntryMap.get(itemId).getDistance();
-            // update metadata
-            nearestEntryMap.remove(itemId);
-            return true;
+        synchronized(storage){
+            checkModifiable();
+            reroot();
+            if(getNumberOfNeighbours(itemId) > 0){
+                setNeighbours(itemId, null, null, 0);
+                return true;
+            }
+            return false;
         }
-        return false;
     }
 
     /**
      * Update the closest entry of a previously registered item.
+     * Any other buffered entries of this item are discarded.
      * 
      * @param itemId id of the item
      * @param nearestEntry id of and distance to the closest (other) selected item
      * @return <code>true</code> if the item had been registered and is now updated
      */
     public boolean update(int itemId, NearestEntry nearestEntry){
-        if(nearestEntryMap.containsKey(itemId)){
-            // update minimum distance sum
-            minDistSum -= nearestEntryMap.get(itemId).getDistance();
-            minDistSum += nearestEntry.getDistance();
-            // update metadata
-            nearestEntryMap.put(itemId, nearestEntry);
+        return update(itemId, nearestEntry.getId(), nearestEntry.getDistance());
+    }
+    
+    /**
+     * Update the closest entry of a previously registered item.
+     * Any other buffered entries of this item are discarded.
+     * 
+     * @param itemId id of the item
+     * @param closestId id of the closest (other) selected item
+     * @param distance distance to the closest (other) selected item
+     * @return <code>true</code> if the item had been registered and is now updated
+     */
+    public boolean update(int itemId, int closestId, double distance){
+        synchronized(storage){
+            checkModifiable();
+            reroot();
+            if(getNumberOfNeighbours(itemId) > 0){
+                add(itemId, closestId, distance);
+                return true;
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Register the nearest entries of a given item, replacing all previously buffered entries.
+     * The given entries should be the exact nearest entries among the current selection, sorted
+     * by increasing distance. Only the first {@link #getBufferSize()} entries are retained.
+     * If <code>count</code> is zero, the item is no longer registered.
+     * 
+     * @param itemId id of the item
+     * @param entryIds IDs of the nearest entries
+     * @param distances distances to the nearest entries
+     * @param count number of given entries
+     */
+    public void setNeighbours(int itemId, int[] entryIds, double[] distances, int count){
+        synchronized(storage){
+            checkModifiable();
+            reroot();
+            storage.ensureCapacity(itemId + 1);
+            double prevDist = getClosestDistance(itemId);
+            int base = itemId * storage.bufferSize;
+            for(int r = 0; r < storage.bufferSize; r++){
+                if(r < count){
+                    set(base + r, entryIds[r], distances[r]);
+                } else if(storage.entries[base + r] != NONE){
+                    set(base + r, NONE, Double.NaN);
+                } else {
+                    break;
+                }
+            }
+            updateClosestDistance(prevDist, count > 0 ? distances[0] : Double.NaN);
+        }
+    }
+    
+    /**
+     * Offer a newly selected item as a candidate nearest entry of a registered item. The entry is inserted
+     * in the buffer of the given item if it is closer than the last buffered entry. Else, it can not be
+     * determined whether the entry is among the nearest entries, which are then assumed to be the ones
+     * already buffered (the offer is ignored). Offers for unregistered items are always ignored.
+     * 
+     * @param itemId id of the item
+     * @param entryId id of the newly selected item
+     * @param distance distance between both items
+     * @return <code>true</code> if the entry has been inserted in the buffer
+     */
+    public boolean offerNeighbour(int itemId, int entryId, double distance){
+        synchronized(storage){
+            checkModifiable();
+            reroot();
+            int count = getNumberOfNeighbours(itemId);
+            int base = itemId * storage.bufferSize;
+            if(count == 0 || !(distance < storage.distances[base + count - 1])){
+                return false;
+            }
+            double prevDist = storage.distances[base];
+            // shift farther entries (the last one drops out if the buffer is full)
+            int pos = count < storage.bufferSize ? count : count - 1;
+            while(pos > 0 && storage.distances[base + pos - 1] > distance){
+                set(base + pos, storage.entries[base + pos - 1], storage.distances[base + pos - 1]);
+                pos--;
+            }
+            set(base + pos, entryId, distance);
+            updateClosestDistance(prevDist, storage.distances[base]);
             return true;
         }
-        return false;
+    }
+    
+    /**
+     * Remove entries with any of the given IDs from the buffer of the given item. If all buffered entries
+     * are removed, the item is no longer registered and its nearest entries should be recomputed.
+     * 
+     * @param itemId id of the item
+     * @param entryIds IDs of the entries to remove (typically, items that are removed from the selection)
+     * @return number of remaining buffered entries for the given item
+     */
+    public int removeNeighbours(int itemId, int[] entryIds){
+        synchronized(storage){
+            checkModifiable();
+            reroot();
+            int count = getNumberOfNeighbours(itemId);
+            if(count == 0){
+                return 0;
+            }
+            int base = itemId * storage.bufferSize;
+            double prevDist = storage.distances[base];
+            int retained = 0;
+            for(int r = 0; r < count; r++){
+                int entry = storage.entries[base + r];
+                if(!contains(entryIds, entry)){
+                    if(retained < r){
+                        set(base + retained, entry, storage.distances[base + r]);
+                    }
+                    retained++;
+                }
+            }
+            for(int r = retained; r < count; r++){
+                set(base + r, NONE, Double.NaN);
+            }
+            updateClosestDistance(prevDist, storage.distances[base]);
+            return retained;
+        }
+    }
+    
+    /**
+     * Get the number of buffered nearest entries of the given item.
+     * 
+     * @param itemId id of the item
+     * @return number of buffered entries (zero if the item is not registered)
+     */
+    public int getNumberOfNeighbours(int itemId){
+        synchronized(storage){
+            reroot();
+            if(itemId >= storage.size()){
+                return 0;
+            }
+            int base = itemId * storage.bufferSize;
+            int count = 0;
+            while(count < storage.bufferSize && storage.entries[base + count] != NONE){
+                count++;
+            }
+            return count;
+        }
     }
 
     /**
@@ -115,7 +371,36 @@ public class NearestEntryEvaluation implements Evaluation {
      *         <code>null</code> if no nearest entry has been registered
      */
     public NearestEntry getClosest(int itemId){
-        return nearestEntryMap.get(itemId);
+        synchronized(storage){
+            int closestId = getClosestId(itemId);
+            return closestId != NONE ? new NearestEntry(closestId, getClosestDistance(itemId)) : null;
+        }
+    }
+    
+    /**
+     * Get the id of the closest selected item for an item with given id.
+     * 
+     * @param itemId id of the item
+     * @return id of closest selected item; -1 if no nearest entry has been registered
+     */
+    public int getClosestId(int itemId){
+        synchronized(storage){
+            reroot();
+            return itemId < storage.size() ? storage.entries[itemId * storage.bufferSize] : NONE;
+        }
+    }
+    
+    /**
+     * Get the distance to the closest selected item for an item with given id.
+     * 
+     * @param itemId id of the item
+     * @return distance to closest selected item; {@link Double#NaN} if no nearest entry has been registered
+     */
+    public double getClosestDistance(int itemId){
+        synchronized(storage){
+            reroot();
+            return itemId < storage.size() ? storage.distances[itemId * storage.bufferSize] : Double.NaN;
+        }
     }
 
     /**
@@ -126,8 +411,208 @@ public class NearestEntryEvaluation implements Evaluation {
      */
     @Override
     public double getValue() {
-        int n = nearestEntryMap.size();
+        int n = numRegistered;
         return n > 0 ? minDistSum/n : emptyValue;
     }
     
+    /**
+     * Check whether the metadata of this evaluation is still available, i.e. whether closest entries can
+     * be retrieved and new evaluations can be derived from this evaluation. If not, the evaluation should
+     * be recomputed from scratch to obtain its metadata.
+     * 
+     * @return <code>true</code> if the metadata of this evaluation is available
+     */
+    public boolean isAvailable(){
+        synchronized(storage){
+            for(NearestEntryEvaluation e = this; e != storage.owner; e = e.next){
+                if(e.detached){
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Update the minimum distance sum and number of registered items after the distance
+     * to the closest entry of an item has changed (NaN if not registered).
+     * 
+     * @param prevDist previous distance
+     * @param newDist new distance
+     */
+    private void updateClosestDistance(double prevDist, double newDist){
+        if(!Double.isNaN(prevDist)){
+            minDistSum -= prevDist;
+            numRegistered--;
+        }
+        if(!Double.isNaN(newDist)){
+            minDistSum += newDist;
+            numRegistered++;
+        }
+    }
+    
+    private static boolean contains(int[] values, int value){
+        for(int v : values){
+            if(v == value){
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Verify that this evaluation can still be modified.
+     * 
+     * @throws IllegalStateException if other evaluations have been derived from this evaluation
+     */
+    private void checkModifiable(){
+        if(frozen){
+            throw new IllegalStateException(
+                    "Evaluation can not be modified after other evaluations have been derived from it."
+            );
+        }
+    }
+    
+    /**
+     * Set the content of a buffer slot, recording the previous value in the log of the parent
+     * evaluation (if any). Should only be called by the owner, while holding the storage lock.
+     * 
+     * @param slot index of the buffer slot
+     * @param entryId id of the entry
+     * @param distance distance to the entry
+     */
+    private void set(int slot, int entryId, double distance){
+        if(parent != null){
+            // parent refers to this evaluation: record change to be undone
+            parent.log(slot, storage.entries[slot], storage.distances[slot]);
+        }
+        storage.entries[slot] = entryId;
+        storage.distances[slot] = distance;
+    }
+    
+    /**
+     * Append a change to the log of this evaluation.
+     * 
+     * @param slot index of the buffer slot
+     * @param entryId id of the entry
+     * @param distance distance to the entry
+     */
+    private void log(int slot, int entryId, double distance){
+        if(logSlots == null){
+            logSlots = new int[4];
+            logEntries = new int[4];
+            logDistances = new double[4];
+        } else if(logSize == logSlots.length){
+            int newLength = 2 * logSize;
+            logSlots = Arrays.copyOf(logSlots, newLength);
+            logEntries = Arrays.copyOf(logEntries, newLength);
+            logDistances = Arrays.copyOf(logDistances, newLength);
+        }
+        logSlots[logSize] = slot;
+        logEntries[logSize] = entryId;
+        logDistances[logSize] = distance;
+        logSize++;
+    }
+    
+    /**
+     * Discard the metadata of this evaluation. Should only be called while holding the storage lock,
+     * when this evaluation does not own the arrays.
+     */
+    private void detach(){
+        detached = true;
+        next = null;
+        logSlots = null;
+        logEntries = null;
+        logDistances = null;
+        logSize = 0;
+    }
+    
+    /**
+     * Make this evaluation the owner of the shared arrays, by replaying the logs along the path from the
+     * current owner. The logs are inverted along the way so that the state of all other evaluations can still
+     * be restored afterwards. Should only be called while holding the storage lock.
+     * 
+     * @throws IllegalStateException if the metadata of this evaluation is no longer available
+     */
+    private void reroot(){
+        if(storage.owner == this){
+            return;
+        }
+        if(next == storage.owner && !detached){
+            // common case: direct neighbour of owner
+            takeOver();
+        } else {
+            // collect path towards current owner
+            List<NearestEntryEvaluation> path = new ArrayList<>();
+            for(NearestEntryEvaluation e = this; e != storage.owner; e = e.next){
+                if(e.detached){
+                    throw new IllegalStateException("Metadata of evaluation is no longer available.");
+                }
+                path.add(e);
+            }
+            for(int i = path.size() - 1; i >= 0; i--){
+                path.get(i).takeOver();
+            }
+        }
+    }
+    
+    /**
+     * Take over ownership of the arrays from the current owner, which should be the next evaluation.
+     * The changes from the log of this evaluation are applied and the previous values are recorded
+     * in the log of the previous owner, which then refers to this evaluation.
+     */
+    private void takeOver(){
+        NearestEntryEvaluation owner = storage.owner;
+        for(int i = logSize - 1; i >= 0; i--){
+            int slot = logSlots[i];
+            owner.log(slot, storage.entries[slot], storage.distances[slot]);
+            storage.entries[slot] = logEntries[i];
+            storage.distances[slot] = logDistances[i];
+        }
+        logSize = 0;
+        owner.next = this;
+        next = null;
+        storage.owner = this;
+    }
+    
+    /**
+     * Arrays with buffered nearest entries that are shared by all evaluations derived from the same
+     * full evaluation, and a reference to the evaluation that currently owns these arrays.
+     */
+    private static class Storage {
+        
+        // number of buffered entries per item
+        private final int bufferSize;
+        // IDs of and distances to nearest entries (buffer of item i starts at index i * bufferSize)
+        private int[] entries;
+        private double[] distances;
+        // evaluation for which the arrays currently hold the state
+        private NearestEntryEvaluation owner;
+        
+        private Storage(int size, int bufferSize, NearestEntryEvaluation owner){
+            this.bufferSize = bufferSize;
+            entries = new int[size * bufferSize];
+            distances = new double[size * bufferSize];
+            Arrays.fill(entries, NONE);
+            Arrays.fill(distances, Double.NaN);
+            this.owner = owner;
+        }
+        
+        private int size(){
+            return entries.length / bufferSize;
+        }
+        
+        private void ensureCapacity(int size){
+            if(size > size()){
+                int oldLength = entries.length;
+                int newLength = Math.max(size, 2 * size()) * bufferSize;
+                entries = Arrays.copyOf(entries, newLength);
+                distances = Arrays.copyOf(distances, newLength);
+                Arrays.fill(entries, oldLength, newLength, NONE);
+                Arrays.fill(distances, oldLength, newLength, Double.NaN);
+            }
+        }
+        
+    }
+    
 }
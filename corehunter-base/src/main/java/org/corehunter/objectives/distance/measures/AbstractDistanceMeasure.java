@@ -19,29 +19,35 @@
 
 package org.corehunter.objectives.distance.measures;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.objectives.distance.DistanceMeasure;
+import org.corehunter.objectives.distance.cache.DistanceCache;
+import org.corehunter.objectives.distance.cache.MappedDistanceCache;
 
 /**
- * Caches pairwise distances upon computation.
+ * Caches pairwise distances upon computation. Caches are shared through the data
+ * (see {@link CoreHunterData#getDistanceCache(String)}) so that all objectives and searches
+ * that use the same data and an equivalent measure never compute the same distance twice.
  * 
  * @author Herman De Beukelaer
  */
 public abstract class AbstractDistanceMeasure implements DistanceMeasure {
     
-    private final Map<CoreHunterData, double[][]> cache;
-    private MissingValuesPolicy missingValuesPolicy;
+    // number of items per side of a square tile of the distance matrix, computed as a single task
+    private static final int TILE_SIZE = 128;
+    
+    // most recently used data and corresponding cache
+    private volatile CacheLink cacheLink;
+    private volatile MissingValuesPolicy missingValuesPolicy;
     
     public AbstractDistanceMeasure() {
         this(MissingValuesPolicy.FLOOR);
     }
     
     public AbstractDistanceMeasure(MissingValuesPolicy policy){
-        cache = new HashMap<>();
         setMissingValuesPolicy(policy);
     }
     
@@ -56,30 +62,96 @@ public abstract class AbstractDistanceMeasure implements DistanceMeasure {
      */
     @Override
     public double getDistance(int idX, int idY, CoreHunterData data){
-        double[][] distances = cache.get(data);
-        if(distances != null && !Double.isNaN(distances[idX][idY])){
-            // return cached value
-            return distances[idX][idY];
-        } else {
-            if(distances == null){
-                // allocate cache
-                int n = data.getSize();
-                distances = new double[n][n];
-                // set all values to missing (NaN)
-                for(double[] row : distances){
-                    Arrays.fill(row, Double.NaN);
+        if(idX == idY){
+            return 0.0;
+        }
+        DistanceCache distances = getCache(data);
+        double d = distances.get(idX, idY);
+        if(Double.isNaN(d)){
+            // compute and store
+            d = computeDistance(idX, idY, data);
+            distances.put(idX, idY, d);
+        }
+        return d;
+    }
+    
+    /**
+     * Compute all distances that are not yet cached, in parallel. The upper triangle of the
+     * distance matrix is divided into square tiles which are computed as separate tasks on
+     * the given fork-join pool. Returns when all distances have been computed and cached.
+     * Memory-mapped caches are marked complete afterwards, so that precomputation is skipped
+     * when such a cache is reused.
+     * 
+     * @param data data from which the distances are computed
+     * @param pool fork-join pool in which the tiles are computed
+     */
+    public void precomputeDistances(CoreHunterData data, ForkJoinPool pool){
+        DistanceCache distances = getCache(data);
+        if(distances instanceof MappedDistanceCache && ((MappedDistanceCache) distances).isMarkedComplete()){
+            return;
+        }
+        int n = data.getSize();
+        int numBlocks = (n + TILE_SIZE - 1) / TILE_SIZE;
+        // enumerate tiles on and above the diagonal
+        int numTiles = numBlocks * (numBlocks + 1) / 2;
+        int[] tileRows = new int[numTiles];
+        int[] tileCols = new int[numTiles];
+        int t = 0;
+        for(int r = 0; r < numBlocks; r++){
+            for(int c = r; c < numBlocks; c++){
+                tileRows[t] = r;
+                tileCols[t] = c;
+                t++;
+            }
+        }
+        pool.invoke(new TileTask(data, distances, tileRows, tileCols, 0, numTiles));
+        if(distances instanceof MappedDistanceCache){
+            ((MappedDistanceCache) distances).markComplete();
+        }
+    }
+    
+    // computes all missing distances within one tile
+    private void computeTile(CoreHunterData data, DistanceCache distances, int rowBlock, int colBlock){
+        int n = data.getSize();
+        int rowEnd = Math.min(n, (rowBlock + 1) * TILE_SIZE);
+        int colEnd = Math.min(n, (colBlock + 1) * TILE_SIZE);
+        for(int x = rowBlock * TILE_SIZE; x < rowEnd; x++){
+            for(int y = Math.max(x + 1, colBlock * TILE_SIZE); y < colEnd; y++){
+                if(Double.isNaN(distances.get(x, y))){
+                    distances.put(x, y, computeDistance(x, y, data));
                 }
-                // link cache to data
-                cache.put(data, distances);
             }
-            // compute, store and return
-            double d = (idX != idY ? computeDistance(idX, idY, data) : 0.0);
-            distances[idX][idY] = d;
-            distances[idY][idX] = d;
-            return d;
         }
     }
     
+    /**
+     * Get the cache with distances computed from the given data.
+     * 
+     * @param data Core Hunter data
+     * @return shared distance cache
+     */
+    protected DistanceCache getCache(CoreHunterData data){
+        CacheLink link = cacheLink;
+        if(link == null || link.data != data){
+            link = new CacheLink(data, data.getDistanceCache(getCacheKey()));
+            cacheLink = link;
+        }
+        return link.cache;
+    }
+    
+    /**
+     * Get the key under which distances computed with this measure are cached.
+     * Measures with equal keys are assumed to compute the same distances and share
+     * their cache. By default, the key consists of the name of the class and the
+     * missing values policy. Subclasses with additional parameters that affect the
+     * computed distances should override this method.
+     * 
+     * @return cache key
+     */
+    protected String getCacheKey(){
+        return getClass().getName() + "/" + missingValuesPolicy;
+    }
+    
     /**
      * Compute distance. This method is called when a distance is not found in the cache.
      * 
@@ -93,9 +165,10 @@ public abstract class AbstractDistanceMeasure implements DistanceMeasure {
     @Override
     public final void setMissingValuesPolicy(MissingValuesPolicy policy) {
         if(missingValuesPolicy != policy){
-            // update policy and clear cache
+            // update policy and unlink cache (distances computed with a different policy
+            // are cached under a different key)
             missingValuesPolicy = policy;
-            cache.clear();
+            cacheLink = null;
         }
     }
     
@@ -112,4 +185,53 @@ public abstract class AbstractDistanceMeasure implements DistanceMeasure {
         }
     }
     
+    // recursively splits a range of tiles until a single tile remains
+    private final class TileTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final transient CoreHunterData data;
+        private final transient DistanceCache distances;
+        private final int[] tileRows;
+        private final int[] tileCols;
+        private final int from;
+        private final int to;
+
+        private TileTask(CoreHunterData data, DistanceCache distances,
+                         int[] tileRows, int[] tileCols, int from, int to) {
+            this.data = data;
+            this.distances = distances;
+            this.tileRows = tileRows;
+            this.tileCols = tileCols;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                computeTile(data, distances, tileRows[from], tileCols[from]);
+            } else if(to - from > 1){
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new TileTask(data, distances, tileRows, tileCols, from, mid),
+                    new TileTask(data, distances, tileRows, tileCols, mid, to)
+                );
+            }
+        }
+        
+    }
+    
+    private static final class CacheLink {
+        
+        private final CoreHunterData data;
+        private final DistanceCache cache;
+
+        private CacheLink(CoreHunterData data, DistanceCache cache) {
+            this.data = data;
+            this.cache = cache;
+        }
+        
+    }
+    
 }
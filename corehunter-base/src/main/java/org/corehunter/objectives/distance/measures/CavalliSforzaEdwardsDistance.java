@@ -44,23 +44,41 @@ public class CavalliSforzaEdwardsDistance extends AbstractDistanceMeasure {
         int numberOfMarkers = genotypes.getNumberOfMarkers();
         double sumSquareDiff = 0.0;
         
-        for (int markerIndex = 0; markerIndex < numberOfMarkers; ++markerIndex) {
+        // allele vectors of both individuals
+        double[] freqsX = genotypes.getAlleleFrequencies(idX);
+        double[] freqsY = genotypes.getAlleleFrequencies(idY);
+        int[] alleleOffsets = genotypes.getAlleleOffsets();
+        
+        // bitsets of markers with missing values
+        long[] missingX = genotypes.getMissingMarkers(idX);
+        long[] missingY = genotypes.getMissingMarkers(idY);
+        int numberOfMissing = 0;
+        
+        for (int w = 0; w < missingX.length; w++) {
+            
+            // missing frequencies in at least one individual
+            long missing = missingX[w] | missingY[w];
+            numberOfMissing += Long.bitCount(missing);
             
-            if(genotypes.hasMissingValues(idX, markerIndex) || genotypes.hasMissingValues(idY, markerIndex)){
-                // missing frequencies in at least one individual
-                sumSquareDiff += missingValueContribution(2.0);
-            } else {
-                // frequencies available for both individuals
-                int numberOfAlleles = genotypes.getNumberOfAlleles(markerIndex);
-                for (int alleleIndex = 0; alleleIndex < numberOfAlleles; ++alleleIndex) {
-                    double pxla = genotypes.getAlleleFrequency(idX, markerIndex, alleleIndex);
-                    double pyla = genotypes.getAlleleFrequency(idY, markerIndex, alleleIndex);
-                    double diff = Math.sqrt(pxla) - Math.sqrt(pyla);
+            // loop over markers where frequencies are available for both individuals
+            int firstMarker = w * Long.SIZE;
+            long available = ~missing;
+            if (numberOfMarkers - firstMarker < Long.SIZE) {
+                // clear bits beyond last marker
+                available &= (1L << (numberOfMarkers - firstMarker)) - 1;
+            }
+            while (available != 0) {
+                int markerIndex = firstMarker + Long.numberOfTrailingZeros(available);
+                available &= available - 1;
+                for (int a = alleleOffsets[markerIndex]; a < alleleOffsets[markerIndex + 1]; a++) {
+                    double diff = Math.sqrt(freqsX[a]) - Math.sqrt(freqsY[a]);
                     sumSquareDiff += diff * diff;
                 }
             }
             
         }
+        
+        sumSquareDiff += numberOfMissing * missingValueContribution(2.0);
 
         double distance = Math.sqrt(sumSquareDiff / (2*numberOfMarkers));
 
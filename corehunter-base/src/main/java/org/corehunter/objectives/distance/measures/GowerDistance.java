@@ -19,10 +19,10 @@
 
 package org.corehunter.objectives.distance.measures;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.exceptions.CoreHunterException;
@@ -42,8 +42,8 @@ public class GowerDistance extends AbstractDistanceMeasure {
     private static final int ORDINAL = 2;
     private static final int RANGED = 3;
 
-    // scale type and range cache
-    private final Map<FeatureData, FeatureMetadata> cache = new HashMap<>();
+    // scale type and range cache (thread-safe, as distances may be computed concurrently)
+    private final Map<FeatureData, FeatureMetadata> cache = new ConcurrentHashMap<>();
     
     private class FeatureMetadata {
         
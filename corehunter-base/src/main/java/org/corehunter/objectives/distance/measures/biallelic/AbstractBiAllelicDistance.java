@@ -0,0 +1,93 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.distance.measures.biallelic;
+
+import org.corehunter.data.BiAllelicGenotypeData;
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.FrequencyGenotypeData;
+import org.corehunter.data.PackedAlleleScores;
+import org.corehunter.exceptions.CoreHunterException;
+import org.corehunter.objectives.distance.measures.AbstractDistanceMeasure;
+
+/**
+ * Computes distances between items from bit-packed biallelic genotypes (see {@link PackedAlleleScores}).
+ * For each pair of items, the number of markers where the allele scores differ by one or two, and the
+ * number of markers with missing values in at least one of both items, are counted with bitwise operations
+ * and population counts over 64-bit words. The actual distance is then inferred from these counts, which is
+ * possible for any measure where the contribution of a marker only depends on the absolute difference
+ * between both allele scores.
+ * 
+ * @author Herman De Beukelaer
+ */
+public abstract class AbstractBiAllelicDistance extends AbstractDistanceMeasure {
+
+    @Override
+    public double computeDistance(int idX, int idY, CoreHunterData data) {
+        
+        if(idX == idY){
+            return 0.0;
+        }
+        
+        FrequencyGenotypeData genotypes = data.getGenotypicData();
+        
+        if(!(genotypes instanceof BiAllelicGenotypeData)){
+            throw new CoreHunterException(String.format("Biallelic genotypes are required for %s distance.", this));
+        }
+        
+        PackedAlleleScores scores = ((BiAllelicGenotypeData) genotypes).getPackedAlleleScores();
+        long[] words = scores.getWords();
+        int w = scores.getNumberOfWords();
+        int x = scores.getOffset(idX);
+        int y = scores.getOffset(idY);
+        long[] missingX = scores.getMissingMarkers(idX);
+        long[] missingY = scores.getMissingMarkers(idY);
+        
+        int diffOne = 0;
+        int diffTwo = 0;
+        int missing = 0;
+        for(int k = 0; k < w; k++){
+            // markers with missing values in at least one item
+            long mis = missingX[k] | missingY[k];
+            // markers where first/second bitplane differs (excluding missing values)
+            long first = (words[x + k] ^ words[y + k]) & ~mis;
+            long second = (words[x + w + k] ^ words[y + w + k]) & ~mis;
+            // score differs by one if exactly one plane differs, by two if both planes differ
+            diffOne += Long.bitCount(first ^ second);
+            diffTwo += Long.bitCount(first & second);
+            missing += Long.bitCount(mis);
+        }
+        
+        return computeDistanceFromCounts(diffOne, diffTwo, missing, scores.getNumberOfMarkers());
+        
+    }
+    
+    /**
+     * Compute the distance between two items from the number of markers at which their
+     * allele scores differ by one or two, and the number of markers with missing values.
+     * 
+     * @param diffOne number of markers where the allele scores differ by one
+     * @param diffTwo number of markers where the allele scores differ by two
+     * @param missing number of markers with a missing value in at least one of both items
+     * @param numberOfMarkers total number of markers
+     * @return distance
+     */
+    protected abstract double computeDistanceFromCounts(int diffOne, int diffTwo, int missing, int numberOfMarkers);
+    
+}
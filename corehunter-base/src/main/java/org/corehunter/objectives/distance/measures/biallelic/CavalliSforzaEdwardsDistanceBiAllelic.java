@@ -19,14 +19,29 @@
 
 package org.corehunter.objectives.distance.measures.biallelic;
 
-import org.corehunter.data.CoreHunterData;
-import org.corehunter.objectives.distance.measures.AbstractDistanceMeasure;
-
-public class CavalliSforzaEdwardsDistanceBiAllelic extends AbstractDistanceMeasure {
+/**
+ * Cavalli-Sforza and Edwards distance computed from bit-packed biallelic genotypes. With allele
+ * frequencies equal to half the allele score, a marker where the scores differ by one contributes
+ * 2 - sqrt(2) to the sum of squared differences between square root frequencies, and a marker
+ * where the scores differ by two contributes 2. Yields the same distances as the general
+ * {@link org.corehunter.objectives.distance.measures.CavalliSforzaEdwardsDistance}.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class CavalliSforzaEdwardsDistanceBiAllelic extends AbstractBiAllelicDistance {
 
+    private static final double DIFF_ONE_CONTRIBUTION = 2.0 - Math.sqrt(2.0);
+    
     @Override
-    public double computeDistance(int idX, int idY, CoreHunterData data) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected double computeDistanceFromCounts(int diffOne, int diffTwo, int missing, int numberOfMarkers) {
+        double sumSquareDiff = DIFF_ONE_CONTRIBUTION * diffOne + 2.0 * diffTwo
+                             + missing * missingValueContribution(2.0);
+        return Math.sqrt(sumSquareDiff / (2*numberOfMarkers));
     }
-
+    
+    @Override
+    public String toString(){
+        return "Cavalli Sforza and Edwards";
+    }
+    
 }
@@ -19,14 +19,25 @@
 
 package org.corehunter.objectives.distance.measures.biallelic;
 
-import org.corehunter.data.CoreHunterData;
-import org.corehunter.objectives.distance.measures.AbstractDistanceMeasure;
-
-public class ModifiedRogersDistanceBiAllelic extends AbstractDistanceMeasure {
+/**
+ * Modified Rogers distance computed from bit-packed biallelic genotypes. With allele frequencies
+ * equal to half the allele score, a marker where the scores differ by d contributes d<sup>2</sup>/2
+ * to the sum of squared frequency differences. Yields the same distances as the general
+ * {@link org.corehunter.objectives.distance.measures.ModifiedRogersDistance}.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class ModifiedRogersDistanceBiAllelic extends AbstractBiAllelicDistance {
 
     @Override
-    public double computeDistance(int idX, int idY, CoreHunterData data) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected double computeDistanceFromCounts(int diffOne, int diffTwo, int missing, int numberOfMarkers) {
+        double sumSquareDiff = 0.5 * diffOne + 2.0 * diffTwo + missing * missingValueContribution(2.0);
+        return Math.sqrt(sumSquareDiff / (2*numberOfMarkers));
+    }
+    
+    @Override
+    public String toString(){
+        return "Modified Rogers";
     }
     
 }
@@ -19,7 +19,6 @@
 
 package org.corehunter.objectives.eval;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Set;
 
@@ -27,16 +26,19 @@ import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
 import org.corehunter.data.FrequencyGenotypeData;
 
 /**
+ * Base class of evaluations computed from the average genotype of a selection. The average genotype
+ * may be shared between evaluations of several objectives for the same selection. The evaluated value
+ * is derived from the sum of a per-marker value (see {@link #getMarkerValue(double[], int, int)}), which
+ * is maintained incrementally in delta evaluations by only recomputing the values of changed markers.
+ * 
  * @author Herman De Beukelaer
  */
 public abstract class AllelicDiversityEvaluation implements Evaluation {
 
-    // average genotype with missing values treated as zero
-    private final double[][] origAverageGenotype;
-    // average genotype after resolving missing values
-    private double[][] averageGenotype;
-    // number of selected items in core collection
-    private final int numSelected;
+    // average genotype of the selection
+    private final AverageGenotype averageGenotype;
+    // sum of per-marker values
+    private final double markerValueSum;
     
     /**
      * Initialize evaluation based on IDs of selected items.
@@ -46,35 +48,24 @@ public abstract class AllelicDiversityEvaluation implements Evaluation {
      * @param data genotype variant data
      */
     public AllelicDiversityEvaluation(Collection<Integer> ids, FrequencyGenotypeData data){
-        
-        numSelected = ids.size();
-        
-        // infer average genotype (missing values treated as zero)
-        int numMarkers = data.getNumberOfMarkers();
-        origAverageGenotype = new double[numMarkers][];
-        for(int m = 0; m < numMarkers; m++){
-            int numAlleles = data.getNumberOfAlleles(m);
-            origAverageGenotype[m] = new double[numAlleles];
-            if(numSelected > 0){
-                for(int a = 0; a < numAlleles; a++){
-                    double freqSum = 0.0;
-                    for(int id : ids){
-                        freqSum += frequency(data, id, m, a);
-                    }
-                    double avgFreq = freqSum/numSelected;
-                    origAverageGenotype[m][a] = avgFreq;
-                }
-            }
-        }
-        
-        // modify average genotype to take into account missing values
-        resolveMissingValues();
-                
+        this(new AverageGenotype(ids, data));
+    }
+    
+    /**
+     * Initialize evaluation based on a given (possibly shared) average genotype.
+     * 
+     * @param averageGenotype average genotype of the selection
+     */
+    public AllelicDiversityEvaluation(AverageGenotype averageGenotype){
+        this(averageGenotype, null);
     }
     
     /**
      * Infer a modified evaluation by removing and/or adding some items from/to the selection.
-     * EFficiently updates the average genotype based on that from the current selection.
+     * Efficiently updates the average genotype based on that from the current selection,
+     * only touching those markers at which the added and removed items differ.
+     * If the same modification has just been evaluated for another objective, the updated
+     * average genotype is reused.
      * 
      * @param curEval current evaluation
      * @param add IDs of added items
@@ -84,92 +75,64 @@ public abstract class AllelicDiversityEvaluation implements Evaluation {
     public AllelicDiversityEvaluation(AllelicDiversityEvaluation curEval,
                                       Set<Integer> add, Set<Integer> remove,
                                       FrequencyGenotypeData data){
-        
-        int origNumSelected = curEval.numSelected;
-        numSelected = origNumSelected + add.size() - remove.size();
-        
-        if(numSelected == 0){
-            // new selection is empty: set all average frequencies to zero
-            origAverageGenotype = init2Darray(curEval.origAverageGenotype);
-        } else {
-            
-            // new selection is not empty: update average genotype
-            
-            // copy original average genotype with missing values treated as zero
-            origAverageGenotype = copy2Darray(curEval.origAverageGenotype);
-
-            // update average genotype based on added/removed items
-            for(int m = 0; m < origAverageGenotype.length; m++){
-                for(int a = 0; a < origAverageGenotype[m].length; a++){
-                    // undo average (only if current selection was not empty)
-                    if(origNumSelected > 0) {
-                        origAverageGenotype[m][a] *= origNumSelected;
-                    }
-                    // add
-                    for(int id : add){
-                        origAverageGenotype[m][a] += frequency(data, id, m, a);
-                    }
-                    // remove
-                    for(int id : remove){
-                        origAverageGenotype[m][a] -= frequency(data, id, m, a);
-                    }
-                    // redo average
-                    origAverageGenotype[m][a] /= numSelected;
-                }
-            }
-            
-        }
-        
-        // modify average genotype to take into account missing values
-        resolveMissingValues();
-        
-    }
-    
-    private double frequency(FrequencyGenotypeData data, int id, int m, int a){
-        double freq = data.getAlleleFrequency(id, m, a);
-        return Double.isNaN(freq) ? 0.0 : freq;
+        this(curEval.averageGenotype.derive(add, remove, data), curEval);
     }
     
-    private void resolveMissingValues(){
-        if(numSelected > 0){
-            // resolve missing values by increasing the highest frequency
-            // per marker so that its allele frequencies sum to one
-            averageGenotype = copy2Darray(origAverageGenotype);
-            for (int m = 0; m < averageGenotype.length; m++) {
-                // find and increase highest frequency
-                double[] alleleFreqs = averageGenotype[m];
-                int mostCommonAllele = 0;
-                double mostCommonAlleleFreq = alleleFreqs[0];
-                double freqSum = alleleFreqs[0];
-                for (int a = 1; a < alleleFreqs.length; a++) {
-                    freqSum += alleleFreqs[a];
-                    if (alleleFreqs[a] > mostCommonAlleleFreq) {
-                        mostCommonAllele = a;
-                        mostCommonAlleleFreq = alleleFreqs[a];
-                    }
-                }
-                alleleFreqs[mostCommonAllele] += (1.0 - freqSum); 
+    /**
+     * Initialize evaluation based on a given average genotype. If a current evaluation is specified, from
+     * the average genotype of which the given average genotype has been derived, and if the number of selected
+     * items is unchanged, the sum of per-marker values is updated by only recomputing those of changed markers.
+     * Else, all per-marker values are computed from scratch.
+     * 
+     * @param averageGenotype average genotype of the selection
+     * @param curEval current evaluation, may be <code>null</code>
+     */
+    private AllelicDiversityEvaluation(AverageGenotype averageGenotype, AllelicDiversityEvaluation curEval){
+        this.averageGenotype = averageGenotype;
+        int numMarkers = averageGenotype.getNumberOfMarkers();
+        double[] avgFreqs = new double[averageGenotype.getMaxNumberOfAlleles()];
+        int[] changedMarkers = averageGenotype.getChangedMarkers();
+        if(curEval != null && curEval.getClass() == getClass() && changedMarkers != null
+                && curEval.getNumSelected() == averageGenotype.getNumSelected()){
+            // update values of changed markers
+            AverageGenotype curAverageGenotype = curEval.averageGenotype;
+            double sum = curEval.markerValueSum;
+            for(int m : changedMarkers){
+                int numAlleles = curAverageGenotype.getAlleleFrequencies(m, avgFreqs);
+                sum -= getMarkerValue(avgFreqs, numAlleles, numMarkers);
+                numAlleles = averageGenotype.getAlleleFrequencies(m, avgFreqs);
+                sum += getMarkerValue(avgFreqs, numAlleles, numMarkers);
             }
+            markerValueSum = sum;
         } else {
-            // empty selection: set all frequencies to zero
-            averageGenotype = init2Darray(origAverageGenotype);
-        }
-    }
-        
-    private double[][] init2Darray(double[][] template){
-        double[][] array = new double[template.length][];
-        for(int i = 0; i < array.length; i++){
-            array[i] = new double[template[i].length];
+            // compute values of all markers
+            double sum = 0.0;
+            for(int m = 0; m < numMarkers; m++){
+                int numAlleles = averageGenotype.getAlleleFrequencies(m, avgFreqs);
+                sum += getMarkerValue(avgFreqs, numAlleles, numMarkers);
+            }
+            markerValueSum = sum;
         }
-        return array;
     }
     
-    private double[][] copy2Darray(double[][] toCopy){
-        double[][] copy = new double[toCopy.length][];
-        for(int i = 0; i < copy.length; i++){
-            copy[i] = Arrays.copyOf(toCopy[i], toCopy[i].length);
-        }
-        return copy;
+    /**
+     * Compute the value of a single marker, given its average allele frequencies. Implementations should
+     * not depend on any state of the evaluation, as this method is called during construction.
+     * 
+     * @param avgFreqs average allele frequencies of the marker
+     * @param numAlleles number of alleles of the marker (length of the used part of <code>avgFreqs</code>)
+     * @param numMarkers total number of markers
+     * @return value of the marker
+     */
+    protected abstract double getMarkerValue(double[] avgFreqs, int numAlleles, int numMarkers);
+    
+    /**
+     * Get the sum of per-marker values, computed with {@link #getMarkerValue(double[], int, int)}.
+     * 
+     * @return sum of per-marker values
+     */
+    protected double getMarkerValueSum(){
+        return markerValueSum;
     }
     
     /**
@@ -177,15 +140,26 @@ public abstract class AllelicDiversityEvaluation implements Evaluation {
      * the highest frequency per marker so that its allele frequencies
      * sum to one (worst case approach with minimal diversity). If the
      * selection is empty all average frequencies are set to zero.
+     * A new array is created upon each call.
      * 
      * @return average genotype
      */
     public double[][] getAverageGenotype(){
+        return averageGenotype.getAlleleFrequencies();
+    }
+    
+    /**
+     * Get the average genotype of the selection from which this evaluation has been computed,
+     * which may be shared with evaluations of other objectives for the same selection.
+     * 
+     * @return shared average genotype
+     */
+    public AverageGenotype getSharedAverageGenotype(){
         return averageGenotype;
     }
     
     public int getNumSelected(){
-        return numSelected;
+        return averageGenotype.getNumSelected();
     }
     
 }
@@ -0,0 +1,358 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.objectives.eval;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.corehunter.data.FrequencyGenotypeData;
+
+/**
+ * Average genotype of a selection, on which all allelic diversity evaluations are based. Instances are
+ * immutable and can therefore be shared between the evaluations of different objectives for the same
+ * selection (e.g. all allelic diversity objectives combined in a weighted index). To this end, the most
+ * recently derived average genotype is memorized (see {@link #derive(Set, Set, FrequencyGenotypeData)}),
+ * so that when several objectives evaluate the same move, the average genotype is updated only once.
+ * <p>
+ * Internally, the un-normalized allele frequency sums of the selected items are stored per marker, with
+ * missing values treated as zero. A derived average genotype only stores the sums of those markers at which
+ * the added and removed items differ, on top of the sums of the average genotype it was derived from. All
+ * other markers share their arrays with the parent. The full per-marker array is only assembled (by copying
+ * references) once the derived average genotype is itself used to derive others, i.e. when the search
+ * continues from the corresponding selection.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class AverageGenotype {
+
+    // initial capacity of the list of changed markers in a derived average genotype
+    private static final int INITIAL_CAPACITY = 16;
+
+    // number of selected items in core collection
+    private final int numSelected;
+    // maximum and total number of alleles
+    private final int maxNumAlleles;
+    private final int totalNumAlleles;
+    
+    // allele frequency sums per marker, missing values treated as zero (null until flattened)
+    private volatile double[][] alleleSums;
+    // average genotype from which this average genotype was derived (null once flattened)
+    private volatile AverageGenotype parent;
+    // sorted indices of markers with different sums than in the parent, and their updated sums
+    private final int[] changedMarkers;
+    private final double[][] changedSums;
+    
+    // IDs of selected items (only stored when computed from scratch, else null)
+    private final Set<Integer> selectedIDs;
+    
+    // most recently derived average genotype
+    private volatile Derivation lastDerivation;
+    
+    /**
+     * Compute the average genotype of the items with the given IDs.
+     * 
+     * @param ids IDs of selected items
+     * @param data genotype variant data
+     */
+    public AverageGenotype(Collection<Integer> ids, FrequencyGenotypeData data){
+        
+        numSelected = ids.size();
+        selectedIDs = Collections.unmodifiableSet(new HashSet<>(ids));
+        changedMarkers = null;
+        changedSums = null;
+        
+        // sum allele frequencies (missing values treated as zero)
+        int numMarkers = data.getNumberOfMarkers();
+        int[] offsets = data.getAlleleOffsets();
+        double[][] sums = new double[numMarkers][];
+        int maxAlleles = 0;
+        for(int m = 0; m < numMarkers; m++){
+            sums[m] = new double[offsets[m+1] - offsets[m]];
+            maxAlleles = Math.max(maxAlleles, sums[m].length);
+        }
+        totalNumAlleles = offsets[numMarkers];
+        for(int id : ids){
+            double[] freqs = data.getAlleleFrequencies(id);
+            for(int m = 0; m < numMarkers; m++){
+                double[] markerSums = sums[m];
+                int offset = offsets[m];
+                for(int a = 0; a < markerSums.length; a++){
+                    double freq = freqs[offset + a];
+                    if(!Double.isNaN(freq)){
+                        markerSums[a] += freq;
+                    }
+                }
+            }
+        }
+        maxNumAlleles = maxAlleles;
+        alleleSums = sums;
+        
+    }
+    
+    /**
+     * Infer a modified average genotype by removing and/or adding some items from/to the selection.
+     * Only the markers at which the added and removed items differ are updated, all other markers
+     * are shared with the current average genotype, which should have been flattened.
+     * 
+     * @param cur current average genotype
+     * @param add IDs of added items
+     * @param remove IDs of removed items
+     * @param data genotype variant data
+     */
+    private AverageGenotype(AverageGenotype cur, Set<Integer> add, Set<Integer> remove,
+                            FrequencyGenotypeData data){
+        
+        numSelected = cur.numSelected + add.size() - remove.size();
+        maxNumAlleles = cur.maxNumAlleles;
+        totalNumAlleles = cur.totalNumAlleles;
+        selectedIDs = null;
+        
+        double[][] curSums = cur.alleleSums;
+        int numMarkers = curSums.length;
+        int[] offsets = data.getAlleleOffsets();
+        
+        // retrieve allele vectors of added and removed items
+        double[][] added = new double[add.size()][];
+        int i = 0;
+        for(int id : add){
+            added[i++] = data.getAlleleFrequencies(id);
+        }
+        double[][] removed = new double[remove.size()][];
+        i = 0;
+        for(int id : remove){
+            removed[i++] = data.getAlleleFrequencies(id);
+        }
+        
+        // update sums of markers at which added and removed items differ
+        // (grown when needed, typically only a small fraction of the markers is affected)
+        int[] markers = new int[INITIAL_CAPACITY];
+        double[][] sums = new double[INITIAL_CAPACITY][];
+        int numChanged = 0;
+        double[] delta = new double[maxNumAlleles];
+        for(int m = 0; m < numMarkers; m++){
+            int offset = offsets[m];
+            int numAlleles = curSums[m].length;
+            boolean changed = false;
+            for(int a = 0; a < numAlleles; a++){
+                double d = 0.0;
+                for(double[] freqs : added){
+                    double freq = freqs[offset + a];
+                    if(!Double.isNaN(freq)){
+                        d += freq;
+                    }
+                }
+                for(double[] freqs : removed){
+                    double freq = freqs[offset + a];
+                    if(!Double.isNaN(freq)){
+                        d -= freq;
+                    }
+                }
+                delta[a] = d;
+                changed |= d != 0.0;
+            }
+            if(changed){
+                double[] markerSums = new double[numAlleles];
+                // reset sums of empty selection to avoid accumulating rounding errors
+                if(numSelected > 0){
+                    for(int a = 0; a < numAlleles; a++){
+                        markerSums[a] = curSums[m][a] + delta[a];
+                    }
+                }
+                if(numChanged == markers.length){
+                    markers = Arrays.copyOf(markers, 2 * numChanged);
+                    sums = Arrays.copyOf(sums, 2 * numChanged);
+                }
+                markers[numChanged] = m;
+                sums[numChanged] = markerSums;
+                numChanged++;
+            }
+        }
+        changedMarkers = Arrays.copyOf(markers, numChanged);
+        changedSums = Arrays.copyOf(sums, numChanged);
+        parent = cur;
+        
+    }
+    
+    /**
+     * Infer the average genotype of the selection obtained by removing and/or adding some items.
+     * If the same modification has been requested in the most recent call of this method, the
+     * previously derived average genotype is returned.
+     * 
+     * @param add IDs of added items
+     * @param remove IDs of removed items
+     * @param data genotype variant data
+     * @return average genotype of the modified selection
+     */
+    public AverageGenotype derive(Set<Integer> add, Set<Integer> remove, FrequencyGenotypeData data){
+        // search continues from this average genotype
+        flatten();
+        Derivation last = lastDerivation;
+        if(last != null && last.add.equals(add) && last.remove.equals(remove)){
+            return last.result;
+        }
+        AverageGenotype result = new AverageGenotype(this, add, remove, data);
+        lastDerivation = new Derivation(add, remove, result);
+        return result;
+    }
+    
+    /**
+     * Assemble the sums of all markers, combining the changed markers with those of the parent, and release
+     * the parent together with its memorized derivation so that no chain of previously accepted average
+     * genotypes is retained.
+     */
+    private synchronized void flatten(){
+        AverageGenotype p = parent;
+        if(p != null){
+            double[][] sums = p.alleleSums.clone();
+            for(int i = 0; i < changedMarkers.length; i++){
+                sums[changedMarkers[i]] = changedSums[i];
+            }
+            alleleSums = sums;
+            p.lastDerivation = null;
+            // only released after sums are set so that concurrent readers always find one of both
+            parent = null;
+        }
+    }
+    
+    /**
+     * Check whether this average genotype has been computed from scratch for the given selection.
+     * 
+     * @param ids IDs of selected items
+     * @return <code>true</code> if this average genotype was computed for exactly the given selection
+     */
+    public boolean isComputedFor(Collection<Integer> ids){
+        return selectedIDs != null && selectedIDs.size() == ids.size() && selectedIDs.containsAll(ids);
+    }
+    
+    public int getNumSelected(){
+        return numSelected;
+    }
+    
+    public int getNumberOfMarkers(){
+        AverageGenotype p = parent;
+        return p != null ? p.getNumberOfMarkers() : alleleSums.length;
+    }
+    
+    public int getMaxNumberOfAlleles(){
+        return maxNumAlleles;
+    }
+    
+    public int getTotalNumberOfAlleles(){
+        return totalNumAlleles;
+    }
+    
+    /**
+     * Get the markers at which the allele frequency sums differ from those of the average genotype from
+     * which this average genotype was derived. If the number of selected items also differs, the average
+     * frequencies of all markers may have changed. Returns <code>null</code> if this average genotype has
+     * been computed from scratch. The returned array is sorted and should not be modified.
+     * 
+     * @return indices of changed markers, <code>null</code> if not derived
+     */
+    public int[] getChangedMarkers(){
+        return changedMarkers;
+    }
+    
+    /**
+     * Get the sums of the allele frequencies of all selected items at the given marker, with missing
+     * values treated as zero. The returned array should not be modified.
+     * 
+     * @param markerIndex marker index
+     * @return allele frequency sums
+     */
+    public double[] getAlleleSums(int markerIndex){
+        AverageGenotype p = parent;
+        if(p == null){
+            return alleleSums[markerIndex];
+        }
+        int i = Arrays.binarySearch(changedMarkers, markerIndex);
+        return i >= 0 ? changedSums[i] : p.getAlleleSums(markerIndex);
+    }
+    
+    /**
+     * Get average allele frequencies at the given marker. Missing values are resolved by increasing the
+     * highest frequency so that the allele frequencies sum to one (worst case approach with minimal diversity).
+     * If the selection is empty all average frequencies are set to zero. The frequencies are written to the
+     * given array, which should have a length of at least {@link #getMaxNumberOfAlleles()}.
+     * 
+     * @param markerIndex marker index
+     * @param freqs array to which the average allele frequencies are written
+     * @return number of alleles of the marker
+     */
+    public int getAlleleFrequencies(int markerIndex, double[] freqs){
+        double[] sums = getAlleleSums(markerIndex);
+        int numAlleles = sums.length;
+        if(numSelected == 0){
+            Arrays.fill(freqs, 0, numAlleles, 0.0);
+        } else {
+            // find highest frequency and sum of frequencies
+            int mostCommonAllele = 0;
+            double freqSum = sums[0];
+            for(int a = 1; a < numAlleles; a++){
+                freqSum += sums[a];
+                if(sums[a] > sums[mostCommonAllele]){
+                    mostCommonAllele = a;
+                }
+            }
+            for(int a = 0; a < numAlleles; a++){
+                freqs[a] = sums[a] / numSelected;
+            }
+            // resolve missing values
+            freqs[mostCommonAllele] += (numSelected - freqSum) / numSelected;
+        }
+        return numAlleles;
+    }
+    
+    /**
+     * Get average allele frequencies per marker, as described in {@link #getAlleleFrequencies(int, double[])}.
+     * A new array is created upon each call.
+     * 
+     * @return average allele frequencies
+     */
+    public double[][] getAlleleFrequencies(){
+        double[][] freqs = new double[getNumberOfMarkers()][];
+        for(int m = 0; m < freqs.length; m++){
+            freqs[m] = new double[getAlleleSums(m).length];
+            getAlleleFrequencies(m, freqs[m]);
+        }
+        return freqs;
+    }
+    
+    /**
+     * Memorized modification of the selection and the resulting average genotype.
+     */
+    private static class Derivation {
+        
+        private final Set<Integer> add;
+        private final Set<Integer> remove;
+        private final AverageGenotype result;
+
+        private Derivation(Set<Integer> add, Set<Integer> remove, AverageGenotype result) {
+            this.add = add;
+            this.remove = remove;
+            this.result = result;
+        }
+        
+    }
+    
+}
@@ -35,6 +35,10 @@ public class CoverageEvaluation extends AllelicDiversityEvaluation {
         super(ids, data);
     }
 
+    public CoverageEvaluation(AverageGenotype averageGenotype) {
+        super(averageGenotype);
+    }
+
     public CoverageEvaluation(AllelicDiversityEvaluation curEval,
                               Set<Integer> add, Set<Integer> remove,
                               FrequencyGenotypeData data) {
@@ -42,23 +46,20 @@ public class CoverageEvaluation extends AllelicDiversityEvaluation {
     }
     
     @Override
-    public double getValue() {
-        double[][] avgGeno = getAverageGenotype();
-        
-        int numberOfMarkers = avgGeno.length;
-        int totalNumberOfAlleles = 0;
+    protected double getMarkerValue(double[] avgFreqs, int numAlleles, int numMarkers) {
+        // count number of present alleles
         int alleleCount = 0;
-        for(int m = 0; m < numberOfMarkers; m++){
-            int numberOfAlleles = avgGeno[m].length;
-            totalNumberOfAlleles += numberOfAlleles;
-            for(int a = 0; a < numberOfAlleles; a++){
-                if(avgGeno[m][a] > TOL){
-                    alleleCount++;
-                }
+        for(int a = 0; a < numAlleles; a++){
+            if(avgFreqs[a] > TOL){
+                alleleCount++;
             }
         }
-
-        return ((double) alleleCount) / totalNumberOfAlleles;
+        return alleleCount;
+    }
+    
+    @Override
+    public double getValue() {
+        return getMarkerValueSum() / getSharedAverageGenotype().getTotalNumberOfAlleles();
     }
 
 }
@@ -33,31 +33,34 @@ public class HeterozygousLociEvaluation extends AllelicDiversityEvaluation {
         super(ids, data);
     }
 
+    public HeterozygousLociEvaluation(AverageGenotype averageGenotype) {
+        super(averageGenotype);
+    }
+
     public HeterozygousLociEvaluation(AllelicDiversityEvaluation curEval,
                               Set<Integer> add, Set<Integer> remove,
                               FrequencyGenotypeData data) {
         super(curEval, add, remove, data);
     }
     
+    @Override
+    protected double getMarkerValue(double[] avgFreqs, int numAlleles, int numMarkers) {
+        // expected proportion of heterozygous offspring at this marker
+        double summedAverageAlleleFrequencySquared = 0.0;
+        for (int a = 0; a < numAlleles; a++) {
+            summedAverageAlleleFrequencySquared += avgFreqs[a] * avgFreqs[a];
+        }
+        return 1.0 - summedAverageAlleleFrequencySquared;
+    }
+    
     @Override
     public double getValue() {
         if(getNumSelected() == 0){
             // empty selection
             return 0.0;
         } else {
-            double[][] avgGeno = getAverageGenotype();
-            // compute expected proportion of heterozygous loci in offspring
-            double total = 0.0;
-            int numberOfMarkers = avgGeno.length;
-            for (int m = 0; m < numberOfMarkers; m++) {
-                int numberOfAlleles = avgGeno[m].length;
-                double summedAverageAlleleFrequencySquared = 0.0;
-                for (int a = 0; a < numberOfAlleles; a++) {
-                    summedAverageAlleleFrequencySquared += avgGeno[m][a] * avgGeno[m][a];
-                }
-                total += (1.0 - summedAverageAlleleFrequencySquared);
-            }
-            return total/numberOfMarkers;
+            // expected proportion of heterozygous loci in offspring
+            return getMarkerValueSum() / getSharedAverageGenotype().getNumberOfMarkers();
         }
     }
 
@@ -33,6 +33,10 @@ public class ShannonEvaluation extends AllelicDiversityEvaluation {
         super(ids, data);
     }
 
+    public ShannonEvaluation(AverageGenotype averageGenotype) {
+        super(averageGenotype);
+    }
+
     public ShannonEvaluation(AllelicDiversityEvaluation curEval,
                               Set<Integer> add, Set<Integer> remove,
                               FrequencyGenotypeData data) {
@@ -40,22 +44,21 @@ public class ShannonEvaluation extends AllelicDiversityEvaluation {
     }
     
     @Override
-    public double getValue() {
-        double[][] avgGeno = getAverageGenotype();
-        // compute Shannon's index
+    protected double getMarkerValue(double[] avgFreqs, int numAlleles, int numMarkers) {
         double sum = 0.0;
-        int numberOfMarkers = avgGeno.length;
-        for (int m = 0; m < numberOfMarkers; m++) {
-            int numberOfAlleles = avgGeno[m].length;
-            for (int a = 0; a < numberOfAlleles; a++) {
-                if (avgGeno[m][a] > 0.0) {
-                    double scaledFreq = avgGeno[m][a] / numberOfMarkers;
-                    sum += scaledFreq * Math.log(scaledFreq);
-                }
+        for (int a = 0; a < numAlleles; a++) {
+            if (avgFreqs[a] > 0.0) {
+                double scaledFreq = avgFreqs[a] / numMarkers;
+                sum += scaledFreq * Math.log(scaledFreq);
             }
-            
         }
-        return -sum;
+        return sum;
+    }
+    
+    @Override
+    public double getValue() {
+        // Shannon's index
+        return -getMarkerValueSum();
     }
 
 }
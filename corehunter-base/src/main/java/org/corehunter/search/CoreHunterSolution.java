@@ -0,0 +1,356 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jamesframework.core.subset.SubsetSolution;
+
+/**
+ * Subset solution backed by primitive arrays instead of sets of boxed integers. All IDs are stored in a
+ * single array in which the selected IDs precede the unselected IDs, together with the position of each
+ * ID in this array. Selecting or deselecting an ID swaps two array elements, and the i-th selected or
+ * unselected ID can be retrieved in constant time, so that random moves can be generated without iterating
+ * over a set (see {@link CoreHunterSwapNeighbourhood}). The sets returned by {@link #getSelectedIDs()},
+ * {@link #getUnselectedIDs()} and {@link #getAllIDs()} are unmodifiable views backed by these arrays.
+ * <p>
+ * All IDs should be non-negative and are preferably contiguous (as for {@link org.corehunter.data.CoreHunterData}),
+ * since the array of positions is indexed by ID. The state inherited from {@link SubsetSolution} is not used.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class CoreHunterSolution extends SubsetSolution {
+    
+    // placeholder passed to the super class, which requires a non-empty set of IDs
+    private static final Set<Integer> UNUSED_IDS = Collections.singleton(0);
+
+    // all IDs, of which the first numSelected IDs are selected
+    private final int[] ids;
+    // position of each ID in the array of all IDs (-1 if not included)
+    private final int[] positions;
+    // number of selected IDs
+    private int numSelected;
+    
+    // views
+    private final Set<Integer> selectedView;
+    private final Set<Integer> unselectedView;
+    private final Set<Integer> allView;
+    
+    /**
+     * Create a solution in which none of the given IDs are selected.
+     * 
+     * @param allIDs set of all IDs, should be non-negative
+     * @throws NullPointerException if <code>allIDs</code> is <code>null</code> or contains <code>null</code>
+     * @throws IllegalArgumentException if <code>allIDs</code> is empty or contains negative IDs
+     */
+    public CoreHunterSolution(Set<Integer> allIDs){
+        this(allIDs, Collections.emptySet());
+    }
+    
+    /**
+     * Create a solution in which the specified IDs are selected.
+     * 
+     * @param allIDs set of all IDs, should be non-negative
+     * @param selectedIDs selected IDs, should be a subset of all IDs
+     * @throws NullPointerException if <code>allIDs</code> or <code>selectedIDs</code>
+     *                              is <code>null</code> or contains <code>null</code>
+     * @throws IllegalArgumentException if <code>allIDs</code> is empty or contains negative IDs,
+     *                                  or if <code>selectedIDs</code> is not a subset of <code>allIDs</code>
+     */
+    public CoreHunterSolution(Set<Integer> allIDs, Set<Integer> selectedIDs){
+        super(UNUSED_IDS);
+        if(allIDs == null){
+            throw new NullPointerException("Error when creating subset solution: set of all IDs can not be null.");
+        }
+        if(selectedIDs == null){
+            throw new NullPointerException("Error when creating subset solution: set of selected IDs can not be null.");
+        }
+        if(allIDs.isEmpty()){
+            throw new IllegalArgumentException("Error when creating subset solution: set of all IDs can not be empty.");
+        }
+        int maxId = 0;
+        for(Integer id : allIDs){
+            if(id == null){
+                throw new NullPointerException(
+                        "Error when creating subset solution: set of all IDs can not contain any null elements."
+                );
+            }
+            if(id < 0){
+                throw new IllegalArgumentException(
+                        "Error when creating subset solution: IDs should be non-negative."
+                );
+            }
+            maxId = Math.max(maxId, id);
+        }
+        ids = new int[allIDs.size()];
+        positions = new int[maxId + 1];
+        for(int p = 0; p < positions.length; p++){
+            positions[p] = -1;
+        }
+        int i = 0;
+        for(int id : allIDs){
+            ids[i] = id;
+            positions[id] = i;
+            i++;
+        }
+        numSelected = 0;
+        for(Integer id : selectedIDs){
+            if(id == null){
+                throw new NullPointerException(
+                        "Error when creating subset solution: set of selected IDs can not contain any null elements."
+                );
+            }
+            if(!contains(id)){
+                throw new IllegalArgumentException(
+                        "Error when creating subset solution: set of selected IDs should be a subset of set of all IDs."
+                );
+            }
+            select(id);
+        }
+        selectedView = new IdView(true, false);
+        unselectedView = new IdView(false, true);
+        allView = new IdView(true, true);
+    }
+    
+    /**
+     * Deep copy constructor.
+     * 
+     * @param toCopy solution to copy
+     */
+    public CoreHunterSolution(CoreHunterSolution toCopy){
+        super(UNUSED_IDS);
+        ids = toCopy.ids.clone();
+        positions = toCopy.positions.clone();
+        numSelected = toCopy.numSelected;
+        selectedView = new IdView(true, false);
+        unselectedView = new IdView(false, true);
+        allView = new IdView(true, true);
+    }
+
+    @Override
+    public CoreHunterSolution copy() {
+        return new CoreHunterSolution(this);
+    }
+    
+    private boolean contains(int id){
+        return id >= 0 && id < positions.length && positions[id] >= 0;
+    }
+    
+    private void checkContains(int id){
+        if(!contains(id)){
+            throw new IllegalArgumentException(
+                    "Error while modifying subset solution: given ID does not belong to the set of all IDs."
+            );
+        }
+    }
+    
+    private void move(int id, int position){
+        // swap given ID with the ID at the given position
+        int otherId = ids[position];
+        int curPosition = positions[id];
+        ids[position] = id;
+        positions[id] = position;
+        ids[curPosition] = otherId;
+        positions[otherId] = curPosition;
+    }
+    
+    @Override
+    public boolean select(int id) {
+        checkContains(id);
+        if(positions[id] < numSelected){
+            return false;
+        }
+        move(id, numSelected);
+        numSelected++;
+        return true;
+    }
+
+    @Override
+    public boolean deselect(int id) {
+        checkContains(id);
+        if(positions[id] >= numSelected){
+            return false;
+        }
+        numSelected--;
+        move(id, numSelected);
+        return true;
+    }
+
+    @Override
+    public boolean selectAll(Collection<Integer> toSelect) {
+        toSelect.forEach(this::checkContains);
+        boolean modified = false;
+        for(int id : toSelect){
+            modified |= select(id);
+        }
+        return modified;
+    }
+
+    @Override
+    public void selectAll() {
+        numSelected = ids.length;
+    }
+
+    @Override
+    public boolean deselectAll(Collection<Integer> toDeselect) {
+        toDeselect.forEach(this::checkContains);
+        boolean modified = false;
+        for(int id : toDeselect){
+            modified |= deselect(id);
+        }
+        return modified;
+    }
+
+    @Override
+    public void deselectAll() {
+        numSelected = 0;
+    }
+    
+    /**
+     * Get the selected ID at the given index, in constant time. The order of the selected IDs is
+     * arbitrary and changes when the selection is modified.
+     * 
+     * @param index index within the range 0 to k-1, where k is the number of selected IDs
+     * @return selected ID at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getSelectedId(int index){
+        if(index < 0 || index >= numSelected){
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range.");
+        }
+        return ids[index];
+    }
+    
+    /**
+     * Get the unselected ID at the given index, in constant time. The order of the unselected IDs is
+     * arbitrary and changes when the selection is modified.
+     * 
+     * @param index index within the range 0 to n-k-1, where n is the total number of IDs
+     *              and k is the number of selected IDs
+     * @return unselected ID at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getUnselectedId(int index){
+        if(index < 0 || index >= ids.length - numSelected){
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range.");
+        }
+        return ids[numSelected + index];
+    }
+
+    @Override
+    public Set<Integer> getSelectedIDs() {
+        return selectedView;
+    }
+
+    @Override
+    public Set<Integer> getUnselectedIDs() {
+        return unselectedView;
+    }
+
+    @Override
+    public Set<Integer> getAllIDs() {
+        return allView;
+    }
+
+    @Override
+    public int getNumSelectedIDs() {
+        return numSelected;
+    }
+
+    @Override
+    public int getNumUnselectedIDs() {
+        return ids.length - numSelected;
+    }
+
+    @Override
+    public int getTotalNumIDs() {
+        return ids.length;
+    }
+    
+    /**
+     * Unmodifiable view of the selected and/or unselected IDs.
+     */
+    private class IdView extends AbstractSet<Integer> {
+        
+        private final boolean selected;
+        private final boolean unselected;
+
+        private IdView(boolean selected, boolean unselected) {
+            this.selected = selected;
+            this.unselected = unselected;
+        }
+        
+        private int from(){
+            return selected ? 0 : numSelected;
+        }
+        
+        private int to(){
+            return unselected ? ids.length : numSelected;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if(!(o instanceof Integer)){
+                return false;
+            }
+            int id = (Integer) o;
+            if(!CoreHunterSolution.this.contains(id)){
+                return false;
+            }
+            int position = positions[id];
+            return position >= from() && position < to();
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                
+                private int position = from();
+                private final int end = to();
+
+                @Override
+                public boolean hasNext() {
+                    return position < end;
+                }
+
+                @Override
+                public Integer next() {
+                    if(!hasNext()){
+                        throw new NoSuchElementException();
+                    }
+                    return ids[position++];
+                }
+                
+            };
+        }
+
+        @Override
+        public int size() {
+            return to() - from();
+        }
+        
+    }
+    
+}
@@ -0,0 +1,126 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+import org.jamesframework.core.subset.SubsetSolution;
+import org.jamesframework.core.subset.neigh.SingleSwapNeighbourhood;
+import org.jamesframework.core.subset.neigh.moves.SubsetMove;
+import org.jamesframework.core.subset.neigh.moves.SwapMove;
+
+/**
+ * Single swap neighbourhood that generates random moves in constant expected time when applied to a
+ * {@link CoreHunterSolution}, without iterating over sets of boxed IDs. The fixed IDs (always or never
+ * selected) are excluded by rejection sampling, falling back to an explicit scan of the selected or unselected
+ * IDs (without allocating) when most of them are fixed. For any other subset solution, moves are generated as
+ * in the {@link SingleSwapNeighbourhood}.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class CoreHunterSwapNeighbourhood extends SingleSwapNeighbourhood {
+
+    // maximum number of attempts to sample a non-fixed ID before falling back to a scan
+    private static final int MAX_ATTEMPTS = 8;
+    
+    // fixed IDs (negative IDs are never included in a core hunter solution and therefore ignored)
+    private final BitSet fixed;
+    
+    /**
+     * Create a single swap neighbourhood without fixed IDs.
+     */
+    public CoreHunterSwapNeighbourhood(){
+        this(null);
+    }
+    
+    /**
+     * Create a single swap neighbourhood with the given fixed IDs, which are never swapped.
+     * 
+     * @param fixedIDs fixed IDs, may be <code>null</code>
+     */
+    public CoreHunterSwapNeighbourhood(Set<Integer> fixedIDs){
+        super(fixedIDs);
+        fixed = new BitSet();
+        if(fixedIDs != null){
+            fixedIDs.stream().filter(id -> id >= 0).forEach(fixed::set);
+        }
+    }
+
+    /**
+     * Generate a random swap move. Returns <code>null</code> if no swap is possible because
+     * all selected or all unselected IDs are fixed.
+     * 
+     * @param solution subset solution
+     * @param rnd source of randomness
+     * @return random swap move, <code>null</code> if no swap is possible
+     */
+    @Override
+    public SubsetMove getRandomMove(SubsetSolution solution, Random rnd) {
+        if(!(solution instanceof CoreHunterSolution)){
+            return super.getRandomMove(solution, rnd);
+        }
+        CoreHunterSolution sol = (CoreHunterSolution) solution;
+        int del = sampleFreeId(sol.getNumSelectedIDs(), sol::getSelectedId, rnd);
+        if(del < 0){
+            return null;
+        }
+        int add = sampleFreeId(sol.getNumUnselectedIDs(), sol::getUnselectedId, rnd);
+        if(add < 0){
+            return null;
+        }
+        return new SwapMove(add, del);
+    }
+    
+    private int sampleFreeId(int num, IntUnaryOperator idAtIndex, Random rnd){
+        if(num == 0){
+            return -1;
+        }
+        // rejection sampling
+        for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++){
+            int id = idAtIndex.applyAsInt(rnd.nextInt(num));
+            if(!fixed.get(id)){
+                return id;
+            }
+        }
+        // count non-fixed IDs and pick one uniformly at random in a second scan (without
+        // allocating a buffer, as the neighbourhood is shared by concurrent searches)
+        int numFree = 0;
+        for(int i = 0; i < num; i++){
+            if(!fixed.get(idAtIndex.applyAsInt(i))){
+                numFree++;
+            }
+        }
+        if(numFree == 0){
+            return -1;
+        }
+        int k = rnd.nextInt(numFree);
+        for(int i = 0; i < num; i++){
+            int id = idAtIndex.applyAsInt(i);
+            if(!fixed.get(id) && k-- == 0){
+                return id;
+            }
+        }
+        throw new IllegalStateException("Solution modified while sampling a swap move.");
+    }
+    
+}
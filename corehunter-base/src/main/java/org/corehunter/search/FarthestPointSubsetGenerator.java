@@ -0,0 +1,78 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.objectives.distance.DistanceMeasure;
+import org.jamesframework.core.subset.SubsetSolution;
+
+/**
+ * Greedy max-min (farthest-point) construction, suited for maximizing the average distance between each
+ * selected item and the closest other selected item. In every step, the candidate with the largest distance
+ * to the closest item that is already selected is added to the selection. Distances to all candidates are
+ * updated in parallel. If no items are always selected, the first candidate is picked at random so that
+ * different searches start from different solutions.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class FarthestPointSubsetGenerator extends SubsetGenerator {
+
+    private final DistanceMeasure distanceMeasure;
+    
+    public FarthestPointSubsetGenerator(int size, Set<Integer> alwaysSelected, Set<Integer> neverSelected,
+                                        DistanceMeasure distanceMeasure) {
+        super(size, alwaysSelected, neverSelected);
+        if(distanceMeasure == null){
+            throw new IllegalArgumentException("Distance measure not defined.");
+        }
+        this.distanceMeasure = distanceMeasure;
+    }
+
+    public DistanceMeasure getDistanceMeasure() {
+        return distanceMeasure;
+    }
+    
+    @Override
+    protected void complete(SubsetSolution sol, int[] candidates, int numAdd, Random rnd, CoreHunterData data) {
+        // distance from each candidate to the closest selected item (NaN if the candidate has been selected)
+        double[] minDist = infinity(candidates.length);
+        for(int sel : sol.getSelectedIDs()){
+            update(minDist, candidates, sel, data);
+        }
+        for(int i = 0; i < numAdd; i++){
+            // pick random first item if the selection is empty, else the farthest candidate
+            int c = sol.getNumSelectedIDs() == 0 ? rnd.nextInt(candidates.length) : argMax(minDist);
+            sol.select(candidates[c]);
+            minDist[c] = Double.NaN;
+            update(minDist, candidates, candidates[c], data);
+        }
+    }
+    
+    private void update(double[] minDist, int[] candidates, int selected, CoreHunterData data){
+        IntStream.range(0, candidates.length).parallel().filter(c -> !Double.isNaN(minDist[c])).forEach(c -> {
+            minDist[c] = Math.min(minDist[c], distanceMeasure.getDistance(candidates[c], selected, data));
+        });
+    }
+    
+}
@@ -0,0 +1,80 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.jamesframework.core.problems.objectives.Objective;
+import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.jamesframework.core.subset.neigh.moves.AdditionMove;
+
+/**
+ * Greedy construction based on an arbitrary objective. In every step, the candidate that yields the best
+ * evaluation when added to the current selection is selected. All candidates are evaluated sequentially,
+ * using delta evaluation with respect to the same current evaluation; evaluating them in parallel only
+ * causes contention on the state shared through this evaluation (e.g. the average genotype of the current
+ * selection). As the number of evaluations grows with both the number of candidates and the number of
+ * added items, this construction is mainly suited to extend a given selection with a limited number of
+ * items, e.g. to warm start a search from a smaller core.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class GreedySubsetGenerator extends SubsetGenerator {
+
+    private final Objective<SubsetSolution, CoreHunterData> objective;
+    
+    public GreedySubsetGenerator(int size, Set<Integer> alwaysSelected, Set<Integer> neverSelected,
+                                 Objective<SubsetSolution, CoreHunterData> objective) {
+        super(size, alwaysSelected, neverSelected);
+        if(objective == null){
+            throw new IllegalArgumentException("Objective not defined.");
+        }
+        this.objective = objective;
+    }
+
+    public Objective<SubsetSolution, CoreHunterData> getObjective() {
+        return objective;
+    }
+    
+    @Override
+    protected void complete(SubsetSolution sol, int[] candidates, int numAdd, Random rnd, CoreHunterData data) {
+        Evaluation curEval = objective.evaluate(sol, data);
+        // score of each candidate (NaN if the candidate has been selected)
+        double[] scores = new double[candidates.length];
+        double sign = objective.isMinimizing() ? -1.0 : 1.0;
+        for(int i = 0; i < numAdd; i++){
+            for(int c = 0; c < candidates.length; c++){
+                if(!Double.isNaN(scores[c])){
+                    AdditionMove move = new AdditionMove(candidates[c]);
+                    scores[c] = sign * objective.evaluate(move, sol, curEval, data).getValue();
+                }
+            }
+            int c = argMax(scores);
+            AdditionMove best = new AdditionMove(candidates[c]);
+            curEval = objective.evaluate(best, sol, curEval, data);
+            best.apply(sol);
+            scores[c] = Double.NaN;
+        }
+    }
+    
+}
@@ -0,0 +1,231 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jamesframework.core.exceptions.SearchException;
+import org.jamesframework.core.factory.MetropolisSearchFactory;
+import org.jamesframework.core.problems.Problem;
+import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
+import org.jamesframework.core.problems.sol.Solution;
+import org.jamesframework.core.search.Search;
+import org.jamesframework.core.search.algo.MetropolisSearch;
+import org.jamesframework.core.search.algo.ParallelTempering;
+import org.jamesframework.core.search.listeners.SearchListener;
+import org.jamesframework.core.search.neigh.Neighbourhood;
+import org.jamesframework.core.search.status.SearchStatus;
+
+/**
+ * Island model search in which several independent parallel tempering searches (islands) are executed
+ * concurrently, periodically exchanging their best solutions. Each island has its own replicas, which are
+ * executed in a separate thread pool, so that the total number of concurrently executed replicas scales
+ * with the number of islands. In every step of the island search, each island executes a fixed number of
+ * parallel tempering steps (see {@link #setMigrationInterval(long)}). Afterwards, elite solutions are migrated
+ * along a ring: the best solution of each island replaces the current solution of the worst replica of the next
+ * island, if it is better than the best solution found by that island so far.
+ * <p>
+ * Stop criteria should be added to the island search itself. They are then applied to all islands: once the
+ * island search is requested to stop, so are all islands.
+ * 
+ * @param <SolutionType> solution type
+ * @author Herman De Beukelaer
+ */
+public class IslandSearch<SolutionType extends Solution> extends Search<SolutionType> {
+
+    // default number of parallel tempering steps between migrations
+    private static final long DEFAULT_MIGRATION_INTERVAL = 10;
+    
+    // islands
+    private final List<ReproducibleParallelTempering<SolutionType>> islands;
+    
+    // number of parallel tempering steps between migrations
+    private long migrationInterval;
+    
+    // thread pool used to execute islands
+    private final ExecutorService pool;
+    private final Queue<Future<?>> futures;
+    
+    /**
+     * Create an island search with the given number of parallel tempering islands, using the same
+     * settings for all islands. The given Metropolis search factory is used to create the replicas
+     * of each island.
+     * 
+     * @param problem problem to solve
+     * @param neigh neighbourhood used by all replicas
+     * @param numIslands number of islands, strictly positive
+     * @param numReplicas number of replicas per island
+     * @param minTemp minimum replica temperature
+     * @param maxTemp maximum replica temperature
+     * @param replicaFactory Metropolis search factory used to create replicas
+     * @throws IllegalArgumentException if <code>numIslands</code> is not strictly positive, or
+     *                                  if any of the parallel tempering settings is invalid
+     */
+    public IslandSearch(Problem<SolutionType> problem, Neighbourhood<? super SolutionType> neigh,
+                        int numIslands, int numReplicas, double minTemp, double maxTemp,
+                        MetropolisSearchFactory<SolutionType> replicaFactory){
+        super("IslandSearch", problem);
+        if(numIslands <= 0){
+            throw new IllegalArgumentException(
+                    "Error while creating island search: number of islands should be > 0."
+            );
+        }
+        List<ReproducibleParallelTempering<SolutionType>> islandList = new ArrayList<>();
+        IslandListener listener = new IslandListener();
+        for(int i = 0; i < numIslands; i++){
+            ReproducibleParallelTempering<SolutionType> island = new ReproducibleParallelTempering<>(
+                    problem, neigh, numReplicas, minTemp, maxTemp, replicaFactory
+            );
+            island.addSearchListener(listener);
+            islandList.add(island);
+        }
+        islands = Collections.unmodifiableList(islandList);
+        migrationInterval = DEFAULT_MIGRATION_INTERVAL;
+        pool = Executors.newFixedThreadPool(numIslands);
+        futures = new LinkedList<>();
+    }
+    
+    /**
+     * Get the parallel tempering islands, e.g. to modify their settings. The returned list is unmodifiable.
+     * 
+     * @return list of islands
+     */
+    public List<ReproducibleParallelTempering<SolutionType>> getIslands(){
+        return islands;
+    }
+    
+    /**
+     * Set the number of parallel tempering steps executed by each island in between migrations,
+     * corresponding to a single step of the island search. Defaults to 10.
+     * 
+     * @param steps number of steps between migrations, strictly positive
+     * @throws IllegalArgumentException if <code>steps</code> is not strictly positive
+     */
+    public void setMigrationInterval(long steps){
+        assertIdle("Cannot modify migration interval of island search.");
+        if(steps <= 0){
+            throw new IllegalArgumentException("Migration interval of island search should be strictly positive.");
+        }
+        migrationInterval = steps;
+    }
+    
+    public long getMigrationInterval(){
+        return migrationInterval;
+    }
+
+    /**
+     * Stops the island search and all islands.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        islands.forEach(Search::stop);
+    }
+
+    @Override
+    protected void searchStep() {
+        // run all islands concurrently
+        islands.forEach(island -> futures.add(pool.submit(island)));
+        // wait for completion
+        while(!futures.isEmpty()){
+            try {
+                futures.poll().get();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new SearchException("An error occured during concurrent execution of islands "
+                                        + "in the island search.", ex);
+            }
+        }
+        // inspect best solutions of all islands in a fixed order
+        for(ParallelTempering<SolutionType> island : islands){
+            if(island.getBestSolution() != null){
+                updateBestSolution(island.getBestSolution(),
+                                   island.getBestSolutionEvaluation(),
+                                   island.getBestSolutionValidation());
+            }
+        }
+        // migrate elite solutions
+        migrate();
+    }
+    
+    private void migrate(){
+        int n = islands.size();
+        if(n < 2){
+            return;
+        }
+        // collect elite solutions before modifying any island
+        List<SolutionType> elites = new ArrayList<>();
+        List<Evaluation> eliteEvaluations = new ArrayList<>();
+        for(ParallelTempering<SolutionType> island : islands){
+            elites.add(island.getBestSolution());
+            eliteEvaluations.add(island.getBestSolutionEvaluation());
+        }
+        // migrate along ring
+        for(int i = 0; i < n; i++){
+            SolutionType elite = elites.get(i);
+            int target = (i + 1) % n;
+            Evaluation targetBest = eliteEvaluations.get(target);
+            if(elite != null && (targetBest == null || computeDelta(eliteEvaluations.get(i), targetBest) > 0)){
+                // replace current solution of worst replica
+                MetropolisSearch<SolutionType> worst = null;
+                for(MetropolisSearch<SolutionType> rep : islands.get(target).getReplicas()){
+                    if(worst == null || computeDelta(rep.getCurrentSolutionEvaluation(),
+                                                     worst.getCurrentSolutionEvaluation()) < 0){
+                        worst = rep;
+                    }
+                }
+                if(worst != null){
+                    worst.setCurrentSolution(Solution.checkedCopy(elite));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void searchDisposed() {
+        islands.forEach(Search::dispose);
+        pool.shutdown();
+        super.searchDisposed();
+    }
+    
+    /**
+     * Listener attached to each island that stops the island after
+     * the specified number of steps in between migrations.
+     */
+    private class IslandListener implements SearchListener<SolutionType> {
+
+        @Override
+        public void stepCompleted(Search<? extends SolutionType> search, long numSteps) {
+            // also stop when the island search has been requested to stop in the meantime
+            if(numSteps >= migrationInterval || getStatus() != SearchStatus.RUNNING){
+                search.stop();
+            }
+        }
+        
+    }
+    
+}
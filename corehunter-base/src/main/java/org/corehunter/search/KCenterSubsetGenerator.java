@@ -0,0 +1,92 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.objectives.distance.DistanceMeasure;
+import org.jamesframework.core.subset.SubsetSolution;
+
+/**
+ * Greedy k-center construction, suited for minimizing the average distance between each item and the closest
+ * selected item. In every step, the item (selected or not) that is worst represented by the current selection
+ * is determined, and the candidate closest to that item is added to the selection. As items that are never
+ * selected still need to be represented, the added candidate is not necessarily the worst represented item
+ * itself. All distances are computed and updated in parallel. If no items are always selected, the first
+ * candidate is picked at random so that different searches start from different solutions.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class KCenterSubsetGenerator extends SubsetGenerator {
+
+    private final DistanceMeasure distanceMeasure;
+    
+    public KCenterSubsetGenerator(int size, Set<Integer> alwaysSelected, Set<Integer> neverSelected,
+                                  DistanceMeasure distanceMeasure) {
+        super(size, alwaysSelected, neverSelected);
+        if(distanceMeasure == null){
+            throw new IllegalArgumentException("Distance measure not defined.");
+        }
+        this.distanceMeasure = distanceMeasure;
+    }
+
+    public DistanceMeasure getDistanceMeasure() {
+        return distanceMeasure;
+    }
+    
+    @Override
+    protected void complete(SubsetSolution sol, int[] candidates, int numAdd, Random rnd, CoreHunterData data) {
+        int n = data.getSize();
+        // distance from each item to the closest selected item
+        double[] cover = infinity(n);
+        for(int sel : sol.getSelectedIDs()){
+            update(cover, sel, data);
+        }
+        // distance from the worst represented item to each candidate (NaN if the candidate has been selected)
+        double[] negDist = new double[candidates.length];
+        for(int i = 0; i < numAdd; i++){
+            int c;
+            if(sol.getNumSelectedIDs() == 0){
+                // pick random first item
+                c = rnd.nextInt(candidates.length);
+            } else {
+                // find worst represented item and closest candidate
+                int worst = argMax(cover);
+                IntStream.range(0, candidates.length).parallel().filter(j -> !Double.isNaN(negDist[j])).forEach(
+                    j -> negDist[j] = -distanceMeasure.getDistance(worst, candidates[j], data)
+                );
+                c = argMax(negDist);
+            }
+            sol.select(candidates[c]);
+            negDist[c] = Double.NaN;
+            update(cover, candidates[c], data);
+        }
+    }
+    
+    private void update(double[] cover, int selected, CoreHunterData data){
+        IntStream.range(0, cover.length).parallel().forEach(
+            item -> cover[item] = Math.min(cover[item], distanceMeasure.getDistance(item, selected, data))
+        );
+    }
+    
+}
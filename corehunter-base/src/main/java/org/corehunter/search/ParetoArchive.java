@@ -0,0 +1,172 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jamesframework.core.subset.SubsetSolution;
+
+/**
+ * Thread-safe archive of mutually non-dominated subset solutions, approximating the Pareto front of a
+ * multi-objective problem. Solutions are offered together with their objective values, oriented so that
+ * larger values are better. A solution is accepted if it is not dominated by (and not equal to) any solution
+ * in the archive, in which case all archived solutions that it dominates are discarded. The content of the
+ * archive does not depend on the order in which solutions are offered.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class ParetoArchive {
+
+    // order of archived solutions: by decreasing objective values, then by selected IDs
+    private static final Comparator<Entry> ORDER = (e1, e2) -> {
+        for(int o = 0; o < e1.values.length; o++){
+            int c = Double.compare(e2.values[o], e1.values[o]);
+            if(c != 0){
+                return c;
+            }
+        }
+        // same objective values: compare selected IDs (lexicographically)
+        for(int i = 0; i < Math.min(e1.ids.length, e2.ids.length); i++){
+            int c = Integer.compare(e1.ids[i], e2.ids[i]);
+            if(c != 0){
+                return c;
+            }
+        }
+        return Integer.compare(e1.ids.length, e2.ids.length);
+    };
+    
+    // archived solutions and their objective values
+    private final List<Entry> entries;
+    private final int numObjectives;
+    
+    /**
+     * Create an empty archive.
+     * 
+     * @param numObjectives number of objectives, strictly positive
+     * @throws IllegalArgumentException if the number of objectives is not strictly positive
+     */
+    public ParetoArchive(int numObjectives) {
+        if(numObjectives <= 0){
+            throw new IllegalArgumentException("Number of objectives should be strictly positive.");
+        }
+        this.numObjectives = numObjectives;
+        entries = new ArrayList<>();
+    }
+
+    public int getNumObjectives() {
+        return numObjectives;
+    }
+    
+    /**
+     * Offer a solution to the archive. If accepted, a copy of the solution is stored.
+     * 
+     * @param solution subset solution
+     * @param values objective values of the solution, oriented so that larger values are better
+     * @return <code>true</code> if the solution has been added to the archive
+     * @throws IllegalArgumentException if the number of values does not match the number of objectives
+     */
+    public synchronized boolean offer(SubsetSolution solution, double[] values){
+        if(values.length != numObjectives){
+            throw new IllegalArgumentException(String.format(
+                    "Expected %d objective values, got %d.", numObjectives, values.length
+            ));
+        }
+        for(Entry entry : entries){
+            if(dominates(entry.values, values)
+                    || Arrays.equals(entry.values, values)
+                       && entry.solution.getSelectedIDs().equals(solution.getSelectedIDs())){
+                return false;
+            }
+        }
+        Iterator<Entry> it = entries.iterator();
+        while(it.hasNext()){
+            if(dominates(values, it.next().values)){
+                it.remove();
+            }
+        }
+        entries.add(new Entry(new SubsetSolution(solution.getAllIDs(), solution.getSelectedIDs()), values.clone()));
+        return true;
+    }
+    
+    public synchronized int size(){
+        return entries.size();
+    }
+    
+    /**
+     * Get copies of all archived solutions, sorted by decreasing value of the first objective
+     * (then by the next objectives, and finally by the selected IDs).
+     * 
+     * @return archived solutions
+     */
+    public synchronized List<SubsetSolution> getSolutions(){
+        return entries.stream()
+                      .sorted(ORDER)
+                      .map(e -> new SubsetSolution(e.solution.getAllIDs(), e.solution.getSelectedIDs()))
+                      .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get the objective values of all archived solutions, in the same order as {@link #getSolutions()}.
+     * 
+     * @return objective values, oriented so that larger values are better
+     */
+    public synchronized List<double[]> getValues(){
+        return entries.stream().sorted(ORDER).map(e -> e.values.clone()).collect(Collectors.toList());
+    }
+    
+    /**
+     * Check whether the first vector of objective values dominates the second one, i.e. whether it is at least
+     * as good for all objectives and strictly better for at least one objective.
+     * 
+     * @param x objective values, oriented so that larger values are better
+     * @param y objective values, oriented so that larger values are better
+     * @return <code>true</code> if <code>x</code> dominates <code>y</code>
+     */
+    public static boolean dominates(double[] x, double[] y){
+        boolean better = false;
+        for(int o = 0; o < x.length; o++){
+            if(x[o] < y[o]){
+                return false;
+            }
+            better |= x[o] > y[o];
+        }
+        return better;
+    }
+    
+    private static class Entry {
+        
+        private final SubsetSolution solution;
+        private final double[] values;
+        private final int[] ids;
+
+        Entry(SubsetSolution solution, double[] values) {
+            this.solution = solution;
+            this.values = values;
+            ids = solution.getSelectedIDs().stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+        
+    }
+    
+}
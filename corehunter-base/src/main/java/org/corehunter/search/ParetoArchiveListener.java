@@ -0,0 +1,78 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.corehunter.data.CoreHunterData;
+import org.jamesframework.core.problems.constraints.validations.Validation;
+import org.jamesframework.core.problems.objectives.Objective;
+import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
+import org.jamesframework.core.search.LocalSearch;
+import org.jamesframework.core.search.listeners.SearchListener;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.jamesframework.ext.problems.objectives.evaluations.WeightedIndexEvaluation;
+
+/**
+ * Offers every valid current solution of a local search that optimizes a weighted index to a Pareto archive.
+ * The values of the individual objectives are extracted from the weighted index evaluation, so that no
+ * additional evaluations are required.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class ParetoArchiveListener implements SearchListener<SubsetSolution> {
+
+    private final ParetoArchive archive;
+    private final List<Objective<SubsetSolution, CoreHunterData>> objectives;
+    
+    /**
+     * Create listener.
+     * 
+     * @param archive Pareto archive
+     * @param objectives objectives included in the weighted index, in the order of the archived values
+     * @throws IllegalArgumentException if the number of objectives does not match the archive
+     */
+    public ParetoArchiveListener(ParetoArchive archive, List<Objective<SubsetSolution, CoreHunterData>> objectives) {
+        if(objectives.size() != archive.getNumObjectives()){
+            throw new IllegalArgumentException("Number of objectives does not match Pareto archive.");
+        }
+        this.archive = archive;
+        this.objectives = Collections.unmodifiableList(new ArrayList<>(objectives));
+    }
+
+    @Override
+    public void newCurrentSolution(LocalSearch<? extends SubsetSolution> search, SubsetSolution newCurrentSolution,
+                                   Evaluation newCurrentSolutionEvaluation, Validation newCurrentSolutionValidation) {
+        if(!newCurrentSolutionValidation.passed()){
+            return;
+        }
+        WeightedIndexEvaluation eval = (WeightedIndexEvaluation) newCurrentSolutionEvaluation;
+        double[] values = new double[objectives.size()];
+        for(int o = 0; o < values.length; o++){
+            Objective<SubsetSolution, CoreHunterData> obj = objectives.get(o);
+            double value = eval.getEvaluation(obj).getValue();
+            values[o] = obj.isMinimizing() ? -value : value;
+        }
+        archive.offer(newCurrentSolution, values);
+    }
+    
+}
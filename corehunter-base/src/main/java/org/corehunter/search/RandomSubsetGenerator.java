@@ -0,0 +1,50 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.jamesframework.core.util.SetUtilities;
+
+/**
+ * Completes the selection by sampling uniformly at random from the remaining candidates.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class RandomSubsetGenerator extends SubsetGenerator {
+
+    public RandomSubsetGenerator(int size, Set<Integer> alwaysSelected, Set<Integer> neverSelected) {
+        super(size, alwaysSelected, neverSelected);
+    }
+
+    @Override
+    protected void complete(SubsetSolution sol, int[] candidates, int numAdd, Random rnd, CoreHunterData data) {
+        Set<Integer> candidateSet = new LinkedHashSet<>();
+        for(int id : candidates){
+            candidateSet.add(id);
+        }
+        sol.selectAll(SetUtilities.getRandomSubset(candidateSet, numAdd, rnd));
+    }
+
+}
@@ -0,0 +1,134 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jamesframework.core.factory.MetropolisSearchFactory;
+import org.jamesframework.core.problems.Problem;
+import org.jamesframework.core.problems.constraints.validations.Validation;
+import org.jamesframework.core.problems.objectives.evaluations.Evaluation;
+import org.jamesframework.core.problems.sol.Solution;
+import org.jamesframework.core.search.algo.MetropolisSearch;
+import org.jamesframework.core.search.algo.ParallelTempering;
+import org.jamesframework.core.search.neigh.Neighbourhood;
+
+/**
+ * Parallel tempering search of which the outcome only depends on the seeds of the random generators, and not on
+ * the order in which the concurrently executed replicas report new best solutions. By default, the first of
+ * several equally good solutions found by different replicas during the same step is retained, which depends
+ * on thread scheduling. Here, improvements reported by replicas during a step are ignored and the best solutions
+ * of all replicas are inspected in a fixed order after each step instead.
+ * 
+ * @param <SolutionType> solution type
+ * @author Herman De Beukelaer
+ */
+public class ReproducibleParallelTempering<SolutionType extends Solution> extends ParallelTempering<SolutionType> {
+
+    // replicas, in order of increasing temperature
+    private final List<MetropolisSearch<SolutionType>> replicas;
+    
+    // indicates that replicas are being executed
+    private volatile boolean executingReplicas;
+    
+    /**
+     * Create parallel tempering search. The given Metropolis search factory is used to create the replicas.
+     * 
+     * @param problem problem to solve
+     * @param neigh neighbourhood used by all replicas
+     * @param numReplicas number of replicas
+     * @param minTemp minimum replica temperature
+     * @param maxTemp maximum replica temperature
+     * @param replicaFactory Metropolis search factory used to create replicas
+     * @throws IllegalArgumentException if any of the parallel tempering settings is invalid
+     */
+    public ReproducibleParallelTempering(Problem<SolutionType> problem, Neighbourhood<? super SolutionType> neigh,
+                                         int numReplicas, double minTemp, double maxTemp,
+                                         MetropolisSearchFactory<SolutionType> replicaFactory) {
+        this(problem, neigh, numReplicas, minTemp, maxTemp, replicaFactory, new ArrayList<>());
+    }
+    
+    private ReproducibleParallelTempering(Problem<SolutionType> problem, Neighbourhood<? super SolutionType> neigh,
+                                          int numReplicas, double minTemp, double maxTemp,
+                                          MetropolisSearchFactory<SolutionType> replicaFactory,
+                                          List<MetropolisSearch<SolutionType>> replicas) {
+        // keep track of the created replicas
+        super(problem, neigh, numReplicas, minTemp, maxTemp, (p, n, t) -> {
+            MetropolisSearch<SolutionType> rep = replicaFactory.create(p, n, t);
+            replicas.add(rep);
+            return rep;
+        });
+        this.replicas = Collections.unmodifiableList(replicas);
+    }
+    
+    /**
+     * Get the replicas, in order of increasing temperature. The returned list is unmodifiable.
+     * 
+     * @return list of replicas
+     */
+    public List<MetropolisSearch<SolutionType>> getReplicas(){
+        return replicas;
+    }
+
+    /**
+     * Stops the search and all replicas, so that the search terminates without completing the current step.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        replicas.forEach(MetropolisSearch::stop);
+    }
+
+    @Override
+    protected void searchStep() {
+        executingReplicas = true;
+        try {
+            super.searchStep();
+        } finally {
+            executingReplicas = false;
+        }
+        // inspect best solutions of all replicas in a fixed order
+        for(MetropolisSearch<SolutionType> rep : replicas){
+            if(rep.getBestSolution() != null){
+                super.updateCurrentAndBestSolution(
+                        rep.getBestSolution(), rep.getBestSolutionEvaluation(), rep.getBestSolutionValidation()
+                );
+            }
+        }
+    }
+
+    /**
+     * Ignores new best solutions reported by replicas while they are being executed concurrently.
+     * These solutions are inspected after completion of the step.
+     * 
+     * @param solution new current solution
+     * @param evaluation evaluation of new current solution
+     * @param validation validation of new current solution
+     * @return <code>true</code> if the best solution has been updated
+     */
+    @Override
+    protected boolean updateCurrentAndBestSolution(SolutionType solution, Evaluation evaluation,
+                                                   Validation validation) {
+        return !executingReplicas && super.updateCurrentAndBestSolution(solution, evaluation, validation);
+    }
+    
+}
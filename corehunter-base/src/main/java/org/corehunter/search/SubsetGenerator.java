@@ -0,0 +1,138 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.corehunter.data.CoreHunterData;
+import org.jamesframework.core.problems.sol.RandomSolutionGenerator;
+import org.jamesframework.core.subset.SubsetSolution;
+
+/**
+ * Generates initial subset solutions of a fixed size that contain all items that are always to be selected
+ * and none of the items that are never to be selected. Subclasses decide how to complete the selection
+ * from the remaining candidates.
+ * 
+ * @author Herman De Beukelaer
+ */
+public abstract class SubsetGenerator implements RandomSolutionGenerator<SubsetSolution, CoreHunterData> {
+
+    private final int size;
+    private final Set<Integer> alwaysSelected;
+    private final Set<Integer> neverSelected;
+    
+    /**
+     * Create subset generator.
+     * 
+     * @param size requested subset size
+     * @param alwaysSelected IDs of items that are always selected, may be <code>null</code>
+     * @param neverSelected IDs of items that are never selected, may be <code>null</code>
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public SubsetGenerator(int size, Set<Integer> alwaysSelected, Set<Integer> neverSelected) {
+        if(size < 0){
+            throw new IllegalArgumentException("Subset size can not be negative.");
+        }
+        this.size = size;
+        this.alwaysSelected = alwaysSelected == null
+                              ? Collections.emptySet()
+                              : Collections.unmodifiableSet(new HashSet<>(alwaysSelected));
+        this.neverSelected = neverSelected == null
+                             ? Collections.emptySet()
+                             : Collections.unmodifiableSet(new HashSet<>(neverSelected));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Set<Integer> getAlwaysSelected() {
+        return alwaysSelected;
+    }
+
+    public Set<Integer> getNeverSelected() {
+        return neverSelected;
+    }
+    
+    @Override
+    public SubsetSolution create(Random rnd, CoreHunterData data) {
+        // create subset solution containing always selected ids
+        CoreHunterSolution sol = new CoreHunterSolution(data.getIDs(), alwaysSelected);
+        // find remaining candidates for selection, in ascending order
+        // (exclude both already selected and never selected ids)
+        int[] candidates = sol.getUnselectedIDs().stream()
+                                                 .filter(id -> !neverSelected.contains(id))
+                                                 .mapToInt(Integer::intValue)
+                                                 .sorted()
+                                                 .toArray();
+        // select more items to obtain requested size
+        int numAdd = Math.min(size - sol.getNumSelectedIDs(), candidates.length);
+        if(numAdd > 0){
+            complete(sol, candidates, numAdd, rnd, data);
+        }
+        return sol;
+    }
+    
+    /**
+     * Complete the given solution by selecting the specified number of additional items.
+     * 
+     * @param sol solution containing all items that are always selected
+     * @param candidates IDs of the remaining candidates, in ascending order
+     * @param numAdd number of candidates to select, strictly positive and at most the number of candidates
+     * @param rnd random generator
+     * @param data Core Hunter data
+     */
+    protected abstract void complete(SubsetSolution sol, int[] candidates, int numAdd,
+                                     Random rnd, CoreHunterData data);
+    
+    /**
+     * Find the position of the largest value, ignoring positions where the value is {@link Double#NaN}.
+     * Ties are broken in favour of the smallest position, so that the result does not depend on the way in
+     * which the values are scanned in parallel.
+     * 
+     * @param values values to scan in parallel
+     * @return position of the largest value, -1 if all values are {@link Double#NaN}
+     */
+    protected static int argMax(double[] values){
+        return IntStream.range(0, values.length)
+                        .parallel()
+                        .filter(i -> !Double.isNaN(values[i]))
+                        .reduce((i, j) -> values[j] > values[i] ? j : i)
+                        .orElse(-1);
+    }
+    
+    /**
+     * Create an array of the given length filled with {@link Double#POSITIVE_INFINITY}.
+     * 
+     * @param length length of the array
+     * @return array filled with infinity
+     */
+    protected static double[] infinity(int length){
+        double[] values = new double[length];
+        Arrays.fill(values, Double.POSITIVE_INFINITY);
+        return values;
+    }
+
+}
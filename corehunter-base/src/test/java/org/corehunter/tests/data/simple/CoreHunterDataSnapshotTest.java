@@ -0,0 +1,240 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.data.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corehunter.data.BiAllelicGenotypeData;
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.DefaultGenotypeData;
+import org.corehunter.data.DistanceMatrixData;
+import org.corehunter.data.FrequencyGenotypeData;
+import org.corehunter.data.simple.CoreHunterDataSnapshot;
+import org.corehunter.data.simple.SimpleBiAllelicGenotypeData;
+import org.corehunter.data.simple.SimpleDefaultGenotypeData;
+import org.corehunter.data.simple.SimpleDistanceMatrixData;
+import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.data.simple.SimplePhenotypeData;
+import org.junit.Test;
+
+import uno.informatics.data.DataType;
+import uno.informatics.data.Feature;
+import uno.informatics.data.Scale;
+import uno.informatics.data.ScaleType;
+import uno.informatics.data.SimpleEntity;
+import uno.informatics.data.dataset.FeatureData;
+import uno.informatics.data.io.FileType;
+import uno.informatics.data.pojo.FeaturePojo;
+import uno.informatics.data.pojo.MethodPojo;
+import uno.informatics.data.pojo.ScalePojo;
+import uno.informatics.data.pojo.SimpleEntityPojo;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class CoreHunterDataSnapshotTest {
+
+    private static final String TEST_OUTPUT = "target/testoutput";
+
+    private static final String BIALLELIC_GENOTYPES = "/biallelic_genotypes/ids-and-names.csv";
+    private static final String DEFAULT_GENOTYPES = "/diploid_genotypes/ids-and-names.csv";
+    private static final String FREQUENCY_GENOTYPES = "/frequency_genotypes/ids-and-names.csv";
+    private static final String PHENOTYPES = "/phenotypes/ids-and-names.csv";
+    private static final String DISTANCES = "/distances/full-ids-names.txt";
+
+    private static final double PRECISION = 1e-10;
+
+    @Test
+    public void testBiAllelicPhenotypesAndDistances() throws IOException {
+        CoreHunterData data = new CoreHunterData(
+                SimpleBiAllelicGenotypeData.readData(getPath(BIALLELIC_GENOTYPES), FileType.CSV),
+                new SimplePhenotypeData(SimplePhenotypeData.readPhenotypeData(getPath(PHENOTYPES), FileType.CSV)),
+                SimpleDistanceMatrixData.readData(getPath(DISTANCES), FileType.TXT)
+        );
+        
+        CoreHunterData copy = writeAndRead(data, "BiAllelic");
+        
+        assertTrue(copy.getGenotypicData() instanceof BiAllelicGenotypeData);
+        testData(data, copy);
+    }
+
+    @Test
+    public void testDefaultGenotypes() throws IOException {
+        CoreHunterData data = new CoreHunterData(
+                SimpleDefaultGenotypeData.readData(getPath(DEFAULT_GENOTYPES), FileType.CSV)
+        );
+        
+        CoreHunterData copy = writeAndRead(data, "Default");
+        
+        assertTrue(copy.getGenotypicData() instanceof DefaultGenotypeData);
+        testData(data, copy);
+        
+        DefaultGenotypeData expected = (DefaultGenotypeData) data.getGenotypicData();
+        DefaultGenotypeData actual = (DefaultGenotypeData) copy.getGenotypicData();
+        for (int j = 0; j < expected.getNumberOfMarkers(); j++) {
+            int k = expected.getNumberOfObservedAllelesPerIndividual(j);
+            assertEquals(k, actual.getNumberOfObservedAllelesPerIndividual(j));
+            for (int i = 0; i < expected.getSize(); i++) {
+                for (int o = 0; o < k; o++) {
+                    assertEquals(expected.getObservedAllele(i, j, o), actual.getObservedAllele(i, j, o));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFrequencyGenotypes() throws IOException {
+        CoreHunterData data = new CoreHunterData(
+                SimpleFrequencyGenotypeData.readData(getPath(FREQUENCY_GENOTYPES), FileType.CSV)
+        );
+        
+        CoreHunterData copy = writeAndRead(data, "Frequency");
+        
+        assertTrue(copy.getGenotypicData() instanceof SimpleFrequencyGenotypeData);
+        testData(data, copy);
+    }
+
+    @Test
+    public void testPhenotypeValueTypes() throws IOException {
+        SimpleEntity[] headers = {
+            new SimpleEntityPojo("a", "Item A"), new SimpleEntityPojo("b", null), new SimpleEntityPojo("c", "Item C")
+        };
+        Feature[] features = {
+            new FeaturePojo("nominal", "Nominal", new MethodPojo("nominal", new ScalePojo(
+                    "nominal", DataType.STRING, ScaleType.NOMINAL, Arrays.asList("x", "y")
+            ))),
+            new FeaturePojo("ordinal", "Ordinal", new MethodPojo("ordinal", new ScalePojo(
+                    "ordinal", DataType.INTEGER, ScaleType.ORDINAL, 1, 5
+            ))),
+            new FeaturePojo("interval", "Interval", new MethodPojo("interval", new ScalePojo(
+                    "interval", DataType.DOUBLE, ScaleType.INTERVAL, -1.5, 2.5
+            ))),
+            new FeaturePojo("binary", "Binary", new MethodPojo("binary", new ScalePojo(
+                    "binary", DataType.BOOLEAN, ScaleType.NOMINAL
+            )))
+        };
+        List<List<Object>> values = Arrays.asList(
+                Arrays.asList("x", 1, -1.5, true),
+                Arrays.asList(null, 5, null, false),
+                Arrays.asList("y", null, 2.5, null)
+        );
+        CoreHunterData data = new CoreHunterData(
+                new SimplePhenotypeData("Phenotypes", Arrays.asList(features), Arrays.asList(headers), values)
+        );
+        
+        CoreHunterData copy = writeAndRead(data, "Phenotypes");
+        
+        testData(data, copy);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotASnapshot() throws IOException {
+        CoreHunterDataSnapshot.readData(getPath(DISTANCES));
+    }
+
+    private CoreHunterData writeAndRead(CoreHunterData data, String name) throws IOException {
+        Path path = Paths.get(TEST_OUTPUT);
+        Files.createDirectories(path);
+        path = Files.createTempDirectory(path, "Snapshot-" + name).resolve("data.snapshot");
+        
+        System.out.println(" |- Write snapshot");
+        CoreHunterDataSnapshot.writeData(path, data);
+        
+        System.out.println(" |- Read snapshot");
+        return CoreHunterDataSnapshot.readData(path);
+    }
+
+    private void testData(CoreHunterData expected, CoreHunterData actual) {
+        assertEquals(expected.getSize(), actual.getSize());
+        for (int i = 0; i < expected.getSize(); i++) {
+            assertEquals(expected.getHeader(i), actual.getHeader(i));
+        }
+        
+        FrequencyGenotypeData expectedGenotypes = expected.getGenotypicData();
+        FrequencyGenotypeData actualGenotypes = actual.getGenotypicData();
+        if (expectedGenotypes == null) {
+            assertNull(actualGenotypes);
+        } else {
+            assertEquals(expectedGenotypes.getName(), actualGenotypes.getName());
+            assertEquals(expectedGenotypes.getNumberOfMarkers(), actualGenotypes.getNumberOfMarkers());
+            for (int j = 0; j < expectedGenotypes.getNumberOfMarkers(); j++) {
+                assertEquals(expectedGenotypes.getMarkerName(j), actualGenotypes.getMarkerName(j));
+                assertEquals(expectedGenotypes.getNumberOfAlleles(j), actualGenotypes.getNumberOfAlleles(j));
+                for (int a = 0; a < expectedGenotypes.getNumberOfAlleles(j); a++) {
+                    assertEquals(expectedGenotypes.getAlleleName(j, a), actualGenotypes.getAlleleName(j, a));
+                    for (int i = 0; i < expectedGenotypes.getSize(); i++) {
+                        assertEquals(expectedGenotypes.getAlleleFrequency(i, j, a),
+                                     actualGenotypes.getAlleleFrequency(i, j, a), PRECISION);
+                    }
+                }
+            }
+        }
+        
+        FeatureData expectedPhenotypes = expected.getPhenotypicData();
+        FeatureData actualPhenotypes = actual.getPhenotypicData();
+        if (expectedPhenotypes == null) {
+            assertNull(actualPhenotypes);
+        } else {
+            assertEquals(expectedPhenotypes.getFeatures(), actualPhenotypes.getFeatures());
+            for (int f = 0; f < expectedPhenotypes.getFeatures().size(); f++) {
+                Feature expectedFeature = expectedPhenotypes.getFeatures().get(f);
+                Feature actualFeature = actualPhenotypes.getFeatures().get(f);
+                assertEquals(expectedFeature.getUniqueIdentifier(), actualFeature.getUniqueIdentifier());
+                assertEquals(expectedFeature.getName(), actualFeature.getName());
+                Scale expectedScale = expectedFeature.getMethod().getScale();
+                Scale actualScale = actualFeature.getMethod().getScale();
+                assertEquals(expectedScale.getDataType(), actualScale.getDataType());
+                assertEquals(expectedScale.getScaleType(), actualScale.getScaleType());
+                assertEquals(expectedScale.getMinimumValue(), actualScale.getMinimumValue());
+                assertEquals(expectedScale.getMaximumValue(), actualScale.getMaximumValue());
+                assertEquals(expectedScale.getValues(), actualScale.getValues());
+            }
+            for (int i = 0; i < expectedPhenotypes.getSize(); i++) {
+                assertEquals(expectedPhenotypes.getRow(i).getValues(), actualPhenotypes.getRow(i).getValues());
+            }
+        }
+        
+        DistanceMatrixData expectedDistances = expected.getDistancesData();
+        DistanceMatrixData actualDistances = actual.getDistancesData();
+        if (expectedDistances == null) {
+            assertNull(actualDistances);
+        } else {
+            for (int x = 0; x < expectedDistances.getSize(); x++) {
+                for (int y = 0; y < expectedDistances.getSize(); y++) {
+                    assertEquals(expectedDistances.getDistance(x, y), actualDistances.getDistance(x, y), PRECISION);
+                }
+            }
+        }
+    }
+
+    private Path getPath(String file) {
+        return Paths.get(CoreHunterDataSnapshotTest.class.getResource(file).getPath());
+    }
+
+}
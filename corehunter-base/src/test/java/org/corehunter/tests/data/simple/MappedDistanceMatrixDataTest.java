@@ -0,0 +1,105 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.data.simple;
+
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MODIFIED_ROGERS_DISTANCES;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.DistanceMatrixData;
+import org.corehunter.data.simple.MappedDistanceMatrixData;
+import org.corehunter.data.simple.SimpleDistanceMatrixData;
+import org.corehunter.exceptions.CoreHunterException;
+import org.corehunter.objectives.distance.cache.MappedDistanceCache;
+import org.corehunter.objectives.distance.measures.PrecomputedDistance;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class MappedDistanceMatrixDataTest {
+
+    private static final String TEST_OUTPUT = "target/testoutput";
+    private static final DistanceMatrixData SOURCE = new SimpleDistanceMatrixData(
+            HEADERS_UNIQUE_NAMES, MODIFIED_ROGERS_DISTANCES
+    );
+
+    @Test
+    public void testWriteRead() throws IOException {
+        
+        Path path = Paths.get(TEST_OUTPUT);
+        Files.createDirectories(path);
+        path = Files.createTempDirectory(path, "MappedDistances").resolve("distances.dist");
+        
+        System.out.println(" |- Write mapped file");
+        testData(MappedDistanceMatrixData.writeData(path, SOURCE));
+        
+        System.out.println(" |- Read mapped file");
+        testData(MappedDistanceMatrixData.readData(path, "Distances", HEADERS_UNIQUE_NAMES));
+        
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncomplete() throws IOException {
+        Path path = Paths.get(TEST_OUTPUT);
+        Files.createDirectories(path);
+        path = Files.createTempDirectory(path, "MappedDistances-Incomplete").resolve("distances.dist");
+        MappedDistanceCache cache = new MappedDistanceCache(
+                path, HEADERS_UNIQUE_NAMES.length, "incomplete", MappedDistanceCache.fingerprint(SOURCE)
+        );
+        new MappedDistanceMatrixData(HEADERS_UNIQUE_NAMES, cache);
+    }
+    
+    @Test(expected = CoreHunterException.class)
+    public void testOtherItems() throws IOException {
+        Path path = Paths.get(TEST_OUTPUT);
+        Files.createDirectories(path);
+        path = Files.createTempDirectory(path, "MappedDistances-OtherItems").resolve("distances.dist");
+        MappedDistanceMatrixData.writeData(path, SOURCE);
+        MappedDistanceMatrixData.readData(path, "Distances", HEADERS_NON_UNIQUE_NAMES);
+    }
+
+    private void testData(MappedDistanceMatrixData dist) {
+        int n = MODIFIED_ROGERS_DISTANCES.length;
+        assertEquals(n, dist.getSize());
+        // distances are not stored in the heap
+        assertEquals(0, dist.getMemoryFootprint());
+        for (int i = 0; i < n; i++) {
+            assertEquals(HEADERS_UNIQUE_NAMES[i], dist.getHeader(i));
+        }
+        CoreHunterData data = new CoreHunterData(dist);
+        PrecomputedDistance measure = new PrecomputedDistance();
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(MODIFIED_ROGERS_DISTANCES[x][y], dist.getDistance(x, y), PRECISION);
+                assertEquals(MODIFIED_ROGERS_DISTANCES[x][y], measure.getDistance(x, y, data), PRECISION);
+            }
+        }
+    }
+
+}
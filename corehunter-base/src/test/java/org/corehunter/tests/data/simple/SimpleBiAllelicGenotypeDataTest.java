@@ -428,6 +428,10 @@ public class SimpleBiAllelicGenotypeDataTest {
         // check total number of alleles
         assertEquals("Incorrect total number of alleles.",
                      2 * expectedMarkerNames.length, data.getTotalNumberOfAlleles());
+        // check memory footprint of packed score and missing value bitplanes
+        long words = (expectedMarkerNames.length + Long.SIZE - 1) / Long.SIZE;
+        assertEquals("Incorrect memory footprint.",
+                     3 * words * data.getSize() * Long.BYTES, data.getMemoryFootprint());
         
         // check marker names + allele counts and names
         for(int m = 0; m < data.getNumberOfMarkers(); m++){
@@ -492,6 +496,21 @@ public class SimpleBiAllelicGenotypeDataTest {
                 
             }
             
+            // check allele vector
+            double[] freqs = data.getAlleleFrequencies(i);
+            int[] offsets = data.getAlleleOffsets();
+            assertEquals("Incorrect length of allele vector.", data.getTotalNumberOfAlleles(), freqs.length);
+            for (int m = 0; m < data.getNumberOfMarkers(); m++) {
+                assertEquals("Incorrect allele offset for marker " + m + ".", 2 * m, offsets[m]);
+                for (int a = 0; a < data.getNumberOfAlleles(m); a++) {
+                    assertEquals("Incorrect allele vector entry for allele " + a
+                               + " of marker " + m + " in individual " + i + ".",
+                               data.getAlleleFrequency(i, m, a),
+                               freqs[offsets[m] + a],
+                               PRECISION);
+                }
+            }
+            
         }
         
     }
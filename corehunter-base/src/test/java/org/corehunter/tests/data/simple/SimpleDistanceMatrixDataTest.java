@@ -86,6 +86,21 @@ public class SimpleDistanceMatrixDataTest {
         testData(new SimpleDistanceMatrixData(NAME, HEADERS_NON_UNIQUE_NAMES, DISTANCES));
     }
 
+    @Test
+    public void inMemoryPacked() {
+        System.out.println(" |- In memory test with packed distances");
+        dataName = NAME;
+        expectedHeaders = HEADERS_NON_UNIQUE_NAMES;
+        int n = DISTANCES.length;
+        double[] packed = new double[n * (n - 1) / 2];
+        for (int y = 1; y < n; y++) {
+            for (int x = 0; x < y; x++) {
+                packed[y * (y - 1) / 2 + x] = DISTANCES[x][y];
+            }
+        }
+        testData(new SimpleDistanceMatrixData(NAME, HEADERS_NON_UNIQUE_NAMES, packed));
+    }
+
     @Test
     public void fromFileWithIds() throws IOException {
         dataName = "full-ids.txt";
@@ -343,6 +358,9 @@ public class SimpleDistanceMatrixDataTest {
 
         int size = data.getSize();
 
+        // check memory footprint of packed upper triangle
+        assertEquals("Incorrect memory footprint.", size * (size - 1) / 2 * Double.BYTES, data.getMemoryFootprint());
+
         // check items (headers and distances)
         for (int i = 0; i < size; i++) {
 
@@ -501,6 +501,27 @@ public class SimpleFrequencyGenotypeDataTest {
                     }
                 }
                 
+                // check missing values (also in bitset)
+                boolean missing = Arrays.stream(ALLELE_FREQUENCIES[i][m]).anyMatch(Double::isNaN);
+                assertEquals("Missing values not correctly marked for marker " + m + " in individual " + i + ".",
+                             missing, data.hasMissingValues(i, m));
+                assertEquals("Missing values not correctly marked for marker " + m + " in individual " + i + ".",
+                             missing, ((data.getMissingMarkers(i)[m / 64] >>> m) & 1L) != 0);
+                
+            }
+            
+            // check contiguous allele vector
+            double[] freqs = data.getAlleleFrequencies(i);
+            int[] offsets = data.getAlleleOffsets();
+            assertEquals("Incorrect length of allele vector.", offsets[data.getNumberOfMarkers()], freqs.length);
+            for (int m = 0; m < data.getNumberOfMarkers(); m++) {
+                assertEquals("Incorrect allele offsets for marker " + m + ".",
+                             data.getNumberOfAlleles(m), offsets[m + 1] - offsets[m]);
+                for (int a = 0; a < data.getNumberOfAlleles(m); a++) {
+                    assertEquals("Allele vector inconsistent for allele " + a
+                                 + " of marker " + m + " in individual " + i + ".",
+                                 data.getAlleleFrequency(i, m, a), freqs[offsets[m] + a], PRECISION);
+                }
             }
             
         }
@@ -66,6 +66,9 @@ import org.jamesframework.core.subset.SubsetSolution;
 import org.jamesframework.core.subset.neigh.SinglePerturbationNeighbourhood;
 import org.junit.Test;
 
+import uno.informatics.data.SimpleEntity;
+import uno.informatics.data.pojo.SimpleEntityPojo;
+
 /**
  * @author Herman De Beukelaer
  */
@@ -267,5 +270,83 @@ public class AverageEntryToNearestEntryDistanceTest extends EvaluationTest {
         }
         
     }
+    
+    @Test
+    public void testChainedDeltaEvaluation() {
+        
+        Random rng = new Random();
+        
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        
+        AverageEntryToNearestEntry objective = new AverageEntryToNearestEntry(
+                new CavalliSforzaEdwardsDistance()
+        );
+        SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(data, objective);
+        
+        Neighbourhood<SubsetSolution> neigh = new SinglePerturbationNeighbourhood();
+        SubsetSolution sol = problem.createRandomSolution(rng);
+        Evaluation curEval = objective.evaluate(sol, data);
+        int numMoves = 10000;
+        for(int m = 0; m < numMoves; m++){
+            Move<? super SubsetSolution> move = neigh.getRandomMove(sol, rng);
+            Evaluation deltaEval = objective.evaluate(move, sol, curEval, data);
+            move.apply(sol);
+            Evaluation fullEval = objective.evaluate(sol, data);
+            assertEquals("Delta evaluation and full neighbour evaluation differ!",
+                         fullEval, deltaEval, PRECISION);
+            // continue from delta evaluation, or reject move
+            if(rng.nextBoolean()){
+                curEval = deltaEval;
+            } else {
+                move.undo(sol);
+            }
+        }
+        
+    }
+
+    
+    @Test
+    public void testChainedDeltaEvaluationRandomDistances() {
+        
+        Random rng = new Random();
+        
+        // random distance matrix
+        int n = 100;
+        double[][] distances = new double[n][n];
+        SimpleEntity[] headers = new SimpleEntity[n];
+        for(int i = 0; i < n; i++){
+            headers[i] = new SimpleEntityPojo("item-" + i);
+            for(int j = 0; j < i; j++){
+                distances[i][j] = distances[j][i] = rng.nextDouble();
+            }
+        }
+        CoreHunterData data = new CoreHunterData(new SimpleDistanceMatrixData(headers, distances));
+        
+        AverageEntryToNearestEntry objective = new AverageEntryToNearestEntry(new PrecomputedDistance());
+        SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(data, objective, 10, 30);
+        
+        Neighbourhood<SubsetSolution> neigh = new SinglePerturbationNeighbourhood(10, 30);
+        SubsetSolution sol = problem.createRandomSolution(rng);
+        Evaluation curEval = objective.evaluate(sol, data);
+        int numMoves = 5000;
+        for(int m = 0; m < numMoves; m++){
+            Move<? super SubsetSolution> move = neigh.getRandomMove(sol, rng);
+            Evaluation deltaEval = objective.evaluate(move, sol, curEval, data);
+            move.apply(sol);
+            Evaluation fullEval = objective.evaluate(sol, data);
+            assertEquals("Delta evaluation and full neighbour evaluation differ!",
+                         fullEval, deltaEval, PRECISION);
+            // continue from delta evaluation, or reject move
+            if(rng.nextBoolean()){
+                curEval = deltaEval;
+            } else {
+                move.undo(sol);
+            }
+        }
+        
+    }
 
 }
@@ -0,0 +1,273 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.objectives.distance.cache;
+
+import static org.corehunter.tests.TestData.ALLELE_FREQUENCIES;
+import static org.corehunter.tests.TestData.ALLELE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MARKER_NAMES;
+import static org.corehunter.tests.TestData.MODIFIED_ROGERS_DISTANCES;
+import static org.corehunter.tests.TestData.NAME;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.exceptions.CoreHunterException;
+import org.corehunter.objectives.distance.cache.DistanceCache;
+import org.corehunter.objectives.distance.cache.MappedDistanceCache;
+import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
+import org.corehunter.objectives.distance.measures.ModifiedRogersDistance;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class MappedDistanceCacheTest {
+
+    private static final String TEST_OUTPUT = "target/testoutput";
+    private static final long FINGERPRINT = 42;
+
+    @Test
+    public void testPutGetMultipleSegments() throws IOException {
+        Path file = createTempDirectory("MappedCache-Segments").resolve("cache.dist");
+        int n = 23;
+        // small segments (8 entries) to test segmentation
+        MappedDistanceCache cache = new MappedDistanceCache(file, n, "test", FINGERPRINT, 8);
+        assertEquals(n, cache.getSize());
+        assertFalse(cache.isComplete());
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                if (x == y) {
+                    assertEquals(0.0, cache.get(x, y), PRECISION);
+                } else {
+                    assertTrue(Double.isNaN(cache.get(x, y)));
+                }
+            }
+        }
+        for (int x = 0; x < n; x++) {
+            for (int y = x + 1; y < n; y++) {
+                cache.put(y, x, 0.1 * x + y);
+            }
+        }
+        assertTrue(cache.isComplete());
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                double expected = x == y ? 0.0 : 0.1 * Math.min(x, y) + Math.max(x, y);
+                assertEquals(expected, cache.get(x, y), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        Path file = createTempDirectory("MappedCache-Reuse").resolve("cache.dist");
+        MappedDistanceCache cache = new MappedDistanceCache(file, 5, "test", FINGERPRINT);
+        cache.put(1, 3, 0.25);
+        cache.flush();
+        // reopened with same size, key and fingerprint: retained
+        assertEquals(0.25, new MappedDistanceCache(file, 5, "test", FINGERPRINT).get(3, 1), PRECISION);
+        assertEquals(0.25, MappedDistanceCache.open(file, "test", FINGERPRINT).get(1, 3), PRECISION);
+        // reopened with different fingerprint: cleared
+        assertTrue(Double.isNaN(new MappedDistanceCache(file, 5, "test", FINGERPRINT + 1).get(1, 3)));
+        // reopened with different key: cleared
+        cache = new MappedDistanceCache(file, 5, "test", FINGERPRINT);
+        cache.put(1, 3, 0.25);
+        cache.flush();
+        assertTrue(Double.isNaN(new MappedDistanceCache(file, 5, "other", FINGERPRINT).get(1, 3)));
+    }
+
+    @Test
+    public void testMarkComplete() throws IOException {
+        Path file = createTempDirectory("MappedCache-Complete").resolve("cache.dist");
+        MappedDistanceCache cache = new MappedDistanceCache(file, 3, "test", FINGERPRINT);
+        assertFalse(cache.isMarkedComplete());
+        cache.put(0, 1, 0.5);
+        cache.put(0, 2, 0.25);
+        cache.put(1, 2, 0.75);
+        cache.markComplete();
+        assertTrue(cache.isMarkedComplete());
+        // flag is stored in the file
+        assertTrue(MappedDistanceCache.open(file, "test", FINGERPRINT).isMarkedComplete());
+        // and cleared together with the distances
+        assertFalse(new MappedDistanceCache(file, 3, "test", FINGERPRINT + 1).isMarkedComplete());
+    }
+
+    @Test
+    public void testReplaceMappedFile() throws IOException {
+        Path file = createTempDirectory("MappedCache-Replace").resolve("cache.dist");
+        MappedDistanceCache cache = new MappedDistanceCache(file, 5, "test", FINGERPRINT);
+        cache.put(1, 3, 0.25);
+        // replaced for another dataset while still mapped: existing mapping is not affected
+        MappedDistanceCache other = new MappedDistanceCache(file, 7, "test", FINGERPRINT + 1);
+        assertEquals(0.25, cache.get(1, 3), PRECISION);
+        cache.put(2, 4, 0.5);
+        assertEquals(0.5, cache.get(4, 2), PRECISION);
+        assertTrue(Double.isNaN(other.get(1, 3)));
+        other.put(5, 6, 0.75);
+        other.flush();
+        // file holds the new cache only
+        assertEquals(0.75, MappedDistanceCache.open(file, "test", FINGERPRINT + 1).get(6, 5), PRECISION);
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        Path file = createTempDirectory("MappedCache-Close").resolve("cache.dist");
+        MappedDistanceCache cache = new MappedDistanceCache(file, 5, "test", FINGERPRINT);
+        cache.put(1, 3, 0.25);
+        assertFalse(cache.isClosed());
+        cache.close();
+        assertTrue(cache.isClosed());
+        // closing again has no effect
+        cache.close();
+        // stored distances are written to the file
+        assertEquals(0.25, MappedDistanceCache.open(file, "test", FINGERPRINT).get(3, 1), PRECISION);
+        // closed cache can no longer be used
+        try {
+            cache.get(1, 3);
+            fail("Closed cache should not be readable");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        try {
+            cache.put(1, 3, 0.5);
+            fail("Closed cache should not be writable");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        try {
+            cache.isMarkedComplete();
+            fail("Closed cache header should not be readable");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testClearDistanceCaches() throws IOException {
+        CoreHunterData data = new CoreHunterData(new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        ));
+        Path dir = createTempDirectory("MappedCache-Clear");
+        data.setDistanceCacheFactory(MappedDistanceCache.factory(dir, MappedDistanceCache.fingerprint(data)));
+        MappedDistanceCache cache = (MappedDistanceCache) data.getDistanceCache("test");
+        data.clearDistanceCaches();
+        assertTrue(cache.isClosed());
+        assertNotSame(cache, data.getDistanceCache("test"));
+    }
+
+    @Test(expected = CoreHunterException.class)
+    public void testOpenInvalid() throws IOException {
+        Path file = createTempDirectory("MappedCache-Invalid").resolve("cache.dist");
+        new MappedDistanceCache(file, 5, "test", FINGERPRINT);
+        MappedDistanceCache.open(file, "other", FINGERPRINT);
+    }
+
+    @Test(expected = CoreHunterException.class)
+    public void testOpenOtherDataset() throws IOException {
+        Path file = createTempDirectory("MappedCache-OtherDataset").resolve("cache.dist");
+        new MappedDistanceCache(file, 5, "test", FINGERPRINT);
+        MappedDistanceCache.open(file, "test", FINGERPRINT + 1);
+    }
+
+    @Test
+    public void testFingerprint() throws IOException {
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        SimpleFrequencyGenotypeData other = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        Path dir = createTempDirectory("MappedCache-Fingerprint");
+        Path file = dir.resolve("data.txt");
+        Files.write(file, "data".getBytes(StandardCharsets.UTF_8));
+        long fingerprint = MappedDistanceCache.fingerprint(geno);
+        assertEquals(fingerprint, MappedDistanceCache.fingerprint(new CoreHunterData(geno)));
+        assertNotEquals(fingerprint, MappedDistanceCache.fingerprint(other));
+        // data file is included
+        long withFile = MappedDistanceCache.fingerprint(geno, file);
+        assertNotEquals(fingerprint, withFile);
+        Files.write(file, "changed".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(withFile, MappedDistanceCache.fingerprint(geno, file));
+    }
+
+    @Test
+    public void testFactory() throws IOException {
+
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        Path dir = createTempDirectory("MappedCache-Factory");
+        
+        CoreHunterData data = new CoreHunterData(geno);
+        long fingerprint = MappedDistanceCache.fingerprint(data);
+        data.setDistanceCacheFactory(MappedDistanceCache.factory(dir, fingerprint));
+        int n = data.getSize();
+        ModifiedRogersDistance measure = new ModifiedRogersDistance();
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(MODIFIED_ROGERS_DISTANCES[x][y], measure.getDistance(x, y, data), PRECISION);
+            }
+        }
+        
+        // new data object with same factory directory reuses computed distances
+        CoreHunterData data2 = new CoreHunterData(geno);
+        data2.setDistanceCacheFactory(MappedDistanceCache.factory(dir, fingerprint));
+        DistanceCache cache = data2.getDistanceCache(ModifiedRogersDistance.class.getName() + "/"
+                                                     + MissingValuesPolicy.FLOOR);
+        assertTrue(cache instanceof MappedDistanceCache);
+        assertTrue(((MappedDistanceCache) cache).isComplete());
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(MODIFIED_ROGERS_DISTANCES[x][y], cache.get(x, y), PRECISION);
+            }
+        }
+        
+        // precomputation marks the cache complete
+        assertFalse(((MappedDistanceCache) cache).isMarkedComplete());
+        new ModifiedRogersDistance().precomputeDistances(data2, ForkJoinPool.commonPool());
+        assertTrue(((MappedDistanceCache) cache).isMarkedComplete());
+        
+    }
+
+    private static Path createTempDirectory(String prefix) throws IOException {
+        Path path = Paths.get(TEST_OUTPUT);
+        Files.createDirectories(path);
+        return Files.createTempDirectory(path, prefix);
+    }
+
+}
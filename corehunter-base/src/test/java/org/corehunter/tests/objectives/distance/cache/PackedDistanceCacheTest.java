@@ -0,0 +1,148 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.objectives.distance.cache;
+
+import static org.corehunter.tests.TestData.ALLELE_FREQUENCIES;
+import static org.corehunter.tests.TestData.ALLELE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MARKER_NAMES;
+import static org.corehunter.tests.TestData.MODIFIED_ROGERS_DISTANCES;
+import static org.corehunter.tests.TestData.MODIFIED_ROGERS_DISTANCES_CEIL_MISSING;
+import static org.corehunter.tests.TestData.NAME;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.objectives.distance.cache.DistanceCache;
+import org.corehunter.objectives.distance.cache.PackedDistanceCache;
+import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
+import org.corehunter.objectives.distance.measures.ModifiedRogersDistance;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class PackedDistanceCacheTest {
+
+    @Test
+    public void testPutGet() {
+        int n = 7;
+        PackedDistanceCache cache = new PackedDistanceCache(n);
+        assertEquals(n, cache.getSize());
+        // initially empty (except diagonal)
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                if (x == y) {
+                    assertEquals(0.0, cache.get(x, y), PRECISION);
+                } else {
+                    assertTrue(Double.isNaN(cache.get(x, y)));
+                }
+            }
+        }
+        // fill and check symmetry
+        for (int x = 0; x < n; x++) {
+            for (int y = x + 1; y < n; y++) {
+                cache.put(x, y, 10 * x + y);
+            }
+        }
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                double expected = x == y ? 0.0 : 10 * Math.min(x, y) + Math.max(x, y);
+                assertEquals(expected, cache.get(x, y), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testIndex() {
+        int n = 50;
+        boolean[] seen = new boolean[(int) PackedDistanceCache.numberOfEntries(n)];
+        for (int x = 0; x < n; x++) {
+            for (int y = x + 1; y < n; y++) {
+                int i = (int) PackedDistanceCache.index(x, y);
+                assertEquals(i, PackedDistanceCache.index(y, x));
+                assertTrue(!seen[i]);
+                seen[i] = true;
+            }
+        }
+        // largest supported size does not overflow
+        int max = PackedDistanceCache.MAX_SIZE;
+        assertEquals(PackedDistanceCache.numberOfEntries(max) - 1, PackedDistanceCache.index(max - 2, max - 1));
+        assertTrue(PackedDistanceCache.numberOfEntries(max) < Integer.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLarge() {
+        new PackedDistanceCache(PackedDistanceCache.MAX_SIZE + 1);
+    }
+
+    @Test
+    public void testSharedBetweenMeasures() {
+
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        int n = data.getSize();
+
+        // fill cache through first measure
+        ModifiedRogersDistance floor1 = new ModifiedRogersDistance();
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                floor1.getDistance(x, y, data);
+            }
+        }
+        
+        // check that cached distances are picked up by an equivalent measure
+        DistanceCache cache = data.getDistanceCache(ModifiedRogersDistance.class.getName() + "/"
+                                                    + MissingValuesPolicy.FLOOR);
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(MODIFIED_ROGERS_DISTANCES[x][y], cache.get(x, y), PRECISION);
+            }
+        }
+        ModifiedRogersDistance floor2 = new ModifiedRogersDistance();
+        assertEquals(MODIFIED_ROGERS_DISTANCES[0][1], floor2.getDistance(0, 1, data), PRECISION);
+        assertSame(cache, data.getDistanceCache(ModifiedRogersDistance.class.getName() + "/"
+                                                + MissingValuesPolicy.FLOOR));
+        
+        // a different policy uses a different cache
+        ModifiedRogersDistance ceil = new ModifiedRogersDistance();
+        ceil.setMissingValuesPolicy(MissingValuesPolicy.CEIL);
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(MODIFIED_ROGERS_DISTANCES_CEIL_MISSING[x][y], ceil.getDistance(x, y, data), PRECISION);
+            }
+        }
+        assertNotSame(cache, data.getDistanceCache(ModifiedRogersDistance.class.getName() + "/"
+                                                   + MissingValuesPolicy.CEIL));
+        
+        // distinct (but equal) data objects do not share caches
+        CoreHunterData other = new CoreHunterData(geno);
+        assertTrue(Double.isNaN(other.getDistanceCache(ModifiedRogersDistance.class.getName() + "/"
+                                                       + MissingValuesPolicy.FLOOR).get(0, 1)));
+        
+    }
+
+}
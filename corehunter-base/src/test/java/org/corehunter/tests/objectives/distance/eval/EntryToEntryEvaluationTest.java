@@ -0,0 +1,70 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.objectives.distance.eval;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleDistanceMatrixData;
+import org.corehunter.objectives.distance.eval.EntryToEntryEvaluation;
+import org.corehunter.objectives.distance.measures.PrecomputedDistance;
+import org.junit.Test;
+
+import uno.informatics.data.SimpleEntity;
+import uno.informatics.data.pojo.SimpleEntityPojo;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class EntryToEntryEvaluationTest {
+    
+    private static final double PRECISION = 1e-8;
+    
+    @Test
+    public void testRowSumsWithoutParentRowSums() {
+        
+        int n = 6;
+        double[][] distances = new double[n][n];
+        SimpleEntity[] headers = new SimpleEntity[n];
+        for(int i = 0; i < n; i++){
+            headers[i] = new SimpleEntityPojo("item-" + i);
+            for(int j = 0; j < n; j++){
+                distances[i][j] = Math.abs(i - j);
+            }
+        }
+        CoreHunterData data = new CoreHunterData(new SimpleDistanceMatrixData(headers, distances));
+        PrecomputedDistance measure = new PrecomputedDistance();
+        
+        // parent selection {0, 1, 2}, swap 2 for 4 (sums of distances are irrelevant for the row sums)
+        EntryToEntryEvaluation parent = new EntryToEntryEvaluation(0.0, 3);
+        EntryToEntryEvaluation child = new EntryToEntryEvaluation(0.0, 3, parent, new int[]{4}, new int[]{2});
+        Set<Integer> selected = new HashSet<>(Arrays.asList(0, 1, 4));
+        
+        // row sums of parent have not been computed
+        double[] expected = new EntryToEntryEvaluation(0.0, 3).getRowSums(selected, measure, data);
+        assertArrayEquals(expected, child.getRowSums(selected, measure, data), PRECISION);
+        
+    }
+    
+}
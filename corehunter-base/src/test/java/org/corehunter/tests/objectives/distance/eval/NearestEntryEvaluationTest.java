@@ -0,0 +1,237 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.objectives.distance.eval;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.corehunter.objectives.distance.eval.NearestEntry;
+import org.corehunter.objectives.distance.eval.NearestEntryEvaluation;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class NearestEntryEvaluationTest {
+    
+    private static final double PRECISION = 1e-8;
+    
+    @Test
+    public void testFullEvaluation() {
+        
+        NearestEntryEvaluation eval = new NearestEntryEvaluation(Double.POSITIVE_INFINITY);
+        assertEquals(Double.POSITIVE_INFINITY, eval.getValue(), PRECISION);
+        
+        eval.add(3, new NearestEntry(5, 1.0));
+        eval.add(20, 5, 2.0);
+        assertEquals(1.5, eval.getValue(), PRECISION);
+        assertEquals(5, eval.getClosest(3).getId());
+        assertEquals(2.0, eval.getClosest(20).getDistance(), PRECISION);
+        assertNull(eval.getClosest(4));
+        assertNull(eval.getClosest(100));
+        assertEquals(-1, eval.getClosestId(4));
+        
+        assertTrue(eval.update(20, 7, 4.0));
+        assertFalse(eval.update(4, 7, 4.0));
+        assertEquals(2.5, eval.getValue(), PRECISION);
+        
+        assertTrue(eval.remove(3));
+        assertFalse(eval.remove(3));
+        assertEquals(4.0, eval.getValue(), PRECISION);
+        
+    }
+    
+    @Test
+    public void testDerivedEvaluations() {
+        
+        Random rng = new Random();
+        int n = 50;
+        
+        // full evaluation and reference state
+        NearestEntryEvaluation root = new NearestEntryEvaluation(0.0, n);
+        Map<Integer, Double> rootState = new HashMap<>();
+        randomChanges(root, rootState, n, n, rng);
+        
+        List<NearestEntryEvaluation> evals = new ArrayList<>();
+        List<Map<Integer, Double>> states = new ArrayList<>();
+        evals.add(root);
+        states.add(rootState);
+        
+        NearestEntryEvaluation cur = root;
+        Map<Integer, Double> curState = rootState;
+        int curIndex = 0;
+        for(int i = 0; i < 1000; i++){
+            // derive and modify new evaluation
+            NearestEntryEvaluation newEval = new NearestEntryEvaluation(cur);
+            Map<Integer, Double> newState = new HashMap<>(curState);
+            randomChanges(newEval, newState, n, 1 + rng.nextInt(5), rng);
+            evals.add(newEval);
+            states.add(newState);
+            // accept with some probability
+            if(rng.nextBoolean()){
+                cur = newEval;
+                curState = newState;
+                curIndex = evals.size() - 1;
+            }
+            // check current and a random other evaluation
+            check(cur, curState, n);
+            int other = curIndex + rng.nextInt(evals.size() - curIndex);
+            if(evals.get(other).isAvailable()){
+                check(evals.get(other), states.get(other), n);
+            }
+        }
+        
+        // all evaluations still report correct values
+        for(int i = 0; i < evals.size(); i++){
+            assertEquals(value(states.get(i)), evals.get(i).getValue(), PRECISION);
+        }
+        
+    }
+    
+    @Test
+    public void testDiscardedMetadata() {
+        
+        NearestEntryEvaluation root = new NearestEntryEvaluation(0.0, 10);
+        root.add(0, 1, 1.0);
+        NearestEntryEvaluation child = new NearestEntryEvaluation(root);
+        child.update(0, 2, 2.0);
+        NearestEntryEvaluation sibling = new NearestEntryEvaluation(root);
+        sibling.update(0, 3, 3.0);
+        assertEquals(2, child.getClosestId(0));
+        assertEquals(3, sibling.getClosestId(0));
+        assertEquals(1, root.getClosestId(0));
+        
+        // parent can no longer be modified
+        try {
+            root.update(0, 4, 4.0);
+            fail("Modifying evaluation after deriving other evaluations should fail.");
+        } catch (IllegalStateException ex){
+            // expected
+        }
+        
+        // continue from child: root and sibling are discarded
+        NearestEntryEvaluation grandChild = new NearestEntryEvaluation(child);
+        assertTrue(child.isAvailable());
+        assertTrue(grandChild.isAvailable());
+        assertFalse(root.isAvailable());
+        assertFalse(sibling.isAvailable());
+        assertEquals(2.0, child.getClosestDistance(0), PRECISION);
+        assertEquals(1.0, root.getValue(), PRECISION);
+        assertEquals(3.0, sibling.getValue(), PRECISION);
+        try {
+            root.getClosest(0);
+            fail("Accessing discarded metadata should fail.");
+        } catch (IllegalStateException ex){
+            // expected
+        }
+        
+    }
+    
+    @Test
+    public void testNeighbourBuffer() {
+        
+        NearestEntryEvaluation eval = new NearestEntryEvaluation(0.0, 10, 3);
+        assertEquals(3, eval.getBufferSize());
+        
+        // unregistered items ignore offers
+        assertFalse(eval.offerNeighbour(0, 1, 1.0));
+        assertEquals(0, eval.getNumberOfNeighbours(0));
+        
+        eval.setNeighbours(0, new int[]{1, 2, 3, 4}, new double[]{1.0, 2.0, 3.0, 4.0}, 4);
+        assertEquals(3, eval.getNumberOfNeighbours(0));
+        assertEquals(1, eval.getClosestId(0));
+        assertEquals(1.0, eval.getValue(), PRECISION);
+        
+        // insert closer entry, farthest entry drops out
+        assertTrue(eval.offerNeighbour(0, 5, 0.5));
+        assertFalse(eval.offerNeighbour(0, 6, 2.0));
+        assertEquals(5, eval.getClosestId(0));
+        assertEquals(0.5, eval.getValue(), PRECISION);
+        
+        // remove closest entries: next buffered entry takes over
+        NearestEntryEvaluation derived = new NearestEntryEvaluation(eval);
+        assertEquals(1, derived.removeNeighbours(0, new int[]{5, 1, 7}));
+        assertEquals(2, derived.getClosestId(0));
+        assertEquals(2.0, derived.getValue(), PRECISION);
+        // farther entries can no longer be inserted in a partially filled buffer
+        assertFalse(derived.offerNeighbour(0, 6, 3.0));
+        assertTrue(derived.offerNeighbour(0, 6, 1.5));
+        assertEquals(2, derived.getNumberOfNeighbours(0));
+        assertEquals(0, derived.removeNeighbours(0, new int[]{2, 6}));
+        assertEquals(-1, derived.getClosestId(0));
+        assertEquals(0.0, derived.getValue(), PRECISION);
+        
+        // original evaluation is unaffected
+        assertEquals(3, eval.getNumberOfNeighbours(0));
+        assertEquals(5, eval.getClosestId(0));
+        assertEquals(0.5, eval.getValue(), PRECISION);
+        
+    }
+    
+    private void randomChanges(NearestEntryEvaluation eval, Map<Integer, Double> state,
+                               int n, int numChanges, Random rng){
+        for(int c = 0; c < numChanges; c++){
+            int item = rng.nextInt(n);
+            double dist = rng.nextDouble();
+            switch(rng.nextInt(3)){
+                case 0:
+                    eval.add(item, new NearestEntry(item + 1, dist));
+                    state.put(item, dist);
+                    break;
+                case 1:
+                    assertEquals(state.containsKey(item), eval.update(item, item + 1, dist));
+                    if(state.containsKey(item)){
+                        state.put(item, dist);
+                    }
+                    break;
+                default:
+                    assertEquals(state.containsKey(item), eval.remove(item));
+                    state.remove(item);
+            }
+        }
+    }
+    
+    private void check(NearestEntryEvaluation eval, Map<Integer, Double> state, int n){
+        for(int item = 0; item < n; item++){
+            NearestEntry closest = eval.getClosest(item);
+            if(state.containsKey(item)){
+                assertEquals(item + 1, closest.getId());
+                assertEquals(state.get(item), closest.getDistance(), PRECISION);
+            } else {
+                assertNull(closest);
+            }
+        }
+        assertEquals(value(state), eval.getValue(), PRECISION);
+    }
+    
+    private double value(Map<Integer, Double> state){
+        return state.isEmpty() ? 0.0 : state.values().stream().mapToDouble(d -> d).average().getAsDouble();
+    }
+    
+}
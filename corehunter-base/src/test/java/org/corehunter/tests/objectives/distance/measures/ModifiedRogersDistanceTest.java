@@ -30,9 +30,11 @@ import static org.corehunter.tests.TestData.PRECISION;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.objectives.distance.cache.DistanceCache;
 import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
 import org.corehunter.objectives.distance.measures.ModifiedRogersDistance;
 import org.junit.Test;
@@ -97,4 +99,33 @@ public class ModifiedRogersDistanceTest {
         }
     }
     
+    @Test
+    public void testPrecompute() {
+        
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+
+        ModifiedRogersDistance distanceMetric = new ModifiedRogersDistance();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        distanceMetric.precomputeDistances(data, pool);
+        pool.shutdown();
+        
+        // check cache contents
+        DistanceCache cache = data.getDistanceCache(
+                ModifiedRogersDistance.class.getName() + "/" + MissingValuesPolicy.FLOOR
+        );
+        int n = data.getSize();
+        for (int idX = 0; idX < n; idX++) {
+            for (int idY = 0; idY < n; idY++) {
+                assertEquals(
+                        "Distance[" + idX + "][" + idY + "] not correct!",
+                        MODIFIED_ROGERS_DISTANCES[idX][idY],
+                        cache.get(idX, idY),
+                        PRECISION);
+            }
+        }
+    }
+    
 }
@@ -0,0 +1,95 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.objectives.distance.measures.biallelic;
+
+import static org.corehunter.tests.TestData.ALLELE_SCORES_BIALLELIC;
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MARKER_NAMES;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleBiAllelicGenotypeData;
+import org.corehunter.objectives.distance.DistanceMeasure;
+import org.corehunter.objectives.distance.measures.ModifiedRogersDistance;
+import org.corehunter.objectives.distance.measures.MissingValuesPolicy;
+import org.corehunter.objectives.distance.measures.biallelic.ModifiedRogersDistanceBiAllelic;
+import org.corehunter.util.CoreHunterConstants;
+import org.junit.Test;
+
+import uno.informatics.data.pojo.DataPojo;
+
+/**
+ * Compares the bitwise biallelic kernel with the general Modified Rogers distance.
+ * 
+ * @author Herman De Beukelaer
+ */
+public class ModifiedRogersDistanceBiAllelicTest {
+
+    @Test
+    public void test() {
+        CoreHunterData data = new CoreHunterData(new SimpleBiAllelicGenotypeData(
+                HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_SCORES_BIALLELIC
+        ));
+        compare(data, MissingValuesPolicy.FLOOR);
+        compare(data, MissingValuesPolicy.CEIL);
+    }
+    
+    @Test
+    public void testMultipleWords() {
+        // random scores for 150 markers (three 64-bit words) with 5% missing values
+        int n = 25;
+        int m = 150;
+        Random rg = new Random(42);
+        byte[][] scores = new byte[n][m];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                scores[i][j] = rg.nextDouble() < 0.05
+                               ? CoreHunterConstants.MISSING_ALLELE_SCORE
+                               : (byte) rg.nextInt(3);
+            }
+        }
+        CoreHunterData data = new CoreHunterData(new SimpleBiAllelicGenotypeData(
+                DataPojo.updateOrCreateHeaders(null, n), null, scores
+        ));
+        compare(data, MissingValuesPolicy.FLOOR);
+        compare(data, MissingValuesPolicy.CEIL);
+    }
+    
+    private void compare(CoreHunterData data, MissingValuesPolicy policy){
+        DistanceMeasure expected = new ModifiedRogersDistance();
+        DistanceMeasure actual = new ModifiedRogersDistanceBiAllelic();
+        expected.setMissingValuesPolicy(policy);
+        actual.setMissingValuesPolicy(policy);
+        int n = data.getSize();
+        for (int idX = 0; idX < n; idX++) {
+            for (int idY = 0; idY < n; idY++) {
+                assertEquals(
+                        "Distance[" + idX + "][" + idY + "] not correct!",
+                        expected.getDistance(idX, idY, data),
+                        actual.getDistance(idX, idY, data),
+                        PRECISION);
+            }
+        }
+    }
+    
+}
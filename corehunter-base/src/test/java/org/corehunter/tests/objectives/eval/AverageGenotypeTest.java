@@ -0,0 +1,177 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.objectives.eval;
+
+import static org.corehunter.tests.TestData.ALLELE_FREQUENCIES;
+import static org.corehunter.tests.TestData.ALLELE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MARKER_NAMES;
+import static org.corehunter.tests.TestData.NAME;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.objectives.Coverage;
+import org.corehunter.objectives.HeterozygousLoci;
+import org.corehunter.objectives.Shannon;
+import org.corehunter.objectives.eval.AllelicDiversityEvaluation;
+import org.corehunter.objectives.eval.AverageGenotype;
+import org.jamesframework.core.problems.objectives.Objective;
+import org.jamesframework.core.search.neigh.Move;
+import org.jamesframework.core.search.neigh.Neighbourhood;
+import org.jamesframework.core.subset.SubsetProblem;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.jamesframework.core.subset.neigh.SinglePerturbationNeighbourhood;
+import org.jamesframework.ext.problems.objectives.WeightedIndex;
+import org.jamesframework.ext.problems.objectives.evaluations.WeightedIndexEvaluation;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class AverageGenotypeTest {
+
+    @Test
+    public void testSharedInWeightedIndex() {
+        
+        Random rng = new Random();
+        
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        
+        List<Objective<SubsetSolution, CoreHunterData>> objectives = Arrays.asList(
+                new Coverage(), new Shannon(), new HeterozygousLoci()
+        );
+        WeightedIndex<SubsetSolution, CoreHunterData> index = new WeightedIndex<>();
+        objectives.forEach(obj -> index.addObjective(obj, 1.0));
+        SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(data, index);
+        
+        Neighbourhood<SubsetSolution> neigh = new SinglePerturbationNeighbourhood();
+        SubsetSolution sol = problem.createRandomSolution(rng);
+        WeightedIndexEvaluation curEval = index.evaluate(sol, data);
+        checkShared(curEval, objectives);
+        
+        int numMoves = 1000;
+        for(int m = 0; m < numMoves; m++){
+            Move<? super SubsetSolution> move = neigh.getRandomMove(sol, rng);
+            WeightedIndexEvaluation deltaEval = index.evaluate(move, sol, curEval, data);
+            checkShared(deltaEval, objectives);
+            move.apply(sol);
+            WeightedIndexEvaluation fullEval = index.evaluate(sol, data);
+            for(Objective<SubsetSolution, CoreHunterData> obj : objectives){
+                assertEquals("Delta evaluation and full neighbour evaluation differ!",
+                             fullEval.getEvaluation(obj).getValue(),
+                             deltaEval.getEvaluation(obj).getValue(),
+                             PRECISION);
+            }
+            // continue from delta evaluation, or reject move
+            if(rng.nextBoolean()){
+                curEval = deltaEval;
+            } else {
+                move.undo(sol);
+            }
+        }
+        
+    }
+    
+    @Test
+    public void testSparseDerivation() {
+        
+        Random rng = new Random();
+        
+        SimpleFrequencyGenotypeData data = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        int n = data.getSize();
+        int numMarkers = data.getNumberOfMarkers();
+        
+        Set<Integer> selected = new HashSet<>();
+        for(int i = 0; i < n / 2; i++){
+            selected.add(i);
+        }
+        AverageGenotype cur = new AverageGenotype(selected, data);
+        
+        int numMoves = 1000;
+        for(int m = 0; m < numMoves; m++){
+            // random swap
+            List<Integer> sel = new ArrayList<>(selected);
+            List<Integer> unsel = new ArrayList<>(data.getIDs());
+            unsel.removeAll(selected);
+            int remove = sel.get(rng.nextInt(sel.size()));
+            int add = unsel.get(rng.nextInt(unsel.size()));
+            AverageGenotype derived = cur.derive(Collections.singleton(add), Collections.singleton(remove), data);
+            assertSame("Derivation should be memorized.",
+                       derived, cur.derive(Collections.singleton(add), Collections.singleton(remove), data));
+            // compare with average genotype computed from scratch
+            selected.remove(remove);
+            selected.add(add);
+            AverageGenotype full = new AverageGenotype(selected, data);
+            assertEquals(full.getNumSelected(), derived.getNumSelected());
+            for(int j = 0; j < numMarkers; j++){
+                assertArrayEquals(full.getAlleleSums(j), derived.getAlleleSums(j), PRECISION);
+                // markers at which the swapped items agree are shared
+                if(Arrays.equals(frequencies(data, add, j), frequencies(data, remove, j))){
+                    assertSame("Unaffected marker should be shared with parent.",
+                               cur.getAlleleSums(j), derived.getAlleleSums(j));
+                }
+            }
+            // continue from derived average genotype, or reject swap
+            if(rng.nextBoolean()){
+                cur = derived;
+            } else {
+                selected.remove(add);
+                selected.add(remove);
+            }
+        }
+        
+    }
+    
+    private double[] frequencies(SimpleFrequencyGenotypeData data, int id, int marker){
+        double[] freqs = new double[data.getNumberOfAlleles(marker)];
+        for(int a = 0; a < freqs.length; a++){
+            double freq = data.getAlleleFrequency(id, marker, a);
+            freqs[a] = Double.isNaN(freq) ? 0.0 : freq;
+        }
+        return freqs;
+    }
+    
+    private void checkShared(WeightedIndexEvaluation eval, List<Objective<SubsetSolution, CoreHunterData>> objectives){
+        AllelicDiversityEvaluation first = (AllelicDiversityEvaluation) eval.getEvaluation(objectives.get(0));
+        AverageGenotype avg = first.getSharedAverageGenotype();
+        for(Objective<SubsetSolution, CoreHunterData> obj : objectives){
+            assertSame("Average genotype is not shared between objectives.",
+                       avg, ((AllelicDiversityEvaluation) eval.getEvaluation(obj)).getSharedAverageGenotype());
+        }
+    }
+    
+}
@@ -0,0 +1,117 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.corehunter.search.CoreHunterSolution;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class CoreHunterSolutionTest {
+
+    private static final int SIZE = 100;
+    
+    @Test
+    public void testConsistentWithSubsetSolution() {
+        
+        Random rng = new Random();
+        Set<Integer> all = IntStream.range(0, SIZE).boxed().collect(Collectors.toSet());
+        Set<Integer> initial = new HashSet<>(Arrays.asList(1, 5, 7));
+        
+        SubsetSolution expected = new SubsetSolution(all, initial);
+        CoreHunterSolution sol = new CoreHunterSolution(all, initial);
+        assertSameSelection(expected, sol);
+        
+        for(int i = 0; i < 10000; i++){
+            int id = rng.nextInt(SIZE);
+            if(rng.nextBoolean()){
+                assertEquals(expected.select(id), sol.select(id));
+            } else {
+                assertEquals(expected.deselect(id), sol.deselect(id));
+            }
+            assertSameSelection(expected, sol);
+        }
+        
+        sol.selectAll();
+        expected.selectAll();
+        assertSameSelection(expected, sol);
+        sol.deselectAll();
+        expected.deselectAll();
+        assertSameSelection(expected, sol);
+        
+    }
+    
+    @Test
+    public void testCopy() {
+        
+        Set<Integer> all = IntStream.range(0, SIZE).boxed().collect(Collectors.toSet());
+        CoreHunterSolution sol = new CoreHunterSolution(all, new HashSet<>(Arrays.asList(3, 4)));
+        CoreHunterSolution copy = sol.copy();
+        
+        assertNotSame(sol, copy);
+        assertEquals(sol, copy);
+        assertEquals(sol.hashCode(), copy.hashCode());
+        
+        copy.select(10);
+        assertFalse(sol.getSelectedIDs().contains(10));
+        assertTrue(copy.getSelectedIDs().contains(10));
+        assertFalse(sol.equals(copy));
+        
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectUnknownId() {
+        new CoreHunterSolution(new HashSet<>(Arrays.asList(0, 1, 2))).select(3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeId() {
+        new CoreHunterSolution(new HashSet<>(Arrays.asList(-1, 0, 1)));
+    }
+    
+    private void assertSameSelection(SubsetSolution expected, CoreHunterSolution sol){
+        assertEquals(expected.getSelectedIDs(), sol.getSelectedIDs());
+        assertEquals(expected.getUnselectedIDs(), sol.getUnselectedIDs());
+        assertEquals(expected.getAllIDs(), sol.getAllIDs());
+        assertEquals(expected.getNumSelectedIDs(), sol.getNumSelectedIDs());
+        assertEquals(expected.getNumUnselectedIDs(), sol.getNumUnselectedIDs());
+        for(int i = 0; i < sol.getNumSelectedIDs(); i++){
+            assertTrue(expected.getSelectedIDs().contains(sol.getSelectedId(i)));
+        }
+        for(int i = 0; i < sol.getNumUnselectedIDs(); i++){
+            assertTrue(expected.getUnselectedIDs().contains(sol.getUnselectedId(i)));
+        }
+    }
+    
+}
@@ -0,0 +1,91 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.corehunter.search.CoreHunterSolution;
+import org.corehunter.search.CoreHunterSwapNeighbourhood;
+import org.jamesframework.core.subset.neigh.moves.SwapMove;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class CoreHunterSwapNeighbourhoodTest {
+
+    private static final int SIZE = 50;
+    
+    @Test
+    public void testRandomMoveExcludesFixedIDs() {
+        
+        Random rng = new Random();
+        Set<Integer> all = IntStream.range(0, SIZE).boxed().collect(Collectors.toSet());
+        // select first half, of which most IDs are fixed
+        Set<Integer> selected = IntStream.range(0, SIZE / 2).boxed().collect(Collectors.toSet());
+        Set<Integer> fixed = IntStream.range(1, SIZE / 2).boxed().collect(Collectors.toSet());
+        // also fix some unselected IDs
+        fixed.add(SIZE - 1);
+        fixed.add(SIZE - 2);
+        
+        CoreHunterSolution sol = new CoreHunterSolution(all, selected);
+        CoreHunterSwapNeighbourhood neigh = new CoreHunterSwapNeighbourhood(fixed);
+        
+        Set<Integer> added = new HashSet<>();
+        for(int i = 0; i < 1000; i++){
+            SwapMove move = (SwapMove) neigh.getRandomMove(sol, rng);
+            assertFalse(fixed.contains(move.getAddedID()));
+            assertFalse(fixed.contains(move.getDeletedID()));
+            assertTrue(sol.getSelectedIDs().contains(move.getDeletedID()));
+            assertTrue(sol.getUnselectedIDs().contains(move.getAddedID()));
+            added.add(move.getAddedID());
+            move.apply(sol);
+            assertEquals(SIZE / 2, sol.getNumSelectedIDs());
+            assertTrue(sol.getSelectedIDs().containsAll(fixed.stream().filter(id -> id < SIZE / 2)
+                                                             .collect(Collectors.toSet())));
+        }
+        // all non-fixed IDs are eventually added
+        assertEquals(SIZE - fixed.size(), added.size());
+        
+    }
+    
+    @Test
+    public void testNoMovePossible() {
+        
+        Set<Integer> all = IntStream.range(0, SIZE).boxed().collect(Collectors.toSet());
+        Set<Integer> selected = IntStream.range(0, SIZE / 2).boxed().collect(Collectors.toSet());
+        
+        CoreHunterSolution sol = new CoreHunterSolution(all, selected);
+        CoreHunterSwapNeighbourhood neigh = new CoreHunterSwapNeighbourhood(selected);
+        
+        assertNull(neigh.getRandomMove(sol, new Random()));
+        
+    }
+    
+}
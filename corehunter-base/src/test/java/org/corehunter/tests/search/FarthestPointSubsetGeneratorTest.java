@@ -0,0 +1,88 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.corehunter.tests.TestData.DISTANCES;
+import static org.corehunter.tests.TestData.HEADERS_UNIQUE_NAMES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleDistanceMatrixData;
+import org.corehunter.objectives.distance.measures.PrecomputedDistance;
+import org.corehunter.search.FarthestPointSubsetGenerator;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class FarthestPointSubsetGeneratorTest {
+
+    private static final CoreHunterData DATA = new CoreHunterData(
+            new SimpleDistanceMatrixData(HEADERS_UNIQUE_NAMES, DISTANCES)
+    );
+    
+    @Test
+    public void testGreedySelection() {
+        assertEquals(ids(0, 4, 2), create(3, ids(0), null, 0));
+        assertEquals(ids(0, 3, 1), create(3, ids(0), ids(4), 0));
+    }
+    
+    @Test
+    public void testRandomStart() {
+        for(long seed = 0; seed < 10; seed++){
+            Set<Integer> sel = create(3, null, ids(2), seed);
+            assertEquals(3, sel.size());
+            assertFalse(sel.contains(2));
+            // reproducible
+            assertEquals(sel, create(3, null, ids(2), seed));
+        }
+    }
+    
+    @Test
+    public void testNotEnoughCandidates() {
+        assertEquals(ids(0, 1, 3), create(4, ids(0, 1), ids(2, 4), 0));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoDistanceMeasure() {
+        new FarthestPointSubsetGenerator(2, null, null, null);
+    }
+    
+    private Set<Integer> create(int size, Set<Integer> always, Set<Integer> never, long seed){
+        FarthestPointSubsetGenerator gen = new FarthestPointSubsetGenerator(
+                size, always, never, new PrecomputedDistance()
+        );
+        SubsetSolution sol = gen.create(new Random(seed), DATA);
+        return sol.getSelectedIDs();
+    }
+    
+    private Set<Integer> ids(Integer... ids){
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ids)));
+    }
+    
+}
@@ -0,0 +1,81 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.corehunter.tests.TestData.DISTANCES;
+import static org.corehunter.tests.TestData.HEADERS_UNIQUE_NAMES;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleDistanceMatrixData;
+import org.corehunter.objectives.AverageAccessionToNearestEntry;
+import org.corehunter.objectives.AverageEntryToNearestEntry;
+import org.corehunter.objectives.distance.measures.PrecomputedDistance;
+import org.corehunter.search.GreedySubsetGenerator;
+import org.jamesframework.core.problems.objectives.Objective;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class GreedySubsetGeneratorTest {
+
+    private static final CoreHunterData DATA = new CoreHunterData(
+            new SimpleDistanceMatrixData(HEADERS_UNIQUE_NAMES, DISTANCES)
+    );
+    
+    @Test
+    public void testMaximizing() {
+        Objective<SubsetSolution, CoreHunterData> obj = new AverageEntryToNearestEntry(new PrecomputedDistance());
+        assertEquals(ids(0, 4), create(obj, 2, ids(0), null));
+        assertEquals(ids(0, 2, 4), create(obj, 3, ids(0), null));
+        assertEquals(ids(0, 1, 3), create(obj, 3, ids(0), ids(4)));
+    }
+    
+    @Test
+    public void testMinimizing() {
+        Objective<SubsetSolution, CoreHunterData> obj = new AverageAccessionToNearestEntry(new PrecomputedDistance());
+        assertEquals(ids(0, 2), create(obj, 2, ids(2), null));
+        assertEquals(ids(1, 2), create(obj, 2, ids(2), ids(0, 4)));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoObjective() {
+        new GreedySubsetGenerator(2, null, null, null);
+    }
+    
+    private Set<Integer> create(Objective<SubsetSolution, CoreHunterData> obj,
+                                int size, Set<Integer> always, Set<Integer> never){
+        GreedySubsetGenerator gen = new GreedySubsetGenerator(size, always, never, obj);
+        return gen.create(new Random(), DATA).getSelectedIDs();
+    }
+    
+    private Set<Integer> ids(Integer... ids){
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ids)));
+    }
+    
+}
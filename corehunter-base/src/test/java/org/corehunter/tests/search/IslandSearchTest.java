@@ -0,0 +1,101 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.corehunter.tests.TestData.ALLELE_FREQUENCIES;
+import static org.corehunter.tests.TestData.ALLELE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MARKER_NAMES;
+import static org.corehunter.tests.TestData.NAME;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.objectives.Coverage;
+import org.corehunter.search.CoreHunterSwapNeighbourhood;
+import org.corehunter.search.IslandSearch;
+import org.jamesframework.core.factory.MetropolisSearchFactory;
+import org.jamesframework.core.search.algo.MetropolisSearch;
+import org.jamesframework.core.search.algo.ParallelTempering;
+import org.jamesframework.core.search.stopcriteria.MaxSteps;
+import org.jamesframework.core.subset.SubsetProblem;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class IslandSearchTest {
+
+    @Test
+    public void testIslandSearch() {
+        
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        CoreHunterData data = new CoreHunterData(geno);
+        SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(data, new Coverage(), 2);
+        
+        Random rng = new Random(42);
+        MetropolisSearchFactory<SubsetSolution> factory = (p, n, t) -> {
+            MetropolisSearch<SubsetSolution> rep = new MetropolisSearch<>(p, n, t);
+            rep.setRandom(new Random(rng.nextLong()));
+            return rep;
+        };
+        IslandSearch<SubsetSolution> search = new IslandSearch<>(
+                problem, new CoreHunterSwapNeighbourhood(), 3, 2, 1e-8, 1e-4, factory
+        );
+        assertEquals(3, search.getIslands().size());
+        search.setMigrationInterval(2);
+        for(ParallelTempering<SubsetSolution> island : search.getIslands()){
+            island.setReplicaSteps(10);
+        }
+        search.addStopCriterion(new MaxSteps(3));
+        search.start();
+        
+        assertEquals(3, search.getSteps());
+        assertNotNull(search.getBestSolution());
+        // best solution of island search is the best solution of all islands
+        double best = search.getBestSolutionEvaluation().getValue();
+        for(ParallelTempering<SubsetSolution> island : search.getIslands()){
+            assertEquals(2, island.getSteps());
+            assertTrue(island.getBestSolutionEvaluation().getValue() <= best + PRECISION);
+        }
+        assertEquals(best, problem.evaluate(search.getBestSolution()).getValue(), PRECISION);
+        
+        search.dispose();
+        
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoIslands() {
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(new CoreHunterData(geno), new Coverage(), 2);
+        new IslandSearch<>(problem, new CoreHunterSwapNeighbourhood(), 0, 2, 1e-8, 1e-4, MetropolisSearch::new);
+    }
+    
+}
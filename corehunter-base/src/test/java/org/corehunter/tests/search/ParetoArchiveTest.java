@@ -0,0 +1,122 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.corehunter.search.ParetoArchive;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class ParetoArchiveTest {
+
+    private static final Set<Integer> ALL = IntStream.range(0, 10).boxed().collect(Collectors.toSet());
+    
+    @Test
+    public void testDominates() {
+        assertTrue(ParetoArchive.dominates(new double[]{1.0, 2.0}, new double[]{1.0, 1.0}));
+        assertFalse(ParetoArchive.dominates(new double[]{1.0, 1.0}, new double[]{1.0, 1.0}));
+        assertFalse(ParetoArchive.dominates(new double[]{2.0, 0.0}, new double[]{1.0, 1.0}));
+    }
+    
+    @Test
+    public void testOffer() {
+        
+        ParetoArchive archive = new ParetoArchive(2);
+        assertTrue(archive.offer(sol(0, 1), new double[]{1.0, 1.0}));
+        // dominated
+        assertFalse(archive.offer(sol(0, 2), new double[]{1.0, 0.5}));
+        // duplicate
+        assertFalse(archive.offer(sol(0, 1), new double[]{1.0, 1.0}));
+        // same values, different solution
+        assertTrue(archive.offer(sol(0, 3), new double[]{1.0, 1.0}));
+        // trade-off
+        assertTrue(archive.offer(sol(4, 5), new double[]{3.0, 0.0}));
+        assertEquals(3, archive.size());
+        // dominates first two solutions
+        assertTrue(archive.offer(sol(6, 7), new double[]{2.0, 1.0}));
+        assertEquals(2, archive.size());
+        
+        List<SubsetSolution> solutions = archive.getSolutions();
+        assertEquals(sol(4, 5), solutions.get(0));
+        assertEquals(sol(6, 7), solutions.get(1));
+        assertArrayEquals(new double[]{3.0, 0.0}, archive.getValues().get(0), 0.0);
+        
+    }
+    
+    @Test
+    public void testOrderIndependent() {
+        
+        Random rg = new Random(42);
+        List<SubsetSolution> solutions = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        for(int i = 0; i < 100; i++){
+            solutions.add(sol(rg.nextInt(5), 5 + rg.nextInt(5)));
+            values.add(new double[]{rg.nextInt(10), rg.nextInt(10), rg.nextInt(10)});
+        }
+        
+        List<Integer> order = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        List<SubsetSolution> front = null;
+        for(int r = 0; r < 5; r++){
+            Collections.shuffle(order, rg);
+            ParetoArchive archive = new ParetoArchive(3);
+            order.parallelStream().forEach(i -> archive.offer(solutions.get(i), values.get(i)));
+            if(front == null){
+                front = archive.getSolutions();
+            } else {
+                assertEquals(front, archive.getSolutions());
+            }
+            // mutually non-dominated
+            List<double[]> archived = archive.getValues();
+            for(double[] x : archived){
+                for(double[] y : archived){
+                    assertFalse(ParetoArchive.dominates(x, y));
+                }
+            }
+        }
+        
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfValues() {
+        new ParetoArchive(2).offer(sol(0, 1), new double[]{1.0});
+    }
+    
+    private SubsetSolution sol(Integer... selected){
+        return new SubsetSolution(ALL, new HashSet<>(Arrays.asList(selected)));
+    }
+    
+}
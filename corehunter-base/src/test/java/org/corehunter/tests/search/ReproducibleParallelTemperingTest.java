@@ -0,0 +1,77 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.tests.search;
+
+import static org.corehunter.tests.TestData.ALLELE_FREQUENCIES;
+import static org.corehunter.tests.TestData.ALLELE_NAMES;
+import static org.corehunter.tests.TestData.HEADERS_NON_UNIQUE_NAMES;
+import static org.corehunter.tests.TestData.MARKER_NAMES;
+import static org.corehunter.tests.TestData.NAME;
+import static org.corehunter.tests.TestData.PRECISION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
+import org.corehunter.objectives.Coverage;
+import org.corehunter.search.CoreHunterSwapNeighbourhood;
+import org.corehunter.search.ReproducibleParallelTempering;
+import org.jamesframework.core.search.algo.MetropolisSearch;
+import org.jamesframework.core.search.stopcriteria.MaxSteps;
+import org.jamesframework.core.subset.SubsetProblem;
+import org.jamesframework.core.subset.SubsetSolution;
+import org.junit.Test;
+
+/**
+ * @author Herman De Beukelaer
+ */
+public class ReproducibleParallelTemperingTest {
+
+    @Test
+    public void testBestSolution() {
+        
+        SimpleFrequencyGenotypeData geno = new SimpleFrequencyGenotypeData(
+                NAME, HEADERS_NON_UNIQUE_NAMES, MARKER_NAMES, ALLELE_NAMES, ALLELE_FREQUENCIES
+        );
+        SubsetProblem<CoreHunterData> problem = new SubsetProblem<>(new CoreHunterData(geno), new Coverage(), 2);
+        
+        ReproducibleParallelTempering<SubsetSolution> pt = new ReproducibleParallelTempering<>(
+                problem, new CoreHunterSwapNeighbourhood(), 4, 1e-8, 1e-4, MetropolisSearch::new
+        );
+        pt.setRandom(new Random(42));
+        pt.setReplicaSteps(5);
+        pt.addStopCriterion(new MaxSteps(3));
+        pt.start();
+        
+        assertEquals(4, pt.getReplicas().size());
+        // best solution is the best solution of all replicas
+        double best = pt.getBestSolutionEvaluation().getValue();
+        for(MetropolisSearch<SubsetSolution> rep : pt.getReplicas()){
+            assertTrue(rep.getBestSolutionEvaluation().getValue() <= best + PRECISION);
+        }
+        assertEquals(best, problem.evaluate(pt.getBestSolution()).getValue(), PRECISION);
+        
+        pt.dispose();
+        
+    }
+    
+}
@@ -75,4 +75,28 @@ public interface CoreHunterRunArguments extends SimpleEntity {
      * @return seconds maximum time without improvement in seconds
      */
     long getMaxTimeWithoutImprovement();
+
+    /**
+     * Gets the priority of the run. When more runs are submitted than can
+     * be executed concurrently, waiting runs with a higher priority are
+     * started first. The default priority is 0, negative values are allowed
+     * 
+     * @return the priority of the run
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Gets the seed used for random generation to allow reproducible results.
+     * If zero or negative, no seed is applied. Runs with the same arguments
+     * and a fixed seed may be served from the result of an earlier or
+     * concurrent run by the CoreHunter Run Services implementation. By
+     * default no seed is applied
+     * 
+     * @return the seed, or a zero or negative value if no seed is applied
+     */
+    default long getSeed() {
+        return -1;
+    }
 }
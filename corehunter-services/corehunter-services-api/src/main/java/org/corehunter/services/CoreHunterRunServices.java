@@ -54,6 +54,22 @@ public interface CoreHunterRunServices {
 
     public CoreHunterRun getCoreHunterRun(String uniqueIdentifier);
 
+    /**
+     * Stops the CoreHunterRun if it is still running or waiting to be started.
+     * A running search is stopped as soon as it completes its current step and
+     * the best solution found so far is retained as the result of the run. A
+     * run that has not yet been started is never started. In both cases the
+     * status of the run becomes {@link CoreHunterRunStatus#STOPPED}.
+     * 
+     * @param uniqueIdentifier
+     *            the unique identifier of the run that was provided on
+     *            execution
+     * @return <code>true</code> if the run was stopped, <code>false</code> if
+     *         the run had already ended
+     * @throws java.util.NoSuchElementException if no such run exists
+     */
+    public boolean stopCoreHunterRun(String uniqueIdentifier);
+
     /**
      * Removes the CoreHunterRun and tries to stop the run if it is
      * still running, If the run can not be removed, the client will need to
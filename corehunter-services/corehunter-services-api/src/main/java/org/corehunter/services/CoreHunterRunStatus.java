@@ -27,7 +27,7 @@ package org.corehunter.services;
  */
 public enum CoreHunterRunStatus {
 
-    NOT_STARTED("Not Started"), RUNNING("Running"), FAILED("Failed"), FINISHED("Finished");
+    NOT_STARTED("Not Started"), RUNNING("Running"), FAILED("Failed"), FINISHED("Finished"), STOPPED("Stopped");
 
     private String name;
 
@@ -631,6 +631,294 @@ public class ITSimpleCoreHunterRunServices {
         }
     }
 
+    /**
+     * Test stop during the run, and of a run waiting to be started
+     */
+    @Test
+    public void testStopCorehunterRunDuringRun() {
+
+        Path path = null;
+
+        DatasetServices databaseServices = null;
+        try {
+            path = createTempDirectory();
+            databaseServices = new FileBasedDatasetServices(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        SimpleCoreHunterRunServices coreHunterRunServices = null;
+        try {
+            coreHunterRunServices = new SimpleCoreHunterRunServices(path, databaseServices);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        Dataset dataset = new DatasetPojo(DATASET_UID, DATASET_NAME);
+
+        try {
+            databaseServices.addDataset(dataset);
+        } catch (DatasetException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        int size = 2;
+
+        try {
+            Path distancesDataPath = Paths.get(ClassLoader.getSystemResource(DISTANCES_DATA).toURI());
+
+            databaseServices.loadData(dataset, distancesDataPath, FileType.CSV, CoreHunterDataType.DISTANCES);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        } catch (DatasetException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        } catch (URISyntaxException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        CoreHunterRunArgumentsPojo arguments = new CoreHunterRunArgumentsPojo(DISTANCES_DATA, size, DATASET_UID,
+                new CoreHunterObjective(CoreHunterObjectiveType.AV_ENTRY_TO_ENTRY,
+                        CoreHunterMeasure.PRECOMPUTED_DISTANCE));
+
+        // would run for an hour if not stopped
+        arguments.setTimeLimit(3600);
+
+        // run Core Hunter, the second run waits for the first one
+
+        coreHunterRunServices.setMaxConcurrentRuns(1);
+
+        CoreHunterRun run = coreHunterRunServices.executeCoreHunter(arguments);
+        CoreHunterRun waitingRun = coreHunterRunServices.executeCoreHunter(arguments);
+
+        assertTrue("Waiting run not stopped",
+                coreHunterRunServices.stopCoreHunterRun(waitingRun.getUniqueIdentifier()));
+        assertEquals("Waiting run not marked as stopped", CoreHunterRunStatus.STOPPED,
+                coreHunterRunServices.getCoreHunterRun(waitingRun.getUniqueIdentifier()).getStatus());
+        assertNull("Waiting run has a solution",
+                coreHunterRunServices.getSubsetSolution(waitingRun.getUniqueIdentifier()));
+
+        boolean finished = false;
+        boolean stopped = false;
+
+        long start = System.currentTimeMillis();
+
+        while (!finished) {
+            switch (coreHunterRunServices.getCoreHunterRun(run.getUniqueIdentifier()).getStatus()) {
+                case FAILED:
+                case FINISHED:
+                case STOPPED:
+                    finished = true;
+                    break;
+                case RUNNING:
+                    if (!stopped) {
+                        stopped = coreHunterRunServices.stopCoreHunterRun(run.getUniqueIdentifier());
+                        assertTrue(stopped);
+                    }
+                    break;
+                case NOT_STARTED:
+                default:
+                    break;
+            }
+
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                fail(e.getMessage());
+            }
+        }
+
+        assertTrue("Run not stopped in time", System.currentTimeMillis() - start < 60000);
+        assertEquals("Run not marked as stopped", CoreHunterRunStatus.STOPPED,
+                coreHunterRunServices.getCoreHunterRun(run.getUniqueIdentifier()).getStatus());
+        assertNotNull("Stopped run has no solution",
+                coreHunterRunServices.getSubsetSolution(run.getUniqueIdentifier()));
+        assertFalse("Stopped run stopped again", coreHunterRunServices.stopCoreHunterRun(run.getUniqueIdentifier()));
+
+        try {
+            // try shutdown
+            coreHunterRunServices.shutdown();
+        } catch (Throwable e) {
+            e.printStackTrace();
+            fail("Failed shutdown due to + "+ e.getMessage());
+        }
+
+        try {
+            coreHunterRunServices = new SimpleCoreHunterRunServices(path, databaseServices);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        List<CoreHunterRun> coreHunterRuns = coreHunterRunServices.getAllCoreHunterRuns();
+
+        assertEquals("Number of results is not 2", 2, coreHunterRuns.size());
+
+        try {
+            // try shutdown
+            coreHunterRunServices.shutdown();
+        } catch (Throwable e) {
+            e.printStackTrace();
+            fail("Failed shutdown due to + "+ e.getMessage());
+        }
+    }
+
+    /**
+     * Test that seeded runs with the same arguments are served by the same
+     * run, as separate runs with their own id and name, until the data is
+     * changed
+     */
+    @Test
+    public void testExecuteSeededRunsWithSameArguments() {
+
+        Path path = null;
+
+        FileBasedDatasetServices databaseServices = null;
+        try {
+            path = createTempDirectory();
+            databaseServices = new FileBasedDatasetServices(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        SimpleCoreHunterRunServices coreHunterRunServices = null;
+        try {
+            coreHunterRunServices = new SimpleCoreHunterRunServices(path, databaseServices);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        Dataset dataset = new DatasetPojo(DATASET_UID, DATASET_NAME);
+
+        Path distancesDataPath = null;
+
+        try {
+            databaseServices.addDataset(dataset);
+
+            distancesDataPath = Paths.get(ClassLoader.getSystemResource(DISTANCES_DATA).toURI());
+
+            databaseServices.loadData(dataset, distancesDataPath, FileType.CSV, CoreHunterDataType.DISTANCES);
+        } catch (IOException | DatasetException | URISyntaxException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        int size = 2;
+
+        CoreHunterRunArgumentsPojo arguments = new CoreHunterRunArgumentsPojo(DISTANCES_DATA, size, DATASET_UID,
+                new CoreHunterObjective(CoreHunterObjectiveType.AV_ENTRY_TO_ENTRY,
+                        CoreHunterMeasure.PRECOMPUTED_DISTANCE));
+
+        arguments.setTimeLimit(1);
+        arguments.setSeed(42);
+
+        // duplicate submissions are coalesced onto the first run
+
+        CoreHunterRun run = coreHunterRunServices.executeCoreHunter(arguments);
+
+        CoreHunterRunArgumentsPojo duplicateArguments = new CoreHunterRunArgumentsPojo(arguments);
+        duplicateArguments.setName("Duplicate");
+
+        CoreHunterRun duplicateRun = coreHunterRunServices.executeCoreHunter(duplicateArguments);
+
+        assertFalse("Duplicate run has same id", run.getUniqueIdentifier().equals(duplicateRun.getUniqueIdentifier()));
+        assertEquals("Duplicate run has wrong name", "Duplicate", duplicateRun.getName());
+
+        // a run without a seed is never served by another run
+
+        CoreHunterRunArgumentsPojo unseededArguments = new CoreHunterRunArgumentsPojo(arguments);
+        unseededArguments.setSeed(-1);
+
+        CoreHunterRun unseededRun = coreHunterRunServices.executeCoreHunter(unseededArguments);
+
+        assertFalse("Unseeded run coalesced", run.getUniqueIdentifier().equals(unseededRun.getUniqueIdentifier()));
+
+        waitUntilFinished(coreHunterRunServices, run);
+        waitUntilFinished(coreHunterRunServices, unseededRun);
+
+        assertEquals("Run not finished", CoreHunterRunStatus.FINISHED,
+                coreHunterRunServices.getCoreHunterRun(run.getUniqueIdentifier()).getStatus());
+        assertEquals("Duplicate run not finished", CoreHunterRunStatus.FINISHED,
+                coreHunterRunServices.getCoreHunterRun(duplicateRun.getUniqueIdentifier()).getStatus());
+        assertEquals("Duplicate run has different solution",
+                coreHunterRunServices.getSubsetSolution(run.getUniqueIdentifier()),
+                coreHunterRunServices.getSubsetSolution(duplicateRun.getUniqueIdentifier()));
+
+        // deleting the duplicate run does not affect the original run
+
+        coreHunterRunServices.deleteCoreHunterRun(duplicateRun.getUniqueIdentifier());
+
+        assertNull("Duplicate run not deleted",
+                coreHunterRunServices.getCoreHunterRun(duplicateRun.getUniqueIdentifier()));
+        assertNotNull("Original run deleted", coreHunterRunServices.getCoreHunterRun(run.getUniqueIdentifier()));
+
+        // repeated submission is served from the finished run
+
+        CoreHunterRun repeatedRun = coreHunterRunServices.executeCoreHunter(arguments);
+
+        assertFalse("Repeated run has same id", run.getUniqueIdentifier().equals(repeatedRun.getUniqueIdentifier()));
+        assertEquals("Repeated run not served from cache", CoreHunterRunStatus.FINISHED, repeatedRun.getStatus());
+        assertEquals("Repeated run has different solution",
+                coreHunterRunServices.getSubsetSolution(run.getUniqueIdentifier()),
+                coreHunterRunServices.getSubsetSolution(repeatedRun.getUniqueIdentifier()));
+
+        // changing the data invalidates the cache
+
+        try {
+            databaseServices.removeData(DATASET_UID);
+        } catch (DatasetException e) {
+            e.printStackTrace();
+            fail(e.getMessage());
+        }
+
+        CoreHunterRun newRun = coreHunterRunServices.executeCoreHunter(arguments);
+
+        assertFalse("Cache not invalidated", run.getUniqueIdentifier().equals(newRun.getUniqueIdentifier()));
+
+        waitUntilFinished(coreHunterRunServices, newRun);
+
+        try {
+            // try shutdown
+            coreHunterRunServices.shutdown();
+        } catch (Throwable e) {
+            e.printStackTrace();
+            fail("Failed shutdown due to + "+ e.getMessage());
+        }
+    }
+
+    private void waitUntilFinished(SimpleCoreHunterRunServices coreHunterRunServices, CoreHunterRun run) {
+        boolean finished = false;
+
+        while (!finished) {
+            switch (coreHunterRunServices.getCoreHunterRun(run.getUniqueIdentifier()).getStatus()) {
+                case FAILED:
+                case FINISHED:
+                case STOPPED:
+                    finished = true;
+                    break;
+                case NOT_STARTED:
+                case RUNNING:
+                default:
+                    break;
+            }
+
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                fail(e.getMessage());
+            }
+        }
+    }
+
     /**
      * Test delete during the run.
      */
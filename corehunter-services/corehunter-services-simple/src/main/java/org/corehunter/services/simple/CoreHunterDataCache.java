@@ -0,0 +1,319 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.services.simple;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.corehunter.data.CoreHunterData;
+
+/**
+ * Thread-safe cache of Core Hunter data with a memory budget. The memory
+ * footprint of each dataset is obtained from the data when it is added to the
+ * cache, and re-estimated whenever that dataset is accessed again, because the
+ * distance caches attached to the data grow once the data is used. When the
+ * total estimated footprint exceeds the budget, the least recently used
+ * datasets are evicted, except for the most recently used one. Concurrent
+ * requests for a dataset that is not cached are collapsed into a single load.
+ * 
+ * @author daveneti
+ *
+ */
+public class CoreHunterDataCache {
+
+    /**
+     * Loads the data of a dataset
+     */
+    public interface DataLoader {
+
+        /**
+         * Loads the data of the dataset
+         * 
+         * @return the data, or <code>null</code> if the dataset has no data
+         * @throws IOException
+         *             if the data can not be loaded
+         */
+        public CoreHunterData load() throws IOException;
+    }
+
+    private long budget;
+
+    private long footprint;
+
+    // cached data in order of access (least recently used first)
+    private final LinkedHashMap<String, Entry> entries;
+
+    // loads in progress by dataset id
+    private final Map<String, CompletableFuture<CoreHunterData>> loads;
+
+    /**
+     * Creates a cache with the given memory budget
+     * 
+     * @param budget
+     *            the memory budget in bytes
+     * @throws IllegalArgumentException
+     *             if the budget is negative
+     */
+    public CoreHunterDataCache(long budget) {
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        loads = new HashMap<>();
+
+        setBudget(budget);
+    }
+
+    /**
+     * Gets the memory budget
+     * 
+     * @return the memory budget in bytes
+     */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the memory budget, evicting least recently used datasets if the
+     * total estimated footprint exceeds the new budget
+     * 
+     * @param budget
+     *            the memory budget in bytes
+     * @throws IllegalArgumentException
+     *             if the budget is negative
+     */
+    public synchronized void setBudget(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Memory budget can not be negative!");
+        }
+
+        this.budget = budget;
+
+        evict(null);
+    }
+
+    /**
+     * Gets the total estimated memory footprint of all cached datasets
+     * 
+     * @return the estimated footprint in bytes
+     */
+    public synchronized long getFootprint() {
+        return footprint;
+    }
+
+    /**
+     * Gets the number of cached datasets
+     * 
+     * @return the number of cached datasets
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks if the data of a dataset is cached
+     * 
+     * @param datasetId
+     *            the id of the dataset
+     * @return <code>true</code> if the data is cached
+     */
+    public synchronized boolean contains(String datasetId) {
+        return entries.containsKey(datasetId);
+    }
+
+    /**
+     * Gets the data of a dataset, loading it with the given loader if it is
+     * not cached. If the data of the same dataset is already being loaded by
+     * another thread, waits for that load instead.
+     * 
+     * @param datasetId
+     *            the id of the dataset
+     * @param loader
+     *            loads the data if not cached
+     * @return the data, or <code>null</code> if the dataset has no data
+     * @throws IOException
+     *             if the data can not be loaded
+     */
+    public CoreHunterData get(String datasetId, DataLoader loader) throws IOException {
+        CompletableFuture<CoreHunterData> load;
+        boolean loading = false;
+
+        synchronized (this) {
+            Entry entry = entries.get(datasetId);
+
+            if (entry != null) {
+                updateFootprint(entry);
+
+                evict(datasetId);
+
+                return entry.data;
+            }
+
+            load = loads.get(datasetId);
+
+            if (load == null) {
+                load = new CompletableFuture<>();
+                loads.put(datasetId, load);
+                loading = true;
+            }
+        }
+
+        if (loading) {
+            try {
+                CoreHunterData data = loader.load();
+
+                synchronized (this) {
+                    // not cached if the data was replaced or removed meanwhile
+                    if (loads.remove(datasetId, load) && data != null) {
+                        putInternal(datasetId, data);
+                    }
+                }
+
+                load.complete(data);
+
+                return data;
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    loads.remove(datasetId, load);
+                }
+
+                load.completeExceptionally(e);
+
+                throw e;
+            }
+        } else {
+            try {
+                return load.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                } else {
+                    throw new IOException(e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the data of a dataset
+     * 
+     * @param datasetId
+     *            the id of the dataset
+     * @param data
+     *            the data
+     */
+    public synchronized void put(String datasetId, CoreHunterData data) {
+        // a load in progress would add outdated data
+        loads.remove(datasetId);
+
+        putInternal(datasetId, data);
+    }
+
+    /**
+     * Removes the data of a dataset
+     * 
+     * @param datasetId
+     *            the id of the dataset
+     */
+    public synchronized void remove(String datasetId) {
+        loads.remove(datasetId);
+
+        Entry entry = entries.remove(datasetId);
+
+        if (entry != null) {
+            footprint -= entry.footprint;
+        }
+    }
+
+    /**
+     * Removes all cached data
+     */
+    public synchronized void clear() {
+        loads.clear();
+        entries.clear();
+        footprint = 0;
+    }
+
+    /**
+     * Estimates the memory footprint of Core Hunter data, as reported by the
+     * data, including the heap memory occupied by the attached distance caches
+     * 
+     * @param data
+     *            the data
+     * @return the estimated footprint in bytes
+     * @see CoreHunterData#getMemoryFootprint()
+     */
+    protected long estimateFootprint(CoreHunterData data) {
+        return data.getMemoryFootprint();
+    }
+
+    private void putInternal(String datasetId, CoreHunterData data) {
+        Entry entry = new Entry(data, estimateFootprint(data));
+
+        Entry previous = entries.put(datasetId, entry);
+
+        if (previous != null) {
+            footprint -= previous.footprint;
+        }
+
+        footprint += entry.footprint;
+
+        evict(datasetId);
+    }
+
+    // re-estimates the footprint of a cached dataset
+    private void updateFootprint(Entry entry) {
+        long updated = estimateFootprint(entry.data);
+
+        footprint += updated - entry.footprint;
+        entry.footprint = updated;
+    }
+
+    // evicts least recently used datasets until the budget is met, except for the given dataset
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+
+        while (footprint > budget && iterator.hasNext()) {
+            Map.Entry<String, Entry> next = iterator.next();
+
+            if (!next.getKey().equals(keep)) {
+                footprint -= next.getValue().footprint;
+
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final CoreHunterData data;
+        private long footprint;
+
+        Entry(CoreHunterData data, long footprint) {
+            this.data = data;
+            this.footprint = footprint;
+        }
+    }
+}
@@ -47,6 +47,8 @@ public class CoreHunterRunArgumentsPojo extends SimpleEntityPojo implements Core
     private List<CoreHunterObjective> objectives;
     private long timeLimit = -1 ;
     private long maxTimeWithoutImprovement = -1 ;
+    private int priority = 0 ;
+    private long seed = -1 ;
 
     public CoreHunterRunArgumentsPojo(String name, int subsetSize, String datasetId) {
         super(UUID.randomUUID().toString(), name);
@@ -73,6 +75,8 @@ public class CoreHunterRunArgumentsPojo extends SimpleEntityPojo implements Core
         
         setTimeLimit(arguments.getTimeLimit());
         setMaxTimeWithoutImprovement(arguments.getMaxTimeWithoutImprovement());
+        setPriority(arguments.getPriority());
+        setSeed(arguments.getSeed());
     }
 
     @Override
@@ -108,6 +112,24 @@ public class CoreHunterRunArgumentsPojo extends SimpleEntityPojo implements Core
         this.maxTimeWithoutImprovement = maxTimeWithoutImprovement;
     }
 
+    @Override
+    public final int getPriority() {
+        return priority;
+    }
+
+    public final void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    @Override
+    public final long getSeed() {
+        return seed;
+    }
+
+    public final void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     protected final void setSubsetSize(int subsetSize) {
         this.subsetSize = subsetSize;
     }
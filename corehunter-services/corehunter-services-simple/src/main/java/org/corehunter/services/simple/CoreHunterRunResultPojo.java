@@ -38,7 +38,8 @@ public class CoreHunterRunResultPojo extends SimpleEntityPojo implements CoreHun
         outputStream = result.getOutputStream();
         errorStream = result.getErrorStream();
         errorMessage = result.getErrorMessage();
-        subsetSolution = new SubsetSolution(result.getSubsetSolution());
+        // no solution if the run failed or was stopped before it started
+        subsetSolution = result.getSubsetSolution() != null ? new SubsetSolution(result.getSubsetSolution()) : null;
         startInstant = result.getStartInstant();
         endInstant = result.getEndInstant();
         status = result.getStatus();
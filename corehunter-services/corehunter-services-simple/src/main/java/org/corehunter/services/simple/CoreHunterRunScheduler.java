@@ -0,0 +1,226 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.services.simple;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules Core Hunter runs on a bounded pool of worker threads. At most
+ * {@link #getMaxConcurrentRuns()} runs are executed at the same time. When a
+ * worker becomes available, the waiting run with the highest priority is
+ * started. Runs with the same priority are started in turn for each dataset
+ * (round robin), in order of submission for the same dataset, so that a large
+ * batch of runs for one dataset does not hold up the runs for other datasets.
+ * 
+ * @author daveneti
+ *
+ */
+public class CoreHunterRunScheduler {
+
+    private final ThreadPoolExecutor executor;
+
+    // waiting runs by priority (highest first), dataset (in turn) and order of submission
+    private final TreeMap<Integer, LinkedHashMap<String, Deque<Runnable>>> waitingRuns;
+
+    private int numWaitingRuns;
+
+    /**
+     * Creates a scheduler that executes at most the given number of runs at
+     * the same time
+     * 
+     * @param maxConcurrentRuns
+     *            the maximum number of concurrent runs, at least 1
+     * @throws IllegalArgumentException
+     *             if the maximum number of concurrent runs is less than 1
+     */
+    public CoreHunterRunScheduler(int maxConcurrentRuns) {
+        checkMaxConcurrentRuns(maxConcurrentRuns);
+
+        executor = new ThreadPoolExecutor(maxConcurrentRuns, maxConcurrentRuns, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>());
+
+        waitingRuns = new TreeMap<>(Collections.reverseOrder());
+    }
+
+    /**
+     * Gets the maximum number of runs that are executed at the same time
+     * 
+     * @return the maximum number of concurrent runs
+     */
+    public int getMaxConcurrentRuns() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Sets the maximum number of runs that are executed at the same time.
+     * Runs that are already running are not affected.
+     * 
+     * @param maxConcurrentRuns
+     *            the maximum number of concurrent runs, at least 1
+     * @throws IllegalArgumentException
+     *             if the maximum number of concurrent runs is less than 1
+     */
+    public synchronized void setMaxConcurrentRuns(int maxConcurrentRuns) {
+        checkMaxConcurrentRuns(maxConcurrentRuns);
+
+        // the core pool size can not exceed the maximum pool size at any time
+        if (maxConcurrentRuns > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(maxConcurrentRuns);
+            executor.setCorePoolSize(maxConcurrentRuns);
+        } else {
+            executor.setCorePoolSize(maxConcurrentRuns);
+            executor.setMaximumPoolSize(maxConcurrentRuns);
+        }
+    }
+
+    /**
+     * Gets the number of runs waiting to be started
+     * 
+     * @return the number of waiting runs
+     */
+    public synchronized int getNumWaitingRuns() {
+        return numWaitingRuns;
+    }
+
+    /**
+     * Submits a run, which is started when a worker is available and no
+     * waiting run is to be started before it
+     * 
+     * @param run
+     *            the run
+     * @param datasetId
+     *            the id of the dataset analysed by the run
+     * @param priority
+     *            the priority of the run, a higher value means a higher
+     *            priority
+     * @throws RejectedExecutionException
+     *             if the scheduler has been shut down
+     */
+    public void submit(Runnable run, String datasetId, int priority) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Scheduler has been shut down!");
+        }
+
+        synchronized (this) {
+            waitingRuns.computeIfAbsent(priority, p -> new LinkedHashMap<>())
+                .computeIfAbsent(datasetId, d -> new ArrayDeque<>()).add(run);
+
+            numWaitingRuns++;
+        }
+
+        // each submission claims a worker, which then starts the next waiting run
+        // (not necessarily this one, or none at all if the run was removed meanwhile)
+        executor.execute(() -> {
+            Runnable next = next();
+
+            if (next != null) {
+                next.run();
+            }
+        });
+    }
+
+    /**
+     * Removes a run that is still waiting to be started
+     * 
+     * @param run
+     *            the run
+     * @return <code>true</code> if the run was removed, <code>false</code> if
+     *         it was not waiting
+     */
+    public synchronized boolean remove(Runnable run) {
+        Iterator<LinkedHashMap<String, Deque<Runnable>>> priorities = waitingRuns.values().iterator();
+
+        while (priorities.hasNext()) {
+            Iterator<Deque<Runnable>> datasets = priorities.next().values().iterator();
+
+            while (datasets.hasNext()) {
+                Deque<Runnable> runs = datasets.next();
+
+                if (runs.remove(run)) {
+                    if (runs.isEmpty()) {
+                        datasets.remove();
+                    }
+
+                    numWaitingRuns--;
+
+                    removeEmptyPriorities();
+
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Shuts down the scheduler. Runs that were already submitted are still
+     * executed, but no new runs are accepted.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // takes the next run to be started
+    private synchronized Runnable next() {
+        if (waitingRuns.isEmpty()) {
+            return null;
+        }
+
+        LinkedHashMap<String, Deque<Runnable>> datasets = waitingRuns.firstEntry().getValue();
+
+        Map.Entry<String, Deque<Runnable>> first = datasets.entrySet().iterator().next();
+
+        Runnable run = first.getValue().poll();
+
+        // the dataset takes its next turn after all other datasets with waiting runs
+        datasets.remove(first.getKey());
+
+        if (!first.getValue().isEmpty()) {
+            datasets.put(first.getKey(), first.getValue());
+        }
+
+        numWaitingRuns--;
+
+        removeEmptyPriorities();
+
+        return run;
+    }
+
+    private void removeEmptyPriorities() {
+        waitingRuns.values().removeIf(Map::isEmpty);
+    }
+
+    private void checkMaxConcurrentRuns(int maxConcurrentRuns) {
+        if (maxConcurrentRuns < 1) {
+            throw new IllegalArgumentException("Maximum number of concurrent runs must be at least 1!");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.services.simple;
+
+/**
+ * Listener that is informed when the data of a dataset is changed by the
+ * {@link FileBasedDatasetServices}, for example to discard results derived
+ * from the previous data
+ * 
+ * @author daveneti
+ *
+ */
+public interface DatasetListener {
+
+    /**
+     * Called after data was loaded for, or removed from, a dataset
+     * 
+     * @param datasetId
+     *            the id of the dataset of which the data was changed
+     */
+    public void dataChanged(String datasetId);
+}
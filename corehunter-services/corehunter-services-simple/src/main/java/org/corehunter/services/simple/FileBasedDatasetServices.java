@@ -22,24 +22,34 @@ package org.corehunter.services.simple;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.ObjectUtils;
+import org.corehunter.NormalizationRangeCache;
+import org.corehunter.Range;
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.data.CoreHunterDataType;
 import org.corehunter.data.FrequencyGenotypeData;
 import org.corehunter.data.GenotypeDataFormat;
+import org.corehunter.data.simple.CoreHunterDataSnapshot;
 import org.corehunter.data.simple.SimpleDistanceMatrixData;
 import org.corehunter.data.simple.SimplePhenotypeData;
+import org.corehunter.exceptions.CoreHunterException;
+import org.corehunter.objectives.distance.cache.MappedDistanceCache;
 import org.corehunter.services.DatasetServices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.XStreamException;
@@ -72,15 +82,30 @@ public class FileBasedDatasetServices implements DatasetServices {
 
     private static final String DISTANCES_PATH = "DISTANCES_PATH";
 
+    private static final String NORMALIZATION_PATH = "NORMALIZATION_PATH";
+
+    private static final String SNAPSHOT_PATH = "SNAPSHOT_PATH";
+
+    private static final String DISTANCE_CACHE_PATH = "DISTANCE_CACHE_PATH";
+
     private static final String TXT_SUFFIX = ".txt";
     private static final String SUFFIX = ".corehunter";
     private static final String DATA_SUFFIX = ".data";
+    private static final String RANGES_SUFFIX = ".ranges";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    // default fraction of the maximum heap used by the cache of loaded data
+    private static final int DATA_CACHE_BUDGET_FRACTION = 4;
 
     private static Map<String, DatasetPojo> datasetMap;
-    private static Map<String, CoreHunterData> dataCache;
+    private CoreHunterDataCache dataCache;
 
     private Path path;
 
+    private Logger logger = LoggerFactory.getLogger(FileBasedDatasetServices.class);
+
+    private List<DatasetListener> datasetListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Constructor that can be used by sub-classes provided the path is defined
      * in the overloaded constructor using the {@link #setPath(Path)} method
@@ -90,7 +115,7 @@ public class FileBasedDatasetServices implements DatasetServices {
      */
     protected FileBasedDatasetServices() throws IOException {
         datasetMap = new HashMap<>();
-        dataCache = new HashMap<>();
+        dataCache = new CoreHunterDataCache(Runtime.getRuntime().maxMemory() / DATA_CACHE_BUDGET_FRACTION);
     }
 
     /**
@@ -121,6 +146,50 @@ public class FileBasedDatasetServices implements DatasetServices {
         initialise();
     }
 
+    /**
+     * Adds a listener that is informed when the data of a dataset is loaded
+     * or removed
+     * 
+     * @param listener
+     *            the listener to be added
+     */
+    public void addDatasetListener(DatasetListener listener) {
+        datasetListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     * 
+     * @param listener
+     *            the listener to be removed
+     * @return <code>true</code> if the listener was removed
+     */
+    public boolean removeDatasetListener(DatasetListener listener) {
+        return datasetListeners.remove(listener);
+    }
+
+    /**
+     * Gets the memory budget of the cache of loaded data
+     * 
+     * @return the memory budget in bytes
+     */
+    public long getDataCacheBudget() {
+        return dataCache.getBudget();
+    }
+
+    /**
+     * Sets the memory budget of the cache of loaded data. When the estimated
+     * footprint of the cached data exceeds the budget, the least recently
+     * used datasets are evicted from the cache and read again from disk when
+     * needed.
+     * 
+     * @param budget
+     *            the memory budget in bytes
+     */
+    public void setDataCacheBudget(long budget) {
+        dataCache.setBudget(budget);
+    }
+
     @Override
     public List<Dataset> getAllDatasets() {
         return new ArrayList<>(datasetMap.values());
@@ -183,6 +252,8 @@ public class FileBasedDatasetServices implements DatasetServices {
 
         removeDataInternal(datasetId);
 
+        fireDataChanged(datasetId);
+
         boolean removedDataset = false;
 
         synchronized (datasetMap) {
@@ -288,16 +359,10 @@ public class FileBasedDatasetServices implements DatasetServices {
             throw new DatasetException("Unknown dataset with datasetId : " + datasetId);
         }
 
-        CoreHunterData data = dataCache.get(datasetId);
-
-        if (data != null) {
-            return data;
-        } else {
-            try {
-                return readCoreHunterDataInternal(datasetId);
-            } catch (IOException e) {
-                throw new DatasetException(e);
-            }
+        try {
+            return dataCache.get(datasetId, () -> readCoreHunterDataInternal(datasetId));
+        } catch (IOException e) {
+            throw new DatasetException(e);
         }
     }
 
@@ -310,6 +375,8 @@ public class FileBasedDatasetServices implements DatasetServices {
         }
 
         removeDataInternal(datasetId);
+
+        fireDataChanged(datasetId);
     }
 
     @Override
@@ -515,9 +582,22 @@ public class FileBasedDatasetServices implements DatasetServices {
             throw new DatasetException(e);
         }
 
+        writeSnapshot(datasetId, coreHunterData);
+
+        // normalization ranges determined for the previous data are no longer valid
+        NormalizationRangeCache normalizationRangeCache = new FileBasedNormalizationRangeCache(datasetId);
+        normalizationRangeCache.clear();
+        coreHunterData.setNormalizationRangeCache(normalizationRangeCache);
+
+        // and neither are the distances cached for the previous data
+        deleteDistanceCaches(datasetId);
+        setDistanceCacheFactory(datasetId, coreHunterData);
+
         internalDataset.setSize(coreHunterData.getSize());
 
         writeDatasets();
+
+        fireDataChanged(datasetId);
     }
 
     @Override
@@ -766,6 +846,32 @@ public class FileBasedDatasetServices implements DatasetServices {
 
     private CoreHunterData readCoreHunterDataInternal(String datasetId) throws IOException {
 
+        Path snapshotPath = getSnapshotPath(datasetId);
+
+        if (Files.exists(snapshotPath)) {
+            try {
+                CoreHunterData data = CoreHunterDataSnapshot.readData(snapshotPath);
+
+                if (data.getPhenotypicData() != null) {
+                    updateData(data.getPhenotypicData(),
+                        Paths.get(getPath().toString(), PHENOTYPIC_PATH, datasetId + DATA_SUFFIX));
+                }
+
+                if (data.getDistancesData() != null) {
+                    updateData(data.getDistancesData(),
+                        Paths.get(getPath().toString(), DISTANCES_PATH, datasetId + DATA_SUFFIX));
+                }
+
+                data.setNormalizationRangeCache(new FileBasedNormalizationRangeCache(datasetId));
+
+                setDistanceCacheFactory(datasetId, data);
+
+                return data;
+            } catch (IOException e) {
+                logger.warn("Unable to read snapshot " + snapshotPath + ", reading original data instead", e);
+            }
+        }
+
         FrequencyGenotypeData genotypicData = null;
         SimplePhenotypeData phenotypicData = null;
         SimpleDistanceMatrixData distance = null;
@@ -808,12 +914,39 @@ public class FileBasedDatasetServices implements DatasetServices {
         }
 
         if (genotypicData != null || phenotypicData != null || distance != null) {
-            return new CoreHunterData(genotypicData, phenotypicData, distance);
+            CoreHunterData data = new CoreHunterData(genotypicData, phenotypicData, distance);
+
+            // data loaded before snapshots were introduced, or of which the snapshot could not be read
+            writeSnapshot(datasetId, data);
+
+            data.setNormalizationRangeCache(new FileBasedNormalizationRangeCache(datasetId));
+
+            setDistanceCacheFactory(datasetId, data);
+
+            return data;
         } else {
             return null;
         }
     }
 
+    // the snapshot is only used to restore the data faster than from the original files, so failures
+    // are logged and any partial snapshot is removed, after which the original files are used instead
+    private void writeSnapshot(String datasetId, CoreHunterData data) {
+        Path snapshotPath = getSnapshotPath(datasetId);
+
+        try {
+            CoreHunterDataSnapshot.writeData(snapshotPath, data);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Unable to write snapshot " + snapshotPath, e);
+
+            try {
+                Files.deleteIfExists(snapshotPath);
+            } catch (IOException e2) {
+                logger.warn("Unable to delete snapshot " + snapshotPath, e2);
+            }
+        }
+    }
+
     private void updateData(Data data, Path path) throws IOException {
 
         SimpleEntityPojo simpleEntityPojo = (SimpleEntityPojo) readFromFile(path);
@@ -832,6 +965,10 @@ public class FileBasedDatasetServices implements DatasetServices {
         return xstream;
     }
 
+    private void fireDataChanged(String datasetId) {
+        datasetListeners.forEach(listener -> listener.dataChanged(datasetId));
+    }
+
     private void removeDataInternal(String datasetId) throws DatasetException {
 
         dataCache.remove(datasetId);
@@ -842,9 +979,59 @@ public class FileBasedDatasetServices implements DatasetServices {
             Files.deleteIfExists(getDataPath(datasetId, CoreHunterDataType.PHENOTYPIC));
 
             Files.deleteIfExists(getDataPath(datasetId, CoreHunterDataType.DISTANCES));
+
+            Files.deleteIfExists(getNormalizationRangesPath(datasetId));
+
+            Files.deleteIfExists(getSnapshotPath(datasetId));
         } catch (IOException e) {
             throw new DatasetException(e);
         }
+
+        deleteDistanceCaches(datasetId);
+    }
+
+    // distances computed for the data are cached in memory-mapped files, so that they are not only shared
+    // by all runs on the dataset but also reused after a restart, as long as the data of the dataset does
+    // not change (checked using a fingerprint of the data and the files from which it is read)
+    private void setDistanceCacheFactory(String datasetId, CoreHunterData data) {
+        List<Path> files = new ArrayList<>();
+
+        for (String dataTypePath : new String[] {GENOTYPIC_PATH, PHENOTYPIC_PATH, DISTANCES_PATH}) {
+            Path file = Paths.get(getPath().toString(), dataTypePath, datasetId + SUFFIX);
+
+            if (Files.exists(file)) {
+                files.add(file);
+            }
+        }
+
+        try {
+            long fingerprint = MappedDistanceCache.fingerprint(data, files.toArray(new Path[files.size()]));
+
+            data.setDistanceCacheFactory(MappedDistanceCache.factory(getDistanceCachePath(datasetId), fingerprint));
+        } catch (CoreHunterException e) {
+            logger.warn("Unable to cache distances on disk for dataset " + datasetId + ", caching in memory", e);
+        }
+    }
+
+    // the cache files only hold distances that can be recomputed, so failures are logged; files that are
+    // still mapped by a running search are only deleted from the file system once that search is finished
+    // on most platforms, while on others the remaining files are replaced when the data is used again
+    private void deleteDistanceCaches(String datasetId) {
+        Path distanceCachePath = getDistanceCachePath(datasetId);
+
+        if (!Files.isDirectory(distanceCachePath)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(distanceCachePath)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+
+            Files.deleteIfExists(distanceCachePath);
+        } catch (IOException e) {
+            logger.warn("Unable to delete distance caches " + distanceCachePath, e);
+        }
     }
 
     private Path getDataPath(String datasetId, CoreHunterDataType dataType) {
@@ -859,4 +1046,101 @@ public class FileBasedDatasetServices implements DatasetServices {
                 throw new IllegalArgumentException("Unknown dataset type : " + dataType);
         }
     }
+
+    private Path getNormalizationRangesPath(String datasetId) {
+        return Paths.get(getPath().toString(), NORMALIZATION_PATH, datasetId + RANGES_SUFFIX);
+    }
+
+    private Path getSnapshotPath(String datasetId) {
+        return Paths.get(getPath().toString(), SNAPSHOT_PATH, datasetId + SNAPSHOT_SUFFIX);
+    }
+
+    private Path getDistanceCachePath(String datasetId) {
+        return Paths.get(getPath().toString(), DISTANCE_CACHE_PATH, datasetId);
+    }
+
+    /**
+     * Normalization range cache of a single dataset that is persisted on the file system,
+     * so that ranges determined for a dataset are also reused after a restart. The file
+     * is deleted when the data of the dataset is loaded again or removed.
+     */
+    private class FileBasedNormalizationRangeCache implements NormalizationRangeCache {
+
+        private final Path rangesPath;
+
+        // lower and upper bound per objective, by key (read from file when first accessed)
+        private Map<String, double[][]> ranges;
+
+        public FileBasedNormalizationRangeCache(String datasetId) {
+            rangesPath = getNormalizationRangesPath(datasetId);
+        }
+
+        @Override
+        public synchronized List<Range<Double>> get(String key) {
+            double[][] bounds = getRanges().get(key);
+
+            if (bounds == null) {
+                return null;
+            }
+
+            List<Range<Double>> list = new ArrayList<>(bounds.length);
+
+            for (double[] bound : bounds) {
+                list.add(new Range<>(bound[0], bound[1]));
+            }
+
+            return list;
+        }
+
+        @Override
+        public synchronized void put(String key, List<Range<Double>> list) {
+            double[][] bounds = new double[list.size()][];
+
+            for (int i = 0; i < bounds.length; i++) {
+                bounds[i] = new double[] {
+                    list.get(i).getLower(), list.get(i).getUpper()
+                };
+            }
+
+            getRanges().put(key, bounds);
+
+            try {
+                Files.createDirectories(rangesPath.getParent());
+
+                writeToFile(rangesPath, ranges);
+            } catch (IOException e) {
+                // ranges are still cached in memory
+                logger.warn("Unable to write normalization ranges to " + rangesPath, e);
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            ranges = new LinkedHashMap<>();
+
+            try {
+                Files.deleteIfExists(rangesPath);
+            } catch (IOException e) {
+                logger.warn("Unable to delete normalization ranges " + rangesPath, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<String, double[][]> getRanges() {
+            if (ranges == null) {
+                ranges = new LinkedHashMap<>();
+
+                if (Files.exists(rangesPath)) {
+                    try {
+                        ranges.putAll((Map<String, double[][]>) readFromFile(rangesPath));
+                    } catch (IOException | ClassCastException e) {
+                        // ranges will be determined again
+                        logger.warn("Unable to read normalization ranges from " + rangesPath, e);
+                    }
+                }
+            }
+
+            return ranges;
+        }
+    }
 }
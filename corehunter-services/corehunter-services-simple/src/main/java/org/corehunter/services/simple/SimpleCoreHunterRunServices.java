@@ -26,9 +26,12 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -36,14 +39,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.corehunter.CoreHunter;
 import org.corehunter.CoreHunterArguments;
+import org.corehunter.CoreHunterObjective;
 import org.corehunter.listener.SimpleCoreHunterListener;
 import org.corehunter.services.CoreHunterRun;
 import org.corehunter.services.CoreHunterRunArguments;
@@ -67,6 +71,12 @@ import uno.informatics.data.pojo.SimpleEntityPojo;
  * {@link #SimpleCoreHunterRunServices(DatasetServices) constructor} provided
  * path is defined in the overloaded constructor using the
  * {@link #setPath(Path)} method
+ * <p>
+ * A seeded run with the same arguments as a waiting, running or finished run
+ * is served by that run. It is registered as a separate run with its own id
+ * and name, which shares the status and solution of the other run. Stopping,
+ * removing or deleting one of these runs does not affect the others, so that
+ * a shared search is only stopped when it is no longer shared.
  * 
  * @author daveneti
  *
@@ -75,12 +85,23 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
 
     Logger logger = LoggerFactory.getLogger(SimpleCoreHunterRunServices.class);
 
+    /**
+     * The default number of parallel tempering replicas per run, which is
+     * the Core Hunter default
+     */
+    public static final int DEFAULT_REPLICAS_PER_RUN = 10;
+
     private static final String RESULTS_PATH = "RESULTS_PATH";
 
     private DatasetServices datasetServices;
-    private ExecutorService executor;
+    private CoreHunterRunScheduler scheduler;
+    private int replicasPerRun = DEFAULT_REPLICAS_PER_RUN;
+    private boolean greedyInitialization;
     private List<CoreHunterRun> corehunterRuns;
     private Map<String, CoreHunterRunResult> corehunterResultsMap;
+    // ids of seeded runs by result key, see createResultKey
+    private Map<String, String> resultCache;
+    private DatasetListener datasetListener;
     public String charsetName = "utf-8";
     private boolean shuttingDown;
     private boolean shutDown;
@@ -99,9 +120,19 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
     protected SimpleCoreHunterRunServices(DatasetServices datasetServices) throws IOException {
         this.datasetServices = datasetServices;
 
-        executor = createExecutorService();
+        scheduler = createScheduler();
+
+        // accessed by runs from the worker threads of the scheduler
+        corehunterResultsMap = new ConcurrentHashMap<>();
 
-        corehunterResultsMap = new HashMap<>();
+        resultCache = new HashMap<>();
+
+        // discard cached results when the data is changed
+        if (datasetServices instanceof FileBasedDatasetServices) {
+            datasetListener = this::invalidateResults;
+
+            ((FileBasedDatasetServices) datasetServices).addDatasetListener(datasetListener);
+        }
     }
 
     /**
@@ -134,6 +165,84 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
         initialise();
     }
 
+    /**
+     * Gets the maximum number of runs that are executed at the same time
+     * 
+     * @return the maximum number of concurrent runs
+     */
+    public int getMaxConcurrentRuns() {
+        return scheduler.getMaxConcurrentRuns();
+    }
+
+    /**
+     * Sets the maximum number of runs that are executed at the same time.
+     * By default, as many runs are executed concurrently as the available
+     * processors allow given the number of replicas per run (see
+     * {@link #setReplicasPerRun(int)}), with a minimum of one run. Waiting runs
+     * are started in order of priority (see
+     * {@link CoreHunterRunArguments#getPriority()}), and in turn for each
+     * dataset for runs with the same priority.
+     * 
+     * @param maxConcurrentRuns
+     *            the maximum number of concurrent runs, at least 1
+     * @throws IllegalArgumentException
+     *             if the maximum number of concurrent runs is less than 1
+     */
+    public void setMaxConcurrentRuns(int maxConcurrentRuns) {
+        scheduler.setMaxConcurrentRuns(maxConcurrentRuns);
+    }
+
+    /**
+     * Gets the number of parallel tempering replicas used by each run
+     * 
+     * @return the number of replicas per run
+     */
+    public final int getReplicasPerRun() {
+        return replicasPerRun;
+    }
+
+    /**
+     * Sets the number of parallel tempering replicas used by each run, which
+     * determines the number of threads (processors) used by a run. Applies to
+     * runs started afterwards. The maximum number of concurrent runs is not
+     * changed.
+     * 
+     * @param replicasPerRun
+     *            the number of replicas per run, at least 1
+     * @throws IllegalArgumentException
+     *             if the number of replicas is less than 1
+     */
+    public final void setReplicasPerRun(int replicasPerRun) {
+        if (replicasPerRun < 1) {
+            throw new IllegalArgumentException("Number of replicas per run must be at least 1!");
+        }
+
+        this.replicasPerRun = replicasPerRun;
+    }
+
+    /**
+     * Checks whether runs start from greedily constructed solutions
+     * 
+     * @return <code>true</code> if greedy initialization is enabled
+     */
+    public final boolean isGreedyInitialization() {
+        return greedyInitialization;
+    }
+
+    /**
+     * Sets whether runs start from greedily constructed solutions, for
+     * objectives that support it. Applies to runs started afterwards.
+     * Disabled by default.
+     * 
+     * @param greedyInitialization
+     *            <code>true</code> if initial solutions should be constructed
+     *            greedily
+     * @see CoreHunter#setGreedyInitialization(boolean)
+     */
+    public final void setGreedyInitialization(boolean greedyInitialization) {
+        this.greedyInitialization = greedyInitialization;
+    }
+
     @Override
     public CoreHunterRun executeCoreHunter(CoreHunterRunArguments arguments) {
 
@@ -145,15 +254,64 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
             throw new IllegalStateException("Can not accept any new runs, service is not running!");
         }
 
-        CoreHunterRunnable corehunterRunnable = new CoreHunterRunnable(arguments);
+        CoreHunterRunnable corehunterRunnable;
+
+        synchronized (resultCache) {
+            String key = null;
+
+            // the result of a seeded run is determined by its arguments
+            if (arguments.getSeed() > 0) {
+                key = createResultKey(arguments);
+
+                CoreHunterRunResult cachedResult = getCachedResult(key);
+
+                if (cachedResult != null) {
+                    // own entry that shares the solution of the cached run
+                    CoreHunterRunAlias alias = new CoreHunterRunAlias(arguments, getSource(cachedResult));
+
+                    logger.info("Run {} with id {} served by run {} with the same arguments", arguments.getName(),
+                            alias.getUniqueIdentifier(), cachedResult.getUniqueIdentifier());
+
+                    corehunterResultsMap.put(alias.getUniqueIdentifier(), alias);
+
+                    if (alias.getStatus() == CoreHunterRunStatus.FINISHED) {
+                        saveResult(new CoreHunterRunResultPojo(alias));
+                    }
+
+                    return new CoreHunterRunFromRunnable(alias);
+                }
+            }
+
+            corehunterRunnable = new CoreHunterRunnable(arguments);
 
-        corehunterResultsMap.put(corehunterRunnable.getUniqueIdentifier(), corehunterRunnable);
+            corehunterResultsMap.put(corehunterRunnable.getUniqueIdentifier(), corehunterRunnable);
 
-        executor.submit(corehunterRunnable);
+            if (key != null) {
+                resultCache.put(key, corehunterRunnable.getUniqueIdentifier());
+            }
+        }
+
+        scheduler.submit(corehunterRunnable, arguments.getDatasetId(), arguments.getPriority());
 
         return new CoreHunterRunFromRunnable(corehunterRunnable);
     }
 
+    @Override
+    public boolean stopCoreHunterRun(String uniqueIdentifier) {
+
+        if (uniqueIdentifier == null) {
+            throw new NullPointerException("Can not stop a run with out an id!");
+        }
+
+        CoreHunterRunResult coreHunterRunResult = corehunterResultsMap.get(uniqueIdentifier);
+
+        if (coreHunterRunResult == null) {
+            throw new NoSuchElementException(String.format("Can not find a run with id %s", uniqueIdentifier));
+        }
+
+        return stopIfNotShared(coreHunterRunResult);
+    }
+
     @Override
     public CoreHunterRun getCoreHunterRun(String uniqueIdentifier) {
 
@@ -185,12 +343,8 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
         
         removeResult(coreHunterRunResult);
 
-        // can not be stopped
-        /*if (coreHunterRunResult instanceof CoreHunterRunnable) {
-            boolean stopped = ((CoreHunterRunnable) coreHunterRunResult).stop();
-
-            return stopped;
-        }*/
+        // stop if still running or waiting, the run is removed regardless
+        stopIfNotShared(coreHunterRunResult);
 
         return true;
     }
@@ -211,11 +365,7 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
         
         removeResult(coreHunterRunResult);
 
-        /*if (coreHunterRunResult instanceof CoreHunterRunnable) {
-            if (!((CoreHunterRunnable) coreHunterRunResult).stop()) {
-                logger.error("Can not stop runnable {}", coreHunterRunResult.getName());
-            }
-        }*/
+        stopIfNotShared(coreHunterRunResult);
     }
 
     @Override
@@ -250,6 +400,7 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
                     switch (coreHunterRunResult.getStatus()) {
                         case FAILED:
                         case FINISHED:
+                        case STOPPED:
                             saveResult(new CoreHunterRunResultPojo(coreHunterRunResult));
                             break;
                         case NOT_STARTED:
@@ -257,6 +408,12 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
                         default:
                             break;  
                     }
+                } else if (coreHunterRunResult instanceof CoreHunterRunAlias) {
+                    ((CoreHunterRunAlias) coreHunterRunResult).setName(coreHunterRun.getName());
+
+                    if (coreHunterRunResult.getStatus() == CoreHunterRunStatus.FINISHED) {
+                        saveResult(new CoreHunterRunResultPojo(coreHunterRunResult));
+                    }
                 } else {
                     throw new UnsupportedOperationException(
                             String.format("Unknown class in use : %s", coreHunterRunResult.getClass().getName()));
@@ -340,14 +497,19 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
     public void shutdown() {
         if (!shuttingDown || shutDown) {
             shuttingDown = true;
-            executor.shutdown();
+            scheduler.shutdown();
+
+            if (datasetListener != null) {
+                ((FileBasedDatasetServices) datasetServices).removeDatasetListener(datasetListener);
+            }
             shutDown = true;
         }
     }
 
-    private ExecutorService createExecutorService() {
+    private CoreHunterRunScheduler createScheduler() {
 
-        return Executors.newSingleThreadExecutor();
+        return new CoreHunterRunScheduler(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / DEFAULT_REPLICAS_PER_RUN));
     }
 
     private String createUniqueIdentifier() {
@@ -369,6 +531,132 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
         }
     }
 
+    /**
+     * Creates a key that identifies the result of a seeded run, based on all
+     * arguments that affect this result (dataset, subset size, objectives,
+     * stop conditions and seed), the number of replicas per run and whether
+     * greedy initialization is enabled. The name and priority of the run are
+     * ignored. The key is a SHA-256 hash of these values.
+     * 
+     * @param arguments
+     *            the arguments of the run
+     * @return the key of the result
+     */
+    protected String createResultKey(CoreHunterRunArguments arguments) {
+        StringBuilder values = new StringBuilder();
+
+        values.append(arguments.getDatasetId()).append('|');
+        values.append(arguments.getSubsetSize()).append('|');
+
+        for (CoreHunterObjective objective : arguments.getObjectives()) {
+            values.append(objective.getObjectiveType()).append(',');
+            values.append(objective.getMeasure()).append(',');
+            values.append(objective.getWeight()).append(',');
+
+            if (objective.getNormalizationRange() != null) {
+                values.append(objective.getNormalizationRange().getLower()).append(',');
+                values.append(objective.getNormalizationRange().getUpper());
+            }
+
+            values.append(';');
+        }
+
+        values.append('|').append(arguments.getTimeLimit());
+        values.append('|').append(arguments.getMaxTimeWithoutImprovement());
+        values.append('|').append(arguments.getSeed());
+        values.append('|').append(replicasPerRun);
+        values.append('|').append(greedyInitialization);
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                    values.toString().getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder key = new StringBuilder();
+
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // gets the waiting, running or finished run for the key (must hold the lock on the result cache)
+    private CoreHunterRunResult getCachedResult(String key) {
+        String uniqueIdentifier = resultCache.get(key);
+
+        if (uniqueIdentifier != null) {
+            CoreHunterRunResult result = corehunterResultsMap.get(uniqueIdentifier);
+
+            if (result != null) {
+                switch (result.getStatus()) {
+                    case NOT_STARTED:
+                    case RUNNING:
+                    case FINISHED:
+                        return result;
+                    case FAILED:
+                    case STOPPED:
+                    default:
+                        break;
+                }
+            }
+
+            // removed, failed or stopped
+            resultCache.remove(key);
+        }
+
+        return null;
+    }
+
+    // gets the run that computes the result of the given run
+    private CoreHunterRunResult getSource(CoreHunterRunResult result) {
+        return result instanceof CoreHunterRunAlias ? ((CoreHunterRunAlias) result).getSource() : result;
+    }
+
+    // checks if any other run than the given one shares its source
+    private boolean isShared(CoreHunterRunResult result) {
+        CoreHunterRunResult source = getSource(result);
+
+        return corehunterResultsMap.values().stream()
+                .anyMatch(other -> other != result && getSource(other) == source);
+    }
+
+    // stops the source of the given run, unless it is shared with other runs
+    private boolean stopIfNotShared(CoreHunterRunResult result) {
+        CoreHunterRunResult source = getSource(result);
+
+        if (source instanceof CoreHunterRunnable && !isShared(result)) {
+            return ((CoreHunterRunnable) source).stop();
+        } else {
+            // completed run loaded from file, or shared with other runs
+            return false;
+        }
+    }
+
+    // saves the runs that share the result of the given run, once it has ended
+    private void saveAliases(CoreHunterRunResult source) {
+        for (CoreHunterRunResult result : corehunterResultsMap.values()) {
+            if (result instanceof CoreHunterRunAlias && ((CoreHunterRunAlias) result).getSource() == source) {
+                saveResult(new CoreHunterRunResultPojo(result));
+            }
+        }
+    }
+
+    private void invalidateResults(String datasetId) {
+        synchronized (resultCache) {
+            resultCache.values().removeIf(uniqueIdentifier -> {
+                CoreHunterRunResult result = corehunterResultsMap.get(uniqueIdentifier);
+
+                return result == null || Objects.equals(datasetId, result.getArguments().getDatasetId());
+            });
+        }
+
+        logger.info("Discarded cached results for dataset {}", datasetId);
+    }
+
     private void loadResult(Path path) {
 
         try {
@@ -376,6 +664,12 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
 
             corehunterResultsMap.put(result.getUniqueIdentifier(), result);
 
+            if (result.getStatus() == CoreHunterRunStatus.FINISHED && result.getArguments().getSeed() > 0) {
+                synchronized (resultCache) {
+                    resultCache.put(createResultKey(result.getArguments()), result.getUniqueIdentifier());
+                }
+            }
+
         } catch (IOException e) {
             logger.error("Can not load result from path {} due to {}", path, e.getMessage());
             logger.error("Full error ", e);
@@ -497,6 +791,7 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
         private Instant startInstant;
         private Instant endInstant;
         private CoreHunterRunStatus status;
+        private transient boolean stopRequested;
 
         public CoreHunterRunnable(CoreHunterRunArguments corehunterRunArguments) {
             super(createUniqueIdentifier(), corehunterRunArguments.getName());
@@ -535,7 +830,7 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
          * @see org.corehunter.services.simple.CoreHunterResult#getErrorStream()
          */
         @Override
-        public final String getErrorStream() {
+        public synchronized final String getErrorStream() {
             if (errorStream != null) {
                 try {
                     errorStream.flush();
@@ -616,12 +911,22 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
         @Override
         public void run() {
 
-            outputStream = new ByteArrayOutputStream();
-            PrintStream outputPrintStream = new PrintStream(outputStream);
+            synchronized (this) {
+                // stopped while waiting to be started
+                if (stopRequested) {
+                    return;
+                }
+
+                outputStream = new ByteArrayOutputStream();
+                corehunter = new CoreHunter();
 
-            try {
                 startInstant = Instant.now();
                 status = CoreHunterRunStatus.RUNNING;
+            }
+
+            PrintStream outputPrintStream = new PrintStream(outputStream);
+
+            try {
 
                 outputPrintStream.println(String.format("Starting run : %s at %s", getName(), startInstant.toString()));
 
@@ -629,39 +934,174 @@ public class SimpleCoreHunterRunServices implements CoreHunterRunServices {
                         datasetServices.getCoreHunterData(corehunterRunArguments.getDatasetId()),
                         corehunterRunArguments.getSubsetSize(), corehunterRunArguments.getObjectives());
 
-                corehunter = new CoreHunter();
                 corehunter.setMaxTimeWithoutImprovement(
                         TimeUnit.SECONDS.toMillis(corehunterRunArguments.getMaxTimeWithoutImprovement())); 
                 corehunter.setTimeLimit(TimeUnit.SECONDS.toMillis(corehunterRunArguments.getTimeLimit()));
+                corehunter.setNumReplicas(replicasPerRun);
+                corehunter.setGreedyInitialization(greedyInitialization);
+
+                if (corehunterRunArguments.getSeed() > 0) {
+                    corehunter.setSeed(corehunterRunArguments.getSeed());
+                }
                 
                 corehunter.setListener(new SimpleCoreHunterListener(outputPrintStream));
 
-                subsetSolution = corehunter.execute(arguments);
+                SubsetSolution solution = corehunter.execute(arguments);
+
+                synchronized (this) {
+                    subsetSolution = solution;
+
+                    if (stopRequested) {
+                        status = CoreHunterRunStatus.STOPPED;
 
-                status = CoreHunterRunStatus.FINISHED;
+                        outputPrintStream.println(String.format("Stopped run : %s", getName()));
+                    } else {
+                        status = CoreHunterRunStatus.FINISHED;
+                    }
+                }
             } catch (Exception e) {
-                status = CoreHunterRunStatus.FAILED;
-                errorMessage = e.getMessage();
-                errorStream = new ByteArrayOutputStream();
-                PrintStream printStream = new PrintStream(errorStream);
+                ByteArrayOutputStream stackTrace = new ByteArrayOutputStream();
+                PrintStream printStream = new PrintStream(stackTrace);
                 e.printStackTrace(printStream);
+                printStream.close();
+
+                synchronized (this) {
+                    // failures caused by stopping the run are not reported as such
+                    status = stopRequested ? CoreHunterRunStatus.STOPPED : CoreHunterRunStatus.FAILED;
+                    errorMessage = e.getMessage();
+                    errorStream = stackTrace;
+                }
 
                 outputPrintStream.println(String.format(
-                        "Error in run : %s at due to %s. See error log for more details", getName(), errorMessage));
+                        "Error in run : %s at due to %s. See error log for more details", getName(), e.getMessage()));
+            }
 
-                printStream.close();
+            Instant end = Instant.now();
+
+            synchronized (this) {
+                endInstant = end;
             }
 
-            endInstant = Instant.now();
-            outputPrintStream.println(String.format("Ending run : %s at %s", getName(), endInstant.toString()));
+            outputPrintStream.println(String.format("Ending run : %s at %s", getName(), end.toString()));
+
+            // removed or deleted runs are not saved
+            if (corehunterResultsMap.containsKey(getUniqueIdentifier())) {
+                saveResult(new CoreHunterRunResultPojo(this));
+            }
 
-            saveResult(new CoreHunterRunResultPojo(this));
+            saveAliases(this);
 
             outputPrintStream.close();
         }
 
-        public boolean stop() {
-            return false; // This simple implementation can not be stopped
+        /**
+         * Stops the run. A running search is stopped as soon as it completes
+         * its current step, after which the best solution found so far is
+         * retained. A waiting run is removed from the scheduler.
+         * 
+         * @return <code>true</code> if the run was stopped, <code>false</code>
+         *         if the run had already ended
+         */
+        public synchronized boolean stop() {
+            switch (status) {
+                case NOT_STARTED:
+                    stopRequested = true;
+                    status = CoreHunterRunStatus.STOPPED;
+                    endInstant = Instant.now();
+
+                    // never claims a worker
+                    scheduler.remove(this);
+
+                    if (corehunterResultsMap.containsKey(getUniqueIdentifier())) {
+                        saveResult(new CoreHunterRunResultPojo(this));
+                    }
+
+                    saveAliases(this);
+
+                    return true;
+                case RUNNING:
+                    stopRequested = true;
+                    corehunter.stop();
+
+                    return true;
+                case FAILED:
+                case FINISHED:
+                case STOPPED:
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * A run that is served by another run with the same arguments. It has
+     * its own id, name and arguments, but shares the status, solution and
+     * output of the other run. Removing or deleting either run does not
+     * affect the other one, and the shared run is only stopped when it is no
+     * longer shared.
+     */
+    private class CoreHunterRunAlias extends SimpleEntityPojo implements CoreHunterRunResult {
+        /**
+         * 
+         */
+        private static final long serialVersionUID = 1L;
+
+        private CoreHunterRunArguments corehunterRunArguments;
+        private CoreHunterRunResult source;
+
+        public CoreHunterRunAlias(CoreHunterRunArguments corehunterRunArguments, CoreHunterRunResult source) {
+            super(createUniqueIdentifier(), corehunterRunArguments.getName());
+            this.corehunterRunArguments = new CoreHunterRunArgumentsPojo(corehunterRunArguments);
+            this.source = source;
+        }
+
+        /**
+         * Gets the run that computes the result of this run
+         * 
+         * @return the run that serves this run
+         */
+        public final CoreHunterRunResult getSource() {
+            return source;
+        }
+
+        @Override
+        public final String getOutputStream() {
+            return source.getOutputStream();
+        }
+
+        @Override
+        public final String getErrorStream() {
+            return source.getErrorStream();
+        }
+
+        @Override
+        public final String getErrorMessage() {
+            return source.getErrorMessage();
+        }
+
+        @Override
+        public final SubsetSolution getSubsetSolution() {
+            return source.getSubsetSolution();
+        }
+
+        @Override
+        public final Instant getStartInstant() {
+            return source.getStartInstant();
+        }
+
+        @Override
+        public final Instant getEndInstant() {
+            return source.getEndInstant();
+        }
+
+        @Override
+        public final CoreHunterRunStatus getStatus() {
+            return source.getStatus();
+        }
+
+        @Override
+        public final CoreHunterRunArguments getArguments() {
+            return corehunterRunArguments;
         }
     }
 
@@ -0,0 +1,245 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.services.simple.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.corehunter.data.CoreHunterData;
+import org.corehunter.data.simple.SimpleDistanceMatrixData;
+import org.corehunter.services.simple.CoreHunterDataCache;
+import org.junit.Test;
+
+import uno.informatics.data.SimpleEntity;
+import uno.informatics.data.pojo.SimpleEntityPojo;
+
+public class CoreHunterDataCacheTest {
+
+    private static final String DATASET1 = "dataset1";
+    private static final String DATASET2 = "dataset2";
+    private static final String DATASET3 = "dataset3";
+
+    private static final int SIZE = 10;
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        CoreHunterData data = createData();
+
+        CoreHunterDataCache cache = new CoreHunterDataCache(Long.MAX_VALUE);
+
+        cache.put(DATASET1, data);
+
+        long footprint = cache.getFootprint();
+
+        assertTrue(footprint > 0);
+        assertEquals(data.getMemoryFootprint(), footprint);
+
+        // room for two datasets
+        cache.setBudget(2 * footprint + footprint / 2);
+
+        cache.put(DATASET2, createData());
+
+        // use first dataset so that second is least recently used
+        assertSame(data, cache.get(DATASET1, () -> {
+            fail("Cached data should not be loaded!");
+            return null;
+        }));
+
+        cache.put(DATASET3, createData());
+
+        assertEquals(2, cache.size());
+        assertEquals(2 * footprint, cache.getFootprint());
+        assertTrue(cache.contains(DATASET1));
+        assertFalse(cache.contains(DATASET2));
+        assertTrue(cache.contains(DATASET3));
+
+        // most recently added dataset is kept even if over budget
+        cache.setBudget(0);
+
+        cache.put(DATASET2, createData());
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains(DATASET2));
+
+        cache.remove(DATASET2);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getFootprint());
+    }
+
+    @Test
+    public void testCountDistanceCaches() throws IOException {
+        CoreHunterData data = createData();
+
+        CoreHunterDataCache cache = new CoreHunterDataCache(Long.MAX_VALUE);
+
+        cache.put(DATASET1, data);
+
+        long footprint = cache.getFootprint();
+
+        // room for two datasets without distance caches
+        cache.setBudget(2 * footprint);
+
+        cache.put(DATASET2, createData());
+
+        assertEquals(2, cache.size());
+
+        // distance cache grows the footprint of the first dataset
+        long cacheFootprint = data.getDistanceCache("test").getMemoryFootprint();
+
+        assertEquals(SIZE * (SIZE - 1) / 2 * 8, cacheFootprint);
+
+        // accessing the first dataset evicts the second one
+        assertSame(data, cache.get(DATASET1, () -> {
+            fail("Cached data should not be loaded!");
+            return null;
+        }));
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains(DATASET1));
+        assertEquals(footprint + cacheFootprint, cache.getFootprint());
+    }
+
+    @Test
+    public void testUpdateAccessedDatasetOnly() throws IOException {
+        CoreHunterData data1 = createData();
+        CoreHunterData data2 = createData();
+
+        CoreHunterDataCache cache = new CoreHunterDataCache(Long.MAX_VALUE);
+
+        cache.put(DATASET1, data1);
+        cache.put(DATASET2, data2);
+
+        long footprint = cache.getFootprint();
+
+        long cacheFootprint1 = data1.getDistanceCache("test").getMemoryFootprint();
+        long cacheFootprint2 = data2.getDistanceCache("test").getMemoryFootprint();
+
+        // growth of distance caches is only accounted for when a dataset is accessed
+        assertEquals(footprint, cache.getFootprint());
+
+        assertSame(data2, cache.get(DATASET2, () -> {
+            fail("Cached data should not be loaded!");
+            return null;
+        }));
+
+        assertEquals(footprint + cacheFootprint2, cache.getFootprint());
+
+        assertSame(data1, cache.get(DATASET1, () -> {
+            fail("Cached data should not be loaded!");
+            return null;
+        }));
+
+        assertEquals(footprint + cacheFootprint1 + cacheFootprint2, cache.getFootprint());
+    }
+
+    @Test
+    public void testCollapseConcurrentLoads() throws Exception {
+        CoreHunterDataCache cache = new CoreHunterDataCache(Long.MAX_VALUE);
+
+        CoreHunterData data = createData();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CoreHunterDataCache.DataLoader loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+
+            return data;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<CoreHunterData>> results = new ArrayList<>();
+
+            results.add(executor.submit(() -> cache.get(DATASET1, loader)));
+
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(DATASET1, loader)));
+            }
+
+            release.countDown();
+
+            for (Future<CoreHunterData> result : results) {
+                assertSame(data, result.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, loads.get());
+            assertTrue(cache.contains(DATASET1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedLoad() {
+        CoreHunterDataCache cache = new CoreHunterDataCache(Long.MAX_VALUE);
+
+        try {
+            cache.get(DATASET1, () -> {
+                throw new IOException("Can not read data");
+            });
+
+            fail("Failed load should throw exception!");
+        } catch (IOException e) {
+            assertEquals("Can not read data", e.getMessage());
+        }
+
+        assertFalse(cache.contains(DATASET1));
+    }
+
+    private CoreHunterData createData() {
+        SimpleEntity[] headers = new SimpleEntity[SIZE];
+        double[][] distances = new double[SIZE][SIZE];
+
+        for (int i = 0; i < SIZE; i++) {
+            headers[i] = new SimpleEntityPojo("entry" + i);
+
+            for (int j = 0; j < SIZE; j++) {
+                distances[i][j] = Math.abs(i - j);
+            }
+        }
+
+        return new CoreHunterData(new SimpleDistanceMatrixData(headers, distances));
+    }
+}
@@ -0,0 +1,168 @@
+/*--------------------------------------------------------------*/
+/* Licensed to the Apache Software Foundation (ASF) under one   */
+/* or more contributor license agreements.  See the NOTICE file */
+/* distributed with this work for additional information        */
+/* regarding copyright ownership.  The ASF licenses this file   */
+/* to you under the Apache License, Version 2.0 (the            */
+/* "License"); you may not use this file except in compliance   */
+/* with the License.  You may obtain a copy of the License at   */
+/*                                                              */
+/*   http://www.apache.org/licenses/LICENSE-2.0                 */
+/*                                                              */
+/* Unless required by applicable law or agreed to in writing,   */
+/* software distributed under the License is distributed on an  */
+/* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       */
+/* KIND, either express or implied.  See the License for the    */
+/* specific language governing permissions and limitations      */
+/* under the License.                                           */
+/*--------------------------------------------------------------*/
+
+package org.corehunter.services.simple.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.corehunter.services.simple.CoreHunterRunScheduler;
+import org.junit.Test;
+
+public class CoreHunterRunSchedulerTest {
+
+    private static final String DATASET1 = "dataset1";
+    private static final String DATASET2 = "dataset2";
+
+    @Test
+    public void testPriorityAndFairness() throws InterruptedException {
+        CoreHunterRunScheduler scheduler = new CoreHunterRunScheduler(1);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+
+        // occupy the only worker
+        scheduler.submit(() -> {
+            started.countDown();
+            await(release);
+        }, DATASET1, 0);
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        scheduler.submit(record("a1", order, done), DATASET1, 0);
+        scheduler.submit(record("a2", order, done), DATASET1, 0);
+        scheduler.submit(record("a3", order, done), DATASET1, 0);
+        scheduler.submit(record("b1", order, done), DATASET2, 0);
+        scheduler.submit(record("b2", order, done), DATASET2, 0);
+        scheduler.submit(record("urgent", order, done), DATASET1, 1);
+
+        assertEquals(6, scheduler.getNumWaitingRuns());
+
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        // highest priority first, then datasets in turn
+        assertEquals(Arrays.asList("urgent", "a1", "b1", "a2", "b2", "a3"), order);
+        assertEquals(0, scheduler.getNumWaitingRuns());
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testRemove() throws InterruptedException {
+        CoreHunterRunScheduler scheduler = new CoreHunterRunScheduler(1);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.submit(() -> {
+            started.countDown();
+            await(release);
+        }, DATASET1, 0);
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        Runnable removed = record("removed", order, done);
+
+        scheduler.submit(removed, DATASET1, 0);
+        scheduler.submit(record("kept", order, done), DATASET2, 0);
+
+        assertTrue(scheduler.remove(removed));
+        assertFalse(scheduler.remove(removed));
+        assertEquals(1, scheduler.getNumWaitingRuns());
+
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("kept"), order);
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testMaxConcurrentRuns() throws InterruptedException {
+        CoreHunterRunScheduler scheduler = new CoreHunterRunScheduler(2);
+
+        assertEquals(2, scheduler.getMaxConcurrentRuns());
+
+        scheduler.setMaxConcurrentRuns(3);
+
+        assertEquals(3, scheduler.getMaxConcurrentRuns());
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(12);
+
+        for (int i = 0; i < 12; i++) {
+            scheduler.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                done.countDown();
+            }, i % 2 == 0 ? DATASET1 : DATASET2, 0);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 3);
+
+        scheduler.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxConcurrentRuns() {
+        new CoreHunterRunScheduler(0);
+    }
+
+    private Runnable record(String name, List<String> order, CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -21,18 +21,23 @@ package org.corehunter.services.simple.test;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.corehunter.Range;
 import org.corehunter.data.CoreHunterData;
 import org.corehunter.data.CoreHunterDataType;
 import org.corehunter.data.DistanceMatrixData;
@@ -43,6 +48,8 @@ import org.corehunter.data.simple.SimpleDefaultGenotypeData;
 import org.corehunter.data.simple.SimpleDistanceMatrixData;
 import org.corehunter.data.simple.SimpleFrequencyGenotypeData;
 import org.corehunter.data.simple.SimplePhenotypeData;
+import org.corehunter.objectives.distance.cache.DistanceCache;
+import org.corehunter.objectives.distance.cache.MappedDistanceCache;
 import org.corehunter.services.simple.FileBasedDatasetServices;
 import org.junit.Test;
 
@@ -98,6 +105,8 @@ public class FileBasedDatasetServicesTest {
     private static final String ONTOLOGY_TERM = "term 1";
     private static final String DATASET_DESCRIPTION = "Description";
     private static final String DATASET_ABBREVIATION = "Abbreviation";
+    private static final String RANGES_KEY = "ranges";
+    private static final String DISTANCES_KEY = "distances";
 
     @Test
     public void testAddDatasetNoData() {
@@ -210,6 +219,12 @@ public class FileBasedDatasetServicesTest {
         return path;
     }
 
+    private Path findSnapshot(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            return paths.filter(file -> file.toString().endsWith(".snapshot")).findFirst().orElse(null);
+        }
+    }
+
     @Test
     public void testRemoveDatasetNoData() {
         try {
@@ -409,6 +424,171 @@ public class FileBasedDatasetServicesTest {
         }
     }
 
+    @Test
+    public void testRestoreNormalizationRanges() {
+        try {
+            FileBasedDatasetServices fileBasedDatasetServices = new FileBasedDatasetServices(
+                createTempDirectory());
+
+            Path path = fileBasedDatasetServices.getPath();
+
+            Dataset dataset = new DatasetPojo(DATA_UID, DATASET_NAME);
+
+            fileBasedDatasetServices.addDataset(dataset);
+
+            Dataset addedDataset = fileBasedDatasetServices.getDataset(dataset.getUniqueIdentifier());
+
+            Path dataPath = Paths.get(ClassLoader.getSystemResource(PHENOTYPIC_FILE).toURI());
+
+            fileBasedDatasetServices.loadData(addedDataset, dataPath, FileType.CSV,
+                CoreHunterDataType.PHENOTYPIC);
+
+            CoreHunterData data = fileBasedDatasetServices.getCoreHunterData(dataset.getUniqueIdentifier());
+
+            List<Range<Double>> ranges = Arrays.asList(new Range<>(0.1, 0.9), new Range<>(-1.0, 2.5));
+
+            data.getNormalizationRangeCache().put(RANGES_KEY, ranges);
+
+            fileBasedDatasetServices = new FileBasedDatasetServices(path);
+
+            CoreHunterData restoredData = fileBasedDatasetServices
+                .getCoreHunterData(dataset.getUniqueIdentifier());
+
+            List<Range<Double>> restoredRanges = restoredData.getNormalizationRangeCache().get(RANGES_KEY);
+
+            assertNotNull("Restored normalization ranges not found", restoredRanges);
+            assertEquals("Number of normalization ranges is not correct", ranges.size(), restoredRanges.size());
+
+            for (int i = 0; i < ranges.size(); i++) {
+                assertEquals("Lower bound is not correct", ranges.get(i).getLower(),
+                    restoredRanges.get(i).getLower(), PRECISION);
+                assertEquals("Upper bound is not correct", ranges.get(i).getUpper(),
+                    restoredRanges.get(i).getUpper(), PRECISION);
+            }
+
+            assertNull("Normalization ranges should not be found for another key",
+                restoredData.getNormalizationRangeCache().get(RANGES_KEY + "2"));
+
+            fileBasedDatasetServices.removeData(dataset.getUniqueIdentifier());
+
+            fileBasedDatasetServices = new FileBasedDatasetServices(path);
+
+            restoredData = fileBasedDatasetServices.getCoreHunterData(dataset.getUniqueIdentifier());
+
+            if (restoredData != null) {
+                assertNull("Normalization ranges should be removed with the data",
+                    restoredData.getNormalizationRangeCache().get(RANGES_KEY));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRestoreFromSnapshot() {
+        try {
+            FileBasedDatasetServices fileBasedDatasetServices = new FileBasedDatasetServices(
+                createTempDirectory());
+
+            Path path = fileBasedDatasetServices.getPath();
+
+            Dataset dataset = new DatasetPojo(DATA_UID, DATASET_NAME);
+
+            fileBasedDatasetServices.addDataset(dataset);
+
+            Dataset addedDataset = fileBasedDatasetServices.getDataset(dataset.getUniqueIdentifier());
+
+            Path dataPath = Paths.get(ClassLoader.getSystemResource(FREQUENCY_GENOTYPIC_FILE).toURI());
+
+            fileBasedDatasetServices.loadData(addedDataset, dataPath, FileType.CSV,
+                CoreHunterDataType.GENOTYPIC);
+
+            FrequencyGenotypeData genotypicData = fileBasedDatasetServices
+                .getCoreHunterData(dataset.getUniqueIdentifier()).getGenotypicData();
+
+            Path snapshotPath = findSnapshot(path);
+
+            assertNotNull("Snapshot not written", snapshotPath);
+
+            // restored from snapshot
+            fileBasedDatasetServices = new FileBasedDatasetServices(path);
+
+            compareGenotypeVariantData(genotypicData, fileBasedDatasetServices
+                .getCoreHunterData(dataset.getUniqueIdentifier()).getGenotypicData());
+
+            // restored from original data if snapshot can not be read
+            Files.write(snapshotPath, "corrupt".getBytes(StandardCharsets.UTF_8));
+
+            fileBasedDatasetServices = new FileBasedDatasetServices(path);
+
+            compareGenotypeVariantData(genotypicData, fileBasedDatasetServices
+                .getCoreHunterData(dataset.getUniqueIdentifier()).getGenotypicData());
+
+            assertTrue("Snapshot not rewritten", Files.size(snapshotPath) > "corrupt".length());
+
+            fileBasedDatasetServices.removeData(dataset.getUniqueIdentifier());
+
+            assertFalse("Snapshot not removed with the data", Files.exists(snapshotPath));
+        } catch (Exception e) {
+            e.printStackTrace();
+
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRestoreDistanceCaches() {
+        try {
+            FileBasedDatasetServices fileBasedDatasetServices = new FileBasedDatasetServices(
+                createTempDirectory());
+
+            Path path = fileBasedDatasetServices.getPath();
+
+            Dataset dataset = new DatasetPojo(DATA_UID, DATASET_NAME);
+
+            fileBasedDatasetServices.addDataset(dataset);
+
+            Dataset addedDataset = fileBasedDatasetServices.getDataset(dataset.getUniqueIdentifier());
+
+            Path dataPath = Paths.get(ClassLoader.getSystemResource(FREQUENCY_GENOTYPIC_FILE).toURI());
+
+            fileBasedDatasetServices.loadData(addedDataset, dataPath, FileType.CSV,
+                CoreHunterDataType.GENOTYPIC);
+
+            CoreHunterData data = fileBasedDatasetServices.getCoreHunterData(dataset.getUniqueIdentifier());
+
+            DistanceCache cache = data.getDistanceCache(DISTANCES_KEY);
+
+            assertTrue("Distances not cached on disk", cache instanceof MappedDistanceCache);
+
+            Path cachePath = ((MappedDistanceCache) cache).getFile();
+
+            cache.put(0, 1, 0.5);
+            cache.close();
+
+            // restored from the cache file
+            fileBasedDatasetServices = new FileBasedDatasetServices(path);
+
+            CoreHunterData restoredData = fileBasedDatasetServices
+                .getCoreHunterData(dataset.getUniqueIdentifier());
+
+            assertEquals("Cached distance not restored", 0.5,
+                restoredData.getDistanceCache(DISTANCES_KEY).get(1, 0), PRECISION);
+
+            restoredData.clearDistanceCaches();
+
+            fileBasedDatasetServices.removeData(dataset.getUniqueIdentifier());
+
+            assertFalse("Distance cache not removed with the data", Files.exists(cachePath));
+        } catch (Exception e) {
+            e.printStackTrace();
+
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     public void testAddDatasetWithGenotypicData() {
         try {